@@ -7,7 +7,7 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableScheduling
-@EnableAsync
+@EnableAsync // executors: see config.AsyncConfig
 public class BackendApplication {
 
 	public static void main(String[] args) {
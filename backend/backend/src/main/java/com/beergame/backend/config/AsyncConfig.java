@@ -0,0 +1,97 @@
+package com.beergame.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Execution layer for everything that runs off the request thread.
+ *
+ * Previously @EnableAsync used Spring's default executor for every @Async
+ * method, and BotService.calculateOrder additionally hopped to
+ * ForkJoinPool.commonPool() for its HTTP call and Thread.sleep()-ed between
+ * retries. A slow bot service could therefore hold every async thread and
+ * delay every other @Async task (event listeners, bot orchestration) behind it.
+ *
+ * Now there are two virtual-thread Bulkheads, one per purpose:
+ *
+ *   asyncExecutor        default for plain @Async (event listeners, bot
+ *                        orchestration) — high limit, cheap to block in.
+ *   botHttpExecutor      every HTTP call to the bot service — bounded so a
+ *                        burst of bot turns cannot flood the ML service.
+ *
+ * Room advancement needs no executor: it runs inline in the transaction of
+ * the room's last order (TurnService.advanceRoomTurn).
+ *
+ * Limits are configured under app.executor.* in application.properties.
+ * Each Bulkhead bean is shut down through its inferred shutdown() method.
+ */
+@Configuration
+@Slf4j
+public class AsyncConfig implements AsyncConfigurer {
+
+    private final Bulkhead asyncBulkhead;
+    private final Bulkhead botHttpBulkhead;
+
+    public AsyncConfig(@Value("${app.executor.async.max-concurrency:1000}")        int asyncMax,
+                       @Value("${app.executor.async.queue-capacity:10000}")        int asyncQueue,
+                       @Value("${app.executor.bot-http.max-concurrency:32}")       int botMax,
+                       @Value("${app.executor.bot-http.queue-capacity:1000}")      int botQueue) {
+        this.asyncBulkhead       = new Bulkhead("async", asyncMax, asyncQueue);
+        this.botHttpBulkhead     = new Bulkhead("bot-http", botMax, botQueue);
+    }
+
+    // ── Executors ─────────────────────────────────────────────────────────────
+
+    @Bean
+    public Bulkhead asyncExecutor() {
+        return asyncBulkhead;
+    }
+
+    @Bean
+    public Bulkhead botHttpExecutor() {
+        return botHttpBulkhead;
+    }
+
+    /** Used by every @Async method that does not name an executor. */
+    @Override
+    public Executor getAsyncExecutor() {
+        return asyncBulkhead;
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (ex, method, params) ->
+                log.error("Uncaught exception in @Async {}.{}: {}",
+                        method.getDeclaringClass().getSimpleName(), method.getName(), ex.getMessage(), ex);
+    }
+
+    // ── Instrumentation ───────────────────────────────────────────────────────
+
+    public List<Bulkhead> bulkheads() {
+        return List.of(asyncBulkhead, botHttpBulkhead);
+    }
+
+    /**
+     * Logs queue depth, active count and task latency for each bulkhead.
+     * A non-empty queue here means that bulkhead's limit is the bottleneck.
+     */
+    @Scheduled(fixedDelayString = "${app.executor.stats-interval-ms:60000}")
+    public void logStats() {
+        for (Bulkhead bulkhead : bulkheads()) {
+            Bulkhead.Stats s = bulkhead.stats();
+            if (s.queued() > 0) {
+                log.warn("Executor {}", s);
+            } else {
+                log.debug("Executor {}", s);
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.beergame.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A named, bounded executor that runs every task on its own virtual thread.
+ *
+ * WHY?
+ * Virtual threads make blocking cheap (bot HTTP calls, retry sleeps, Redis
+ * lock back-off) but they do not limit how much work hits a downstream at
+ * once. A Bulkhead adds that limit:
+ *  - at most maxConcurrency tasks run at the same time (Semaphore);
+ *  - at most queueCapacity more may wait for a permit — beyond that the task
+ *    is rejected instead of piling up unbounded;
+ *  - each purpose gets its own Bulkhead — "async" for plain @Async and
+ *    "bot-http" for calls to the bot service (AsyncConfig) — so a slow bot
+ *    service can never starve the event listeners.
+ *
+ * Waiting for a permit parks a virtual thread, not a platform thread.
+ *
+ * Every Bulkhead tracks queue depth, active count and task latency (queue
+ * wait + run time); AsyncConfig logs a snapshot periodically.
+ */
+@Slf4j
+public final class Bulkhead implements Executor {
+
+    private final String name;
+    private final ExecutorService delegate;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final int queueCapacity;
+
+    // ── Metrics ───────────────────────────────────────────────────────────────
+    private final AtomicInteger pending   = new AtomicInteger(); // queued + running
+    private final AtomicInteger active    = new AtomicInteger();
+    private final LongAdder     completed = new LongAdder();
+    private final LongAdder     failed    = new LongAdder();
+    private final LongAdder     rejected  = new LongAdder();
+    private final LongAdder     waitNanos = new LongAdder();
+    private final LongAdder     runNanos  = new LongAdder();
+    private final AtomicLong    maxRunNanos = new AtomicLong();
+
+    public Bulkhead(String name, int maxConcurrency, int queueCapacity) {
+        this.name = name;
+        this.maxConcurrency = maxConcurrency;
+        this.queueCapacity = queueCapacity;
+        this.permits = new Semaphore(maxConcurrency);
+        this.delegate = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name(name + "-", 0).factory());
+    }
+
+    /** Point-in-time view of this bulkhead's counters. */
+    public record Stats(String name, int maxConcurrency, int queued, int active,
+                        long completed, long failed, long rejected,
+                        double avgWaitMs, double avgRunMs, double maxRunMs) {}
+
+    @Override
+    public void execute(Runnable task) {
+        submit(Executors.callable(task));
+    }
+
+    /**
+     * Submits a task. The returned Future supports cancel(true): the virtual
+     * thread is interrupted whether it is still waiting for a permit or
+     * already running.
+     *
+     * @throws RejectedExecutionException when queueCapacity tasks are already waiting
+     */
+    public <T> Future<T> submit(Callable<T> task) {
+        if (pending.incrementAndGet() > maxConcurrency + queueCapacity) {
+            pending.decrementAndGet();
+            rejected.increment();
+            throw new RejectedExecutionException(
+                    "Bulkhead '" + name + "' is full (" + maxConcurrency + " running, "
+                            + queueCapacity + " queued)");
+        }
+        long enqueuedAt = System.nanoTime();
+
+        // Whoever flips 'started' first owns the pending slot: the task body,
+        // or done() when the Future is cancelled before the body ever ran.
+        AtomicBoolean started = new AtomicBoolean();
+        FutureTask<T> future = new FutureTask<>(() -> {
+            if (!started.compareAndSet(false, true)) return null;
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                pending.decrementAndGet(); // cancelled while still queued
+                throw e;
+            }
+
+            long startedAt = System.nanoTime();
+            waitNanos.add(startedAt - enqueuedAt);
+            active.incrementAndGet();
+            try {
+                T result = task.call();
+                completed.increment();
+                return result;
+            } catch (Exception e) {
+                failed.increment();
+                throw e;
+            } finally {
+                long ran = System.nanoTime() - startedAt;
+                runNanos.add(ran);
+                maxRunNanos.accumulateAndGet(ran, Math::max);
+                active.decrementAndGet();
+                pending.decrementAndGet();
+                permits.release();
+            }
+        }) {
+            @Override
+            protected void done() {
+                if (started.compareAndSet(false, true)) pending.decrementAndGet();
+            }
+        };
+        delegate.execute(future);
+        return future;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public Stats stats() {
+        long done = completed.sum() + failed.sum();
+        int running = active.get();
+        return new Stats(name, maxConcurrency, Math.max(0, pending.get() - running), running,
+                completed.sum(), failed.sum(), rejected.sum(),
+                done == 0 ? 0 : waitNanos.sum() / 1e6 / done,
+                done == 0 ? 0 : runNanos.sum() / 1e6 / done,
+                maxRunNanos.get() / 1e6);
+    }
+
+    public void shutdown() {
+        delegate.shutdownNow();
+        log.info("Bulkhead '{}' shut down: {}", name, stats());
+    }
+}
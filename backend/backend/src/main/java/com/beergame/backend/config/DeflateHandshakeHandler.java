@@ -0,0 +1,162 @@
+package com.beergame.backend.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.websocket.Decoder;
+import jakarta.websocket.DeploymentException;
+import jakarta.websocket.Encoder;
+import jakarta.websocket.Extension;
+import jakarta.websocket.HandshakeResponse;
+import jakarta.websocket.server.HandshakeRequest;
+import jakarta.websocket.server.ServerEndpointConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.server.standard.TomcatRequestUpgradeStrategy;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decides per handshake whether permessage-deflate (RFC 7692) is negotiated.
+ *
+ * Tomcat implements the extension; compressed frames trade a little CPU per
+ * message for several-fold smaller RoomStateDTO / RoomResultDTO JSON, which
+ * matters on classroom Wi-Fi and mobile networks. app.websocket.deflate.enabled
+ * switches it off, e.g. to profile CPU or to rule it out when a proxy mangles
+ * compressed frames.
+ *
+ * WHY NOT JUST filterRequestedExtensions?
+ * Spring's accepted list never reaches Tomcat's negotiation: UpgradeUtil adds
+ * the container's installed extensions itself and hands them to
+ * ServerEndpointConfig.Configurator#getNegotiatedExtensions. So the switch
+ * lives in that configurator, wrapped around Spring's endpoint registration
+ * by {@link DeflateTogglingUpgradeStrategy}.
+ *
+ * Used for the raw WebSocket endpoint and for SockJS's websocket transport.
+ */
+@Component
+@Slf4j
+public class DeflateHandshakeHandler extends DefaultHandshakeHandler {
+
+    static final String PERMESSAGE_DEFLATE = "permessage-deflate";
+
+    private final boolean deflateEnabled;
+
+    public DeflateHandshakeHandler(@Value("${app.websocket.deflate.enabled:true}") boolean deflateEnabled) {
+        super(new DeflateTogglingUpgradeStrategy(deflateEnabled));
+        this.deflateEnabled = deflateEnabled;
+    }
+
+    @Override
+    @NonNull
+    protected List<WebSocketExtension> filterRequestedExtensions(@NonNull ServerHttpRequest request,
+                                                                 @NonNull List<WebSocketExtension> requested,
+                                                                 @NonNull List<WebSocketExtension> supported) {
+        // Keeps Spring's view (session.getExtensions()) in line with what Tomcat negotiates.
+        List<WebSocketExtension> accepted = super.filterRequestedExtensions(request, requested, supported);
+        if (!deflateEnabled) {
+            accepted = accepted.stream()
+                    .filter(ext -> !PERMESSAGE_DEFLATE.equalsIgnoreCase(ext.getName()))
+                    .toList();
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("WebSocket handshake from {}: offered {}, accepted {}",
+                    request.getRemoteAddress(), requested, accepted);
+        }
+        return accepted;
+    }
+
+    /** Strips the installed permessage-deflate before Tomcat negotiates, when disabled. */
+    static List<Extension> negotiable(boolean deflateEnabled, List<Extension> installed) {
+        if (deflateEnabled) {
+            return installed;
+        }
+        return installed.stream()
+                .filter(ext -> !PERMESSAGE_DEFLATE.equalsIgnoreCase(ext.getName()))
+                .toList();
+    }
+
+    // ── Tomcat hook ──
+
+    static final class DeflateTogglingUpgradeStrategy extends TomcatRequestUpgradeStrategy {
+
+        private final boolean deflateEnabled;
+
+        DeflateTogglingUpgradeStrategy(boolean deflateEnabled) {
+            this.deflateEnabled = deflateEnabled;
+        }
+
+        @Override
+        protected void upgradeHttpToWebSocket(HttpServletRequest request, HttpServletResponse response,
+                                              ServerEndpointConfig endpointConfig,
+                                              Map<String, String> pathParams) throws Exception {
+            ServerEndpointConfig config = deflateEnabled
+                    ? endpointConfig
+                    : new FilteringEndpointConfig(endpointConfig, deflateEnabled);
+            super.upgradeHttpToWebSocket(request, response, config, pathParams);
+        }
+    }
+
+    /** Delegates everything to Spring's registration except extension negotiation. */
+    static final class FilteringEndpointConfig implements ServerEndpointConfig {
+
+        private final ServerEndpointConfig delegate;
+        private final Configurator configurator;
+
+        FilteringEndpointConfig(ServerEndpointConfig delegate, boolean deflateEnabled) {
+            this.delegate = delegate;
+            this.configurator = new FilteringConfigurator(delegate.getConfigurator(), deflateEnabled);
+        }
+
+        @Override public Class<?> getEndpointClass() { return delegate.getEndpointClass(); }
+        @Override public String getPath() { return delegate.getPath(); }
+        @Override public List<String> getSubprotocols() { return delegate.getSubprotocols(); }
+        @Override public List<Extension> getExtensions() { return delegate.getExtensions(); }
+        @Override public Configurator getConfigurator() { return configurator; }
+        @Override public List<Class<? extends Encoder>> getEncoders() { return delegate.getEncoders(); }
+        @Override public List<Class<? extends Decoder>> getDecoders() { return delegate.getDecoders(); }
+        @Override public Map<String, Object> getUserProperties() { return delegate.getUserProperties(); }
+    }
+
+    static final class FilteringConfigurator extends ServerEndpointConfig.Configurator {
+
+        private final ServerEndpointConfig.Configurator delegate;
+        private final boolean deflateEnabled;
+
+        FilteringConfigurator(ServerEndpointConfig.Configurator delegate, boolean deflateEnabled) {
+            this.delegate = delegate;
+            this.deflateEnabled = deflateEnabled;
+        }
+
+        @Override
+        public List<Extension> getNegotiatedExtensions(List<Extension> installed, List<Extension> requested) {
+            return delegate.getNegotiatedExtensions(negotiable(deflateEnabled, installed), requested);
+        }
+
+        @Override
+        public String getNegotiatedSubprotocol(List<String> supported, List<String> requested) {
+            return delegate.getNegotiatedSubprotocol(supported, requested);
+        }
+
+        @Override
+        public boolean checkOrigin(String originHeaderValue) {
+            return delegate.checkOrigin(originHeaderValue);
+        }
+
+        @Override
+        public void modifyHandshake(ServerEndpointConfig sec, HandshakeRequest request, HandshakeResponse response) {
+            delegate.modifyHandshake(sec, request, response);
+        }
+
+        @Override
+        public <T> T getEndpointInstance(Class<T> clazz) throws InstantiationException {
+            return delegate.getEndpointInstance(clazz);
+        }
+    }
+}
@@ -37,9 +37,10 @@ public class JwtAuthChannelInterceptor implements ChannelInterceptor {
                 String jwt = authHeader.substring(7);
 
                 try {
-                    String username = jwtUtils.extractUsername(jwt);
+                    JwtUtils.VerifiedToken token = jwtUtils.verify(jwt);
 
-                    if (username != null && jwtUtils.validateToken(jwt, username)) {
+                    if (token != null) {
+                        String username = token.username();
                         UserDetails userDetails = userDetailsService.loadUserByUsername(username);
 
                         UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
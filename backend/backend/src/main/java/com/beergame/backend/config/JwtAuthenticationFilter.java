@@ -50,13 +50,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             String jwt = authHeader.substring(7);
-            String username = jwtUtils.extractUsername(jwt);
+            // Cached: one SHA-256 + map lookup after the token's first use.
+            JwtUtils.VerifiedToken token = jwtUtils.verify(jwt);
 
-            if (username != null &&
-                    SecurityContextHolder.getContext().getAuthentication() == null &&
-                    jwtUtils.validateToken(jwt, username)) {
+            if (token != null &&
+                    SecurityContextHolder.getContext().getAuthentication() == null) {
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                UserDetails userDetails = userDetailsService.loadUserByUsername(token.username());
 
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
@@ -0,0 +1,115 @@
+package com.beergame.backend.config;
+
+import com.beergame.backend.model.Game;
+import com.beergame.backend.model.GameRoom;
+import com.beergame.backend.repository.GameRepository;
+import com.beergame.backend.repository.GameRoomRepository;
+import com.beergame.backend.service.AdmissionControl;
+import com.beergame.backend.service.AfkDetectionService;
+import com.beergame.backend.service.RateLimiter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gauges and counters for state that lives outside the hot paths.
+ *
+ * Timers are recorded where the work happens:
+ *   beergame.turn.advance       TurnService          scope=game|room
+ *   beergame.order.place        OrderService /        scope=game|room (lock wait + transaction)
+ *                               GameService
+ *   beergame.lock.wait / .hold  RedisLockService     mode=blocking|reactive
+ *   beergame.bot.call           BotService           bot_type, outcome
+ *   beergame.outbox.lag         OutboxRelay          commit → Redis publish, per outbox type
+ *   beergame.broadcast.fanout   *Subscriber          Redis receive → WebSocket outbound queue
+ *
+ * Everything below is sampled at scrape time from counters the components
+ * already keep, except the active game / room counts: those are DB counts,
+ * refreshed every app.metrics.db-gauge-interval-ms rather than per scrape.
+ *
+ * Exposed at /actuator/prometheus.
+ */
+@Configuration
+@Slf4j
+public class MetricsConfig {
+
+    private final GameRepository     gameRepository;
+    private final GameRoomRepository gameRoomRepository;
+
+    private final AtomicLong activeGames = new AtomicLong();
+    private final AtomicLong activeRooms = new AtomicLong();
+
+    public MetricsConfig(GameRepository gameRepository, GameRoomRepository gameRoomRepository) {
+        this.gameRepository = gameRepository;
+        this.gameRoomRepository = gameRoomRepository;
+    }
+
+    @Bean
+    public MeterBinder beerGameMeters(AsyncConfig asyncConfig,
+                                      OutboundFlowControlInterceptor outbound,
+                                      AdmissionControl admissionControl,
+                                      RateLimiter rateLimiter,
+                                      ObjectProvider<AfkDetectionService> afkDetectionService) {
+        return registry -> {
+            // ── Executors ─────────────────────────────────────────────────────
+            for (Bulkhead b : asyncConfig.bulkheads()) {
+                Gauge.builder("beergame.executor.queued", b, x -> x.stats().queued())
+                        .tag("name", b.name()).register(registry);
+                Gauge.builder("beergame.executor.active", b, x -> x.stats().active())
+                        .tag("name", b.name()).register(registry);
+                FunctionCounter.builder("beergame.executor.completed", b, x -> x.stats().completed())
+                        .tag("name", b.name()).register(registry);
+                FunctionCounter.builder("beergame.executor.failed", b, x -> x.stats().failed())
+                        .tag("name", b.name()).register(registry);
+                FunctionCounter.builder("beergame.executor.rejected", b, x -> x.stats().rejected())
+                        .tag("name", b.name()).register(registry);
+            }
+
+            // ── WebSocket outbound ────────────────────────────────────────────
+            Gauge.builder("beergame.ws.outbound.pending", outbound, x -> x.stats().pendingFrames())
+                    .register(registry);
+            FunctionCounter.builder("beergame.ws.outbound.delivered", outbound, x -> x.stats().delivered())
+                    .register(registry);
+            FunctionCounter.builder("beergame.ws.outbound.conflated", outbound, x -> x.stats().conflated())
+                    .register(registry);
+            FunctionCounter.builder("beergame.ws.outbound.dropped", outbound, x -> x.stats().dropped())
+                    .register(registry);
+            FunctionCounter.builder("beergame.ws.outbound.terminated", outbound, x -> x.stats().terminated())
+                    .register(registry);
+
+            // ── Admission / rate limits ───────────────────────────────────────
+            Gauge.builder("beergame.admission.lock_wait_ewma", admissionControl, x -> x.stats().lockWaitMs())
+                    .baseUnit("milliseconds").register(registry);
+            Gauge.builder("beergame.admission.lock_wait_hottest", admissionControl, x -> x.stats().hottestLockWaitMs())
+                    .baseUnit("milliseconds").register(registry);
+            FunctionCounter.builder("beergame.admission.shed", admissionControl, x -> x.stats().shed())
+                    .register(registry);
+            FunctionCounter.builder("beergame.ratelimit.rejected", rateLimiter, RateLimiter::rejectedCount)
+                    .register(registry);
+
+            // ── Game state ────────────────────────────────────────────────────
+            Gauge.builder("beergame.games.active", activeGames, AtomicLong::get).register(registry);
+            Gauge.builder("beergame.rooms.active", activeRooms, AtomicLong::get).register(registry);
+            // Resolved lazily: AfkDetectionService → BotService needs the registry itself.
+            Gauge.builder("beergame.afk.backlog", afkDetectionService, x -> x.getObject().backlog())
+                    .register(registry);
+        };
+    }
+
+    @Scheduled(fixedDelayString = "${app.metrics.db-gauge-interval-ms:15000}")
+    public void refreshDbGauges() {
+        try {
+            activeGames.set(gameRepository.countByGameStatus(Game.GameStatus.IN_PROGRESS));
+            activeRooms.set(gameRoomRepository.countByStatus(GameRoom.RoomStatus.RUNNING));
+        } catch (Exception e) {
+            log.warn("Could not refresh active game / room gauges: {}", e.getMessage());
+        }
+    }
+}
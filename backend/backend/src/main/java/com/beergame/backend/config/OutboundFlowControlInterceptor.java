@@ -0,0 +1,196 @@
+package com.beergame.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Flow control for the clientOutboundChannel (broker → browser).
+ *
+ * WHY?
+ * The simple broker turns every broadcast into one outbound message per
+ * subscriber, queued on the outbound executor. A stalled browser blocks the
+ * thread flushing its socket; once enough of them stall, every session's
+ * frames pile up in the executor queue with no bound, including many game /
+ * room states that a newer one has already superseded.
+ *
+ * Per session this interceptor:
+ *  - CONFLATES state frames (/topic/game/{id}, /topic/room/{id}): at most one
+ *    such frame per destination waits in the queue; a newer state replaces
+ *    the waiting one, and the queued task sends whatever is newest when it
+ *    finally runs. Only the latest snapshot matters to the client.
+ *  - CAPS other frames (ACKs, presence, results) at
+ *    app.websocket.outbound.max-pending-per-session; beyond that they are
+ *    dropped rather than queued.
+ *
+ * The socket side is bounded by WebSocketConfig's send-time and send-buffer
+ * limits: a session that exceeds them is closed (SESSION_NOT_RELIABLE), and
+ * on reconnect SessionRegistry sends it a fresh snapshot.
+ *
+ * Delivered / conflated / dropped / terminated counts are logged periodically.
+ */
+@Component
+@Slf4j
+public class OutboundFlowControlInterceptor implements ExecutorChannelInterceptor {
+
+    private static final Pattern STATE_TOPIC = Pattern.compile("^/topic/(game|room)/[^/]+$");
+
+    private final int maxPendingPerSession;
+
+    /** sessionId → frames queued on the outbound executor for that session. */
+    private final Map<String, Integer> pending = new ConcurrentHashMap<>();
+
+    /** sessionId|destination → newest state frame not yet sent. */
+    private final Map<String, Message<?>> latest = new ConcurrentHashMap<>();
+
+    // ── Metrics ───────────────────────────────────────────────────────────────
+    private final LongAdder delivered  = new LongAdder();
+    private final LongAdder conflated  = new LongAdder();
+    private final LongAdder dropped    = new LongAdder();
+    private final LongAdder terminated = new LongAdder();
+
+    public OutboundFlowControlInterceptor(
+            @Value("${app.websocket.outbound.max-pending-per-session:64}") int maxPendingPerSession) {
+        this.maxPendingPerSession = maxPendingPerSession;
+    }
+
+    /** Point-in-time view of the counters. */
+    public record Stats(int sessionsWithBacklog, int pendingFrames, int conflationSlots,
+                        long delivered, long conflated, long dropped, long terminated) {}
+
+    // ───────────────────────────────────────────────────────────────────── //
+    //  Channel hooks
+    // ───────────────────────────────────────────────────────────────────── //
+
+    /** Caller (broker) thread: admit, conflate or drop before anything is queued. */
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(message);
+        String sessionId = headers.getSessionId();
+        if (sessionId == null || headers.getMessageType() != SimpMessageType.MESSAGE) {
+            return message;
+        }
+
+        String slot = slot(sessionId, headers.getDestination());
+        if (slot != null) {
+            if (latest.put(slot, message) != null) {
+                // A task for this destination is already queued; it will send this frame instead.
+                conflated.increment();
+                return null;
+            }
+        } else if (pending.getOrDefault(sessionId, 0) >= maxPendingPerSession) {
+            dropped.increment();
+            log.debug("Outbound: dropped frame to {} for slow session {}", headers.getDestination(), sessionId);
+            return null;
+        }
+
+        pending.merge(sessionId, 1, Integer::sum);
+        return message;
+    }
+
+    /** Queue rejected the task: undo the admission. */
+    @Override
+    public void afterSendCompletion(@NonNull Message<?> message, @NonNull MessageChannel channel,
+                                    boolean sent, Exception ex) {
+        if (ex == null) return;
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(message);
+        String sessionId = headers.getSessionId();
+        if (sessionId == null || headers.getMessageType() != SimpMessageType.MESSAGE) return;
+
+        String slot = slot(sessionId, headers.getDestination());
+        if (slot != null) latest.remove(slot);
+        release(sessionId);
+        dropped.increment();
+    }
+
+    /** Executor thread: swap in the newest state for this destination. */
+    @Override
+    public Message<?> beforeHandle(@NonNull Message<?> message, @NonNull MessageChannel channel,
+                                   @NonNull MessageHandler handler) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(message);
+        String sessionId = headers.getSessionId();
+        if (sessionId == null || headers.getMessageType() != SimpMessageType.MESSAGE) {
+            return message;
+        }
+        String slot = slot(sessionId, headers.getDestination());
+        if (slot == null) return message;
+
+        Message<?> newest = latest.remove(slot);
+        return newest != null ? newest : message;
+    }
+
+    @Override
+    public void afterMessageHandled(@NonNull Message<?> message, @NonNull MessageChannel channel,
+                                    @NonNull MessageHandler handler, Exception ex) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(message);
+        String sessionId = headers.getSessionId();
+        if (sessionId == null || headers.getMessageType() != SimpMessageType.MESSAGE) return;
+
+        release(sessionId);
+        delivered.increment();
+    }
+
+    // ───────────────────────────────────────────────────────────────────── //
+    //  Session lifecycle
+    // ───────────────────────────────────────────────────────────────────── //
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        String prefix = event.getSessionId() + "|";
+        latest.keySet().removeIf(slot -> slot.startsWith(prefix));
+
+        if (CloseStatus.SESSION_NOT_RELIABLE.equals(event.getCloseStatus())) {
+            terminated.increment();
+            log.warn("Outbound: closed slow WebSocket session {} (send time / buffer limit exceeded).",
+                    event.getSessionId());
+        }
+    }
+
+    // ───────────────────────────────────────────────────────────────────── //
+    //  Instrumentation
+    // ───────────────────────────────────────────────────────────────────── //
+
+    public Stats stats() {
+        return new Stats(pending.size(), pending.values().stream().mapToInt(Integer::intValue).sum(),
+                latest.size(), delivered.sum(), conflated.sum(), dropped.sum(), terminated.sum());
+    }
+
+    @Scheduled(fixedDelayString = "${app.executor.stats-interval-ms:60000}")
+    public void logStats() {
+        Stats s = stats();
+        if (s.dropped() > 0 || s.terminated() > 0) {
+            log.warn("Outbound {}", s);
+        } else {
+            log.debug("Outbound {}", s);
+        }
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private void release(String sessionId) {
+        pending.computeIfPresent(sessionId, (id, n) -> n > 1 ? n - 1 : null);
+    }
+
+    /** Conflation slot for state topics, null for every other destination. */
+    private static String slot(String sessionId, String destination) {
+        return destination != null && STATE_TOPIC.matcher(destination).matches()
+                ? sessionId + "|" + destination
+                : null;
+    }
+}
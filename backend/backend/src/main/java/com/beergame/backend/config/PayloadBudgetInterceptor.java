@@ -0,0 +1,112 @@
+package com.beergame.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Measures every payload published to the brokerChannel against a size
+ * budget, per destination.
+ *
+ * WHY?
+ * RoomStateDTO repeats every team and member on each change and
+ * RoomResultDTO carries per-team, per-player summaries. Nobody noticed how
+ * large they had grown because nothing measured them. This sits on the
+ * brokerChannel, so each publish is measured once — before the broker copies
+ * it to every subscriber.
+ *
+ * Destinations are grouped by template (/topic/room/{id},
+ * /queue/acks-user{session}, …) so the stats stay bounded no matter how many games exist. A payload over
+ * app.websocket.payload-budget-bytes is counted as oversized; the first one
+ * per destination, and every new maximum after it, is logged.
+ */
+@Component
+@Slf4j
+public class PayloadBudgetInterceptor implements ChannelInterceptor {
+
+    private static final Pattern ID_SEGMENT =
+            Pattern.compile("(?<=/(game|room|team)/)[^/]+");
+    private static final Pattern USER_SESSION = Pattern.compile("-user[^/]+$");
+
+    private final int budgetBytes;
+    private final Map<String, Usage> usage = new ConcurrentHashMap<>();
+
+    public PayloadBudgetInterceptor(@Value("${app.websocket.payload-budget-bytes:16384}") int budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    /** Running totals for one destination template. */
+    private static final class Usage {
+        final LongAdder  messages  = new LongAdder();
+        final LongAdder  bytes     = new LongAdder();
+        final LongAdder  oversized = new LongAdder();
+        final AtomicLong max       = new AtomicLong();
+    }
+
+    public record Stats(String destination, long messages, long avgBytes, long maxBytes, long oversized) {}
+
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        if (!(message.getPayload() instanceof byte[] payload)) return message;
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        // /user/{name}/… is re-sent as /queue/…-user{session}; measure that copy only.
+        if (destination == null || destination.startsWith("/user/")) return message;
+
+        String template = template(destination);
+        Usage u = usage.computeIfAbsent(template, d -> new Usage());
+        int size = payload.length;
+        u.messages.increment();
+        u.bytes.add(size);
+        long previousMax = u.max.getAndAccumulate(size, Math::max);
+
+        if (size > budgetBytes) {
+            u.oversized.increment();
+            if (size > previousMax) {
+                log.warn("Payload budget: {} bytes to {} exceeds the {}-byte budget ({} oversized so far).",
+                        size, destination, budgetBytes, u.oversized.sum());
+            }
+        }
+        return message;
+    }
+
+    public List<Stats> stats() {
+        return usage.entrySet().stream()
+                .map(e -> {
+                    Usage u = e.getValue();
+                    long n = u.messages.sum();
+                    return new Stats(e.getKey(), n, n == 0 ? 0 : u.bytes.sum() / n, u.max.get(), u.oversized.sum());
+                })
+                .sorted((a, b) -> Long.compare(b.maxBytes(), a.maxBytes()))
+                .toList();
+    }
+
+    @Scheduled(fixedDelayString = "${app.executor.stats-interval-ms:60000}")
+    public void logStats() {
+        for (Stats s : stats()) {
+            if (s.oversized() > 0) {
+                log.warn("Payload {}", s);
+            } else {
+                log.debug("Payload {}", s);
+            }
+        }
+    }
+
+    /** /topic/room/abc123/result → /topic/room/{id}/result, /queue/acks-user5x → /queue/acks-user{session} */
+    static String template(String destination) {
+        String t = ID_SEGMENT.matcher(destination).replaceAll("{id}");
+        return USER_SESSION.matcher(t).replaceAll("-user{session}");
+    }
+}
@@ -0,0 +1,37 @@
+package com.beergame.backend.config;
+
+import com.beergame.backend.service.AdmissionControl;
+import com.beergame.backend.service.RateLimiter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.security.Principal;
+
+/**
+ * Applies one rate-limit policy and one admission priority to the POST
+ * endpoints it is registered for (see WebMvcConfig). Rejections are thrown,
+ * so GlobalExceptionHandler renders them as 429 / 503 with Retry-After.
+ */
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RateLimiter rateLimiter;
+    private final AdmissionControl admissionControl;
+    private final RateLimiter.Policy policy;
+    private final AdmissionControl.Priority priority;
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                             @NonNull Object handler) {
+        if (!"POST".equalsIgnoreCase(request.getMethod())) return true;
+
+        // Admission first: a request shed for overload must not spend the caller's tokens.
+        admissionControl.admit(priority, request.getRequestURI());
+        Principal user = request.getUserPrincipal();
+        rateLimiter.enforce(policy, user != null ? user.getName() : null, request.getRemoteAddr());
+        return true;
+    }
+}
@@ -0,0 +1,25 @@
+package com.beergame.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Scheduler for the blocking end of the reactive order path.
+ *
+ * JPA / JDBC is blocking, so ReactiveOrderService hops onto this scheduler
+ * only for the order transaction itself. It is bounded to the JDBC pool
+ * size: more threads than connections would just queue inside Hikari, so
+ * excess work waits here instead, without holding a thread.
+ */
+@Configuration
+public class ReactiveConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler jpaScheduler(@Value("${app.reactive.jpa.threads:10}") int threads,
+                                  @Value("${app.reactive.jpa.queue-capacity:10000}") int queueCapacity) {
+        return Schedulers.newBoundedElastic(threads, queueCapacity, "jpa");
+    }
+}
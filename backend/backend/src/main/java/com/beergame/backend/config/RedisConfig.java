@@ -1,11 +1,15 @@
 package com.beergame.backend.config;
 
 import com.beergame.backend.dto.GameStateDTO;
+import com.beergame.backend.dto.PresenceDTO;
 import com.beergame.backend.dto.RoomResultDTO;
 import com.beergame.backend.dto.RoomStateDTO;
+import com.beergame.backend.dto.StateInvalidationDTO;
 import com.beergame.backend.service.GameStateSubscriber;
+import com.beergame.backend.service.PresenceSubscriber;
 import com.beergame.backend.service.RoomResultSubscriber;
 import com.beergame.backend.service.RoomStateSubscriber;
+import com.beergame.backend.service.StateInvalidationSubscriber;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
@@ -52,12 +56,30 @@ public class RedisConfig {
         return adapter;
     }
 
+    /** Listener adapter for state-invalidate:{kind} → evicts near-cache entries on this node */
+    @Bean
+    MessageListenerAdapter stateInvalidationListenerAdapter(StateInvalidationSubscriber subscriber) {
+        MessageListenerAdapter adapter = new MessageListenerAdapter(subscriber, "receiveMessage");
+        adapter.setSerializer(new Jackson2JsonRedisSerializer<>(StateInvalidationDTO.class));
+        return adapter;
+    }
+
+    /** Listener adapter for presence-updates:{scope}:{id} → forwards PresenceDTO */
+    @Bean
+    MessageListenerAdapter presenceListenerAdapter(PresenceSubscriber subscriber) {
+        MessageListenerAdapter adapter = new MessageListenerAdapter(subscriber, "receiveMessage");
+        adapter.setSerializer(new Jackson2JsonRedisSerializer<>(PresenceDTO.class));
+        return adapter;
+    }
+
     @Bean
     RedisMessageListenerContainer redisContainer(
             RedisConnectionFactory connectionFactory,
             MessageListenerAdapter gameListenerAdapter,
             MessageListenerAdapter roomListenerAdapter,
-            MessageListenerAdapter roomResultListenerAdapter) {
+            MessageListenerAdapter roomResultListenerAdapter,
+            MessageListenerAdapter stateInvalidationListenerAdapter,
+            MessageListenerAdapter presenceListenerAdapter) {
 
         RedisMessageListenerContainer container = new RedisMessageListenerContainer();
         container.setConnectionFactory(connectionFactory);
@@ -65,6 +87,8 @@ public class RedisConfig {
         container.addMessageListener(gameListenerAdapter,       new PatternTopic("game-updates:*"));
         container.addMessageListener(roomListenerAdapter,       new PatternTopic("room-updates:*"));
         container.addMessageListener(roomResultListenerAdapter, new PatternTopic("room-result:*"));
+        container.addMessageListener(stateInvalidationListenerAdapter, new PatternTopic("state-invalidate:*"));
+        container.addMessageListener(presenceListenerAdapter,   new PatternTopic("presence-updates:*"));
 
         return container;
     }
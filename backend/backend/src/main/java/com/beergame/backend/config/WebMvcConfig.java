@@ -0,0 +1,40 @@
+package com.beergame.backend.config;
+
+import com.beergame.backend.service.AdmissionControl;
+import com.beergame.backend.service.RateLimiter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import static com.beergame.backend.service.AdmissionControl.Priority.HIGH;
+import static com.beergame.backend.service.AdmissionControl.Priority.LOW;
+
+/**
+ * Rate limits and admission control for the REST write endpoints.
+ * STOMP orders are checked in GameSocketController.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final RateLimiter rateLimiter;
+    private final AdmissionControl admissionControl;
+
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        registry.addInterceptor(limit(RateLimiter.Policy.CREATE, LOW))
+                .addPathPatterns("/api/game/create", "/api/room/create");
+        registry.addInterceptor(limit(RateLimiter.Policy.JOIN, LOW))
+                .addPathPatterns("/api/game/*/join", "/api/room/*/join");
+        registry.addInterceptor(limit(RateLimiter.Policy.ADD_BOT, LOW))
+                .addPathPatterns("/api/game/*/addBot");
+        registry.addInterceptor(limit(RateLimiter.Policy.BATCH, HIGH))
+                .addPathPatterns("/api/game/orders/batch");
+    }
+
+    private RateLimitInterceptor limit(RateLimiter.Policy policy, AdmissionControl.Priority priority) {
+        return new RateLimitInterceptor(rateLimiter, admissionControl, policy, priority);
+    }
+}
@@ -1,32 +1,77 @@
 package com.beergame.backend.config;
 
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.lang.NonNull;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.web.socket.WebSocketHandler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.util.Map;
 
 @Configuration
 @EnableWebSocketMessageBroker
-@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    /** Session attribute holding the client address, for per-IP rate limits on STOMP frames. */
+    public static final String CLIENT_IP_ATTRIBUTE = "clientIp";
+
     private final JwtAuthChannelInterceptor jwtAuthChannelInterceptor;
+    private final OutboundFlowControlInterceptor outboundFlowControlInterceptor;
+    private final PayloadBudgetInterceptor payloadBudgetInterceptor;
+    private final DeflateHandshakeHandler deflateHandshakeHandler;
+
+    // Outbound limits — together they bound memory per node when clients stall
+    // (see OutboundFlowControlInterceptor).
+    private final int sendTimeLimitMs;
+    private final int sendBufferSizeLimit;
+    private final int messageSizeLimit;
+    private final int outboundThreads;
+    private final int outboundQueueCapacity;
+
+    public WebSocketConfig(JwtAuthChannelInterceptor jwtAuthChannelInterceptor,
+                           OutboundFlowControlInterceptor outboundFlowControlInterceptor,
+                           PayloadBudgetInterceptor payloadBudgetInterceptor,
+                           DeflateHandshakeHandler deflateHandshakeHandler,
+                           @Value("${app.websocket.send-time-limit-ms:5000}")          int sendTimeLimitMs,
+                           @Value("${app.websocket.send-buffer-size-limit:262144}")    int sendBufferSizeLimit,
+                           @Value("${app.websocket.message-size-limit:65536}")         int messageSizeLimit,
+                           @Value("${app.websocket.outbound.threads:16}")              int outboundThreads,
+                           @Value("${app.websocket.outbound.queue-capacity:20000}")    int outboundQueueCapacity) {
+        this.jwtAuthChannelInterceptor = jwtAuthChannelInterceptor;
+        this.outboundFlowControlInterceptor = outboundFlowControlInterceptor;
+        this.payloadBudgetInterceptor = payloadBudgetInterceptor;
+        this.deflateHandshakeHandler = deflateHandshakeHandler;
+        this.sendTimeLimitMs = sendTimeLimitMs;
+        this.sendBufferSizeLimit = sendBufferSizeLimit;
+        this.messageSizeLimit = messageSizeLimit;
+        this.outboundThreads = outboundThreads;
+        this.outboundQueueCapacity = outboundQueueCapacity;
+    }
 
     @Override
     public void configureMessageBroker(@NonNull MessageBrokerRegistry config) {
 
-        config.enableSimpleBroker("/topic");
+        // /queue carries per-user frames (e.g. /user/queue/acks for order ACKs)
+        config.enableSimpleBroker("/topic", "/queue");
         config.setApplicationDestinationPrefixes("/app");
+        // Every publish passes here once, before fan-out: measure it against the budget.
+        config.configureBrokerChannel().interceptors(payloadBudgetInterceptor);
     }
 
     @Override
     public void registerStompEndpoints(@NonNull StompEndpointRegistry registry) {
         registry
                 .addEndpoint("/ws")
+                .setHandshakeHandler(deflateHandshakeHandler)
+                .addInterceptors(new ClientIpHandshakeInterceptor())
                 .setAllowedOriginPatterns(
                         "http://localhost:3000",
                         "http://localhost:5173",
@@ -35,8 +80,52 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .withSockJS();
     }
 
+    /** Copies the client address into the STOMP session attributes. */
+    private static final class ClientIpHandshakeInterceptor implements HandshakeInterceptor {
+
+        @Override
+        public boolean beforeHandshake(@NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response,
+                                       @NonNull WebSocketHandler wsHandler, @NonNull Map<String, Object> attributes) {
+            if (request.getRemoteAddress() != null) {
+                attributes.put(CLIENT_IP_ATTRIBUTE, request.getRemoteAddress().getHostString());
+            }
+            return true;
+        }
+
+        @Override
+        public void afterHandshake(@NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response,
+                                   @NonNull WebSocketHandler wsHandler, Exception exception) {
+        }
+    }
+
     @Override
     public void configureClientInboundChannel(@NonNull ChannelRegistration registration) {
         registration.interceptors(jwtAuthChannelInterceptor);
     }
+
+    /**
+     * Fixed pool with a bounded queue. Per-session conflation and caps keep the
+     * queue short; the capacity is only the node-wide safety net.
+     */
+    @Override
+    public void configureClientOutboundChannel(@NonNull ChannelRegistration registration) {
+        registration.interceptors(outboundFlowControlInterceptor);
+        registration.taskExecutor()
+                .corePoolSize(outboundThreads)
+                .maxPoolSize(outboundThreads)
+                .queueCapacity(outboundQueueCapacity);
+    }
+
+    /**
+     * A session whose socket cannot take a frame within sendTimeLimit, or whose
+     * unsent backlog exceeds sendBufferSizeLimit bytes, is closed instead of
+     * buffering without limit.
+     */
+    @Override
+    public void configureWebSocketTransport(@NonNull WebSocketTransportRegistration registration) {
+        registration
+                .setSendTimeLimit(sendTimeLimitMs)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setMessageSizeLimit(messageSizeLimit);
+    }
 }
\ No newline at end of file
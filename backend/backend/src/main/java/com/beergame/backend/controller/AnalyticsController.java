@@ -0,0 +1,68 @@
+package com.beergame.backend.controller;
+
+import com.beergame.backend.dto.CohortAnalyticsDTO;
+import com.beergame.backend.dto.GameAnalyticsDTO;
+import com.beergame.backend.dto.RoomAnalyticsDTO;
+import com.beergame.backend.service.AnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Bullwhip, fill-rate, backlog and cost analytics, served from the
+ * precomputed GameRoleStats / CohortStats rows. See AnalyticsService.
+ */
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+
+    /**
+     * GET /api/analytics/game/{gameId}
+     * Per-role bullwhip ratio, fill rate, service level, peak backorder and
+     * cost split, plus the chain-level bullwhip ratio.
+     */
+    @GetMapping("/game/{gameId}")
+    public ResponseEntity<GameAnalyticsDTO> getGameAnalytics(@PathVariable String gameId,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        if (userDetails == null) {
+            return ResponseEntity.status(401).build();
+        }
+        return ResponseEntity.ok(analyticsService.getGameAnalytics(gameId.trim()));
+    }
+
+    /**
+     * GET /api/analytics/room/{roomId}
+     * Every game of the room plus per-team totals, ranked by cost.
+     */
+    @GetMapping("/room/{roomId}")
+    public ResponseEntity<RoomAnalyticsDTO> getRoomAnalytics(@PathVariable String roomId,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        if (userDetails == null) {
+            return ResponseEntity.status(401).build();
+        }
+        return ResponseEntity.ok(analyticsService.getRoomAnalytics(roomId.trim()));
+    }
+
+    /**
+     * GET /api/analytics/cohorts
+     * Humans vs each bot type, per role, over all finished games.
+     */
+    @GetMapping("/cohorts")
+    public ResponseEntity<List<CohortAnalyticsDTO>> getCohortAnalytics(
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        if (userDetails == null) {
+            return ResponseEntity.status(401).build();
+        }
+        return ResponseEntity.ok(analyticsService.getCohortAnalytics());
+    }
+}
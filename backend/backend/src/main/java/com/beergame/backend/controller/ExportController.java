@@ -0,0 +1,78 @@
+package com.beergame.backend.controller;
+
+import com.beergame.backend.model.Players;
+import com.beergame.backend.service.TurnExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Streaming bulk export of turn data. See TurnExportService.
+ * Restricted to users listed in app.export.operators.
+ */
+@RestController
+@RequestMapping("/api/export")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private final TurnExportService turnExportService;
+
+    /**
+     * GET /api/export/turns?format=csv&from=2026-09-01&to=2026-09-30&roomId=AB12CD&role=RETAILER
+     * Every turn of the games created between {@code from} and {@code to}
+     * (inclusive dates, both optional), optionally of one room and of the
+     * given roles (repeatable; default all). {@code format} is csv or
+     * columnar. The body is written while the rows are read.
+     */
+    @GetMapping("/turns")
+    public ResponseEntity<StreamingResponseBody> exportTurns(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String roomId,
+            @RequestParam(name = "role", required = false) Set<Players.RoleType> roles,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        if (userDetails == null) {
+            return ResponseEntity.status(401).build();
+        }
+        if (!turnExportService.isOperator(userDetails.getUsername())) {
+            return ResponseEntity.status(403).build();
+        }
+
+        TurnExportService.Format fmt;
+        try {
+            fmt = TurnExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown export format: " + format);
+        }
+        // Validate before the response is committed
+        TurnExportService.Filter filter = new TurnExportService.Filter(
+                (from != null ? from : LocalDate.of(1970, 1, 1)).atStartOfDay(),
+                (to != null ? to : LocalDate.of(9998, 12, 31)).plusDays(1).atStartOfDay(),
+                roomId == null || roomId.isBlank() ? null : roomId.trim(),
+                roles);
+
+        String fileName = fmt == TurnExportService.Format.CSV ? "turns.csv" : "turns.bgc";
+        MediaType type = fmt == TurnExportService.Format.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : MediaType.APPLICATION_OCTET_STREAM;
+
+        StreamingResponseBody body = out -> turnExportService.export(filter, fmt, out);
+        return ResponseEntity.ok()
+                .contentType(type)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+}
@@ -1,9 +1,13 @@
 package com.beergame.backend.controller;
 
 import com.beergame.backend.dto.AddBotRequestDTO;
+import com.beergame.backend.dto.BatchOrderRequestDTO;
+import com.beergame.backend.dto.BatchOrderResultDTO;
 import com.beergame.backend.dto.GameStateDTO;
 import com.beergame.backend.dto.JoinGameRequestDTO;
+import com.beergame.backend.dto.PlayerStateDTO;
 import com.beergame.backend.model.Game;
+import com.beergame.backend.service.BatchOrderService;
 import com.beergame.backend.service.GameService;
 import lombok.RequiredArgsConstructor;
 
@@ -13,12 +17,15 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/game")
 @RequiredArgsConstructor
 public class GameController {
 
     private final GameService gameService;
+    private final BatchOrderService batchOrderService;
 
     @PostMapping("/create")
     public ResponseEntity<GameStateDTO> createGame(
@@ -67,6 +74,22 @@ public class GameController {
         return ResponseEntity.ok(gameService.getGameHistory(gameId));
     }
 
+    /**
+     * GET /api/game/{gameId}/state?week=N
+     * Every player's state right after week N was played (0 = starting
+     * state), rebuilt from the game's event log.
+     */
+    @GetMapping("/{gameId}/state")
+    public ResponseEntity<List<PlayerStateDTO>> getStateAfterWeek(@PathVariable String gameId,
+            @RequestParam int week,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        if (userDetails == null) {
+            return ResponseEntity.status(401).build();
+        }
+        return ResponseEntity.ok(gameService.getStateAfterWeek(gameId, week));
+    }
+
     /**
      * GET /api/game/{gameId}
      * Returns the current GameStateDTO for a game.
@@ -84,6 +107,22 @@ public class GameController {
         return ResponseEntity.ok(gameService.getGameState(gameId));
     }
 
+    /**
+     * POST /api/game/orders/batch
+     * Orders for many (game, player) pairs — applied with one lock and one
+     * transaction per game / room. See BatchOrderService.
+     */
+    @PostMapping("/orders/batch")
+    public ResponseEntity<BatchOrderResultDTO> placeOrders(
+            @RequestBody @Validated BatchOrderRequestDTO request,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        if (userDetails == null) {
+            return ResponseEntity.status(401).build();
+        }
+        return ResponseEntity.ok(batchOrderService.submit(userDetails.getUsername(), request.orders()));
+    }
+
     @PostMapping("/{gameId}/addBot")
 public ResponseEntity<GameStateDTO> addBot(
         @PathVariable String gameId,
@@ -1,49 +1,153 @@
 package com.beergame.backend.controller;
 
+import com.beergame.backend.config.WebSocketConfig;
+import com.beergame.backend.dto.BatchOrderRequestDTO;
+import com.beergame.backend.dto.BatchOrderResultDTO;
+import com.beergame.backend.dto.OrderAckDTO;
 import com.beergame.backend.dto.OrderPayloadDTO;
-import com.beergame.backend.service.GameService;
-import lombok.RequiredArgsConstructor;
+import com.beergame.backend.exception.OverloadedException;
+import com.beergame.backend.exception.RateLimitExceededException;
+import com.beergame.backend.service.AdmissionControl;
+import com.beergame.backend.service.BatchOrderService;
+import com.beergame.backend.service.OrderIngestionService;
+import com.beergame.backend.service.OrderTracing;
+import com.beergame.backend.service.RateLimiter;
+import com.beergame.backend.service.ReactiveOrderService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.annotation.SendToUser;
 import org.springframework.stereotype.Controller;
 
 import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
-@RequiredArgsConstructor
 @Slf4j
 public class GameSocketController {
 
-    private final GameService gameService;
+    private final OrderIngestionService orderIngestionService;
+    private final ReactiveOrderService reactiveOrderService;
+    private final BatchOrderService batchOrderService;
+    private final RateLimiter rateLimiter;
+    private final AdmissionControl admissionControl;
+    private final OrderTracing orderTracing;
+    private final boolean reactiveOrders;
 
+    public GameSocketController(OrderIngestionService orderIngestionService,
+                                ReactiveOrderService reactiveOrderService,
+                                BatchOrderService batchOrderService,
+                                RateLimiter rateLimiter,
+                                AdmissionControl admissionControl,
+                                OrderTracing orderTracing,
+                                @Value("${app.orders.reactive.enabled:true}") boolean reactiveOrders) {
+        this.orderIngestionService = orderIngestionService;
+        this.reactiveOrderService = reactiveOrderService;
+        this.batchOrderService = batchOrderService;
+        this.rateLimiter = rateLimiter;
+        this.admissionControl = admissionControl;
+        this.orderTracing = orderTracing;
+        this.reactiveOrders = reactiveOrders;
+    }
+
+    /**
+     * Orders carrying a clientSeq are answered with an OrderAckDTO on
+     * /user/queue/acks (null result = no frame for legacy payloads).
+     *
+     * With app.orders.reactive.enabled the inbound thread returns at once and
+     * the ACK is sent when the future completes.
+     *
+     * Rate-limited or shed orders are answered REJECTED before any lock is taken.
+     * Accepted ones are traced through to the broadcast (see OrderTracing).
+     */
     @MessageMapping("/game/{gameId}/placeOrder")
-    public void placeOrder(@DestinationVariable("gameId") String gameId,
+    @SendToUser(destinations = "/queue/acks", broadcast = false)
+    public CompletableFuture<OrderAckDTO> placeOrder(@DestinationVariable("gameId") String gameId,
             @Payload OrderPayloadDTO payload,
-            Principal principal) {
+            Principal principal,
+            SimpMessageHeaderAccessor headers) {
 
         if (principal == null) {
 
             log.error("Cannot place order: user is not authenticated.");
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
         String username = principal.getName();
-        gameService.placeOrder(gameId, username, payload.orderAmount());
+        String rejection = admit(RateLimiter.Policy.ORDER, username, headers);
+        if (rejection != null) {
+            return CompletableFuture.completedFuture(rejected(gameId, payload, rejection));
+        }
+        return orderTracing.traceOrder("game", gameId, () -> reactiveOrders
+                ? reactiveOrderService.submitGameOrder(gameId, username, payload).contextCapture().toFuture()
+                : CompletableFuture.completedFuture(orderIngestionService.submitGameOrder(gameId, username, payload)));
     }
 
     @MessageMapping("/room/{roomId}/placeOrder")
-    public void placeRoomOrder(@DestinationVariable("roomId") String roomId,
+    @SendToUser(destinations = "/queue/acks", broadcast = false)
+    public CompletableFuture<OrderAckDTO> placeRoomOrder(@DestinationVariable("roomId") String roomId,
             @Payload OrderPayloadDTO payload,
-            Principal principal) {
+            Principal principal,
+            SimpMessageHeaderAccessor headers) {
 
         if (principal == null) {
             log.error("Cannot place room order: user is not authenticated.");
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
         String username = principal.getName();
-        gameService.submitRoomOrder(roomId, username, payload.orderAmount());
+        String rejection = admit(RateLimiter.Policy.ORDER, username, headers);
+        if (rejection != null) {
+            return CompletableFuture.completedFuture(rejected(roomId, payload, rejection));
+        }
+        return orderTracing.traceOrder("room", roomId, () -> reactiveOrders
+                ? reactiveOrderService.submitRoomOrder(roomId, username, payload).contextCapture().toFuture()
+                : CompletableFuture.completedFuture(orderIngestionService.submitRoomOrder(roomId, username, payload)));
+    }
+
+    /** STOMP twin of POST /api/game/orders/batch; results go to /user/queue/batch-results. */
+    @MessageMapping("/orders/batch")
+    @SendToUser(destinations = "/queue/batch-results", broadcast = false)
+    public BatchOrderResultDTO placeOrders(@Payload BatchOrderRequestDTO request, Principal principal,
+                                           SimpMessageHeaderAccessor headers) {
+        if (principal == null) {
+            log.error("Cannot place batch orders: user is not authenticated.");
+            return null;
+        }
+        String rejection = admit(RateLimiter.Policy.BATCH, principal.getName(), headers);
+        if (rejection != null) {
+            return new BatchOrderResultDTO(request.orders() == null ? List.of() : request.orders().stream()
+                    .map(e -> new BatchOrderResultDTO.Result(e.gameId(), e.username(),
+                            BatchOrderResultDTO.Status.REJECTED, rejection))
+                    .toList());
+        }
+        return batchOrderService.submit(principal.getName(), request.orders());
+    }
+
+    // ── Rate limits / admission ───────────────────────────────────────────────
+
+    /** Null when admitted, otherwise the reason to report to the client. */
+    private String admit(RateLimiter.Policy policy, String username, SimpMessageHeaderAccessor headers) {
+        Map<String, Object> attributes = headers.getSessionAttributes();
+        Object ip = attributes != null ? attributes.get(WebSocketConfig.CLIENT_IP_ATTRIBUTE) : null;
+        try {
+            // Admission first: a shed order must not spend the caller's tokens.
+            admissionControl.admit(AdmissionControl.Priority.HIGH, "order");
+            rateLimiter.enforce(policy, username, ip != null ? ip.toString() : null);
+            return null;
+        } catch (RateLimitExceededException | OverloadedException e) {
+            return e.getMessage();
+        }
+    }
+
+    /** REJECTED ack for orders that carry a clientSeq; legacy payloads get no frame. */
+    private static OrderAckDTO rejected(String id, OrderPayloadDTO payload, String message) {
+        return payload.clientSeq() == null ? null
+                : new OrderAckDTO(id, payload.week(), payload.clientSeq(), OrderAckDTO.Status.REJECTED, message);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,75 @@
+package com.beergame.backend.controller;
+
+import com.beergame.backend.dto.LeaderboardDTO;
+import com.beergame.backend.service.LeaderboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Global and per-period leaderboards. See LeaderboardService.
+ *
+ * {@code board}: "adjusted" (default) or a role name.
+ * {@code period}: "all" (default), "week", "month", or a past label such
+ * as "2026-W42" / "2026-10".
+ */
+@RestController
+@RequestMapping("/api/leaderboard")
+@RequiredArgsConstructor
+public class LeaderboardController {
+
+    private final LeaderboardService leaderboardService;
+
+    /**
+     * GET /api/leaderboard?board=adjusted&period=all&limit=10
+     * The best {@code limit} players of one board.
+     */
+    @GetMapping
+    public ResponseEntity<LeaderboardDTO> top(@RequestParam(defaultValue = "adjusted") String board,
+            @RequestParam(defaultValue = "all") String period,
+            @RequestParam(defaultValue = "10") int limit,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        if (userDetails == null) {
+            return ResponseEntity.status(401).build();
+        }
+        return ResponseEntity.ok(leaderboardService.top(board, period, limit));
+    }
+
+    /**
+     * GET /api/leaderboard/rank/{userName}?board=adjusted&period=all
+     * One player's rank and best score on one board.
+     */
+    @GetMapping("/rank/{userName}")
+    public ResponseEntity<LeaderboardDTO.Entry> rankOf(@PathVariable String userName,
+            @RequestParam(defaultValue = "adjusted") String board,
+            @RequestParam(defaultValue = "all") String period,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        if (userDetails == null) {
+            return ResponseEntity.status(401).build();
+        }
+        return ResponseEntity.ok(leaderboardService.rankOf(board, period, userName.trim()));
+    }
+
+    /**
+     * POST /api/leaderboard/rebuild
+     * Rebuilds the current boards from Postgres. Restricted to users listed
+     * in app.leaderboard.operators.
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuild(@AuthenticationPrincipal UserDetails userDetails) {
+
+        if (userDetails == null) {
+            return ResponseEntity.status(401).build();
+        }
+        if (!leaderboardService.isOperator(userDetails.getUsername())) {
+            return ResponseEntity.status(403).build();
+        }
+        return ResponseEntity.ok(Map.of("boardsRebuilt", leaderboardService.rebuild()));
+    }
+}
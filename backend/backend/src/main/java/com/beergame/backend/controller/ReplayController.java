@@ -0,0 +1,56 @@
+package com.beergame.backend.controller;
+
+import com.beergame.backend.dto.ReplayReportDTO;
+import com.beergame.backend.service.ReplayService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Replays recorded games against the current turn rules. See ReplayService.
+ * Restricted to users listed in app.replay.operators.
+ */
+@RestController
+@RequestMapping("/api/replay")
+@RequiredArgsConstructor
+public class ReplayController {
+
+    private final ReplayService replayService;
+
+    /**
+     * GET /api/replay/{gameId}
+     * Replays one game and lists its result, matched or not.
+     */
+    @GetMapping("/{gameId}")
+    public ResponseEntity<ReplayReportDTO> replayGame(@PathVariable String gameId,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        if (userDetails == null) {
+            return ResponseEntity.status(401).build();
+        }
+        if (!replayService.isOperator(userDetails.getUsername())) {
+            return ResponseEntity.status(403).build();
+        }
+        return ResponseEntity.ok(replayService.replayGame(gameId.trim()));
+    }
+
+    /**
+     * POST /api/replay?limit=N
+     * Replays the N most recently created fully-logged games; only games that
+     * did not match are listed.
+     */
+    @PostMapping
+    public ResponseEntity<ReplayReportDTO> replayRecent(@RequestParam(defaultValue = "1000") int limit,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        if (userDetails == null) {
+            return ResponseEntity.status(401).build();
+        }
+        if (!replayService.isOperator(userDetails.getUsername())) {
+            return ResponseEntity.status(403).build();
+        }
+        return ResponseEntity.ok(replayService.replayRecent(limit));
+    }
+}
@@ -4,8 +4,8 @@ import com.beergame.backend.dto.JoinRoomRequestDTO;
 import com.beergame.backend.dto.RoomStateDTO;
 import com.beergame.backend.model.GameRoom;
 import com.beergame.backend.model.Players;
-import com.beergame.backend.repository.GameRoomRepository;
 import com.beergame.backend.service.RoomManagerService;
+import com.beergame.backend.service.StateCacheService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -19,18 +19,18 @@ import org.springframework.web.bind.annotation.*;
 public class RoomController {
 
     private final RoomManagerService roomManagerService;
-    private final GameRoomRepository gameRoomRepository;
+    private final StateCacheService  stateCacheService;
 
     /**
      * GET /api/room/{roomId}
      * Lets a player (or the frontend) fetch the current room state at any time —
      * useful after a page reload, late join, or when building the lobby UI.
+     * Served from the near cache; a miss reads flat projections (no
+     * teams × players × games fetch).
      */
     @GetMapping("/{roomId}")
     public ResponseEntity<RoomStateDTO> getRoom(@PathVariable String roomId) {
-        GameRoom room = gameRoomRepository.findByIdWithAllData(roomId)
-                .orElseThrow(() -> new RuntimeException("Room not found: " + roomId));
-        return ResponseEntity.ok(RoomStateDTO.fromGameRoom(room));
+        return ResponseEntity.ok(stateCacheService.getRoomState(roomId));
     }
 
     @PostMapping("/create")
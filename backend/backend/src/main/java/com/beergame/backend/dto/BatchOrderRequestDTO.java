@@ -0,0 +1,23 @@
+package com.beergame.backend.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Orders for many (game, player) pairs in one request — used by classroom
+ * facilitators and bot farms (POST /api/game/orders/batch or STOMP
+ * /app/orders/batch).
+ */
+public record BatchOrderRequestDTO(
+        @NotEmpty @Size(max = 500) List<@Valid Entry> orders) {
+
+    /**
+     * @param week optional; when set the order is skipped if the game has
+     *             already moved past that week
+     */
+    public record Entry(@NotBlank String gameId, @NotBlank String username, int orderAmount, Integer week) {}
+}
@@ -0,0 +1,20 @@
+package com.beergame.backend.dto;
+
+import java.util.List;
+
+/**
+ * Per-entry outcome of a batch order submission, in request order.
+ */
+public record BatchOrderResultDTO(List<Result> results) {
+
+    public enum Status {
+        /** Order recorded (and the turn advanced if it completed the week). */
+        APPLIED,
+        /** Not applied, nothing wrong: already submitted, or stale week. */
+        SKIPPED,
+        /** Not applied: invalid, not permitted, or the group failed — see message. */
+        REJECTED
+    }
+
+    public record Result(String gameId, String username, Status status, String message) {}
+}
@@ -0,0 +1,18 @@
+package com.beergame.backend.dto;
+
+/**
+ * Averages over every finished game for one cohort (HUMAN or BOT_{type}) in
+ * one role. {@code meanBullwhip} is null if no game of the cohort had
+ * varying demand.
+ */
+public record CohortAnalyticsDTO(
+        String cohort,
+        String role,
+        long games,
+        Double meanBullwhip,
+        double fillRate,
+        double serviceLevel,
+        double meanPeakBackorder,
+        double meanHoldingCost,
+        double meanBackorderCost,
+        double meanTotalCost) {}
@@ -0,0 +1,20 @@
+package com.beergame.backend.dto;
+
+import java.util.List;
+
+/**
+ * Precomputed analytics for one game (AnalyticsService).
+ *
+ * {@code chainBullwhip} compares the manufacturer's orders with the
+ * customer demand the retailer saw: how much the whole chain amplified it.
+ */
+public record GameAnalyticsDTO(
+        String gameId,
+        String roomId,
+        int weeksPlayed,
+        boolean finished,
+        Double chainBullwhip,
+        double holdingCost,
+        double backorderCost,
+        double totalCost,
+        List<RoleAnalyticsDTO> roles) {}
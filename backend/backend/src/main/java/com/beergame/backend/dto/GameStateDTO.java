@@ -2,6 +2,7 @@ package com.beergame.backend.dto;
 
 import com.beergame.backend.config.GameConfig;
 import com.beergame.backend.model.Game;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
@@ -14,7 +15,18 @@ public record GameStateDTO(
         Game.GameStatus gameStatus,
         List<PlayerStateDTO> players,
         boolean isFestive,
-        List<Integer> festiveWeeks) {
+        List<Integer> festiveWeeks,
+        @JsonInclude(JsonInclude.Include.NON_NULL) TraceContextDTO trace) {
+
+    public GameStateDTO(String gameId, int currentWeek, Game.GameStatus gameStatus,
+                        List<PlayerStateDTO> players, boolean isFestive, List<Integer> festiveWeeks) {
+        this(gameId, currentWeek, gameStatus, players, isFestive, festiveWeeks, null);
+    }
+
+    /** Copy carrying {@code trace} on the Redis hop (null strips it again). */
+    public GameStateDTO withTrace(TraceContextDTO trace) {
+        return new GameStateDTO(gameId, currentWeek, gameStatus, players, isFestive, festiveWeeks, trace);
+    }
 
     public static GameStateDTO fromGame(Game game) {
         List<PlayerStateDTO> playerStates = game.getPlayers().stream()
@@ -0,0 +1,18 @@
+package com.beergame.backend.dto;
+
+import java.util.List;
+
+/**
+ * Top of one leaderboard (LeaderboardService). {@code board} is "adjusted"
+ * or a role name; {@code period} is "all", an ISO week ("2026-W42") or a
+ * month ("2026-10"). Scores are costs: lower ranks higher.
+ */
+public record LeaderboardDTO(
+        String board,
+        String period,
+        long players,
+        List<Entry> entries) {
+
+    /** {@code rank} is 1-based; ties keep Redis's lexicographic member order. */
+    public record Entry(long rank, String userName, double score) {}
+}
@@ -0,0 +1,21 @@
+package com.beergame.backend.dto;
+
+/**
+ * Reply to an order that carried a clientSeq, sent to the submitting user on
+ * /user/queue/acks.
+ *
+ * @param aggregateId gameId or roomId the order was sent to
+ * @param week        week from the request (may be null)
+ * @param clientSeq   the client's sequence number, echoed back
+ * @param status      ACCEPTED — processed (or ignored as stale / already ready);
+ *                    DUPLICATE — this (week, clientSeq) was already seen;
+ *                    REJECTED — processing failed, see message; safe to retry
+ */
+public record OrderAckDTO(String aggregateId, Integer week, Long clientSeq, Status status, String message) {
+
+    public enum Status {
+        ACCEPTED,
+        DUPLICATE,
+        REJECTED
+    }
+}
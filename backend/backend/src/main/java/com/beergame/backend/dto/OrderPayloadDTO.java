@@ -2,7 +2,17 @@ package com.beergame.backend.dto;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+/**
+ * Order submitted over STOMP.
+ *
+ * week and clientSeq are optional. A client that sends them gets an
+ * OrderAckDTO on /user/queue/acks, and retries carrying the same
+ * (week, clientSeq) are answered from the de-duplication window without
+ * reaching the lock or the database (see OrderIngestionService).
+ */
 public record OrderPayloadDTO(
-    @JsonProperty("orderAmount") int orderAmount
+    @JsonProperty("orderAmount") int orderAmount,
+    @JsonProperty("week") Integer week,
+    @JsonProperty("clientSeq") Long clientSeq
 ) {
 }
\ No newline at end of file
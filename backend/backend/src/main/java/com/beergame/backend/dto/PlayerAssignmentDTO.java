@@ -28,4 +28,15 @@ public class PlayerAssignmentDTO {
         dto.setReady(player.isReadyForOrder());
         return dto;
     }
+
+    public static PlayerAssignmentDTO of(String username, String initialTeamName, String gameId,
+                                         Players.RoleType assignedRole, boolean isReady) {
+        PlayerAssignmentDTO dto = new PlayerAssignmentDTO();
+        dto.setUsername(username);
+        dto.setInitialTeamName(initialTeamName);
+        dto.setGameId(gameId);
+        dto.setAssignedRole(assignedRole);
+        dto.setReady(isReady);
+        return dto;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.beergame.backend.dto;
+
+import java.util.List;
+
+/**
+ * Presence change for one game or room, published on the Redis channel
+ * {@code presence-updates:{scope}:{id}} and forwarded to
+ * /topic/game/{id}/presence or /topic/room/{id}/presence.
+ *
+ * @param scope       GAME or ROOM
+ * @param id          gameId / roomId
+ * @param username    the user whose presence changed
+ * @param online      true when the user's first subscription appeared, false when the last one went away
+ * @param onlineUsers everyone currently subscribed to this game / room, across all nodes
+ */
+public record PresenceDTO(Scope scope, String id, String username, boolean online, List<String> onlineUsers) {
+
+    public enum Scope {
+        GAME,
+        ROOM
+    }
+}
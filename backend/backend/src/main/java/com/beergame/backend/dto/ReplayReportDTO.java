@@ -0,0 +1,37 @@
+package com.beergame.backend.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of replaying recorded games through TurnEngine (ReplayService).
+ *
+ * Only games that did not match are listed in {@code games}, unless a single
+ * game was requested.
+ */
+public record ReplayReportDTO(
+        int gamesReplayed,
+        int gamesMatched,
+        int gamesDiverged,
+        int gamesSkipped,
+        long elapsedMillis,
+        double gamesPerSecond,
+        List<GameResult> games) {
+
+    public enum Outcome {
+        /** Every replayed GameTurn equals the persisted one. */
+        MATCHED,
+        /** At least one field, or a whole turn, differs. */
+        DIVERGED,
+        /** No usable log (never recorded, or recorded from mid-game). */
+        SKIPPED
+    }
+
+    public record GameResult(String gameId, Outcome outcome, int weeksReplayed,
+                             List<Mismatch> mismatches, String message) {}
+
+    /**
+     * One differing value. {@code field} is a GameTurn property, or "turn"
+     * when a week exists on only one side (expected/actual "present"/"missing").
+     */
+    public record Mismatch(int week, String role, String field, String expected, String actual) {}
+}
@@ -0,0 +1,27 @@
+package com.beergame.backend.dto;
+
+/**
+ * One role's figures for one game, derived from its GameRoleStats row.
+ *
+ * {@code bullwhip} is Var(orders placed) / Var(orders received); null while
+ * the incoming orders have not varied yet (the ratio is undefined).
+ * {@code fillRate} is shipped / demanded over the game, and
+ * {@code serviceLevel} the share of weeks that ended without a backorder.
+ */
+public record RoleAnalyticsDTO(
+        String role,
+        String userName,
+        String teamName,
+        String cohort,
+        int weeks,
+        double meanOrder,
+        double orderVariance,
+        double meanDemand,
+        double demandVariance,
+        Double bullwhip,
+        double fillRate,
+        double serviceLevel,
+        int peakBackorder,
+        double holdingCost,
+        double backorderCost,
+        double totalCost) {}
@@ -0,0 +1,24 @@
+package com.beergame.backend.dto;
+
+import java.util.List;
+
+/**
+ * Precomputed analytics for a 16-player room: each of its four games, plus
+ * each lobby team's totals across the games its players were spread over.
+ * Teams are ranked by total cost ascending, like RoomResultDTO.
+ */
+public record RoomAnalyticsDTO(
+        String roomId,
+        List<TeamAnalytics> teams,
+        List<GameAnalyticsDTO> games) {
+
+    public record TeamAnalytics(
+            int rank,
+            String teamName,
+            Double meanBullwhip,
+            double fillRate,
+            int peakBackorder,
+            double holdingCost,
+            double backorderCost,
+            double totalCost) {}
+}
@@ -6,10 +6,11 @@ import lombok.Data;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Data
 public class RoomStateDTO {
@@ -35,36 +36,50 @@ public class RoomStateDTO {
     // ─── Factory ───────────────────────────────────────────────────────────────
 
     public static RoomStateDTO fromGameRoom(GameRoom room) {
-        RoomStateDTO dto = new RoomStateDTO();
-        dto.setRoomId(room.getId());
-        dto.setRoomStatus(room.getStatus());
-
         // currentWeek is 0 while room is still in WAITING (no games yet)
         boolean hasGames = room.getGames() != null && !room.getGames().isEmpty();
-        dto.setCurrentWeek(hasGames ? room.getGames().iterator().next().getCurrentWeek() : 0);
+        int currentWeek = hasGames ? room.getGames().iterator().next().getCurrentWeek() : 0;
+
+        Map<String, List<PlayerAssignmentDTO>> membersByTeam = new LinkedHashMap<>();
+        if (room.getTeams() != null) {
+            room.getTeams().forEach(team -> membersByTeam.put(team.getTeamName(),
+                    (team.getPlayers() != null)
+                            ? team.getPlayers().stream()
+                                    .map(PlayerAssignmentDTO::fromPlayer)
+                                    .collect(Collectors.toList())
+                            : Collections.emptyList()));
+        }
+
+        return of(room.getId(), room.getStatus(), currentWeek, membersByTeam);
+    }
+
+    /**
+     * Builds the DTO from already-flattened values. Used by the projection
+     * read path (ReadModelService), which never loads GameRoom entities.
+     *
+     * @param membersByTeam team name → members, in display order
+     */
+    public static RoomStateDTO of(String roomId, GameRoom.RoomStatus status, int currentWeek,
+                                  Map<String, List<PlayerAssignmentDTO>> membersByTeam) {
+        RoomStateDTO dto = new RoomStateDTO();
+        dto.setRoomId(roomId);
+        dto.setRoomStatus(status);
+        dto.setCurrentWeek(currentWeek);
 
         List<Players.RoleType> ALL_ROLES = Arrays.asList(Players.RoleType.values());
 
-        List<TeamSlotDTO> teamSlots = (room.getTeams() != null
-                ? room.getTeams().stream()
-                : Stream.<com.beergame.backend.model.Team>empty())
-                .map(team -> {
+        List<TeamSlotDTO> teamSlots = membersByTeam.entrySet().stream()
+                .map(entry -> {
                     TeamSlotDTO slot = new TeamSlotDTO();
-                    slot.setTeamName(team.getTeamName());
+                    slot.setTeamName(entry.getKey());
 
-                    List<PlayerAssignmentDTO> members = (team.getPlayers() != null)
-                            ? team.getPlayers().stream()
-                                    .map(PlayerAssignmentDTO::fromPlayer)
-                                    .collect(Collectors.toList())
-                            : Collections.emptyList();
+                    List<PlayerAssignmentDTO> members = entry.getValue();
                     slot.setMembers(members);
 
                     // Compute which roles are NOT yet taken on this team
-                    Set<Players.RoleType> takenRoles = (team.getPlayers() != null)
-                            ? team.getPlayers().stream()
-                                    .map(p -> p.getRole())
-                                    .collect(Collectors.toSet())
-                            : Collections.emptySet();
+                    Set<Players.RoleType> takenRoles = members.stream()
+                            .map(PlayerAssignmentDTO::getAssignedRole)
+                            .collect(Collectors.toSet());
 
                     List<Players.RoleType> available = ALL_ROLES.stream()
                             .filter(r -> !takenRoles.contains(r))
@@ -84,4 +99,4 @@ public class RoomStateDTO {
 
         return dto;
     }
-}
\ No newline at end of file
+}
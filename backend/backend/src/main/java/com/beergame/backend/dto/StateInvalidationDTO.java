@@ -0,0 +1,22 @@
+package com.beergame.backend.dto;
+
+/**
+ * Cross-node cache invalidation notice, published on the Redis channel
+ * {@code state-invalidate:{kind}} whenever a node changes game or room state,
+ * or a user account is renamed / deleted.
+ *
+ * @param kind    GAME, ROOM or USER
+ * @param id      gameId / roomId / username
+ * @param version Game @Version after the write, for logs only; null when
+ *                unknown. Receivers always evict: player/turn writes do not
+ *                bump the Game version, so it cannot order snapshots
+ * @param origin  node id of the publisher, so a node can skip its own notices
+ */
+public record StateInvalidationDTO(Kind kind, String id, Long version, String origin) {
+
+    public enum Kind {
+        GAME,
+        ROOM,
+        USER
+    }
+}
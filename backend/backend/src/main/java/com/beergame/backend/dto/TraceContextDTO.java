@@ -0,0 +1,16 @@
+package com.beergame.backend.dto;
+
+/**
+ * Order trace carried from the outbox relay to GameStateSubscriber inside the
+ * Redis payload; removed before the frame is sent to browsers.
+ *
+ * @param traceparent W3C traceparent of the order that caused the broadcast
+ * @param submittedAt epoch millis when GameSocketController received the order
+ * @param publishedAt epoch millis when the relay published the state to Redis
+ */
+public record TraceContextDTO(String traceparent, long submittedAt, Long publishedAt) {
+
+    public TraceContextDTO withPublishedAt(long publishedAt) {
+        return new TraceContextDTO(traceparent, submittedAt, publishedAt);
+    }
+}
@@ -0,0 +1,27 @@
+package com.beergame.backend.event;
+
+import com.beergame.backend.dto.PresenceDTO;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Map;
+
+/**
+ * Published by SessionRegistry when a user's last WebSocket session closed
+ * and they did not reconnect within the grace period.
+ * AfkDetectionService listens and orders for them right away.
+ * Breaks: SessionRegistry → AfkDetectionService
+ */
+@Getter
+public class PlayerDisconnectedEvent extends ApplicationEvent {
+
+    private final String username;
+    /** Games / rooms the closed session was subscribed to: id → scope. */
+    private final Map<String, PresenceDTO.Scope> aggregates;
+
+    public PlayerDisconnectedEvent(Object source, String username, Map<String, PresenceDTO.Scope> aggregates) {
+        super(source);
+        this.username   = username;
+        this.aggregates = aggregates;
+    }
+}
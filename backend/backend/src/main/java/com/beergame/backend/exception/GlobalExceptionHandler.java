@@ -2,6 +2,7 @@ package com.beergame.backend.exception;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -49,6 +50,18 @@ public class GlobalExceptionHandler {
         return build(HttpStatus.NOT_FOUND, "User not found");
     }
 
+    // ── Rate limits / admission control ───────────────────────────────────────
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleRateLimit(RateLimitExceededException ex) {
+        return withRetryAfter(build(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage()), ex.getRetryAfterSeconds());
+    }
+
+    @ExceptionHandler(OverloadedException.class)
+    public ResponseEntity<Map<String, Object>> handleOverloaded(OverloadedException ex) {
+        return withRetryAfter(build(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage()), ex.getRetryAfterSeconds());
+    }
+
     // ── Security ──────────────────────────────────────────────────────────────
 
     @ExceptionHandler(BadCredentialsException.class)
@@ -139,4 +152,11 @@ public class GlobalExceptionHandler {
         body.put("message",   message);
         return ResponseEntity.status(status).body(body);
     }
+
+    private ResponseEntity<Map<String, Object>> withRetryAfter(ResponseEntity<Map<String, Object>> response,
+                                                               long seconds) {
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(seconds))
+                .body(response.getBody());
+    }
 }
@@ -0,0 +1,15 @@
+package com.beergame.backend.exception;
+
+import lombok.Getter;
+
+/** Admission control shed the request; mapped to HTTP 503 with Retry-After. */
+@Getter
+public class OverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public OverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
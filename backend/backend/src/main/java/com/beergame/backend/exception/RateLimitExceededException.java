@@ -0,0 +1,15 @@
+package com.beergame.backend.exception;
+
+import lombok.Getter;
+
+/** A caller exhausted its token bucket; mapped to HTTP 429 with Retry-After. */
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,91 @@
+package com.beergame.backend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+/**
+ * Totals over every finished game for one (cohort, role): HUMAN players vs
+ * each bot type, per supply-chain position.
+ *
+ * Written only by GameRoleStatsRepository.foldIntoCohort — an INSERT … ON
+ * CONFLICT DO UPDATE that adds a finished game's row — so concurrent game
+ * finishes never read-modify-write the same row.
+ *
+ * MIGRATION:
+ *   CREATE TABLE cohort_stats (
+ *       id                 BIGSERIAL    PRIMARY KEY,
+ *       cohort             VARCHAR(32)  NOT NULL,
+ *       role               VARCHAR(16)  NOT NULL,
+ *       games              BIGINT       NOT NULL,
+ *       bullwhip_games     BIGINT       NOT NULL,
+ *       bullwhip_sum       DOUBLE PRECISION NOT NULL,
+ *       weeks              BIGINT       NOT NULL,
+ *       weeks_in_stock     BIGINT       NOT NULL,
+ *       demand_sum         BIGINT       NOT NULL,
+ *       shipped_sum        BIGINT       NOT NULL,
+ *       peak_backorder_sum BIGINT       NOT NULL,
+ *       holding_cost       DOUBLE PRECISION NOT NULL,
+ *       backorder_cost     DOUBLE PRECISION NOT NULL,
+ *       total_cost         DOUBLE PRECISION NOT NULL,
+ *       CONSTRAINT uk_cohort_stats UNIQUE (cohort, role)
+ *   );
+ */
+@Data
+@Entity
+@Table(name = "cohort_stats",
+        uniqueConstraints = @UniqueConstraint(name = "uk_cohort_stats", columnNames = {"cohort", "role"}))
+public class CohortStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cohort", nullable = false, length = 32)
+    private String cohort;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "role", nullable = false, length = 16)
+    private Players.RoleType role;
+
+    @Column(name = "games", nullable = false)
+    private long games;
+
+    /** Games whose bullwhip ratio was defined (demand varied). */
+    @Column(name = "bullwhipGames", nullable = false)
+    private long bullwhipGames;
+
+    @Column(name = "bullwhipSum", nullable = false)
+    private double bullwhipSum;
+
+    @Column(name = "weeks", nullable = false)
+    private long weeks;
+
+    @Column(name = "weeksInStock", nullable = false)
+    private long weeksInStock;
+
+    @Column(name = "demandSum", nullable = false)
+    private long demandSum;
+
+    @Column(name = "shippedSum", nullable = false)
+    private long shippedSum;
+
+    @Column(name = "peakBackorderSum", nullable = false)
+    private long peakBackorderSum;
+
+    @Column(name = "holdingCost", nullable = false)
+    private double holdingCost;
+
+    @Column(name = "backorderCost", nullable = false)
+    private double backorderCost;
+
+    @Column(name = "totalCost", nullable = false)
+    private double totalCost;
+}
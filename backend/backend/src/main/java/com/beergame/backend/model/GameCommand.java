@@ -0,0 +1,98 @@
+package com.beergame.backend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * One entry of a game's append-only command log: every input that can change
+ * the outcome of a game, in the order the game accepted it.
+ *
+ * Written by CommandLog in the same transaction as the change itself, so the
+ * log holds exactly the commands that committed. Rows are never updated;
+ * ReplayService re-runs them through TurnEngine and diffs the result against
+ * the persisted GameTurn rows.
+ *
+ * Order within a game is (week, type, id): ids come from a pooled sequence
+ * (allocationSize 50, so a turn's inserts batch) and are therefore only
+ * ordered per node — but commands of one week never depend on each other's
+ * order, only on the week they belong to.
+ *
+ * MIGRATION:
+ *   CREATE SEQUENCE game_command_seq INCREMENT BY 50;
+ *   CREATE TABLE game_command (
+ *       id            BIGINT      PRIMARY KEY,
+ *       game_id       VARCHAR(10) NOT NULL,
+ *       type          VARCHAR(16) NOT NULL,
+ *       week          INT         NOT NULL,
+ *       user_name     VARCHAR(255),
+ *       role          VARCHAR(16),
+ *       amount        INT,
+ *       detail        VARCHAR(128),
+ *       recorded_at   BIGINT      NOT NULL
+ *   );
+ *   CREATE INDEX idx_game_command_game ON game_command (game_id);
+ */
+@Data
+@Entity
+@Table(name = "game_command", indexes = @Index(name = "idx_game_command_game", columnList = "gameId"))
+public class GameCommand {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "game_command_seq")
+    @SequenceGenerator(name = "game_command_seq", sequenceName = "game_command_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "gameId", nullable = false, length = 10)
+    private String gameId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 16)
+    private Type type;
+
+    /** Game week the command was accepted in. */
+    @Column(name = "week", nullable = false)
+    private int week;
+
+    /** Player the command is about; null for GAME_CREATED / TURN. */
+    @Column(name = "userName")
+    private String userName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "role", length = 16)
+    private Players.RoleType role;
+
+    /** Order amount for ORDER; null otherwise. */
+    @Column(name = "amount")
+    private Integer amount;
+
+    /** GAME_CREATED: festive weeks ("3,11,19"); BOT_ADDED: bot type. */
+    @Column(name = "detail", length = 128)
+    private String detail;
+
+    /** Epoch millis on the node that accepted the command. */
+    @Column(name = "recordedAt", nullable = false)
+    private long recordedAt;
+
+    /** Declaration order is replay order within a week. */
+    public enum Type {
+        /** Game row created; detail carries its festive weeks. */
+        GAME_CREATED,
+        /** A human took a role (lobby join or room start). */
+        PLAYER_JOINED,
+        /** A bot took a role. */
+        BOT_ADDED,
+        /** A player's order for the command's week. */
+        ORDER,
+        /** All orders in: the command's week was played. */
+        TURN
+    }
+}
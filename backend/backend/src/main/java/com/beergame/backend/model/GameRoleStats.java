@@ -0,0 +1,124 @@
+package com.beergame.backend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+/**
+ * Running aggregates for one role of one game, updated by AnalyticsService
+ * in the same transaction as every turn.
+ *
+ * Only sums are stored, so each week is an O(1) update and every derived
+ * figure (means, variances, bullwhip ratio, fill rate, service level) is
+ * computed at read time from one row. Order values are ints and at most
+ * GameConfig.GAME_WEEKS weeks are summed, so the long sums of squares are
+ * exact.
+ *
+ * MIGRATION:
+ *   CREATE SEQUENCE game_role_stats_seq INCREMENT BY 50;
+ *   CREATE TABLE game_role_stats (
+ *       id               BIGINT       PRIMARY KEY,
+ *       game_id          VARCHAR(10)  NOT NULL,
+ *       room_id          VARCHAR(10),
+ *       role             VARCHAR(16)  NOT NULL,
+ *       user_name        VARCHAR(255),
+ *       team_name        VARCHAR(255),
+ *       cohort           VARCHAR(32)  NOT NULL,
+ *       weeks            INT          NOT NULL,
+ *       order_sum        BIGINT       NOT NULL,
+ *       order_sum_sq     BIGINT       NOT NULL,
+ *       demand_sum       BIGINT       NOT NULL,
+ *       demand_sum_sq    BIGINT       NOT NULL,
+ *       shipped_sum      BIGINT       NOT NULL,
+ *       weeks_in_stock   INT          NOT NULL,
+ *       peak_backorder   INT          NOT NULL,
+ *       holding_cost     DOUBLE PRECISION NOT NULL,
+ *       backorder_cost   DOUBLE PRECISION NOT NULL,
+ *       total_cost       DOUBLE PRECISION NOT NULL,
+ *       finished         BOOLEAN      NOT NULL,
+ *       CONSTRAINT uk_game_role_stats UNIQUE (game_id, role)
+ *   );
+ *   CREATE INDEX idx_game_role_stats_room ON game_role_stats (room_id);
+ */
+@Data
+@Entity
+@Table(name = "game_role_stats",
+        uniqueConstraints = @UniqueConstraint(name = "uk_game_role_stats", columnNames = {"gameId", "role"}),
+        indexes = @Index(name = "idx_game_role_stats_room", columnList = "roomId"))
+public class GameRoleStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "game_role_stats_seq")
+    @SequenceGenerator(name = "game_role_stats_seq", sequenceName = "game_role_stats_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "gameId", nullable = false, length = 10)
+    private String gameId;
+
+    /** Null for single games. */
+    @Column(name = "roomId", length = 10)
+    private String roomId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "role", nullable = false, length = 16)
+    private Players.RoleType role;
+
+    @Column(name = "userName")
+    private String userName;
+
+    /** Room games: the player's lobby team; null otherwise. */
+    @Column(name = "teamName")
+    private String teamName;
+
+    /** HUMAN or BOT_{botType} — the group CohortStats aggregates this row into. */
+    @Column(name = "cohort", nullable = false, length = 32)
+    private String cohort;
+
+    @Column(name = "weeks", nullable = false)
+    private int weeks;
+
+    @Column(name = "orderSum", nullable = false)
+    private long orderSum;
+
+    @Column(name = "orderSumSq", nullable = false)
+    private long orderSumSq;
+
+    /** Orders received (customer demand for the retailer). */
+    @Column(name = "demandSum", nullable = false)
+    private long demandSum;
+
+    @Column(name = "demandSumSq", nullable = false)
+    private long demandSumSq;
+
+    @Column(name = "shippedSum", nullable = false)
+    private long shippedSum;
+
+    /** Weeks that ended without a backorder. */
+    @Column(name = "weeksInStock", nullable = false)
+    private int weeksInStock;
+
+    @Column(name = "peakBackorder", nullable = false)
+    private int peakBackorder;
+
+    @Column(name = "holdingCost", nullable = false)
+    private double holdingCost;
+
+    @Column(name = "backorderCost", nullable = false)
+    private double backorderCost;
+
+    @Column(name = "totalCost", nullable = false)
+    private double totalCost;
+
+    /** Set when the game finishes and the row is folded into CohortStats. */
+    @Column(name = "finished", nullable = false)
+    private boolean finished;
+}
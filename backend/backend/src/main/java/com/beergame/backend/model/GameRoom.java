@@ -12,15 +12,29 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.ToString;
+import org.springframework.data.domain.Persistable;
 
+/**
+ * The id is assigned (IdAllocator) and there is no @Version, so Spring Data
+ * cannot tell a new room from a detached one and save() would merge —
+ * silently overwriting an existing row with the same id. Persistable makes
+ * save() persist new rooms, so a duplicate id fails on the primary key.
+ */
 @Data
 @Entity
 @Table(name = "gameRoom")
-public class GameRoom {
+public class GameRoom implements Persistable<String> {
 
     @Id
     @Column(length=10)
@@ -46,6 +60,25 @@ public class GameRoom {
     @Column(name = "finishedAt")
     private LocalDateTime finishedAt;
 
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean newRoom = true;
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return newRoom;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        newRoom = false;
+    }
+
     public enum RoomStatus {
         WAITING,
         RUNNING,
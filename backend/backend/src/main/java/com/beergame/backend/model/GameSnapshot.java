@@ -0,0 +1,51 @@
+package com.beergame.backend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+/**
+ * All four players' state right after {@link #week} was played, written
+ * every app.events.snapshot-every-weeks weeks so rebuilding a late week folds
+ * at most that many GameWeekEvents instead of the whole game.
+ *
+ * {@link #state} is a fixed binary layout, see GameEventStore.encode — about
+ * 200 bytes per snapshot.
+ *
+ * MIGRATION:
+ *   CREATE SEQUENCE game_snapshot_seq INCREMENT BY 50;
+ *   CREATE TABLE game_snapshot (
+ *       id       BIGINT      PRIMARY KEY,
+ *       game_id  VARCHAR(10) NOT NULL,
+ *       week     INT         NOT NULL,
+ *       state    BYTEA       NOT NULL,
+ *       CONSTRAINT uk_game_snapshot UNIQUE (game_id, week)
+ *   );
+ */
+@Data
+@Entity
+@Table(name = "game_snapshot",
+        uniqueConstraints = @UniqueConstraint(name = "uk_game_snapshot", columnNames = {"gameId", "week"}))
+public class GameSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "game_snapshot_seq")
+    @SequenceGenerator(name = "game_snapshot_seq", sequenceName = "game_snapshot_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "gameId", nullable = false, length = 10)
+    private String gameId;
+
+    /** Last week folded into {@link #state}. */
+    @Column(name = "week", nullable = false)
+    private int week;
+
+    @Column(name = "state", nullable = false)
+    private byte[] state;
+}
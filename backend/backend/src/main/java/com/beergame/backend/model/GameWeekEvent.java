@@ -0,0 +1,82 @@
+package com.beergame.backend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+/**
+ * Immutable event "week N of game G was played with these four orders".
+ *
+ * Everything else about a week — demand, shipments, inventory, costs — is a
+ * pure function of the previous state and these orders (TurnEngine), so one
+ * narrow row per game-week is the whole event log. GameEventStore folds it
+ * into per-week history or into the state at any week, starting from the
+ * nearest GameSnapshot.
+ *
+ * Appended by TurnService in the turn's transaction and never updated. The
+ * (gameId, week) unique key also makes a double advance of the same week
+ * fail instead of silently writing a second history.
+ *
+ * MIGRATION:
+ *   CREATE SEQUENCE game_week_event_seq INCREMENT BY 50;
+ *   CREATE TABLE game_week_event (
+ *       id                 BIGINT      PRIMARY KEY,
+ *       game_id            VARCHAR(10) NOT NULL,
+ *       week               INT         NOT NULL,
+ *       retailer_order     INT         NOT NULL,
+ *       wholesaler_order   INT         NOT NULL,
+ *       distributor_order  INT         NOT NULL,
+ *       manufacturer_order INT         NOT NULL,
+ *       recorded_at        BIGINT      NOT NULL,
+ *       CONSTRAINT uk_game_week_event UNIQUE (game_id, week)
+ *   );
+ */
+@Data
+@Entity
+@Table(name = "game_week_event",
+        uniqueConstraints = @UniqueConstraint(name = "uk_game_week_event", columnNames = {"gameId", "week"}))
+public class GameWeekEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "game_week_event_seq")
+    @SequenceGenerator(name = "game_week_event_seq", sequenceName = "game_week_event_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "gameId", nullable = false, length = 10)
+    private String gameId;
+
+    /** The week that was played. */
+    @Column(name = "week", nullable = false)
+    private int week;
+
+    @Column(name = "retailerOrder", nullable = false)
+    private int retailerOrder;
+
+    @Column(name = "wholesalerOrder", nullable = false)
+    private int wholesalerOrder;
+
+    @Column(name = "distributorOrder", nullable = false)
+    private int distributorOrder;
+
+    @Column(name = "manufacturerOrder", nullable = false)
+    private int manufacturerOrder;
+
+    /** Epoch millis the week was played. */
+    @Column(name = "recordedAt", nullable = false)
+    private long recordedAt;
+
+    public int orderOf(Players.RoleType role) {
+        return switch (role) {
+            case RETAILER     -> retailerOrder;
+            case WHOLESALER   -> wholesalerOrder;
+            case DISTRIBUTOR  -> distributorOrder;
+            case MANUFACTURER -> manufacturerOrder;
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package com.beergame.backend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * One block of public IDs leased by one node (IdAllocator).
+ *
+ * The row's id IS the block number: it comes from id_block_seq with
+ * allocationSize 1, so every nextval hands out a block no other node — or
+ * earlier run of this node — can ever receive, even if the lease
+ * transaction later rolls back. The row itself only records who leased
+ * which block and when.
+ *
+ * MIGRATION:
+ *   CREATE SEQUENCE id_block_seq INCREMENT BY 1;
+ *   CREATE TABLE id_block (
+ *       id          BIGINT       PRIMARY KEY,
+ *       kind        VARCHAR(8)   NOT NULL,
+ *       node        VARCHAR(255),
+ *       leased_at   BIGINT       NOT NULL
+ *   );
+ */
+@Data
+@Entity
+@Table(name = "id_block")
+public class IdBlock {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "id_block_seq")
+    @SequenceGenerator(name = "id_block_seq", sequenceName = "id_block_seq", allocationSize = 1)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "kind", nullable = false, length = 8)
+    private Kind kind;
+
+    /** Host name of the leasing node, for auditing only. */
+    @Column(name = "node")
+    private String node;
+
+    /** Epoch millis. */
+    @Column(name = "leasedAt", nullable = false)
+    private long leasedAt;
+
+    public enum Kind {
+        GAME,
+        ROOM
+    }
+}
@@ -0,0 +1,73 @@
+package com.beergame.backend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * One human player's result in one finished game: the durable record behind
+ * the Redis leaderboards (LeaderboardService).
+ *
+ * Written once, in the transaction that finishes the game; the sorted sets
+ * are an index over these rows and can be rebuilt from them at any time.
+ *
+ * MIGRATION:
+ *   CREATE SEQUENCE leaderboard_score_seq INCREMENT BY 50;
+ *   CREATE TABLE leaderboard_score (
+ *       id             BIGINT       PRIMARY KEY,
+ *       game_id        VARCHAR(10)  NOT NULL,
+ *       user_name      VARCHAR(255) NOT NULL,
+ *       role           VARCHAR(16)  NOT NULL,
+ *       total_cost     DOUBLE PRECISION NOT NULL,
+ *       adjusted_cost  DOUBLE PRECISION,
+ *       finished_at    TIMESTAMP    NOT NULL,
+ *       CONSTRAINT uk_leaderboard_score UNIQUE (game_id, user_name)
+ *   );
+ *   CREATE INDEX idx_leaderboard_score_finished ON leaderboard_score (finished_at);
+ */
+@Data
+@Entity
+@Table(name = "leaderboard_score",
+        uniqueConstraints = @UniqueConstraint(name = "uk_leaderboard_score", columnNames = {"gameId", "userName"}),
+        indexes = @Index(name = "idx_leaderboard_score_finished", columnList = "finishedAt"))
+public class LeaderboardScore {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "leaderboard_score_seq")
+    @SequenceGenerator(name = "leaderboard_score_seq", sequenceName = "leaderboard_score_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "gameId", nullable = false, length = 10)
+    private String gameId;
+
+    @Column(name = "userName", nullable = false)
+    private String userName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "role", nullable = false, length = 16)
+    private Players.RoleType role;
+
+    @Column(name = "totalCost", nullable = false)
+    private double totalCost;
+
+    /**
+     * Total cost as a percentage of what bots averaged in the same role
+     * (100 = bot par, lower is better). Null if no baseline existed yet.
+     */
+    @Column(name = "adjustedCost")
+    private Double adjustedCost;
+
+    @Column(name = "finishedAt", nullable = false)
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,86 @@
+package com.beergame.backend.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Transactional outbox row: "this state change still has to be announced".
+ *
+ * Written in the same transaction as the change itself (advanceTurn,
+ * placeOrder, joins…), so a committed change always has its row and a
+ * rolled-back change never does. OutboxRelay drains unsent rows in batches,
+ * publishes them to Redis / the local event bus and stamps sentAt.
+ *
+ * MIGRATION:
+ *   CREATE TABLE outbox_event (
+ *       id           BIGSERIAL PRIMARY KEY,
+ *       type         VARCHAR(32) NOT NULL,
+ *       aggregate_id VARCHAR(10) NOT NULL,
+ *       week         INT,
+ *       created_at   TIMESTAMP   NOT NULL,
+ *       sent_at      TIMESTAMP,
+ *       trace_parent VARCHAR(64),
+ *       submitted_at BIGINT
+ *   );
+ *   CREATE INDEX idx_outbox_unsent ON outbox_event (id) WHERE sent_at IS NULL;
+ */
+@Data
+@Entity
+@Table(name = "outbox_event")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 32)
+    private Type type;
+
+    /** gameId or roomId, depending on {@link #type}. */
+    @Column(name = "aggregateId", nullable = false, length = 10)
+    private String aggregateId;
+
+    /** Week number for WEEK_STARTED; null otherwise. */
+    @Column(name = "week")
+    private Integer week;
+
+    @Column(name = "createdAt", nullable = false)
+    private LocalDateTime createdAt;
+
+    /** Null until the relay has published this row. */
+    @Column(name = "sentAt")
+    private LocalDateTime sentAt;
+
+    /** W3C traceparent of the order that caused this row; null if untraced. */
+    @Column(name = "traceParent", length = 64)
+    private String traceParent;
+
+    /** Epoch millis the traced order was submitted; null if untraced. */
+    @Column(name = "submittedAt")
+    private Long submittedAt;
+
+    public enum Type {
+        /** Publish GameStateDTO on game-updates:{gameId}. */
+        GAME_STATE,
+        /** Publish RoomStateDTO on room-updates:{roomId}. */
+        ROOM_STATE,
+        /** Publish RoomResultDTO on room-result:{roomId}. */
+        ROOM_RESULT,
+        /** A whole room advanced a week: room state + every game's state. */
+        ROOM_TURN,
+        /** Raise WeekStartedEvent(gameId, week) on the relaying node. */
+        WEEK_STARTED,
+        /** Raise GameFinishedEvent(gameId) on the relaying node. */
+        GAME_FINISHED
+    }
+}
@@ -0,0 +1,16 @@
+package com.beergame.backend.repository;
+
+import com.beergame.backend.model.CohortStats;
+import com.beergame.backend.model.Players;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface CohortStatsRepository extends JpaRepository<CohortStats, Long> {
+
+    /** Whole table: one row per (cohort, role), so a few dozen rows at most. */
+    List<CohortStats> findAllByOrderByCohortAscRoleAsc();
+
+    /** Every cohort's row for one role (one per cohort). */
+    List<CohortStats> findByRole(Players.RoleType role);
+}
@@ -0,0 +1,38 @@
+package com.beergame.backend.repository;
+
+import com.beergame.backend.model.GameCommand;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface GameCommandRepository extends JpaRepository<GameCommand, Long> {
+
+    /** Whole logs of several games, one query (ReplayService). */
+    @Query("SELECT c FROM GameCommand c WHERE c.gameId IN :gameIds")
+    List<GameCommand> findByGameIdIn(@Param("gameIds") Collection<String> gameIds);
+
+    /**
+     * Games whose log is complete — recorded from creation to the last week —
+     * newest first.
+     */
+    @Query("""
+            SELECT c.gameId
+            FROM GameCommand c
+            WHERE c.type = com.beergame.backend.model.GameCommand.Type.GAME_CREATED
+              AND EXISTS (SELECT 1 FROM GameCommand t
+                          WHERE t.gameId = c.gameId
+                            AND t.type = com.beergame.backend.model.GameCommand.Type.TURN
+                            AND t.week = :lastWeek)
+            ORDER BY c.recordedAt DESC
+            """)
+    List<String> findCompleteGameIds(@Param("lastWeek") int lastWeek, Pageable page);
+
+    @Modifying
+    @Query("DELETE FROM GameCommand c WHERE c.gameId IN :gameIds")
+    int deleteByGameIdIn(@Param("gameIds") Collection<String> gameIds);
+}
@@ -1,5 +1,6 @@
 package com.beergame.backend.repository;
 
+import com.beergame.backend.dto.PlayerStateDTO;
 import com.beergame.backend.model.Game;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -22,6 +23,9 @@ public interface GameRepository extends JpaRepository<Game, String> {
      */
     List<Game> findByGameStatusAndCreatedAtBefore(Game.GameStatus status, LocalDateTime cutoff);
 
+    /** Active-game gauge (MetricsConfig). */
+    long countByGameStatus(Game.GameStatus status);
+
     @Query("""
             SELECT DISTINCT g
             FROM Game g
@@ -44,4 +48,76 @@ public interface GameRepository extends JpaRepository<Game, String> {
 
     @Query("SELECT distinct g FROM Game g LEFT JOIN FETCH g.players WHERE g.gameStatus = :status")
 List<Game> findActiveGamesWithPlayers(@Param("status") Game.GameStatus status);
+
+    /**
+     * All games of a room with their players, in one query. Used by the room
+     * turn pipeline (TurnService.advanceRoomTurn) instead of one fetch per game.
+     */
+    @Query("""
+            SELECT DISTINCT g
+            FROM Game g
+            LEFT JOIN FETCH g.players p
+            WHERE g.gameRoom.id = :roomId
+            ORDER BY g.id
+            """)
+    List<Game> findByGameRoomIdWithPlayers(@Param("roomId") String roomId);
+
+    @Query("SELECT g.id FROM Game g WHERE g.gameRoom.id = :roomId ORDER BY g.id")
+    List<String> findIdsByGameRoomId(@Param("roomId") String roomId);
+
+    /** gameId → owning roomId (null for single games). */
+    interface GameOwnerView {
+        String getGameId();
+        String getRoomId();
+    }
+
+    @Query("""
+            SELECT g.id AS gameId, r.id AS roomId
+            FROM Game g
+            LEFT JOIN g.gameRoom r
+            WHERE g.id IN :ids
+            """)
+    List<GameOwnerView> findOwnersByIdIn(@Param("ids") java.util.Collection<String> ids);
+
+    // ── Read model (GameStateDTO) ─────────────────────────────────────────────
+    // The queries below select only the columns GameStateDTO needs. Results are
+    // projections / DTOs, never managed entities, so they skip the persistence
+    // context and dirty checking entirely.
+
+    /** Flat header row for a game — no players, no festive-week collection. */
+    interface GameHeaderView {
+        String getId();
+        Long getVersion();
+        int getCurrentWeek();
+        Game.GameStatus getGameStatus();
+        boolean getFestiveWeek();
+    }
+
+    @Query("""
+            SELECT g.id AS id, g.version AS version, g.currentWeek AS currentWeek,
+                   g.gameStatus AS gameStatus, g.festiveWeek AS festiveWeek
+            FROM Game g
+            WHERE g.id = :id
+            """)
+    Optional<GameHeaderView> findHeaderById(@Param("id") String id);
+
+    @Query("""
+            SELECT new com.beergame.backend.dto.PlayerStateDTO(
+                   p.id, p.userName, p.role, p.inventory, p.backOrder, p.currentOrder,
+                   p.incomingShipment, p.weeklyCost, p.totalCost, p.isReadyForOrder,
+                   p.lastOrderReceived, p.game.id)
+            FROM Players p
+            WHERE p.game.id = :gameId
+            ORDER BY p.id
+            """)
+    List<PlayerStateDTO> findPlayerStatesByGameId(@Param("gameId") String gameId);
+
+    @Query("""
+            SELECT fw
+            FROM Game g
+            JOIN g.festiveWeeks fw
+            WHERE g.id = :id
+            ORDER BY fw
+            """)
+    List<Integer> findFestiveWeeksSortedById(@Param("id") String id);
 }
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.beergame.backend.repository;
+
+import com.beergame.backend.model.GameRoleStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface GameRoleStatsRepository extends JpaRepository<GameRoleStats, Long> {
+
+    /** The (up to) four role rows of one game — served by uk_game_role_stats. */
+    List<GameRoleStats> findByGameId(String gameId);
+
+    /** The (up to) sixteen role rows of one room's games. */
+    List<GameRoleStats> findByRoomId(String roomId);
+
+    /**
+     * Adds one finished game's role row to its cohort, creating the cohort
+     * row on first use. A single statement, so concurrent finishes simply
+     * serialise on the row lock instead of losing updates.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO {h-schema}cohort_stats AS c
+                (cohort, role, games, bullwhip_games, bullwhip_sum, weeks, weeks_in_stock,
+                 demand_sum, shipped_sum, peak_backorder_sum, holding_cost, backorder_cost, total_cost)
+            VALUES (:cohort, :role, 1, :bullwhipGames, :bullwhip, :weeks, :weeksInStock,
+                    :demandSum, :shippedSum, :peakBackorder, :holdingCost, :backorderCost, :totalCost)
+            ON CONFLICT (cohort, role) DO UPDATE SET
+                games              = c.games + 1,
+                bullwhip_games     = c.bullwhip_games + EXCLUDED.bullwhip_games,
+                bullwhip_sum       = c.bullwhip_sum + EXCLUDED.bullwhip_sum,
+                weeks              = c.weeks + EXCLUDED.weeks,
+                weeks_in_stock     = c.weeks_in_stock + EXCLUDED.weeks_in_stock,
+                demand_sum         = c.demand_sum + EXCLUDED.demand_sum,
+                shipped_sum        = c.shipped_sum + EXCLUDED.shipped_sum,
+                peak_backorder_sum = c.peak_backorder_sum + EXCLUDED.peak_backorder_sum,
+                holding_cost       = c.holding_cost + EXCLUDED.holding_cost,
+                backorder_cost     = c.backorder_cost + EXCLUDED.backorder_cost,
+                total_cost         = c.total_cost + EXCLUDED.total_cost
+            """, nativeQuery = true)
+    int foldIntoCohort(@Param("cohort") String cohort,
+                       @Param("role") String role,
+                       @Param("bullwhipGames") int bullwhipGames,
+                       @Param("bullwhip") double bullwhip,
+                       @Param("weeks") int weeks,
+                       @Param("weeksInStock") int weeksInStock,
+                       @Param("demandSum") long demandSum,
+                       @Param("shippedSum") long shippedSum,
+                       @Param("peakBackorder") int peakBackorder,
+                       @Param("holdingCost") double holdingCost,
+                       @Param("backorderCost") double backorderCost,
+                       @Param("totalCost") double totalCost);
+}
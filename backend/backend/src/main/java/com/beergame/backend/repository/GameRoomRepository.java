@@ -1,8 +1,10 @@
 package com.beergame.backend.repository;
 
 import com.beergame.backend.model.GameRoom;
+import com.beergame.backend.model.Players;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -22,4 +24,51 @@ public interface GameRoomRepository extends JpaRepository<GameRoom, String> {
 
     /** Kept for backward compat with any callers checking FINISHED rooms by finishedAt. */
     List<GameRoom> findByStatusAndFinishedAtBefore(GameRoom.RoomStatus status, LocalDateTime expiryThreshold);
-}
\ No newline at end of file
+
+    /** Active-room gauge (MetricsConfig). */
+    long countByStatus(GameRoom.RoomStatus status);
+
+    // ── Read model (RoomStateDTO) ─────────────────────────────────────────────
+    // findByIdWithAllData fetches teams × players × games as one cartesian
+    // product (16 players × 4 games = 64 rows per room) and hydrates every
+    // entity. RoomStateDTO only needs a handful of columns, so the read path
+    // uses two flat projections instead: one header row and one row per member.
+
+    /** Room header plus the shared week of its games (0 while WAITING). */
+    interface RoomHeaderView {
+        String getRoomId();
+        GameRoom.RoomStatus getStatus();
+        int getCurrentWeek();
+    }
+
+    /**
+     * One row per (team, player). A team with no members yet yields a single
+     * row whose player columns are null, so empty teams still show up.
+     */
+    interface RoomMemberView {
+        String getTeamName();
+        String getUserName();
+        String getGameId();
+        Players.RoleType getRole();
+        Boolean getReady();
+    }
+
+    @Query("""
+            SELECT r.id AS roomId, r.status AS status,
+                   COALESCE((SELECT MAX(g.currentWeek) FROM Game g WHERE g.gameRoom = r), 0) AS currentWeek
+            FROM GameRoom r
+            WHERE r.id = :roomId
+            """)
+    Optional<RoomHeaderView> findHeaderById(@Param("roomId") String roomId);
+
+    @Query("""
+            SELECT t.teamName AS teamName, p.userName AS userName, g.id AS gameId,
+                   p.role AS role, p.isReadyForOrder AS ready
+            FROM Team t
+            LEFT JOIN t.players p
+            LEFT JOIN p.game g
+            WHERE t.gameRoom.id = :roomId
+            ORDER BY t.id, p.id
+            """)
+    List<RoomMemberView> findMembersByRoomId(@Param("roomId") String roomId);
+}
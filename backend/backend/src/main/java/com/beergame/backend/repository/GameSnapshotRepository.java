@@ -0,0 +1,12 @@
+package com.beergame.backend.repository;
+
+import com.beergame.backend.model.GameSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface GameSnapshotRepository extends JpaRepository<GameSnapshot, Long> {
+
+    /** Latest snapshot taken at or before {@code week}. */
+    Optional<GameSnapshot> findFirstByGameIdAndWeekLessThanEqualOrderByWeekDesc(String gameId, int week);
+}
@@ -1,12 +1,100 @@
 package com.beergame.backend.repository;
 
 import com.beergame.backend.model.GameTurn;
+import com.beergame.backend.model.Players;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface GameTurnRepository extends JpaRepository<GameTurn, Long> {
 
     // ✅ ADD THIS METHOD
     // This finds all turns where Turn -> Player -> Game -> ID matches
     List<GameTurn> findByPlayer_Game_Id(String gameId);
-}
\ No newline at end of file
+
+    /** Flat persisted turn row, keyed by game and role (ReplayService). */
+    interface TurnRowView {
+        String getGameId();
+        Players.RoleType getRole();
+        int getWeekDay();
+        int getOrderPlaced();
+        int getDemandRecieved();
+        int getShipmentSent();
+        int getShipmentRecieved();
+        int getInventoryAtEndOfWeek();
+        int getBackOrderAtEndOfWeek();
+        double getWeeklyCost();
+        double getTotalCost();
+    }
+
+    @Query("""
+            SELECT p.game.id AS gameId, p.role AS role, t.weekDay AS weekDay,
+                   t.orderPlaced AS orderPlaced, t.demandRecieved AS demandRecieved,
+                   t.shipmentSent AS shipmentSent, t.shipmentRecieved AS shipmentRecieved,
+                   t.inventoryAtEndOfWeek AS inventoryAtEndOfWeek,
+                   t.backOrderAtEndOfWeek AS backOrderAtEndOfWeek,
+                   t.weeklyCost AS weeklyCost, t.totalCost AS totalCost
+            FROM GameTurn t
+            JOIN t.player p
+            WHERE p.game.id IN :gameIds
+            """)
+    List<TurnRowView> findTurnRowsByGameIdIn(@Param("gameIds") Collection<String> gameIds);
+
+    /** Flat turn row with its game / player context (TurnExportService). */
+    interface ExportRowView {
+        String getGameId();
+        String getRoomId();
+        LocalDateTime getCreatedAt();
+        Players.RoleType getRole();
+        String getUserName();
+        boolean isBot();
+        int getWeekDay();
+        int getOrderPlaced();
+        int getDemandRecieved();
+        int getShipmentSent();
+        int getShipmentRecieved();
+        int getInventoryAtEndOfWeek();
+        int getBackOrderAtEndOfWeek();
+        double getWeeklyCost();
+        double getTotalCost();
+    }
+
+    /**
+     * Every turn of the games created in [from, to), optionally of one room,
+     * for the given roles — streamed through a server-side cursor. Must be
+     * consumed inside a transaction (PostgreSQL only honours the fetch size
+     * with autocommit off) and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT g.id AS gameId, g.gameRoom.id AS roomId, g.createdAt AS createdAt,
+                   p.role AS role, p.userName AS userName, p.isBot AS bot, t.weekDay AS weekDay,
+                   t.orderPlaced AS orderPlaced, t.demandRecieved AS demandRecieved,
+                   t.shipmentSent AS shipmentSent, t.shipmentRecieved AS shipmentRecieved,
+                   t.inventoryAtEndOfWeek AS inventoryAtEndOfWeek,
+                   t.backOrderAtEndOfWeek AS backOrderAtEndOfWeek,
+                   t.weeklyCost AS weeklyCost, t.totalCost AS totalCost
+            FROM GameTurn t
+            JOIN t.player p
+            JOIN p.game g
+            WHERE g.createdAt >= :from AND g.createdAt < :to
+              AND (:roomId IS NULL OR g.gameRoom.id = :roomId)
+              AND p.role IN :roles
+            ORDER BY g.createdAt, g.id, t.weekDay, p.role
+            """)
+    Stream<ExportRowView> streamExportRows(@Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to,
+                                           @Param("roomId") String roomId,
+                                           @Param("roles") Collection<Players.RoleType> roles);
+}
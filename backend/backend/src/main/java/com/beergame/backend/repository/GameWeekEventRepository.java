@@ -0,0 +1,14 @@
+package com.beergame.backend.repository;
+
+import com.beergame.backend.model.GameWeekEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface GameWeekEventRepository extends JpaRepository<GameWeekEvent, Long> {
+
+    /** One game's whole log, in play order (served by the unique index). */
+    List<GameWeekEvent> findByGameIdOrderByWeek(String gameId);
+
+    List<GameWeekEvent> findByGameIdAndWeekBetweenOrderByWeek(String gameId, int fromWeek, int toWeek);
+}
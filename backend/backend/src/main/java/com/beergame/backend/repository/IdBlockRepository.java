@@ -0,0 +1,7 @@
+package com.beergame.backend.repository;
+
+import com.beergame.backend.model.IdBlock;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface IdBlockRepository extends JpaRepository<IdBlock, Long> {
+}
@@ -0,0 +1,46 @@
+package com.beergame.backend.repository;
+
+import com.beergame.backend.model.LeaderboardScore;
+import com.beergame.backend.model.Players;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface LeaderboardScoreRepository extends JpaRepository<LeaderboardScore, Long> {
+
+    /** A finished game's rows, for publishing to Redis — served by uk_leaderboard_score. */
+    List<LeaderboardScore> findByGameId(String gameId);
+
+    /** Best (lowest) score per user, for rebuilding one sorted set. */
+    interface BestScoreView {
+        String getUserName();
+        Double getScore();
+    }
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            SELECT s.userName AS userName, MIN(s.adjustedCost) AS score
+            FROM LeaderboardScore s
+            WHERE s.finishedAt >= :from AND s.finishedAt < :to AND s.adjustedCost IS NOT NULL
+            GROUP BY s.userName
+            """)
+    Stream<BestScoreView> streamBestAdjusted(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            SELECT s.userName AS userName, MIN(s.totalCost) AS score
+            FROM LeaderboardScore s
+            WHERE s.role = :role AND s.finishedAt >= :from AND s.finishedAt < :to
+            GROUP BY s.userName
+            """)
+    Stream<BestScoreView> streamBestCost(@Param("role") Players.RoleType role,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,36 @@
+package com.beergame.backend.repository;
+
+import com.beergame.backend.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Claims the oldest unsent rows for the calling transaction.
+     * SKIP LOCKED lets several nodes drain the outbox concurrently without
+     * ever handing the same row to two relays.
+     */
+    @Query(value = """
+            SELECT * FROM {h-schema}outbox_event
+            WHERE sent_at IS NULL
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OutboxEvent> claimUnsent(@Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.sentAt = :sentAt WHERE e.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.sentAt IS NOT NULL AND e.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff);
+}
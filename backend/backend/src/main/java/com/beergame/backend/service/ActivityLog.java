@@ -0,0 +1,89 @@
+package com.beergame.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logging policy for per-message hot paths.
+ *
+ * WHY?
+ * Every order, turn, Redis publish and subscriber hand-off used to log a line
+ * at INFO, so log I/O grew with traffic: a busy classroom wrote a few lines
+ * per order per node, most of them saying the same thing.
+ *
+ * Now the hot paths:
+ *  - count what they did here (one LongAdder increment, no allocation) and
+ *    this component logs ONE summary line per app.logging.summary-interval-ms
+ *    at INFO;
+ *  - log the per-message detail at DEBUG, and only for a stable sample of
+ *    games / rooms (app.logging.debug-sample-rate): with DEBUG on, a sampled
+ *    game is logged completely, the rest not at all.
+ *
+ * Lifecycle events (game created / finished, room finished) stay at INFO.
+ */
+@Component
+@Slf4j
+public class ActivityLog {
+
+    public enum Activity {
+        ORDER_PLACED,
+        TURN_ADVANCED,
+        GAME_PUBLISHED,
+        ROOM_PUBLISHED,
+        GAME_FANOUT,
+        ROOM_FANOUT
+    }
+
+    private static final int SAMPLE_SCALE = 10_000;
+
+    private final Map<Activity, LongAdder> counts = new EnumMap<>(Activity.class);
+    private final int  sampleThreshold;
+    private final long intervalMs;
+
+    public ActivityLog(@Value("${app.logging.debug-sample-rate:0.05}") double debugSampleRate,
+                       @Value("${app.logging.summary-interval-ms:60000}") long intervalMs) {
+        for (Activity a : Activity.values()) {
+            counts.put(a, new LongAdder());
+        }
+        this.sampleThreshold = (int) Math.round(Math.clamp(debugSampleRate, 0.0, 1.0) * SAMPLE_SCALE);
+        this.intervalMs = intervalMs;
+    }
+
+    /** Counts one occurrence for the next summary line. */
+    public void record(Activity activity) {
+        counts.get(activity).increment();
+    }
+
+    /**
+     * True if {@code logger} has DEBUG on and {@code aggregateId} is in the
+     * debug sample. The same id is always in or always out, so a sampled
+     * game's log reads end to end.
+     */
+    public boolean sampled(Logger logger, String aggregateId) {
+        return logger.isDebugEnabled()
+                && aggregateId != null
+                && Math.floorMod(aggregateId.hashCode(), SAMPLE_SCALE) < sampleThreshold;
+    }
+
+    @Scheduled(fixedDelayString = "${app.logging.summary-interval-ms:60000}")
+    public void logSummary() {
+        StringJoiner line = new StringJoiner(", ");
+        long total = 0;
+        for (Map.Entry<Activity, LongAdder> e : counts.entrySet()) {
+            long n = e.getValue().sumThenReset();
+            total += n;
+            line.add(e.getKey().name().toLowerCase() + "=" + n);
+        }
+        if (total > 0) {
+            log.info("Activity in last {}s: {}", intervalMs / 1000, line);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.exception.OverloadedException;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Node-wide load shedding, checked before new work takes a lock or a
+ * connection.
+ *
+ * WHY?
+ * Rate limits stop one client; they do not stop a hundred well-behaved ones
+ * arriving at once. When the node is saturated, every extra request only
+ * makes the turns already in flight slower. Two signals show saturation:
+ *  - lock wait: how long RedisLockService callers waited for a game / room
+ *    lock, kept per lock key (exponentially weighted, decaying with a 5 s
+ *    half-life so a past spike does not shed forever). Contention inside one
+ *    room says nothing about the node, so lock wait sheds only when at least
+ *    app.admission.lock-wait-room-share of the recently locked keys are over
+ *    the limit — one hot room cannot shed traffic for every other room;
+ *  - DB pool: Hikari active / max connections and threads waiting for one.
+ *
+ * Priorities:
+ *  LOW   create / join / add-bot — new work, shed first at the configured
+ *        thresholds;
+ *  HIGH  orders — they complete turns, so they are shed only at four times
+ *        the lock-wait threshold or when app.admission.max-db-waiters
+ *        threads already queue for a connection.
+ * A shed request fails fast with OverloadedException (HTTP 503, Retry-After).
+ */
+@Service
+@Slf4j
+public class AdmissionControl {
+
+    public enum Priority { LOW, HIGH }
+
+    private static final double ALPHA          = 0.3;
+    private static final long   HALF_LIFE_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final long   RETRY_AFTER_SECONDS = 2;
+
+    private final DataSource dataSource;
+    private final boolean enabled;
+    private final double  maxLockWaitMs;
+    private final double  maxPoolUtilization;
+    private final int     maxDbWaiters;
+
+    private final double  lockWaitRoomShare;
+    /** lock key → its lock-wait EWMA; keys idle for ten half-lives drop out. */
+    private final Cache<String, LockWait> lockWaits;
+    private volatile boolean shedding;
+
+    private final LongAdder shed = new LongAdder();
+
+    public AdmissionControl(DataSource dataSource,
+                            @Value("${app.admission.enabled:true}") boolean enabled,
+                            @Value("${app.admission.max-lock-wait-ms:250}") double maxLockWaitMs,
+                            @Value("${app.admission.max-pool-utilization:0.9}") double maxPoolUtilization,
+                            @Value("${app.admission.max-db-waiters:20}") int maxDbWaiters,
+                            @Value("${app.admission.lock-wait-room-share:0.5}") double lockWaitRoomShare) {
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+        this.maxLockWaitMs = maxLockWaitMs;
+        this.maxPoolUtilization = maxPoolUtilization;
+        this.maxDbWaiters = maxDbWaiters;
+        this.lockWaitRoomShare = lockWaitRoomShare;
+        this.lockWaits = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofNanos(HALF_LIFE_NANOS * 10))
+                .build();
+    }
+
+    /**
+     * Point-in-time view of the signals. lockWaitMs is the mean over
+     * recently locked keys, hottestLockWaitMs the worst single key.
+     */
+    public record Stats(double lockWaitMs, double hottestLockWaitMs, int lockedKeys,
+                        int activeConnections, int maxConnections,
+                        int threadsAwaitingConnection, boolean shedding, long shed) {}
+
+    /** Called by RedisLockService with the time spent acquiring (or failing to acquire) {@code lockKey}. */
+    public void recordLockWait(String lockKey, long nanos) {
+        lockWaits.get(lockKey, k -> new LockWait()).record(System.nanoTime(), nanos / 1e6);
+    }
+
+    /**
+     * @throws OverloadedException when the node is saturated for this priority
+     */
+    public void admit(Priority priority, String what) {
+        if (!enabled) return;
+
+        Stats s = stats();
+        double lockLimit = priority == Priority.HIGH ? maxLockWaitMs * 4 : maxLockWaitMs;
+        boolean locksSaturated = overLimitShare(lockLimit) >= lockWaitRoomShare;
+        boolean poolSaturated = priority == Priority.HIGH
+                ? s.threadsAwaitingConnection() >= maxDbWaiters
+                : s.maxConnections() > 0
+                        && s.activeConnections() >= s.maxConnections() * maxPoolUtilization
+                        && s.threadsAwaitingConnection() > 0;
+
+        if (locksSaturated || poolSaturated) {
+            shed.increment();
+            if (!shedding) {
+                shedding = true;
+                log.warn("Admission: shedding load — {}", s);
+            }
+            throw new OverloadedException("Server is busy — " + what + " rejected, please retry shortly",
+                    RETRY_AFTER_SECONDS);
+        }
+        if (shedding) {
+            shedding = false;
+            log.info("Admission: load back to normal — {}", s);
+        }
+    }
+
+    public Stats stats() {
+        long now = System.nanoTime();
+        double sum = 0, hottest = 0;
+        int keys = 0;
+        for (LockWait w : lockWaits.asMap().values()) {
+            double ms = w.decayed(now);
+            sum += ms;
+            hottest = Math.max(hottest, ms);
+            keys++;
+        }
+        double wait = keys == 0 ? 0 : sum / keys;
+        HikariPoolMXBean pool = dataSource instanceof HikariDataSource hikari ? hikari.getHikariPoolMXBean() : null;
+        int max = dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 0;
+        return pool == null
+                ? new Stats(wait, hottest, keys, 0, max, 0, shedding, shed.sum())
+                : new Stats(wait, hottest, keys, pool.getActiveConnections(), max,
+                            pool.getThreadsAwaitingConnection(), shedding, shed.sum());
+    }
+
+    /** Share of recently locked keys whose wait is above {@code limitMs}; 0 when none. */
+    private double overLimitShare(double limitMs) {
+        long now = System.nanoTime();
+        int keys = 0, over = 0;
+        for (LockWait w : lockWaits.asMap().values()) {
+            keys++;
+            if (w.decayed(now) > limitMs) over++;
+        }
+        return keys == 0 ? 0 : (double) over / keys;
+    }
+
+    /** Decaying EWMA of one key's lock waits. */
+    private static final class LockWait {
+        private double ms;
+        private long   lastSampleAt = System.nanoTime();
+
+        synchronized void record(long now, double sampleMs) {
+            double current = decayed(now);
+            ms = current + ALPHA * (sampleMs - current);
+            lastSampleAt = now;
+        }
+
+        synchronized double decayed(long now) {
+            return ms * Math.pow(0.5, (double) (now - lastSampleAt) / HALF_LIFE_NANOS);
+        }
+    }
+}
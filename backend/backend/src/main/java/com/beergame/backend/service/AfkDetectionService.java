@@ -1,6 +1,8 @@
 package com.beergame.backend.service;
 
+import com.beergame.backend.dto.PresenceDTO;
 import com.beergame.backend.event.AllPlayersReadyEvent;
+import com.beergame.backend.event.PlayerDisconnectedEvent;
 import com.beergame.backend.event.WeekStartedEvent;
 import com.beergame.backend.model.BotType;
 import com.beergame.backend.model.Game;
@@ -12,13 +14,18 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Detects AFK players and submits bot orders on their behalf.
@@ -29,6 +36,13 @@ import java.util.concurrent.TimeUnit;
  *  2. This scheduler runs every 10 seconds and checks all IN_PROGRESS games.
  *  3. If the Redis key has expired (TTL <= 0) and there are still unready
  *     players, they are treated as AFK and the EASY bot orders for them.
+ *
+ * Disconnected players do not wait for the timer: SessionRegistry publishes a
+ * PlayerDisconnectedEvent once a player's last session has closed, the EASY
+ * bot orders for them immediately, and they are remembered in
+ *   afk:offline:{gameId}
+ * so every following week is ordered as soon as it starts — until the player
+ * reconnects.
  */
 @Service
 @RequiredArgsConstructor
@@ -39,9 +53,15 @@ public class AfkDetectionService {
     private final ApplicationEventPublisher    eventPublisher; 
     private final BotService botService;
     private final RedisTemplate<String, Object> redisTemplate;
+    private final SessionRegistry sessionRegistry;
+
+    /** Bot orders submitted for AFK / disconnected players and not yet placed. */
+    private final AtomicInteger backlog = new AtomicInteger();
 
     public static final int AFK_TIMEOUT_SECONDS = 60;
     private static final String AFK_KEY_PREFIX  = "afk:";
+    private static final String OFFLINE_PREFIX  = AFK_KEY_PREFIX + "offline:";
+    private static final long   OFFLINE_TTL_HOURS = 24;
 
 
     // Listens for AllPlayersReadyEvent — no longer needs GameService to clear timer
@@ -68,6 +88,78 @@ public class AfkDetectionService {
     }
 
 
+    // ── Disconnected players ──────────────────────────────────────────────────
+
+    /** A player's last session closed: order for them now in every game they were watching. */
+    @EventListener
+    public void onPlayerDisconnected(PlayerDisconnectedEvent event) {
+        event.getAggregates().forEach((id, scope) -> {
+            List<Game> games = scope == PresenceDTO.Scope.ROOM
+                    ? gameRepository.findByGameRoomIdWithPlayers(id)
+                    : gameRepository.findByIdWithPlayers(id).stream().toList();
+
+            for (Game game : games) {
+                if (game.getGameStatus() != Game.GameStatus.IN_PROGRESS) continue;
+                Players player = findHuman(game, event.getUsername());
+                if (player == null) continue;
+
+                String offlineKey = OFFLINE_PREFIX + game.getId();
+                redisTemplate.opsForSet().add(offlineKey, event.getUsername());
+                redisTemplate.expire(offlineKey, OFFLINE_TTL_HOURS, TimeUnit.HOURS);
+
+                if (!player.isReadyForOrder()) {
+                    log.warn("Player {} disconnected from game {} week {} — submitting bot order.",
+                            event.getUsername(), game.getId(), game.getCurrentWeek());
+                    track(botService.calculateAndPlaceOrderAsync(game, player, BotType.EASY, game.getCurrentWeek()));
+                }
+            }
+        });
+    }
+
+    /** New week: order straight away for players still known to be disconnected. */
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void orderForDisconnectedPlayers(WeekStartedEvent event) {
+        String offlineKey = OFFLINE_PREFIX + event.getGameId();
+        Set<Object> offline = redisTemplate.opsForSet().members(offlineKey);
+        if (offline == null || offline.isEmpty()) return;
+
+        Game game = gameRepository.findByIdWithPlayers(event.getGameId()).orElse(null);
+        if (game == null || game.getGameStatus() != Game.GameStatus.IN_PROGRESS
+                || game.getCurrentWeek() != event.getWeek()) return;
+
+        for (Object member : offline) {
+            String username = member.toString();
+            if (sessionRegistry.isConnected(username)) {
+                redisTemplate.opsForSet().remove(offlineKey, username);
+                continue;
+            }
+            Players player = findHuman(game, username);
+            if (player != null && !player.isReadyForOrder()) {
+                log.info("Player {} still disconnected — bot orders for game {} week {}.",
+                        username, game.getId(), event.getWeek());
+                track(botService.calculateAndPlaceOrderAsync(game, player, BotType.EASY, event.getWeek()));
+            }
+        }
+    }
+
+    /** Bot orders in flight on behalf of absent players (exported as a gauge). */
+    public int backlog() {
+        return backlog.get();
+    }
+
+    private void track(CompletableFuture<Void> order) {
+        backlog.incrementAndGet();
+        order.whenComplete((ok, error) -> backlog.decrementAndGet());
+    }
+
+    private static Players findHuman(Game game, String username) {
+        return game.getPlayers().stream()
+                .filter(p -> !p.isBot() && Objects.equals(p.getUserName(), username))
+                .findFirst()
+                .orElse(null);
+    }
+
  /**
      * Every 10 seconds: find IN_PROGRESS games whose AFK timer has expired
      * and submit bot orders for any players who haven't ordered yet.
@@ -101,7 +193,7 @@ public class AfkDetectionService {
                     game.getId(), game.getCurrentWeek(), afkPlayers.size());
 
             for (Players afkPlayer : afkPlayers) {
-                botService.calculateAndPlaceOrderAsync(game, afkPlayer, BotType.EASY, game.getCurrentWeek());
+                track(botService.calculateAndPlaceOrderAsync(game, afkPlayer, BotType.EASY, game.getCurrentWeek()));
             }
             
             // Lock this week so the next 40s cron tick ignores it while async events resolve.
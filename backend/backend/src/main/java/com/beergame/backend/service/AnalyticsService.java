@@ -0,0 +1,283 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.config.GameConfig;
+import com.beergame.backend.dto.CohortAnalyticsDTO;
+import com.beergame.backend.dto.GameAnalyticsDTO;
+import com.beergame.backend.dto.RoleAnalyticsDTO;
+import com.beergame.backend.dto.RoomAnalyticsDTO;
+import com.beergame.backend.dto.RoomAnalyticsDTO.TeamAnalytics;
+import com.beergame.backend.model.CohortStats;
+import com.beergame.backend.model.Game;
+import com.beergame.backend.model.GameRoleStats;
+import com.beergame.backend.model.GameTurn;
+import com.beergame.backend.model.Players;
+import com.beergame.backend.repository.CohortStatsRepository;
+import com.beergame.backend.repository.GameRoleStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bullwhip, fill-rate, backlog and cost analytics, maintained as turns are
+ * played and served from precomputed rows.
+ *
+ * WHY?
+ * Every figure an instructor wants after a session (how much each position
+ * amplified demand, how often it could ship, its worst backlog, where its
+ * cost came from, how humans compare with bots) is a fold over the game's
+ * GameTurn rows. Computing that per request means scanning gameturn joined
+ * to players for every game on every dashboard refresh.
+ *
+ * Instead TurnService hands each played week to record(), in the same
+ * transaction as the turn:
+ *  - GameRoleStats keeps running sums per (game, role) — count, Σx and Σx²
+ *    of orders placed and received, shipped units, in-stock weeks, peak
+ *    backorder and the cost split — an O(1) update per role-week;
+ *  - when a game finishes its rows are folded into CohortStats with one
+ *    upsert per role, so cohort comparisons never touch per-game data.
+ *
+ * Reads are one indexed lookup (4 rows for a game, 16 for a room, the
+ * whole small cohort table) and a few arithmetic operations; nothing here
+ * reads gameturn. Games that were already running when the tables were
+ * added only carry figures from the weeks played since.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AnalyticsService {
+
+    private static final String HUMAN_COHORT = "HUMAN";
+
+    private final GameRoleStatsRepository statsRepository;
+    private final CohortStatsRepository   cohortRepository;
+
+    // ── Write side ────────────────────────────────────────────────────────────
+
+    /**
+     * Adds one played week of {@code game} — {@code turns} as returned by
+     * TurnEngine.applyWeek — to its role rows, and folds them into the
+     * cohorts if the week finished the game. Joins the caller's transaction.
+     */
+    public void record(Game game, List<GameTurn> turns) {
+        Map<Players.RoleType, GameRoleStats> byRole = statsRepository.findByGameId(game.getId()).stream()
+                .collect(Collectors.toMap(GameRoleStats::getRole, Function.identity(),
+                        (a, b) -> a, () -> new EnumMap<>(Players.RoleType.class)));
+
+        for (GameTurn turn : turns) {
+            Players p = turn.getPlayer();
+            GameRoleStats stats = byRole.computeIfAbsent(p.getRole(), role -> newStats(game, p));
+            add(stats, turn);
+        }
+
+        boolean finished = game.getGameStatus() == Game.GameStatus.FINISHED;
+        if (finished) {
+            for (GameRoleStats stats : byRole.values()) {
+                stats.setFinished(true);
+                foldIntoCohort(stats);
+            }
+        }
+        statsRepository.saveAll(byRole.values());
+
+        if (finished) {
+            log.debug("Game {} analytics folded into cohorts.", game.getId());
+        }
+    }
+
+    private static GameRoleStats newStats(Game game, Players p) {
+        GameRoleStats stats = new GameRoleStats();
+        stats.setGameId(game.getId());
+        stats.setRoomId(game.getGameRoom() != null ? game.getGameRoom().getId() : null);
+        stats.setRole(p.getRole());
+        stats.setUserName(p.getUserName());
+        stats.setTeamName(p.getInitialTeam() != null ? p.getInitialTeam().getTeamName() : null);
+        stats.setCohort(p.isBot() && p.getBotType() != null ? "BOT_" + p.getBotType().name() : HUMAN_COHORT);
+        return stats;
+    }
+
+    private static void add(GameRoleStats s, GameTurn t) {
+        long order = t.getOrderPlaced();
+        long demand = t.getDemandRecieved();
+        int backorder = t.getBackOrderAtEndOfWeek();
+
+        s.setWeeks(s.getWeeks() + 1);
+        s.setOrderSum(s.getOrderSum() + order);
+        s.setOrderSumSq(s.getOrderSumSq() + order * order);
+        s.setDemandSum(s.getDemandSum() + demand);
+        s.setDemandSumSq(s.getDemandSumSq() + demand * demand);
+        s.setShippedSum(s.getShippedSum() + t.getShipmentSent());
+        if (backorder == 0) {
+            s.setWeeksInStock(s.getWeeksInStock() + 1);
+        }
+        s.setPeakBackorder(Math.max(s.getPeakBackorder(), backorder));
+        s.setHoldingCost(s.getHoldingCost() + t.getInventoryAtEndOfWeek() * GameConfig.INVENTORY_HOLDING_COST);
+        s.setBackorderCost(s.getBackorderCost() + backorder * GameConfig.BACKORDER_COST);
+        s.setTotalCost(t.getTotalCost());
+    }
+
+    private void foldIntoCohort(GameRoleStats s) {
+        Double bullwhip = bullwhip(s);
+        statsRepository.foldIntoCohort(s.getCohort(), s.getRole().name(),
+                bullwhip != null ? 1 : 0, bullwhip != null ? bullwhip : 0.0,
+                s.getWeeks(), s.getWeeksInStock(), s.getDemandSum(), s.getShippedSum(),
+                s.getPeakBackorder(), s.getHoldingCost(), s.getBackorderCost(), s.getTotalCost());
+    }
+
+    // ── Read side ─────────────────────────────────────────────────────────────
+
+    @Transactional(readOnly = true)
+    public GameAnalyticsDTO getGameAnalytics(String gameId) {
+        List<GameRoleStats> rows = statsRepository.findByGameId(gameId);
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Analytics not found for game: " + gameId);
+        }
+        return toGame(gameId, rows);
+    }
+
+    @Transactional(readOnly = true)
+    public RoomAnalyticsDTO getRoomAnalytics(String roomId) {
+        List<GameRoleStats> rows = statsRepository.findByRoomId(roomId);
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Analytics not found for room: " + roomId);
+        }
+
+        List<GameAnalyticsDTO> games = rows.stream()
+                .collect(Collectors.groupingBy(GameRoleStats::getGameId, LinkedHashMap::new, Collectors.toList()))
+                .entrySet().stream()
+                .map(e -> toGame(e.getKey(), e.getValue()))
+                .sorted(Comparator.comparing(GameAnalyticsDTO::gameId))
+                .toList();
+
+        List<TeamAnalytics> unranked = rows.stream()
+                .filter(s -> s.getTeamName() != null)
+                .collect(Collectors.groupingBy(GameRoleStats::getTeamName))
+                .entrySet().stream()
+                .map(e -> toTeam(e.getKey(), e.getValue()))
+                .sorted(Comparator.comparingDouble(TeamAnalytics::totalCost))
+                .toList();
+        List<TeamAnalytics> teams = new ArrayList<>(unranked.size());
+        for (int i = 0; i < unranked.size(); i++) {
+            TeamAnalytics t = unranked.get(i);
+            teams.add(new TeamAnalytics(i + 1, t.teamName(), t.meanBullwhip(), t.fillRate(),
+                    t.peakBackorder(), t.holdingCost(), t.backorderCost(), t.totalCost()));
+        }
+
+        return new RoomAnalyticsDTO(roomId, teams, games);
+    }
+
+    @Transactional(readOnly = true)
+    public List<CohortAnalyticsDTO> getCohortAnalytics() {
+        return cohortRepository.findAllByOrderByCohortAscRoleAsc().stream()
+                .map(AnalyticsService::toCohort)
+                .toList();
+    }
+
+    // ── Derivations ───────────────────────────────────────────────────────────
+
+    private static GameAnalyticsDTO toGame(String gameId, List<GameRoleStats> rows) {
+        Map<Players.RoleType, GameRoleStats> byRole = new EnumMap<>(Players.RoleType.class);
+        rows.forEach(s -> byRole.put(s.getRole(), s));
+
+        GameRoleStats retailer = byRole.get(Players.RoleType.RETAILER);
+        GameRoleStats manufacturer = byRole.get(Players.RoleType.MANUFACTURER);
+        Double chainBullwhip = retailer == null || manufacturer == null ? null
+                : ratio(variance(manufacturer.getWeeks(), manufacturer.getOrderSum(), manufacturer.getOrderSumSq()),
+                        variance(retailer.getWeeks(), retailer.getDemandSum(), retailer.getDemandSumSq()));
+
+        double holding = 0, backorder = 0, total = 0;
+        int weeks = 0;
+        boolean finished = true;
+        for (GameRoleStats s : byRole.values()) {
+            holding += s.getHoldingCost();
+            backorder += s.getBackorderCost();
+            total += s.getTotalCost();
+            weeks = Math.max(weeks, s.getWeeks());
+            finished &= s.isFinished();
+        }
+
+        return new GameAnalyticsDTO(gameId, rows.get(0).getRoomId(), weeks, finished, chainBullwhip,
+                holding, backorder, total,
+                byRole.values().stream().map(AnalyticsService::toRole).toList());
+    }
+
+    private static RoleAnalyticsDTO toRole(GameRoleStats s) {
+        int n = s.getWeeks();
+        double orderVariance = variance(n, s.getOrderSum(), s.getOrderSumSq());
+        double demandVariance = variance(n, s.getDemandSum(), s.getDemandSumSq());
+        return new RoleAnalyticsDTO(
+                s.getRole().name(), s.getUserName(), s.getTeamName(), s.getCohort(), n,
+                mean(s.getOrderSum(), n), orderVariance,
+                mean(s.getDemandSum(), n), demandVariance,
+                ratio(orderVariance, demandVariance),
+                fillRate(s.getShippedSum(), s.getDemandSum()),
+                mean(s.getWeeksInStock(), n),
+                s.getPeakBackorder(), s.getHoldingCost(), s.getBackorderCost(), s.getTotalCost());
+    }
+
+    private static TeamAnalytics toTeam(String teamName, List<GameRoleStats> rows) {
+        double bullwhipSum = 0, holding = 0, backorder = 0, total = 0;
+        int bullwhipCount = 0, peak = 0;
+        long shipped = 0, demand = 0;
+        for (GameRoleStats s : rows) {
+            Double b = bullwhip(s);
+            if (b != null) {
+                bullwhipSum += b;
+                bullwhipCount++;
+            }
+            shipped += s.getShippedSum();
+            demand += s.getDemandSum();
+            peak = Math.max(peak, s.getPeakBackorder());
+            holding += s.getHoldingCost();
+            backorder += s.getBackorderCost();
+            total += s.getTotalCost();
+        }
+        return new TeamAnalytics(0, teamName,
+                bullwhipCount == 0 ? null : bullwhipSum / bullwhipCount,
+                fillRate(shipped, demand), peak, holding, backorder, total);
+    }
+
+    private static CohortAnalyticsDTO toCohort(CohortStats c) {
+        long games = c.getGames();
+        return new CohortAnalyticsDTO(c.getCohort(), c.getRole().name(), games,
+                c.getBullwhipGames() == 0 ? null : c.getBullwhipSum() / c.getBullwhipGames(),
+                fillRate(c.getShippedSum(), c.getDemandSum()),
+                mean(c.getWeeksInStock(), c.getWeeks()),
+                mean(c.getPeakBackorderSum(), games),
+                games == 0 ? 0 : c.getHoldingCost() / games,
+                games == 0 ? 0 : c.getBackorderCost() / games,
+                games == 0 ? 0 : c.getTotalCost() / games);
+    }
+
+    private static Double bullwhip(GameRoleStats s) {
+        return ratio(variance(s.getWeeks(), s.getOrderSum(), s.getOrderSumSq()),
+                variance(s.getWeeks(), s.getDemandSum(), s.getDemandSumSq()));
+    }
+
+    /** Population variance from n, Σx, Σx² — exact in long before the division. */
+    private static double variance(long n, long sum, long sumSq) {
+        return n == 0 ? 0 : (double) (n * sumSq - sum * sum) / ((double) n * n);
+    }
+
+    private static double mean(long sum, long n) {
+        return n == 0 ? 0 : (double) sum / n;
+    }
+
+    /** Null when the denominator is zero (ratio undefined). */
+    private static Double ratio(double numerator, double denominator) {
+        return denominator == 0 ? null : numerator / denominator;
+    }
+
+    /** Nothing demanded means nothing was missed. */
+    private static double fillRate(long shipped, long demanded) {
+        return demanded == 0 ? 1.0 : Math.min(1.0, (double) shipped / demanded);
+    }
+}
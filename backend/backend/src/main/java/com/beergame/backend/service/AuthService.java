@@ -32,6 +32,7 @@ public class AuthService {
     private final EmailService         emailService;
     private final AuthenticationManager authenticationManager;
     private final JwtUtils             jwtUtils;
+    private final CustomUserDetailsService userDetailsService;
 
     // FIX: Math.random() is not cryptographically secure — replaced with
     // SecureRandom. An attacker who can observe the seed or timing of
@@ -102,6 +103,7 @@ public class AuthService {
         }
 
         playerInfoRepository.deleteByUserName(loginDTO.username());
+        userDetailsService.evict(loginDTO.username());
         log.info("Player {} deleted", loginDTO.username());
     }
 
@@ -115,6 +117,8 @@ public class AuthService {
         }
 
         playerInfoRepository.updateUserName(newUserName, loginDTO.username());
+        userDetailsService.evict(loginDTO.username());
+        userDetailsService.evict(newUserName);
         log.info("Username updated: {} → {}", loginDTO.username(), newUserName);
     }
 }
\ No newline at end of file
@@ -0,0 +1,268 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.dto.BatchOrderRequestDTO;
+import com.beergame.backend.dto.BatchOrderResultDTO;
+import com.beergame.backend.event.AllPlayersReadyEvent;
+import com.beergame.backend.model.Game;
+import com.beergame.backend.model.GameRoom;
+import com.beergame.backend.model.Players;
+import com.beergame.backend.repository.GameRepository;
+import com.beergame.backend.repository.GameRoomRepository;
+import com.beergame.backend.repository.PlayerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.beergame.backend.dto.BatchOrderResultDTO.Result;
+import static com.beergame.backend.dto.BatchOrderResultDTO.Status;
+
+/**
+ * Applies many orders at once, grouped by the aggregate that owns them.
+ *
+ * WHY?
+ * One order = one STOMP message = one lock + one transaction + one broadcast.
+ * A facilitator entering a classroom's orders, or a bot farm driving dozens
+ * of games, paid that cost per order. Here the batch is:
+ *  1. checked up front (size, amount range) without any I/O;
+ *  2. resolved to owners with one query (room for room games, the game
+ *     itself otherwise);
+ *  3. applied per owner under ONE lock and ONE transaction — every order of
+ *     the group, then at most one turn advance (advanceTurn /
+ *     advanceRoomTurn) and at most one broadcast per aggregate.
+ * A failing group is rolled back and reported; other groups still apply.
+ *
+ * Permission: a caller may always order for themself, and for bot players of
+ * a game (or room) they are seated in; ordering for anyone else requires the
+ * caller to be listed in app.orders.batch.facilitators.
+ */
+@Service
+@Slf4j
+public class BatchOrderService {
+
+    public static final int MAX_BATCH_SIZE = 500;
+
+    private final GameRepository     gameRepository;
+    private final GameRoomRepository gameRoomRepository;
+    private final PlayerRepository   playerRepository;
+    private final RedisLockService   redisLockService;
+    private final TransactionTemplate transactionTemplate;
+    private final TurnService        turnService;
+    private final BroadcastService   broadcastService;
+    private final DuplicateOrderFilter duplicateFilter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CommandLog         commandLog;
+    private final Set<String>        facilitators;
+
+    public BatchOrderService(GameRepository gameRepository,
+                             GameRoomRepository gameRoomRepository,
+                             PlayerRepository playerRepository,
+                             RedisLockService redisLockService,
+                             TransactionTemplate transactionTemplate,
+                             TurnService turnService,
+                             BroadcastService broadcastService,
+                             DuplicateOrderFilter duplicateFilter,
+                             ApplicationEventPublisher eventPublisher,
+                             CommandLog commandLog,
+                             @Value("${app.orders.batch.facilitators:}") Set<String> facilitators) {
+        this.gameRepository = gameRepository;
+        this.gameRoomRepository = gameRoomRepository;
+        this.playerRepository = playerRepository;
+        this.redisLockService = redisLockService;
+        this.transactionTemplate = transactionTemplate;
+        this.turnService = turnService;
+        this.broadcastService = broadcastService;
+        this.duplicateFilter = duplicateFilter;
+        this.eventPublisher = eventPublisher;
+        this.commandLog = commandLog;
+        this.facilitators = Set.copyOf(facilitators);
+    }
+
+    public BatchOrderResultDTO submit(String caller, List<BatchOrderRequestDTO.Entry> orders) {
+        // STOMP payloads skip bean validation, so enforce the bounds here too.
+        if (orders == null || orders.isEmpty()) {
+            return new BatchOrderResultDTO(List.of());
+        }
+        if (orders.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " orders per batch, got: " + orders.size());
+        }
+
+        Result[] results = new Result[orders.size()];
+        boolean facilitator = facilitators.contains(caller);
+
+        // ── 1. Stateless checks ───────────────────────────────────────────────
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            BatchOrderRequestDTO.Entry e = orders.get(i);
+            if (e.orderAmount() < 0 || e.orderAmount() > OrderService.MAX_ORDER_AMOUNT) {
+                results[i] = result(e, Status.REJECTED,
+                        "Order amount must be 0–" + OrderService.MAX_ORDER_AMOUNT + ", got: " + e.orderAmount());
+            } else {
+                pending.add(i);
+            }
+        }
+
+        // ── 2. Group by owner (one query) ─────────────────────────────────────
+        Set<String> gameIds = pending.stream().map(i -> orders.get(i).gameId()).collect(Collectors.toSet());
+        Map<String, String> roomOfGame = new LinkedHashMap<>();
+        gameRepository.findOwnersByIdIn(gameIds)
+                .forEach(v -> roomOfGame.put(v.getGameId(), v.getRoomId()));
+
+        Map<String, List<Integer>> roomGroups = new LinkedHashMap<>();
+        Map<String, List<Integer>> gameGroups = new LinkedHashMap<>();
+        for (int i : pending) {
+            BatchOrderRequestDTO.Entry e = orders.get(i);
+            if (!roomOfGame.containsKey(e.gameId())) {
+                results[i] = result(e, Status.REJECTED, "Game not found: " + e.gameId());
+            } else if (roomOfGame.get(e.gameId()) != null) {
+                roomGroups.computeIfAbsent(roomOfGame.get(e.gameId()), k -> new ArrayList<>()).add(i);
+            } else {
+                gameGroups.computeIfAbsent(e.gameId(), k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        // ── 3. One lock + one transaction per owner ───────────────────────────
+        gameGroups.forEach((gameId, idx) ->
+                runGroup(gameId, idx, orders, results, () -> applyGameGroup(gameId, idx, orders, results, caller, facilitator)));
+        roomGroups.forEach((roomId, idx) ->
+                runGroup(roomId, idx, orders, results, () -> applyRoomGroup(roomId, idx, orders, results, caller, facilitator)));
+
+        log.info("Batch of {} order(s) from {}: {} game group(s), {} room group(s).",
+                orders.size(), caller, gameGroups.size(), roomGroups.size());
+        return new BatchOrderResultDTO(Arrays.asList(results));
+    }
+
+    // ───────────────────────────────────────────────────────────────────── //
+    //  Groups
+    // ───────────────────────────────────────────────────────────────────── //
+
+    private void runGroup(String lockKey, List<Integer> idx, List<BatchOrderRequestDTO.Entry> orders,
+                          Result[] results, Runnable body) {
+        try {
+            redisLockService.executeWithLock(lockKey, 10, () ->
+                    transactionTemplate.execute(status -> {
+                        body.run();
+                        return null;
+                    }));
+        } catch (RuntimeException ex) {
+            // Rolled back: nothing of this group was applied.
+            log.warn("Batch group {} failed: {}", lockKey, ex.getMessage());
+            for (int i : idx) {
+                results[i] = result(orders.get(i), Status.REJECTED, ex.getMessage());
+            }
+        }
+    }
+
+    private void applyGameGroup(String gameId, List<Integer> idx, List<BatchOrderRequestDTO.Entry> orders,
+                                Result[] results, String caller, boolean facilitator) {
+        Game game = gameRepository.findByIdWithPlayers(gameId)
+                .orElseThrow(() -> new RuntimeException("Game not found: " + gameId));
+
+        Map<String, Players> byName = game.getPlayers().stream()
+                .collect(Collectors.toMap(Players::getUserName, Function.identity()));
+
+        List<Players> applied = apply(idx, orders, results, byName, caller, facilitator);
+        if (applied.isEmpty()) return;
+
+        playerRepository.saveAll(applied);
+
+        boolean allReady = false;
+        if (game.getPlayers().size() >= 4) {
+            // The roster already carries every flag set above: one mark covers the group.
+            duplicateFilter.markReady(DuplicateOrderFilter.Scope.GAME, gameId,
+                    game.getCurrentWeek(), game.getPlayers(), applied.get(0));
+            allReady = game.getPlayers().stream().allMatch(Players::isReadyForOrder);
+        }
+
+        if (allReady) {
+            log.info("All players ready for game {} (batch). Advancing turn.", gameId);
+            eventPublisher.publishEvent(new AllPlayersReadyEvent(this, gameId, game.getCurrentWeek()));
+            turnService.advanceTurn(game);
+        } else {
+            broadcastService.broadcastGameAfterCommit(gameId);
+        }
+    }
+
+    private void applyRoomGroup(String roomId, List<Integer> idx, List<BatchOrderRequestDTO.Entry> orders,
+                                Result[] results, String caller, boolean facilitator) {
+        GameRoom room = gameRoomRepository.findByIdWithAllData(roomId)
+                .orElseThrow(() -> new RuntimeException("Room not found: " + roomId));
+
+        if (room.getStatus() != GameRoom.RoomStatus.RUNNING) {
+            throw new RuntimeException("Room " + roomId + " is not currently running.");
+        }
+
+        List<Players> roster = room.getTeams().stream()
+                .flatMap(team -> team.getPlayers() != null ? team.getPlayers().stream() : java.util.stream.Stream.empty())
+                .toList();
+        Map<String, Players> byName = roster.stream()
+                .collect(Collectors.toMap(Players::getUserName, Function.identity()));
+
+        List<Players> applied = apply(idx, orders, results, byName, caller, facilitator);
+        if (applied.isEmpty()) return;
+
+        playerRepository.saveAll(applied);
+
+        duplicateFilter.markReady(DuplicateOrderFilter.Scope.ROOM, roomId,
+                applied.get(0).getGame().getCurrentWeek(), roster, applied.get(0));
+        boolean allReady = roster.stream().allMatch(Players::isReadyForOrder);
+
+        if (allReady && room.getGames().size() == 4) {
+            log.info("All players in room {} ready (batch). Advancing all games.", roomId);
+            turnService.advanceRoomTurn(room);
+        } else {
+            broadcastService.broadcastRoomAfterCommit(roomId);
+            applied.stream().map(p -> p.getGame().getId()).distinct()
+                    .forEach(broadcastService::broadcastGameAfterCommit);
+        }
+    }
+
+    /**
+     * Applies each entry to its (already loaded) player; fills {@code results}
+     * and returns the players whose order was recorded. {@code byName} is the
+     * game's or room's roster, so it also tells whether the caller is seated.
+     */
+    private List<Players> apply(List<Integer> idx, List<BatchOrderRequestDTO.Entry> orders, Result[] results,
+                                Map<String, Players> byName, String caller, boolean facilitator) {
+        Set<Players> applied = new LinkedHashSet<>();
+        for (int i : idx) {
+            BatchOrderRequestDTO.Entry e = orders.get(i);
+            Players player = byName.get(e.username());
+
+            if (player == null || player.getGame() == null || !Objects.equals(player.getGame().getId(), e.gameId())) {
+                results[i] = result(e, Status.REJECTED, "Player not in game: " + e.username());
+            } else if (!facilitator && !caller.equals(e.username())
+                    && !(player.isBot() && byName.containsKey(caller))) {
+                results[i] = result(e, Status.REJECTED, "Not permitted to order for " + e.username());
+            } else if (e.week() != null && player.getGame().getCurrentWeek() != e.week()) {
+                results[i] = result(e, Status.SKIPPED,
+                        "Stale: game is on week " + player.getGame().getCurrentWeek());
+            } else if (player.isReadyForOrder()) {
+                results[i] = result(e, Status.SKIPPED, "Already submitted for this week");
+            } else {
+                player.setCurrentOrder(e.orderAmount());
+                player.setReadyForOrder(true);
+                commandLog.order(player.getGame(), player, e.orderAmount());
+                applied.add(player);
+                results[i] = result(e, Status.APPLIED, null);
+            }
+        }
+        return new ArrayList<>(applied);
+    }
+
+    private static Result result(BatchOrderRequestDTO.Entry e, Status status, String message) {
+        return new Result(e.gameId(), e.username(), status, message);
+    }
+}
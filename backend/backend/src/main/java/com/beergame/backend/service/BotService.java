@@ -3,6 +3,8 @@ package com.beergame.backend.service;
 import com.beergame.backend.model.BotType;
 import com.beergame.backend.model.Game;
 import com.beergame.backend.model.Players;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -11,13 +13,16 @@ import org.springframework.web.client.RestTemplate;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import com.beergame.backend.config.Bulkhead;
 
 import org.springframework.context.event.EventListener;
 import com.beergame.backend.event.GameFinishedEvent;
 
 import java.util.HashMap;
-import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.Map;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -29,11 +34,17 @@ public class BotService {
     private final OrderService orderService;
     private final GameService gameService;
 
+    private final Bulkhead botHttpExecutor;
+    private final MeterRegistry meterRegistry;
+
     @Autowired
-    public BotService(RestTemplate restTemplate, @Lazy OrderService orderService, @Lazy GameService gameService) {
+    public BotService(RestTemplate restTemplate, @Lazy OrderService orderService, @Lazy GameService gameService,
+                      @Qualifier("botHttpExecutor") Bulkhead botHttpExecutor, MeterRegistry meterRegistry) {
         this.restTemplate = restTemplate;
         this.orderService = orderService;
         this.gameService = gameService;
+        this.botHttpExecutor = botHttpExecutor;
+        this.meterRegistry = meterRegistry;
     }
 
     @Value("${bot.service.url}")
@@ -42,17 +53,23 @@ public class BotService {
     private static final int MAX_RETRIES = 3;
     private static final long RETRY_DELAY_MS = 5_000; // 5s between retries
 
+    @Value("${app.executor.bot-http.timeout-ms:10000}")
+    private long callTimeoutMs;
+
+    /** Completes when the order has been placed, so callers can track the backlog. */
     @Async
-    public void calculateAndPlaceOrderAsync(Game game, Players botPlayer, BotType activeBotType, int targetWeek) {
+    public CompletableFuture<Void> calculateAndPlaceOrderAsync(Game game, Players botPlayer, BotType activeBotType,
+                                                               int targetWeek) {
         int order = calculateOrder(game, botPlayer, activeBotType);
         if (game.getGameRoom() != null) {
-            gameService.submitRoomOrder(game.getGameRoom().getId(), botPlayer.getUserName(), order);
+            gameService.submitRoomOrder(game.getGameRoom().getId(), botPlayer.getUserName(), order, targetWeek);
         } else {
             orderService.placeOrder(game.getId(), botPlayer.getUserName(), order, targetWeek);
         }
+        return CompletableFuture.completedFuture(null);
     }
 
-    @Async
+    @Async("botHttpExecutor")
     public void ping() {
         try {
             restTemplate.getForEntity(botServiceUrl + "/docs", String.class);
@@ -61,7 +78,7 @@ public class BotService {
         }
     }
 
-    @Async
+    @Async("botHttpExecutor")
     @EventListener
     public void onGameFinished(GameFinishedEvent event) {
         try {
@@ -78,46 +95,66 @@ public class BotService {
         return calculateOrder(game, botPlayer, botPlayer.getBotType());
     }
 
- // BotService.java - run in a separate thread with a hard timeout
-public int calculateOrder(Game game, Players botPlayer, BotType activeBotType) {
-    String endpoint = resolveEndpoint(activeBotType);
-    Map<String, Object> payload = buildPayload(game, botPlayer);
-
-    for (int attempt = 1; attempt <= MAX_RETRIES; attempt++) {
-        try {
-            CompletableFuture<Map<String, Object>> future = CompletableFuture.supplyAsync(() -> {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> resp = restTemplate.postForObject(
-                    botServiceUrl + endpoint, payload, Map.class);
-                return resp;
-            });
-
-            Map<String, Object> response = future.get(10, TimeUnit.SECONDS); // hard deadline
-
-            if (response != null && response.containsKey("predicted_order")) {
-                int order = ((Number) response.get("predicted_order")).intValue();
-                order = Math.max(0, Math.min(order, GameService.MAX_ORDER_AMOUNT)); 
-                return order;
-            }
-        } catch (TimeoutException e) {
-            log.warn("Bot call timed out for {} attempt {}/{}", botPlayer.getUserName(), attempt, MAX_RETRIES);
-            if (attempt < MAX_RETRIES) {
-                try { Thread.sleep(RETRY_DELAY_MS); } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt(); break;
+    /**
+     * Asks the bot service for an order, retrying up to MAX_RETRIES times.
+     *
+     * Each HTTP attempt runs on the bounded botHttpExecutor with a hard
+     * deadline (was: ForkJoinPool.commonPool(), unbounded). On timeout the
+     * attempt is cancelled, which interrupts its virtual thread and frees the
+     * permit. The retry sleep blocks only the caller's virtual thread.
+     */
+    public int calculateOrder(Game game, Players botPlayer, BotType activeBotType) {
+        String endpoint = resolveEndpoint(activeBotType);
+        Map<String, Object> payload = buildPayload(game, botPlayer);
+
+        for (int attempt = 1; attempt <= MAX_RETRIES; attempt++) {
+            Future<Map<String, Object>> future = null;
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String outcome = "error";
+            try {
+                future = botHttpExecutor.submit(() -> {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> resp = restTemplate.postForObject(
+                            botServiceUrl + endpoint, payload, Map.class);
+                    return resp;
+                });
+
+                Map<String, Object> response = future.get(callTimeoutMs, TimeUnit.MILLISECONDS); // hard deadline
+
+                outcome = "no_prediction";
+                if (response != null && response.containsKey("predicted_order")) {
+                    outcome = "success";
+                    int order = ((Number) response.get("predicted_order")).intValue();
+                    order = Math.max(0, Math.min(order, GameService.MAX_ORDER_AMOUNT));
+                    return order;
                 }
+            } catch (TimeoutException e) {
+                outcome = "timeout";
+                future.cancel(true);
+                log.warn("Bot call timed out for {} attempt {}/{}", botPlayer.getUserName(), attempt, MAX_RETRIES);
+            } catch (InterruptedException e) {
+                if (future != null) future.cancel(true);
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.warn("Bot call failed attempt {}/{}: {}", attempt, MAX_RETRIES, e.getMessage());
+            } finally {
+                sample.stop(meterRegistry.timer("beergame.bot.call",
+                        "bot_type", String.valueOf(activeBotType), "outcome", outcome));
             }
-        } catch (Exception e) {
-            log.warn("Bot call failed attempt {}/{}: {}", attempt, MAX_RETRIES, e.getMessage());
+
             if (attempt < MAX_RETRIES) {
-                try { Thread.sleep(RETRY_DELAY_MS); } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt(); break;
+                try {
+                    Thread.sleep(RETRY_DELAY_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
                 }
             }
         }
+        log.error("All attempts failed for {}. Defaulting to 0.", botPlayer.getUserName());
+        return 0;
     }
-    log.error("All attempts failed for {}. Defaulting to 0.", botPlayer.getUserName());
-    return 0;
-}
 
     private Map<String, Object> buildPayload(Game game, Players botPlayer) {
         int currentWeek = game.getCurrentWeek();
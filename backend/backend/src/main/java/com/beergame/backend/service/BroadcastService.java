@@ -3,17 +3,22 @@ package com.beergame.backend.service;
 import com.beergame.backend.dto.GameStateDTO;
 import com.beergame.backend.dto.RoomResultDTO;
 import com.beergame.backend.dto.RoomStateDTO;
+import com.beergame.backend.dto.TraceContextDTO;
 import com.beergame.backend.model.Game;
 import com.beergame.backend.model.GameRoom;
-import com.beergame.backend.repository.GameRepository;
+import com.beergame.backend.model.OutboxEvent;
 import com.beergame.backend.repository.GameRoomRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.List;
+
 /**
  * Centralises all Redis / WebSocket broadcast logic.
  *
@@ -22,8 +27,17 @@ import org.springframework.transaction.support.TransactionSynchronizationManager
  *
  * Dependency graph (no cycles):
  *   GameService  ──► BroadcastService ──► RedisTemplate
- *   TurnService  ──► BroadcastService     GameRepository
- *                                         GameRoomRepository
+ *   TurnService  ──► BroadcastService     StateCacheService ──► ReadModelService
+ *   OutboxRelay  ──► BroadcastService     OutboxService
+ *
+ * The id-based broadcasts read through ReadModelService (column projections),
+ * so a post-commit broadcast no longer re-hydrates the game / room entity graph.
+ * Every broadcast is also a state change, so it refreshes (or invalidates) the
+ * near cache here and notifies the other nodes.
+ *
+ * The *AfterCommit methods no longer publish from the committing thread: they
+ * write an outbox row in the caller's transaction and OutboxRelay publishes it
+ * (see OutboxService for the rationale).
  */
 @Service
 @RequiredArgsConstructor
@@ -31,45 +45,53 @@ import org.springframework.transaction.support.TransactionSynchronizationManager
 public class BroadcastService {
 
     private final RedisTemplate<String, Object> redisTemplate;
-    private final GameRepository     gameRepository;
+    private final StateCacheService  stateCacheService;
+    private final OutboxService      outboxService;
     private final GameRoomRepository gameRoomRepository;
+    private final ActivityLog        activityLog;
+
+    /** One Redis PUBLISH, prepared by the relay and sent in a pipelined batch. */
+    public record Publication(String channel, Object payload) {}
 
     // ───────────────────────────────────────────────────────────────────── //
     //  Game broadcasts
     // ───────────────────────────────────────────────────────────────────── //
 
     public void broadcastGameState(Game game) {
-        GameStateDTO dto    = GameStateDTO.fromGame(game);
-        String       channel = "game-updates:" + game.getId();
-        log.info("Publishing game state on Redis channel: {}", channel);
-        redisTemplate.convertAndSend(channel, dto);
+        stateCacheService.invalidateGame(game.getId());
+        publishGameState(GameStateDTO.fromGame(game));
     }
 
     public void broadcastGameState(String gameId) {
         try {
-            Game fresh = gameRepository.findByIdWithPlayers(gameId)
-                    .orElseThrow(() -> new RuntimeException("Game not found: " + gameId));
-            broadcastGameState(fresh);
+            publishGameState(stateCacheService.refreshGame(gameId));
         } catch (Exception e) {
             log.error("Failed to broadcast game state for id {}: {}", gameId, e.getMessage(), e);
         }
     }
 
+    private void publishGameState(GameStateDTO dto) {
+        String channel = "game-updates:" + dto.gameId();
+        activityLog.record(ActivityLog.Activity.GAME_PUBLISHED);
+        if (activityLog.sampled(log, dto.gameId())) {
+            log.debug("Publishing game state on Redis channel: {}", channel);
+        }
+        redisTemplate.convertAndSend(channel, dto);
+    }
+
     /**
-     * Registers a callback that re-fetches the game from DB and broadcasts
-     * ONLY after the current transaction has successfully committed.
+     * Schedules a game-state broadcast for after the current transaction commits.
      *
-     * This is the safe pattern: it prevents sending stale or partially-written
-     * state to clients.
+     * The broadcast is recorded as an outbox row in the same transaction, so it
+     * is published if and only if the change commits — even if this node dies
+     * right after the commit. Outside a transaction it publishes immediately.
      */
     public void broadcastGameAfterCommit(String gameId) {
-        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
-            @Override
-            public void afterCommit() {
-                log.info("TX committed for game {}. Broadcasting.", gameId);
-                broadcastGameState(gameId);
-            }
-        });
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            outboxService.enqueue(OutboxEvent.Type.GAME_STATE, gameId);
+        } else {
+            broadcastGameState(gameId);
+        }
     }
 
     // ───────────────────────────────────────────────────────────────────── //
@@ -77,34 +99,45 @@ public class BroadcastService {
     // ───────────────────────────────────────────────────────────────────── //
 
     public void broadcastRoomState(String roomId, GameRoom room) {
-        RoomStateDTO dto     = RoomStateDTO.fromGameRoom(room);
-        String       channel = "room-updates:" + roomId;
-        log.info("Broadcasting room state for room {} to Redis channel: {}", roomId, channel);
-        redisTemplate.convertAndSend(channel, dto);
+        stateCacheService.invalidateRoom(roomId);
+        publishRoomState(roomId, RoomStateDTO.fromGameRoom(room));
     }
 
     public void broadcastRoomState(String roomId) {
         try {
-            GameRoom fresh = gameRoomRepository.findByIdWithAllData(roomId)
-                    .orElseThrow(() -> new RuntimeException("Room not found: " + roomId));
-            broadcastRoomState(roomId, fresh);
+            publishRoomState(roomId, stateCacheService.refreshRoom(roomId));
         } catch (Exception e) {
             log.error("Failed to broadcast room state for id {}: {}", roomId, e.getMessage(), e);
         }
     }
 
+    private void publishRoomState(String roomId, RoomStateDTO dto) {
+        String channel = "room-updates:" + roomId;
+        activityLog.record(ActivityLog.Activity.ROOM_PUBLISHED);
+        if (activityLog.sampled(log, roomId)) {
+            log.debug("Broadcasting room state for room {} to Redis channel: {}", roomId, channel);
+        }
+        redisTemplate.convertAndSend(channel, dto);
+    }
+
     /**
-     * Same post-commit safety pattern as {@link #broadcastGameAfterCommit},
-     * but re-fetches and broadcasts the room state instead.
+     * Same outbox-backed pattern as {@link #broadcastGameAfterCommit},
+     * but for the room state.
      */
     public void broadcastRoomAfterCommit(String roomId) {
-        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
-            @Override
-            public void afterCommit() {
-                log.info("TX committed for room {}. Broadcasting.", roomId);
-                broadcastRoomState(roomId);
-            }
-        });
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            outboxService.enqueue(OutboxEvent.Type.ROOM_STATE, roomId);
+        } else {
+            broadcastRoomState(roomId);
+        }
+    }
+
+    /**
+     * One outbox row for a whole room-week: the relay publishes the room state
+     * and every game state of the room together in one pipeline.
+     */
+    public void broadcastRoomTurnAfterCommit(String roomId) {
+        outboxService.enqueue(OutboxEvent.Type.ROOM_TURN, roomId);
     }
 
     // ───────────────────────────────────────────────────────────────────── //
@@ -124,4 +157,54 @@ public class BroadcastService {
         log.info("Broadcasting room result for room {} — winner: {}", room.getId(), result.getWinnerTeamName());
         redisTemplate.convertAndSend(channel, result);
     }
-}
\ No newline at end of file
+
+    /** Outbox-backed variant of {@link #broadcastRoomResult}. */
+    public void broadcastRoomResultAfterCommit(String roomId) {
+        outboxService.enqueue(OutboxEvent.Type.ROOM_RESULT, roomId);
+    }
+
+    // ───────────────────────────────────────────────────────────────────── //
+    //  Relay support (OutboxRelay)
+    // ───────────────────────────────────────────────────────────────────── //
+
+    public Publication gameStatePublication(String gameId) {
+        return gameStatePublication(gameId, null);
+    }
+
+    /** As above, carrying the trace of the order that caused it (see OrderTracing). */
+    public Publication gameStatePublication(String gameId, TraceContextDTO trace) {
+        GameStateDTO state = stateCacheService.refreshGame(gameId);
+        return new Publication("game-updates:" + gameId, trace != null ? state.withTrace(trace) : state);
+    }
+
+    public Publication roomStatePublication(String roomId) {
+        return new Publication("room-updates:" + roomId, stateCacheService.refreshRoom(roomId));
+    }
+
+    public Publication roomResultPublication(String roomId) {
+        GameRoom room = gameRoomRepository.findByIdWithAllData(roomId)
+                .orElseThrow(() -> new RuntimeException("Room not found: " + roomId));
+        return new Publication("room-result:" + roomId, RoomResultDTO.fromRoom(room));
+    }
+
+    /**
+     * Sends all publications over one pipelined connection — one network
+     * round trip for the whole batch instead of one per PUBLISH.
+     */
+    @SuppressWarnings("unchecked")
+    public void publishAll(List<Publication> publications) {
+        if (publications.isEmpty()) return;
+
+        RedisSerializer<String> channelSerializer = redisTemplate.getStringSerializer();
+        RedisSerializer<Object> payloadSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+
+        redisTemplate.executePipelined((RedisCallback<Object>) (RedisConnection connection) -> {
+            for (Publication p : publications) {
+                connection.publish(channelSerializer.serialize(p.channel()),
+                        payloadSerializer.serialize(p.payload()));
+            }
+            return null;
+        });
+        log.debug("Published {} outbox broadcast(s) in one pipeline.", publications.size());
+    }
+}
@@ -29,6 +29,7 @@ public class CleanUpService {
 
     private final GameRepository     gameRepository;
     private final GameRoomRepository gameRoomRepository;
+    private final CommandLog         commandLog;
 
     /** Lobbies older than this are considered abandoned. */
     private static final int LOBBY_EXPIRY_MINUTES = 30;
@@ -59,6 +60,7 @@ public class CleanUpService {
                 staleLobbies.size(), LOBBY_EXPIRY_MINUTES);
 
         gameRepository.deleteAll(staleLobbies);
+        commandLog.discard(staleLobbies.stream().map(Game::getId).toList());
     }
 
     /**
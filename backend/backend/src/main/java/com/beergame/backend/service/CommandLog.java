@@ -0,0 +1,94 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.model.Game;
+import com.beergame.backend.model.GameCommand;
+import com.beergame.backend.model.Players;
+import com.beergame.backend.repository.GameCommandRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+/**
+ * Appends to the per-game command log (see GameCommand).
+ *
+ * WHY?
+ * A turn bug or an odd cost curve could only be reasoned about from the final
+ * GameTurn rows — nothing recorded which orders arrived in which week. Every
+ * path that changes a game's inputs (create, join, bot, room start, the three
+ * order paths, turn advance) now appends one row here, so ReplayService can
+ * re-run any game and compare.
+ *
+ * Appends join the caller's transaction and only persist the entity; with the
+ * pooled sequence the INSERTs go out in the same JDBC batch as the turn / order
+ * they belong to. Disabled with app.replay.command-log.enabled=false.
+ */
+@Service
+public class CommandLog {
+
+    private final GameCommandRepository commandRepository;
+    private final boolean enabled;
+
+    public CommandLog(GameCommandRepository commandRepository,
+                      @Value("${app.replay.command-log.enabled:true}") boolean enabled) {
+        this.commandRepository = commandRepository;
+        this.enabled = enabled;
+    }
+
+    public void gameCreated(Game game) {
+        GameCommand c = command(game, GameCommand.Type.GAME_CREATED);
+        c.setDetail(game.getFestiveWeeks().stream().sorted()
+                .map(String::valueOf).collect(Collectors.joining(",")));
+        append(c);
+    }
+
+    /** A human or bot took its seat; {@code player} already has its role. */
+    public void seated(Game game, Players player) {
+        GameCommand c = command(game, player.isBot() ? GameCommand.Type.BOT_ADDED : GameCommand.Type.PLAYER_JOINED);
+        c.setUserName(player.getUserName());
+        c.setRole(player.getRole());
+        if (player.getBotType() != null) {
+            c.setDetail(player.getBotType().name());
+        }
+        append(c);
+    }
+
+    /** An accepted order for the game's current week. */
+    public void order(Game game, Players player, int amount) {
+        GameCommand c = command(game, GameCommand.Type.ORDER);
+        c.setUserName(player.getUserName());
+        c.setRole(player.getRole());
+        c.setAmount(amount);
+        append(c);
+    }
+
+    /** Called before the week counter moves: {@code game}'s current week was played. */
+    public void turn(Game game) {
+        append(command(game, GameCommand.Type.TURN));
+    }
+
+    /** Drops the logs of deleted games. */
+    public void discard(Collection<String> gameIds) {
+        if (!gameIds.isEmpty()) {
+            commandRepository.deleteByGameIdIn(gameIds);
+        }
+    }
+
+    // ── Internals ─────────────────────────────────────────────────────────────
+
+    private static GameCommand command(Game game, GameCommand.Type type) {
+        GameCommand c = new GameCommand();
+        c.setGameId(game.getId());
+        c.setType(type);
+        c.setWeek(game.getCurrentWeek());
+        c.setRecordedAt(System.currentTimeMillis());
+        return c;
+    }
+
+    private void append(GameCommand command) {
+        if (enabled) {
+            commandRepository.save(command);
+        }
+    }
+}
@@ -1,32 +1,107 @@
 package com.beergame.backend.service;
 
+import com.beergame.backend.dto.StateInvalidationDTO;
 import com.beergame.backend.model.PlayerInfo;
 import com.beergame.backend.repository.PlayerInfoRepository;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.security.core.userdetails.User; // Import this
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.util.ArrayList; // Import this
 
+/**
+ * Loads users for Spring Security, with a bounded per-node cache in front of
+ * Postgres. Every authenticated REST call and STOMP CONNECT used to run
+ * findByUserName; now only the first lookup per TTL window does.
+ *
+ * The cache holds an immutable (username, passwordHash) pair and a fresh
+ * {@link User} is built per call — ProviderManager erases credentials on the
+ * UserDetails it is handed after login, which would corrupt a shared instance.
+ *
+ * AuthService calls {@link #evict} on username change and account deletion;
+ * other nodes are told over the state-invalidate:user channel.
+ */
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final PlayerInfoRepository playerInfoRepository;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final Cache<String, CachedUser> users;
+
+    private record CachedUser(String userName, String passwordHash) {}
+
+    public CustomUserDetailsService(PlayerInfoRepository playerInfoRepository,
+                                    RedisTemplate<String, Object> redisTemplate,
+                                    @Value("${app.cache.users.max-size:10000}") long maxSize,
+                                    @Value("${app.cache.users.ttl-seconds:300}") long ttlSeconds) {
+        this.playerInfoRepository = playerInfoRepository;
+        this.redisTemplate = redisTemplate;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        
-        PlayerInfo playerInfo = playerInfoRepository.findByUserName(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+
+        CachedUser cached = users.get(username, name -> playerInfoRepository.findByUserName(name)
+                .map((PlayerInfo p) -> new CachedUser(p.getUserName(), p.getPassword()))
+                .orElse(null));
+
+        if (cached == null) {
+            throw new UsernameNotFoundException("User not found with username: " + username);
+        }
 
         return new User(
-                playerInfo.getUserName(),
-                playerInfo.getPassword(),
+                cached.userName(),
+                cached.passwordHash(),
                 new ArrayList<>() 
         );
     }
+
+    /**
+     * Drops {@code username} on this node and on every other node. Inside a
+     * transaction the eviction is repeated after commit, so a lookup racing
+     * the write cannot re-cache the old row.
+     */
+    public void evict(String username) {
+        evictLocal(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictLocal(username);
+                    publishEviction(username);
+                }
+            });
+        } else {
+            publishEviction(username);
+        }
+    }
+
+    private void publishEviction(String username) {
+        try {
+            redisTemplate.convertAndSend(StateCacheService.INVALIDATION_CHANNEL_PREFIX + "user",
+                    new StateInvalidationDTO(StateInvalidationDTO.Kind.USER, username, null,
+                            StateCacheService.nodeId()));
+        } catch (Exception e) {
+            log.warn("Failed to publish user invalidation for {}: {}", username, e.getMessage());
+        }
+    }
+
+    public void evictLocal(String username) {
+        users.invalidate(username);
+    }
 }
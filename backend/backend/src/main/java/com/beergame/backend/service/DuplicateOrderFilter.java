@@ -0,0 +1,231 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.model.Players;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers which players of a game (4) or room (16) already ordered this
+ * week, as one bit per player, so a duplicate submission can be turned away
+ * at the front door.
+ *
+ * WHY?
+ * A duplicate submission was only detected after taking the distributed
+ * lock and loading the game / room from Postgres. The bits let the front
+ * door reject it without either.
+ *
+ * This is a filter, not a source of truth: whether every player is ready —
+ * and so whether the turn advances — is decided by the caller from the
+ * roster it loaded under the lock.
+ *
+ * State per aggregate is (week, mask):
+ *  - in memory: one AtomicLong per aggregate, (week << 32) | mask;
+ *  - in Redis: a BITFIELD under ready:{scope}:{id} — u32 #0 = week,
+ *    u32 #1 = mask — so other nodes see it too.
+ *
+ * Usage:
+ *  1. isAlreadyReady() — before any lock / DB access. The local mask is
+ *     checked first; only a local hit is confirmed against Redis, so the
+ *     common (non-duplicate) case costs nothing and a stale local bit can
+ *     never reject a valid order on its own.
+ *  2. markReady() — inside the order transaction. The bits are overwritten
+ *     with the roster's ready flags once the transaction commits, so a lost
+ *     Redis key or a stray bit heals itself and a rollback leaves nothing
+ *     to undo.
+ *  3. reset() — when the aggregate moves to a new week (TurnService).
+ *
+ * Slots are assigned by sorting the roster by player id, so every node
+ * derives the same slot for the same player. Redis failures fall back to the
+ * in-memory state.
+ */
+@Service
+@Slf4j
+public class DuplicateOrderFilter {
+
+    public enum Scope { GAME, ROOM }
+
+    private static final String KEY_PREFIX = "ready:";
+    private static final int MAX_SLOTS = 32;
+
+    /** Sets week ARGV[1] and mask ARGV[2] together and refreshes the TTL (ARGV[3]). */
+    private static final DefaultRedisScript<Long> SET_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('BITFIELD', KEYS[1], 'SET', 'u32', '#0', ARGV[1], 'SET', 'u32', '#1', ARGV[2])
+            redis.call('EXPIRE', KEYS[1], ARGV[3])
+            return tonumber(ARGV[2])
+            """, Long.class);
+
+    /** Current mask (u32 #1), whatever week it belongs to. */
+    private static final DefaultRedisScript<Long> MASK_SCRIPT = new DefaultRedisScript<>("""
+            return redis.call('BITFIELD', KEYS[1], 'GET', 'u32', '#1')[1]
+            """, Long.class);
+
+    private final StringRedisTemplate redis;
+    private final ReactiveStringRedisTemplate reactiveRedis;
+    private final long ttlSeconds;
+
+    private final Map<String, AtomicLong> local = new ConcurrentHashMap<>();
+    /** username → slot, remembered from the last full roster seen in a transaction. */
+    private final Cache<String, Map<String, Integer>> rosters;
+
+    public DuplicateOrderFilter(StringRedisTemplate redis,
+                        ReactiveStringRedisTemplate reactiveRedis,
+                        @Value("${app.ready.ttl-seconds:86400}") long ttlSeconds,
+                        @Value("${app.ready.max-aggregates:50000}") long maxAggregates) {
+        this.redis = redis;
+        this.reactiveRedis = reactiveRedis;
+        this.ttlSeconds = ttlSeconds;
+        this.rosters = Caffeine.newBuilder()
+                .maximumSize(maxAggregates)
+                .expireAfterAccess(Duration.ofSeconds(ttlSeconds))
+                .removalListener((String key, Map<String, Integer> roster, RemovalCause cause) -> {
+                    if (cause.wasEvicted()) local.remove(key);
+                })
+                .build();
+    }
+
+    // ───────────────────────────────────────────────────────────────────── //
+    //  Front door: duplicate filter (no lock, no DB)
+    // ───────────────────────────────────────────────────────────────────── //
+
+    /**
+     * True only if this player is known to be ready already. Unknown rosters
+     * and Redis errors answer false, i.e. "take the normal path".
+     */
+    public boolean isAlreadyReady(Scope scope, String id, String username) {
+        String key = key(scope, id);
+        Map<String, Integer> roster = rosters.getIfPresent(key);
+        Integer slot = roster != null ? roster.get(username) : null;
+        if (slot == null) return false;
+
+        AtomicLong state = local.get(key);
+        int bit = 1 << slot;
+        if (state == null || (mask(state.get()) & bit) == 0) return false;
+
+        try {
+            Long mask = redis.execute(MASK_SCRIPT, List.of(key));
+            return mask != null && (mask & bit) != 0;
+        } catch (Exception e) {
+            log.warn("Duplicate filter: Redis check failed for {} — using the normal path: {}", key, e.getMessage());
+            return false;
+        }
+    }
+
+    /** Non-blocking variant of {@link #isAlreadyReady} for the reactive order path. */
+    public Mono<Boolean> isAlreadyReadyReactive(Scope scope, String id, String username) {
+        String key = key(scope, id);
+        Map<String, Integer> roster = rosters.getIfPresent(key);
+        Integer slot = roster != null ? roster.get(username) : null;
+        if (slot == null) return Mono.just(false);
+
+        AtomicLong state = local.get(key);
+        int bit = 1 << slot;
+        if (state == null || (mask(state.get()) & bit) == 0) return Mono.just(false);
+
+        return reactiveRedis.execute(MASK_SCRIPT, List.of(key))
+                .next()
+                .map(mask -> (mask & bit) != 0)
+                .defaultIfEmpty(false)
+                .onErrorResume(e -> {
+                    log.warn("Duplicate filter: Redis check failed for {} — using the normal path: {}", key, e.getMessage());
+                    return Mono.just(false);
+                });
+    }
+
+    // ───────────────────────────────────────────────────────────────────── //
+    //  Order transaction
+    // ───────────────────────────────────────────────────────────────────── //
+
+    /**
+     * Records {@code player} as ready for {@code week}. Must run in the order
+     * transaction; the bits are written when it commits.
+     *
+     * @param roster every player of the game / room, already loaded
+     */
+    public void markReady(Scope scope, String id, int week, Collection<Players> roster, Players player) {
+        String key = key(scope, id);
+        Map<String, Integer> slots = slots(roster);
+        rosters.put(key, slots);
+
+        int mask = 1 << slots.get(player.getUserName());
+        for (Players p : roster) {
+            if (p.isReadyForOrder()) mask |= 1 << slots.get(p.getUserName());
+        }
+
+        // Overwriting (not OR-ing) drops any bit the database does not have.
+        int ready = mask;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    overwrite(key, week, ready);
+                }
+            });
+        } else {
+            overwrite(key, week, ready);
+        }
+    }
+
+    /**
+     * Starts a new week for the aggregate with nobody ready. Called while the
+     * turn advance is still in its transaction, so no node can see the old
+     * week's bits after the new week is committed.
+     */
+    public void reset(Scope scope, String id, int week) {
+        overwrite(key(scope, id), week, 0);
+    }
+
+    // ── Internals ─────────────────────────────────────────────────────────────
+
+    private void overwrite(String key, int week, int mask) {
+        local.computeIfAbsent(key, k -> new AtomicLong()).set(pack(week, mask));
+        try {
+            redis.execute(SET_SCRIPT, List.of(key),
+                    String.valueOf(week), String.valueOf(mask & 0xFFFFFFFFL), String.valueOf(ttlSeconds));
+        } catch (Exception e) {
+            log.warn("Duplicate filter: Redis overwrite failed for {}: {}", key, e.getMessage());
+        }
+    }
+
+    private static Map<String, Integer> slots(Collection<Players> roster) {
+        if (roster.size() > MAX_SLOTS) {
+            throw new IllegalStateException("Duplicate filter supports at most " + MAX_SLOTS + " players, got " + roster.size());
+        }
+        List<Players> sorted = roster.stream().sorted(Comparator.comparing(Players::getId)).toList();
+        Map<String, Integer> slots = new HashMap<>();
+        for (int i = 0; i < sorted.size(); i++) {
+            slots.put(sorted.get(i).getUserName(), i);
+        }
+        return Map.copyOf(slots);
+    }
+
+    private static String key(Scope scope, String id) {
+        return KEY_PREFIX + scope.name().toLowerCase() + ":" + id;
+    }
+
+    private static long pack(int week, int mask) {
+        return ((long) week << 32) | (mask & 0xFFFFFFFFL);
+    }
+
+    private static int mask(long state) {
+        return (int) state;
+    }
+}
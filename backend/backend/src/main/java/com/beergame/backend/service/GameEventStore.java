@@ -0,0 +1,226 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.dto.GameTurnHistoryDTO;
+import com.beergame.backend.model.Game;
+import com.beergame.backend.model.GameSnapshot;
+import com.beergame.backend.model.GameTurn;
+import com.beergame.backend.model.GameWeekEvent;
+import com.beergame.backend.model.Players;
+import com.beergame.backend.repository.GameRepository;
+import com.beergame.backend.repository.GameSnapshotRepository;
+import com.beergame.backend.repository.GameWeekEventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Event-sourced view of a game: one GameWeekEvent per played week, a
+ * GameSnapshot every K weeks, and a fold over TurnEngine to rebuild state.
+ *
+ * WHY?
+ * Players rows are overwritten every week and GameTurn only keeps derived
+ * numbers, so "what did the pipeline look like in week 12?" meant joining
+ * both and still missing the in-flight orders. The week events are the
+ * inputs; folding them from the starting state (or the nearest snapshot)
+ * reproduces every week exactly:
+ *  - history(gameId): one indexed range scan of ≤ 25 narrow rows, folded
+ *    from week 1 — no GameTurn × Players join;
+ *  - stateAfter(gameId, week): snapshot at or before {@code week} plus at
+ *    most K events.
+ *
+ * Players stays the current-state projection the live path and the read
+ * model use; events and snapshots are appended in the same transaction as
+ * the turn (TurnService), so the log and the projection never disagree on
+ * which weeks were played. Games that were already running before the log
+ * existed have no week-1 event; callers fall back to GameTurn for those.
+ */
+@Service
+public class GameEventStore {
+
+    private static final Players.RoleType[] ROLES = Players.RoleType.values();
+
+    /** Snapshot layout per role, in RoleType order: 9 ints then 2 doubles. */
+    private static final int BYTES_PER_ROLE = 9 * Integer.BYTES + 2 * Double.BYTES;
+
+    private final GameWeekEventRepository eventRepository;
+    private final GameSnapshotRepository  snapshotRepository;
+    private final GameRepository          gameRepository;
+    private final int                     snapshotEvery;
+
+    public GameEventStore(GameWeekEventRepository eventRepository,
+                          GameSnapshotRepository snapshotRepository,
+                          GameRepository gameRepository,
+                          @Value("${app.events.snapshot-every-weeks:5}") int snapshotEvery) {
+        this.eventRepository = eventRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.gameRepository = gameRepository;
+        this.snapshotEvery = snapshotEvery;
+    }
+
+    // ── Write side ────────────────────────────────────────────────────────────
+
+    /**
+     * Records {@code playedWeek} of {@code game}, whose players have just been
+     * advanced by TurnEngine (their currentOrder is still that week's order).
+     * Joins the caller's transaction.
+     */
+    public void append(Game game, int playedWeek) {
+        Map<Players.RoleType, Players> byRole = byRole(game.getPlayers());
+
+        GameWeekEvent event = new GameWeekEvent();
+        event.setGameId(game.getId());
+        event.setWeek(playedWeek);
+        event.setRetailerOrder(byRole.get(Players.RoleType.RETAILER).getCurrentOrder());
+        event.setWholesalerOrder(byRole.get(Players.RoleType.WHOLESALER).getCurrentOrder());
+        event.setDistributorOrder(byRole.get(Players.RoleType.DISTRIBUTOR).getCurrentOrder());
+        event.setManufacturerOrder(byRole.get(Players.RoleType.MANUFACTURER).getCurrentOrder());
+        event.setRecordedAt(System.currentTimeMillis());
+        eventRepository.save(event);
+
+        if (snapshotEvery > 0 && playedWeek % snapshotEvery == 0) {
+            GameSnapshot snapshot = new GameSnapshot();
+            snapshot.setGameId(game.getId());
+            snapshot.setWeek(playedWeek);
+            snapshot.setState(encode(byRole));
+            snapshotRepository.save(snapshot);
+        }
+    }
+
+    // ── Read side ─────────────────────────────────────────────────────────────
+
+    /**
+     * Per-role history (role name → weeks ascending), folded from the week
+     * events. Empty if the game's log does not start at week 1.
+     */
+    public Optional<Map<String, List<GameTurnHistoryDTO>>> history(String gameId) {
+        List<GameWeekEvent> events = eventRepository.findByGameIdOrderByWeek(gameId);
+        if (events.isEmpty() || !contiguous(events, 1)) {
+            return Optional.empty();
+        }
+
+        Game game = startingState(gameId);
+        Map<String, List<GameTurnHistoryDTO>> history = new TreeMap<>();
+        for (GameWeekEvent event : events) {
+            for (GameTurn turn : play(game, event)) {
+                history.computeIfAbsent(turn.getPlayer().getRole().name(), k -> new ArrayList<>())
+                        .add(GameTurnHistoryDTO.fromEntity(turn));
+            }
+        }
+        return Optional.of(history);
+    }
+
+    /**
+     * Every player's state right after {@code week} was played (0 = the
+     * starting state), as detached Players keyed by role. Empty if the log
+     * does not cover weeks 1..{@code week}.
+     */
+    public Optional<Map<Players.RoleType, Players>> stateAfter(String gameId, int week) {
+        Game game = startingState(gameId);
+        int from = 1;
+
+        Optional<GameSnapshot> snapshot = week > 0
+                ? snapshotRepository.findFirstByGameIdAndWeekLessThanEqualOrderByWeekDesc(gameId, week)
+                : Optional.empty();
+        if (snapshot.isPresent()) {
+            decode(snapshot.get().getState(), byRole(game.getPlayers()));
+            from = snapshot.get().getWeek() + 1;
+            game.setCurrentWeek(from);
+        }
+
+        if (from <= week) {
+            List<GameWeekEvent> events = eventRepository.findByGameIdAndWeekBetweenOrderByWeek(gameId, from, week);
+            if (events.size() != week - from + 1 || !contiguous(events, from)) {
+                return Optional.empty();
+            }
+            events.forEach(event -> play(game, event));
+        }
+        return Optional.of(byRole(game.getPlayers()));
+    }
+
+    // ── Fold ──────────────────────────────────────────────────────────────────
+
+    /** A fresh week-1 game with all four roles seated. */
+    private Game startingState(String gameId) {
+        Game game = new Game();
+        game.setId(gameId);
+        game.setCurrentWeek(1);
+        game.setGameStatus(Game.GameStatus.IN_PROGRESS);
+        game.setFestiveWeeks(new HashSet<>(gameRepository.findFestiveWeeksSortedById(gameId)));
+        for (Players.RoleType role : ROLES) {
+            Players p = new Players();
+            p.setRole(role);
+            p.setGame(game);
+            TurnEngine.seat(p, game);
+            game.getPlayers().add(p);
+        }
+        return game;
+    }
+
+    private static List<GameTurn> play(Game game, GameWeekEvent event) {
+        for (Players p : game.getPlayers()) {
+            p.setCurrentOrder(event.orderOf(p.getRole()));
+        }
+        return TurnEngine.applyWeek(game);
+    }
+
+    private static boolean contiguous(List<GameWeekEvent> events, int firstWeek) {
+        for (int i = 0; i < events.size(); i++) {
+            if (events.get(i).getWeek() != firstWeek + i) return false;
+        }
+        return true;
+    }
+
+    private static Map<Players.RoleType, Players> byRole(List<Players> players) {
+        return players.stream().collect(Collectors.toMap(Players::getRole, Function.identity(),
+                (a, b) -> a, () -> new EnumMap<>(Players.RoleType.class)));
+    }
+
+    // ── Snapshot encoding ─────────────────────────────────────────────────────
+
+    private static byte[] encode(Map<Players.RoleType, Players> byRole) {
+        ByteBuffer buf = ByteBuffer.allocate(ROLES.length * BYTES_PER_ROLE);
+        for (Players.RoleType role : ROLES) {
+            Players p = byRole.get(role);
+            buf.putInt(p.getInventory())
+               .putInt(p.getBackOrder())
+               .putInt(p.getCurrentOrder())
+               .putInt(p.getOutgoingDelivery())
+               .putInt(p.getLastOrderReceived())
+               .putInt(p.getLastShipmentReceived())
+               .putInt(p.getOrderArrivingNextWeek())
+               .putInt(p.getIncomingShipment())
+               .putInt(p.getShipmentArrivingWeekAfterNext())
+               .putDouble(p.getWeeklyCost())
+               .putDouble(p.getTotalCost());
+        }
+        return buf.array();
+    }
+
+    private static void decode(byte[] state, Map<Players.RoleType, Players> byRole) {
+        ByteBuffer buf = ByteBuffer.wrap(state);
+        for (Players.RoleType role : ROLES) {
+            Players p = byRole.get(role);
+            p.setInventory(buf.getInt());
+            p.setBackOrder(buf.getInt());
+            p.setCurrentOrder(buf.getInt());
+            p.setOutgoingDelivery(buf.getInt());
+            p.setLastOrderReceived(buf.getInt());
+            p.setLastShipmentReceived(buf.getInt());
+            p.setOrderArrivingNextWeek(buf.getInt());
+            p.setIncomingShipment(buf.getInt());
+            p.setShipmentArrivingWeekAfterNext(buf.getInt());
+            p.setWeeklyCost(buf.getDouble());
+            p.setTotalCost(buf.getDouble());
+        }
+    }
+}
@@ -3,12 +3,14 @@ package com.beergame.backend.service;
 import com.beergame.backend.config.GameConfig;
 import com.beergame.backend.dto.GameStateDTO;
 import com.beergame.backend.dto.GameTurnHistoryDTO;
+import com.beergame.backend.dto.PlayerStateDTO;
 import com.beergame.backend.event.AllPlayersReadyEvent;
 import com.beergame.backend.event.WeekStartedEvent;
 import com.beergame.backend.model.BotType;
 import com.beergame.backend.model.Game;
 import com.beergame.backend.model.GameRoom;
 import com.beergame.backend.model.GameTurn;
+import com.beergame.backend.model.OutboxEvent;
 import com.beergame.backend.model.PlayerInfo;
 import com.beergame.backend.model.Players;
 import com.beergame.backend.repository.GameRepository;
@@ -16,13 +18,14 @@ import com.beergame.backend.repository.GameRoomRepository;
 import com.beergame.backend.repository.GameTurnRepository;
 import com.beergame.backend.repository.PlayerInfoRepository;
 import com.beergame.backend.repository.PlayerRepository;
+import com.beergame.backend.utils.TimerUtils;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.context.event.EventListener;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.scheduling.annotation.Async;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -31,10 +34,8 @@ import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.retry.annotation.Backoff;
 
-import java.security.SecureRandom;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
 
 /**
  * Changes from the original:
@@ -46,11 +47,13 @@ import java.util.concurrent.CompletableFuture;
  * 4. placeOrder: only registers ONE broadcast — either intermediate state OR
  * lets advanceTurn register it, never both.
  * 5. submitRoomOrder: intermediate broadcast is now post-commit safe.
- * 6. generateUniqueGameId: bounded retry loop with clear error on exhaustion.
+ * 6. Game IDs come from IdAllocator: no existsById retry loop.
  * 7. joinGame: uses game.getCurrentWeek() instead of hardcoded 1 for retailer.
  * 8. placeOrder: order amount validated with upper bound.
  * 9. Game entity now has @Version (optimistic locking) — see Game.java.
  * 10. Batch saves (saveAll) are handled inside TurnService.
+ * 11. submitRoomOrder advances the whole room inline (TurnService.advanceRoomTurn)
+ * instead of fanning out four async per-game transactions.
  */
 @Service
 @RequiredArgsConstructor
@@ -61,57 +64,33 @@ public class GameService {
     // Prevents accidental or malicious integer overflow / runaway costs.
     public static final int MAX_ORDER_AMOUNT = 9_999;
 
-    // ── ID generation ─────────────────────────────────────────────────────────
-    private static final int MAX_ID_RETRIES = 10;
-    private static final String ALPHANUMERIC = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
-    private static final SecureRandom RANDOM = new SecureRandom();
-
     // ── Dependencies ──────────────────────────────────────────────────────────
     private final GameRepository gameRepository;
     private final PlayerRepository playerRepository;
     private final PlayerInfoRepository playerInfoRepository;
     private final GameTurnRepository gameTurnRepository;
     private final GameRoomRepository gameRoomRepository;
-    private final RoomAdvancementService roomAdvancementService;
 
     // New extracted services
     private final RedisLockService redisLockService;
     private final TurnService turnService;
     private final BroadcastService broadcastService;
     private final BotService botService;
-    private final ApplicationEventPublisher eventPublisher;
     private final OrderService orderService;
+    private final StateCacheService stateCacheService;
+    private final OutboxService outboxService;
+    private final DuplicateOrderFilter duplicateFilter;
     private final org.springframework.transaction.support.TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ActivityLog activityLog;
+    private final CommandLog commandLog;
+    private final GameEventStore gameEventStore;
+    private final IdAllocator idAllocator;
 
     // ─────────────────────────────────────────────────────────────────────────
     // Helpers
     // ─────────────────────────────────────────────────────────────────────────
 
-    private String generateRandomId(int length) {
-        StringBuilder sb = new StringBuilder(length);
-        for (int i = 0; i < length; i++) {
-            sb.append(ALPHANUMERIC.charAt(RANDOM.nextInt(ALPHANUMERIC.length())));
-        }
-        return sb.toString();
-    }
-
-    /**
-     * Generates a unique 10-character game ID.
-     * Bounded to MAX_ID_RETRIES attempts — avoids an infinite loop in the
-     * (astronomically unlikely) case of repeated collisions.
-     */
-    private String generateUniqueGameId() {
-        for (int attempt = 0; attempt < MAX_ID_RETRIES; attempt++) {
-            String id = generateRandomId(10);
-            if (!gameRepository.existsById(id)) {
-                return id;
-            }
-            log.warn("Game ID collision on attempt {}: {}", attempt + 1, id);
-        }
-        throw new RuntimeException(
-                "Failed to generate a unique game ID after " + MAX_ID_RETRIES + " attempts");
-    }
-
     @Async
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
@@ -152,30 +131,18 @@ public class GameService {
             bot.setRole(role);
             bot.setBot(true);
             bot.setBotType(botType);
-            bot.setInventory(GameConfig.INITIAL_INVENTORY);
-            bot.setBackOrder(0);
-            bot.setWeeklyCost(0);
-            bot.setTotalCost(0);
             bot.setReadyForOrder(false);
-
-            int currentWeek = game.getCurrentWeek();
-            if (role == Players.RoleType.RETAILER) {
-                bot.setOrderArrivingNextWeek(
-                        GameConfig.getCustomerDemand(currentWeek, game.getFestiveWeeks()));
-            } else {
-                bot.setOrderArrivingNextWeek(GameConfig.INITIAL_PIPELINE_LEVEL);
-            }
-            bot.setIncomingShipment(GameConfig.INITIAL_PIPELINE_LEVEL);
-            bot.setShipmentArrivingWeekAfterNext(GameConfig.INITIAL_PIPELINE_LEVEL);
+            TurnEngine.seat(bot, game);
             bot.setGame(game);
 
             game.getPlayers().add(bot);
             playerRepository.save(bot);
+            commandLog.seated(game, bot);
 
             if (game.getPlayers().size() == 4 && game.getGameStatus() == Game.GameStatus.LOBBY) {
                 game.setGameStatus(Game.GameStatus.IN_PROGRESS);
                 gameRepository.save(game);
-                eventPublisher.publishEvent(new WeekStartedEvent(this, gameId, 1));
+                outboxService.enqueue(OutboxEvent.Type.WEEK_STARTED, gameId, 1);
             }
 
             broadcastService.broadcastGameAfterCommit(gameId);
@@ -196,7 +163,7 @@ public class GameService {
                 .orElseThrow(() -> new RuntimeException("User not found: " + creatorUsername));
 
         Game game = new Game();
-        game.setId(generateUniqueGameId());
+        game.setId(idAllocator.nextGameId());
         game.setGameStatus(Game.GameStatus.LOBBY);
         game.setCurrentWeek(1);
         game.setCreatedAt(LocalDateTime.now());
@@ -204,6 +171,7 @@ public class GameService {
         game.setFestiveWeek(GameConfig.isFestiveWeek(1, game.getFestiveWeeks()));
 
         Game saved = gameRepository.save(game);
+        commandLog.gameCreated(saved);
         log.info("Created game id={}", saved.getId());
         
         // Ping the bot service to wake up the Render instance
@@ -253,29 +221,18 @@ public class GameService {
             player.setUserName(playerInfo.getUserName());
             player.setPlayerInfo(playerInfo);
             player.setRole(role);
-            player.setInventory(GameConfig.INITIAL_INVENTORY);
-            player.setBackOrder(0);
-            player.setWeeklyCost(0);
-            player.setTotalCost(0);
             player.setReadyForOrder(false);
 
-            // FIX: use the game's actual currentWeek, not hardcoded 1.
+            // FIX: uses the game's actual currentWeek, not hardcoded 1.
             // (Matters if, e.g., a player reconnects mid-game to a saved lobby.)
-            int currentWeek = game.getCurrentWeek();
-            if (role == Players.RoleType.RETAILER) {
-                player.setOrderArrivingNextWeek(GameConfig.getCustomerDemand(currentWeek, game.getFestiveWeeks()));
-
-            } else {
-                player.setOrderArrivingNextWeek(GameConfig.INITIAL_PIPELINE_LEVEL);
-            }
-            player.setIncomingShipment(GameConfig.INITIAL_PIPELINE_LEVEL);
-            player.setShipmentArrivingWeekAfterNext(GameConfig.INITIAL_PIPELINE_LEVEL);
+            TurnEngine.seat(player, game);
             player.setGame(game);
 
             // Add to in-memory list before saving so the returned Game object
             // is always consistent with what was just persisted.
             game.getPlayers().add(player);
             playerRepository.save(player);
+            commandLog.seated(game, player);
             log.info("Player {} joined game {} as {}", username, gameId, role);
 
             // Auto-start when all 4 roles are filled
@@ -284,7 +241,7 @@ public class GameService {
                 game.setGameStatus(Game.GameStatus.IN_PROGRESS);
                 gameRepository.save(game);
                 log.info("Game {} → IN_PROGRESS", gameId);
-                eventPublisher.publishEvent(new WeekStartedEvent(this, gameId, 1));
+                outboxService.enqueue(OutboxEvent.Type.WEEK_STARTED, gameId, 1);
             }
 
             broadcastService.broadcastGameAfterCommit(gameId);
@@ -313,15 +270,23 @@ public class GameService {
      * consistent data.
      */
     public void placeOrder(String gameId, String username, int orderAmount) {
+        placeOrder(gameId, username, orderAmount, null);
+    }
+
+    /**
+     * Same as above; a non-null {@code targetWeek} rejects the order if the
+     * game has already moved past that week (late client retry / stale bot).
+     */
+    public void placeOrder(String gameId, String username, int orderAmount, Integer targetWeek) {
         Game game = gameRepository.findById(gameId)
                 .orElseThrow(() -> new RuntimeException("Game not found: " + gameId));
         
         if (game.getGameRoom() != null) {
-            submitRoomOrder(game.getGameRoom().getId(), username, orderAmount);
+            submitRoomOrder(game.getGameRoom().getId(), username, orderAmount, targetWeek);
             return;
         }
         
-        orderService.placeOrder(gameId, username, orderAmount, null);
+        orderService.placeOrder(gameId, username, orderAmount, targetWeek);
     }
 
     // ─────────────────────────────────────────────────────────────────────────
@@ -334,72 +299,91 @@ public class GameService {
      * FIX: intermediate state is now broadcast post-commit (not mid-transaction).
      */
     public void submitRoomOrder(String roomId, String username, int orderAmount) {
-        redisLockService.executeWithLock(roomId, 10, () -> {
-            return transactionTemplate.execute(status -> {
-                // ── Validate ──────────────────────────────────────────────────────────
-                if (orderAmount < 0 || orderAmount > MAX_ORDER_AMOUNT) {
-                    throw new IllegalArgumentException(
-                            "Order amount must be 0–" + MAX_ORDER_AMOUNT + ", got: " + orderAmount);
-                }
-
-                GameRoom room = gameRoomRepository.findByIdWithAllData(roomId)
-                        .orElseThrow(() -> new RuntimeException("Room not found: " + roomId));
-
-                if (room.getStatus() != GameRoom.RoomStatus.RUNNING) {
-                    throw new RuntimeException("Room " + roomId + " is not currently running.");
-                }
-
-                Players player = room.getTeams().stream()
-                        .flatMap(team -> team.getPlayers() != null ? team.getPlayers().stream() : java.util.stream.Stream.empty())
-                        .filter(p -> p.getUserName().equals(username))
-                        .findFirst()
-                        .orElseThrow(() -> new RuntimeException("Player not found in room: " + username));
-
-                if (player.isReadyForOrder()) {
-                    log.warn("Player {} already submitted order for room {}", username, roomId);
-                    return null;
-                }
-
-                player.setCurrentOrder(orderAmount);
-                player.setReadyForOrder(true);
-                playerRepository.save(player);
-
-                boolean allReady = room.getTeams().stream()
-                        .flatMap(team -> team.getPlayers() != null ? team.getPlayers().stream() : java.util.stream.Stream.empty())
-                        .allMatch(Players::isReadyForOrder);
-
-                if (!allReady) {
-                    // FIX: was calling broadcastRoomState() mid-transaction (before commit).
-                    // Now we wait until after commit so clients see consistent DB state.
-                    broadcastService.broadcastRoomAfterCommit(roomId);
-                    broadcastService.broadcastGameAfterCommit(player.getGame().getId());
-                    return null;
-                }
-
-                log.info("All players in room {} ready. Advancing all games.", roomId);
-
-                List<String> gameIds = room.getGames().stream().map(Game::getId).toList();
-
-                if (gameIds.size() != 4) {
-                    log.error("Room {} has {} game(s) instead of 4 — cannot advance.", roomId, gameIds.size());
-                    return null;
-                }
-
-                org.springframework.transaction.support.TransactionSynchronizationManager.registerSynchronization(new org.springframework.transaction.support.TransactionSynchronization() {
-                    @Override
-                    public void afterCommit() {
-                        List<CompletableFuture<Void>> futures = gameIds.stream()
-                                .map(roomAdvancementService::advanceGame)
-                                .collect(java.util.stream.Collectors.toList());
-
-                        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenRun(() -> {
-                            log.info("All games in room {} advanced. Running post-turn cleanup.", roomId);
-                            turnService.postAdvanceRoomTurn(roomId);
-                        });
-                    }
-                });
+        submitRoomOrder(roomId, username, orderAmount, null);
+    }
+
+    /** Room variant of the targetWeek-guarded placeOrder. */
+    public void submitRoomOrder(String roomId, String username, int orderAmount, Integer targetWeek) {
+        // Duplicate submission? Rejected before any lock or DB access.
+        if (duplicateFilter.isAlreadyReady(DuplicateOrderFilter.Scope.ROOM, roomId, username)) {
+            log.warn("Player {} already submitted order for room {} — ignored.", username, roomId);
+            return;
+        }
+
+        TimerUtils.time(meterRegistry, "beergame.order.place", () ->
+                redisLockService.executeWithLock(roomId, 10,
+                        () -> applyRoomOrder(roomId, username, orderAmount, targetWeek)), "scope", "room");
+    }
+
+    /**
+     * The transactional part of submitRoomOrder. Caller must hold the room
+     * lock (submitRoomOrder, or ReactiveOrderService).
+     */
+    Void applyRoomOrder(String roomId, String username, int orderAmount, Integer targetWeek) {
+        return transactionTemplate.execute(status -> {
+            // ── Validate ──────────────────────────────────────────────────────────
+            if (orderAmount < 0 || orderAmount > MAX_ORDER_AMOUNT) {
+                throw new IllegalArgumentException(
+                        "Order amount must be 0–" + MAX_ORDER_AMOUNT + ", got: " + orderAmount);
+            }
+
+            GameRoom room = gameRoomRepository.findByIdWithAllData(roomId)
+                    .orElseThrow(() -> new RuntimeException("Room not found: " + roomId));
+
+            if (room.getStatus() != GameRoom.RoomStatus.RUNNING) {
+                throw new RuntimeException("Room " + roomId + " is not currently running.");
+            }
+
+            Players player = room.getTeams().stream()
+                    .flatMap(team -> team.getPlayers() != null ? team.getPlayers().stream() : java.util.stream.Stream.empty())
+                    .filter(p -> p.getUserName().equals(username))
+                    .findFirst()
+                    .orElseThrow(() -> new RuntimeException("Player not found in room: " + username));
+
+            if (targetWeek != null && player.getGame().getCurrentWeek() != targetWeek) {
+                log.warn("Stale room order rejected! Tried to submit for week {} but room {} is on week {}",
+                        targetWeek, roomId, player.getGame().getCurrentWeek());
+                return null;
+            }
+
+            if (player.isReadyForOrder()) {
+                log.warn("Player {} already submitted order for room {}", username, roomId);
+                return null;
+            }
+
+            player.setCurrentOrder(orderAmount);
+            player.setReadyForOrder(true);
+            playerRepository.save(player);
+            commandLog.order(player.getGame(), player, orderAmount);
+
+            List<Players> roster = room.getTeams().stream()
+                    .flatMap(team -> team.getPlayers() != null ? team.getPlayers().stream() : java.util.stream.Stream.empty())
+                    .toList();
+            duplicateFilter.markReady(DuplicateOrderFilter.Scope.ROOM, roomId,
+                    player.getGame().getCurrentWeek(), roster, player);
+            boolean allReady = roster.stream().allMatch(Players::isReadyForOrder);
+
+            if (!allReady) {
+                // FIX: was calling broadcastRoomState() mid-transaction (before commit).
+                // Now we wait until after commit so clients see consistent DB state.
+                broadcastService.broadcastRoomAfterCommit(roomId);
+                broadcastService.broadcastGameAfterCommit(player.getGame().getId());
+                return null;
+            }
+
+            if (activityLog.sampled(log, roomId)) {
+                log.debug("All players in room {} ready. Advancing all games.", roomId);
+            }
+
+            if (room.getGames().size() != 4) {
+                log.error("Room {} has {} game(s) instead of 4 — cannot advance.", roomId, room.getGames().size());
                 return null;
-            });
+            }
+
+            // Same transaction, same lock, same loaded room: the last order
+            // and the room-week advance commit together.
+            turnService.advanceRoomTurn(room);
+            return null;
         });
     }
 
@@ -407,12 +391,22 @@ public class GameService {
     // Queries
     // ─────────────────────────────────────────────────────────────────────────
 
+    /**
+     * Per-role history, folded from the game's week events (GameEventStore).
+     * Games whose event log does not start at week 1 — they were already
+     * running when it was introduced — are read from GameTurn instead.
+     */
     @Transactional(readOnly = true)
     public Map<String, List<GameTurnHistoryDTO>> getGameHistory(String gameId) {
         if (!gameRepository.existsById(gameId)) {
             throw new RuntimeException("Game not found: " + gameId);
         }
 
+        Optional<Map<String, List<GameTurnHistoryDTO>>> folded = gameEventStore.history(gameId);
+        if (folded.isPresent()) {
+            return folded.get();
+        }
+
         // Single query for all turns — avoids MultipleBagFetchException
         List<GameTurn> allTurns = gameTurnRepository.findByPlayer_Game_Id(gameId);
 
@@ -428,10 +422,31 @@ public class GameService {
         // Sort each role's history by ascending week number
         response.values().forEach(list -> list.sort(Comparator.comparingInt(GameTurnHistoryDTO::weekDay)));
 
-        log.info("Fetched history for game {}: {} total turns.", gameId, allTurns.size());
+        log.debug("Fetched history for game {}: {} total turns.", gameId, allTurns.size());
         return response;
     }
 
+    /**
+     * Every player's state right after {@code week} was played (0 = before
+     * week 1), rebuilt from the nearest snapshot and the week events.
+     */
+    @Transactional(readOnly = true)
+    public List<PlayerStateDTO> getStateAfterWeek(String gameId, int week) {
+        List<PlayerStateDTO> roster = gameRepository.findPlayerStatesByGameId(gameId);
+        if (roster.isEmpty()) {
+            throw new RuntimeException("Game not found: " + gameId);
+        }
+        Map<Players.RoleType, Players> state = gameEventStore.stateAfter(gameId, week)
+                .orElseThrow(() -> new RuntimeException("Event log not found for game " + gameId + " week " + week));
+
+        return roster.stream().map(r -> {
+            Players p = state.get(r.role());
+            return new PlayerStateDTO(r.id(), r.userName(), r.role(), p.getInventory(), p.getBackOrder(),
+                    p.getCurrentOrder(), p.getIncomingShipment(), p.getWeeklyCost(), p.getTotalCost(),
+                    false, p.getLastOrderReceived(), gameId);
+        }).toList();
+    }
+
     // ─────────────────────────────────────────────────────────────────────────
     // Public broadcast delegate (used by GameController response path)
     // ─────────────────────────────────────────────────────────────────────────
@@ -452,11 +467,10 @@ public class GameService {
      * Returns the current GameStateDTO for a game by ID.
      * Used by GET /api/game/{gameId} to let clients seed their UI on mount
      * without relying on a WebSocket broadcast that may have already fired.
+     *
+     * Served from the node's near cache, backed by the projection read model.
      */
-    @Transactional(readOnly = true)
     public GameStateDTO getGameState(String gameId) {
-        Game game = gameRepository.findByIdWithPlayers(gameId)
-                .orElseThrow(() -> new RuntimeException("Game not found: " + gameId));
-        return GameStateDTO.fromGame(game);
+        return stateCacheService.getGameState(gameId);
     }
 }
\ No newline at end of file
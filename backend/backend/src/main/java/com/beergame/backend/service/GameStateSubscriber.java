@@ -1,6 +1,7 @@
 package com.beergame.backend.service;
 
 import com.beergame.backend.dto.GameStateDTO;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
@@ -26,16 +27,27 @@ import org.springframework.stereotype.Service;
 public class GameStateSubscriber {
 
     private final SimpMessagingTemplate messagingTemplate;
+    private final MeterRegistry meterRegistry;
+    private final OrderTracing orderTracing;
+    private final ActivityLog activityLog;
 
     /**
      * Called by the Redis MessageListenerAdapter (configured in RedisConfig)
-     * with an already-deserialised GameStateDTO.
+     * with an already-deserialised GameStateDTO. A traced state is fanned out
+     * inside the order's trace, without the trace itself.
      */
     public void receiveMessage(GameStateDTO gameState) {
         try {
             String topic = "/topic/game/" + gameState.gameId();
-            log.info("Received game state from Redis. Broadcasting to: {}", topic);
-            messagingTemplate.convertAndSend(topic, gameState);
+            activityLog.record(ActivityLog.Activity.GAME_FANOUT);
+            if (activityLog.sampled(log, gameState.gameId())) {
+                log.debug("Received game state from Redis. Broadcasting to: {}", topic);
+            }
+            GameStateDTO frame = gameState.trace() != null ? gameState.withTrace(null) : gameState;
+            // Redis receive → handed to every local subscriber's outbound queue
+            orderTracing.delivered(gameState.trace(), () ->
+                    meterRegistry.timer("beergame.broadcast.fanout", "kind", "game")
+                            .record(() -> messagingTemplate.convertAndSend(topic, frame)));
         } catch (Exception e) {
             log.error("Error broadcasting game state to WebSocket", e);
         }
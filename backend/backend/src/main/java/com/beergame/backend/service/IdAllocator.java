@@ -0,0 +1,251 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.config.Bulkhead;
+import com.beergame.backend.model.IdBlock;
+import com.beergame.backend.repository.IdBlockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Allocates the public 10-character game and room IDs without touching the
+ * database on the hot path.
+ *
+ * WHY?
+ * IDs used to be 10 random ALPHANUMERIC characters checked with existsById,
+ * one round-trip per attempt — four of them inside the room lock every time
+ * a room started. Random IDs can also collide, which is why the check (and
+ * its retry loop) existed at all.
+ *
+ * Now every ID is a counter value pushed through a keyed permutation:
+ *  1. Counters come from blocks of app.ids.block-size values; a block is
+ *     leased by inserting an IdBlock row, whose sequence id is the block
+ *     number. Sequence values are never reissued, so two nodes (or two runs
+ *     of one node) never hand out the same counter.
+ *  2. The counter is mapped onto [0, 36^10) by an 8-round Feistel network
+ *     over two base-36^5 halves with HMAC-SHA256 round functions keyed by
+ *     app.ids.key and the ID kind. A Feistel network is a bijection, so
+ *     distinct counters give distinct codes — collision-free by
+ *     construction, no lookup needed — while consecutive counters give
+ *     codes that cannot be predicted without the key.
+ *  3. The result is written as exactly 10 ALPHANUMERIC characters.
+ *
+ * The next block is leased in the background once the current one is down
+ * to app.ids.low-water values, so next() is an in-memory increment and a
+ * few HMACs. Only the very first ID of a kind on a node (or one after a
+ * failed prefetch) waits for a lease.
+ *
+ * app.ids.key must never change once IDs have been issued: a different key
+ * is a different permutation and may reproduce existing codes. IDs issued
+ * randomly before this allocator existed are not in its accounting; a
+ * repeat of one is as likely as a random collision was. New Game rows
+ * (null @Version) and GameRoom rows (Persistable) are persisted, never
+ * merged, so such a repeat fails on the primary key instead of
+ * overwriting the existing row.
+ */
+@Service
+@Slf4j
+public class IdAllocator {
+
+    static final String ALPHANUMERIC = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+    static final int    LENGTH       = 10;
+
+    private static final int  ROUNDS = 8;
+    /** 36^5: size of each Feistel half. */
+    private static final long HALF   = 60_466_176L;
+    /** 36^10: size of the ID space. */
+    static final long         SPACE  = HALF * HALF;
+
+    private final IdBlockRepository  blockRepository;
+    private final TransactionTemplate leaseTx;
+    private final Bulkhead           asyncExecutor;
+    private final SecretKeySpec      key;
+    private final int                blockSize;
+    private final int                lowWater;
+    private final Map<IdBlock.Kind, Pool> pools = new EnumMap<>(IdBlock.Kind.class);
+    /** Mac is stateful and not thread-safe; one initialised instance per thread. */
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::newMac);
+
+    public IdAllocator(IdBlockRepository blockRepository,
+                       PlatformTransactionManager transactionManager,
+                       @Qualifier("asyncExecutor") Bulkhead asyncExecutor,
+                       @Value("${app.ids.key}") String key,
+                       @Value("${app.ids.block-size:1000}") int blockSize,
+                       @Value("${app.ids.low-water:200}") int lowWater) {
+        if (key == null || key.length() < 16) {
+            throw new IllegalStateException("app.ids.key must be at least 16 characters");
+        }
+        this.blockRepository = blockRepository;
+        // Own transaction: a lease must commit even if the caller's rolls back
+        this.leaseTx = new TransactionTemplate(transactionManager);
+        this.leaseTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.asyncExecutor = asyncExecutor;
+        this.key = new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        this.blockSize = blockSize;
+        this.lowWater = Math.min(lowWater, blockSize - 1);
+        for (IdBlock.Kind kind : IdBlock.Kind.values()) {
+            pools.put(kind, new Pool(kind));
+        }
+    }
+
+    public String nextGameId() {
+        return next(IdBlock.Kind.GAME);
+    }
+
+    public String nextRoomId() {
+        return next(IdBlock.Kind.ROOM);
+    }
+
+    private String next(IdBlock.Kind kind) {
+        long counter = pools.get(kind).take();
+        if (counter >= SPACE) {
+            throw new IllegalStateException("ID space exhausted for " + kind);
+        }
+        return encode(permute(kind, counter));
+    }
+
+    // ── Blocks ────────────────────────────────────────────────────────────────
+
+    /** Counters of one kind on this node: the current block plus one prefetched. */
+    private final class Pool {
+
+        private final IdBlock.Kind kind;
+        // ReentrantLock, not synchronized: a cold-start lease blocks on JDBC
+        // and must not pin the caller's virtual thread to its carrier.
+        private final ReentrantLock lock = new ReentrantLock();
+        private long next;          // guarded by lock
+        private long end;           // guarded by lock
+        private Long spare;         // guarded by lock
+        private boolean refilling;  // guarded by lock
+
+        Pool(IdBlock.Kind kind) {
+            this.kind = kind;
+        }
+
+        long take() {
+            lock.lock();
+            try {
+                if (next == end) {
+                    long block = spare != null ? spare : lease(kind);
+                    spare = null;
+                    next = block * blockSize;
+                    end = next + blockSize;
+                }
+                long counter = next++;
+                if (spare == null && !refilling && end - next <= lowWater) {
+                    refilling = true;
+                    try {
+                        asyncExecutor.execute(this::refill);
+                    } catch (RuntimeException e) {
+                        refilling = false;
+                        log.warn("Could not schedule {} ID block prefetch: {}", kind, e.getMessage());
+                    }
+                }
+                return counter;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void refill() {
+            Long block = null;
+            try {
+                block = lease(kind);
+            } catch (RuntimeException e) {
+                // take() leases synchronously if the block runs out first
+                log.warn("{} ID block prefetch failed: {}", kind, e.getMessage());
+            }
+            lock.lock();
+            try {
+                spare = block;
+                refilling = false;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private long lease(IdBlock.Kind kind) {
+        Long block = leaseTx.execute(status -> {
+            IdBlock row = new IdBlock();
+            row.setKind(kind);
+            row.setNode(StateCacheService.nodeId());
+            row.setLeasedAt(System.currentTimeMillis());
+            return blockRepository.save(row).getId();
+        });
+        log.debug("Leased {} ID block {}.", kind, block);
+        return block;
+    }
+
+    // ── Permutation ───────────────────────────────────────────────────────────
+
+    /** Keyed bijection on [0, SPACE): balanced Feistel network over Z_HALF × Z_HALF. */
+    long permute(IdBlock.Kind kind, long value) {
+        long left = value / HALF;
+        long right = value % HALF;
+        Mac mac = mac();
+        for (int round = 0; round < ROUNDS; round++) {
+            long mixed = (left + round(mac, kind, round, right)) % HALF;
+            left = right;
+            right = mixed;
+        }
+        return left * HALF + right;
+    }
+
+    /** Inverse of permute(); used to check the bijection, never on the hot path. */
+    long unpermute(IdBlock.Kind kind, long value) {
+        long left = value / HALF;
+        long right = value % HALF;
+        Mac mac = mac();
+        for (int round = ROUNDS - 1; round >= 0; round--) {
+            long previous = Math.floorMod(right - round(mac, kind, round, left), HALF);
+            right = left;
+            left = previous;
+        }
+        return left * HALF + right;
+    }
+
+    private static long round(Mac mac, IdBlock.Kind kind, int round, long half) {
+        mac.update((byte) kind.ordinal());
+        mac.update((byte) round);
+        mac.update(ByteBuffer.allocate(Long.BYTES).putLong(half).array());
+        long f = ByteBuffer.wrap(mac.doFinal()).getLong();
+        return Math.floorMod(f, HALF);
+    }
+
+    private Mac mac() {
+        return macs.get();
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+
+    static String encode(long value) {
+        char[] chars = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHANUMERIC.charAt((int) (value % ALPHANUMERIC.length()));
+            value /= ALPHANUMERIC.length();
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,336 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.dto.LeaderboardDTO;
+import com.beergame.backend.event.GameFinishedEvent;
+import com.beergame.backend.model.CohortStats;
+import com.beergame.backend.model.Game;
+import com.beergame.backend.model.LeaderboardScore;
+import com.beergame.backend.model.Players;
+import com.beergame.backend.repository.CohortStatsRepository;
+import com.beergame.backend.repository.LeaderboardScoreRepository;
+import com.beergame.backend.repository.LeaderboardScoreRepository.BestScoreView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisZSetCommands.ZAddArgs;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Global and per-period leaderboards of human players, by role and by
+ * bot-adjusted cost.
+ *
+ * WHY?
+ * The only ranking was RoomResultDTO sorting four teams in memory. A global
+ * board has to rank every player who ever finished a game; sorting score
+ * rows per request is a full scan, and so is OFFSET paging to find one
+ * user's rank.
+ *
+ * Each board is a Redis sorted set of userName → best (lowest) score:
+ *  - top-K is ZRANGE 0..K-1 and rank-of-user is ZRANK + ZSCORE, both
+ *    O(log N) however many games have finished;
+ *  - a finished game adds its players with ZADD LT, which keeps each
+ *    user's best score and makes re-delivered GameFinishedEvents harmless.
+ *
+ * Boards, per period ("all", the ISO week and the month the game finished
+ * in): "leaderboard:{period}:{ROLE}" ranks raw total cost within one role;
+ * "leaderboard:{period}:adjusted" ranks across roles by cost as a
+ * percentage of what bots averaged in the same role (CohortStats, so 100 is
+ * bot par). Weekly and monthly sets expire after
+ * app.leaderboard.period-retention-days.
+ *
+ * Postgres is the backing store: recordFinished() writes one
+ * LeaderboardScore row per human in the transaction that finishes the game,
+ * and the sorted sets are filled only after that commits. If Redis was
+ * unavailable or flushed, rebuild() streams the grouped rows back into
+ * fresh sets and swaps them in with RENAME.
+ */
+@Service
+@Slf4j
+public class LeaderboardService {
+
+    static final String KEY_PREFIX = "leaderboard:";
+    static final String ADJUSTED = "adjusted";
+    static final String ALL_TIME = "all";
+
+    private static final Pattern WEEK  = Pattern.compile("(\\d{4})-W(\\d{2})");
+    private static final Pattern MONTH = Pattern.compile("\\d{4}-\\d{2}");
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime END_OF_TIME = LocalDateTime.of(9999, 1, 1, 0, 0);
+    private static final int REBUILD_BATCH = 1000;
+
+    private final LeaderboardScoreRepository scoreRepository;
+    private final CohortStatsRepository      cohortRepository;
+    private final StringRedisTemplate        redis;
+    private final TransactionTemplate        readOnlyTx;
+    private final Set<String>                operators;
+    private final int                        maxTop;
+    private final long                       retentionDays;
+
+    public LeaderboardService(LeaderboardScoreRepository scoreRepository,
+                              CohortStatsRepository cohortRepository,
+                              StringRedisTemplate redis,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.leaderboard.operators:}") Set<String> operators,
+                              @Value("${app.leaderboard.max-top:100}") int maxTop,
+                              @Value("${app.leaderboard.period-retention-days:400}") long retentionDays) {
+        this.scoreRepository = scoreRepository;
+        this.cohortRepository = cohortRepository;
+        this.redis = redis;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.operators = Set.copyOf(operators);
+        this.maxTop = maxTop;
+        this.retentionDays = retentionDays;
+    }
+
+    /** A rebuild rewrites every current board; only listed users may start one. */
+    public boolean isOperator(String username) {
+        return operators.contains(username);
+    }
+
+    // ── Write side ────────────────────────────────────────────────────────────
+
+    /**
+     * Records the human players of a game that has just finished. Joins the
+     * caller's transaction (TurnService), after AnalyticsService has folded
+     * the game into CohortStats.
+     */
+    public void recordFinished(Game game) {
+        List<LeaderboardScore> scores = new ArrayList<>();
+        for (Players p : game.getPlayers()) {
+            if (p.isBot()) continue;
+            Double baseline = botBaseline(p.getRole());
+
+            LeaderboardScore score = new LeaderboardScore();
+            score.setGameId(game.getId());
+            score.setUserName(p.getUserName());
+            score.setRole(p.getRole());
+            score.setTotalCost(p.getTotalCost());
+            score.setAdjustedCost(baseline == null ? null : 100.0 * p.getTotalCost() / baseline);
+            score.setFinishedAt(game.getFinishedAt());
+            scores.add(score);
+        }
+        scoreRepository.saveAll(scores);
+    }
+
+    /** Mean total cost of bots in {@code role}; null until a bot game has finished in it. */
+    private Double botBaseline(Players.RoleType role) {
+        double cost = 0;
+        long games = 0;
+        for (CohortStats c : cohortRepository.findByRole(role)) {
+            if (c.getCohort().startsWith("BOT_")) {
+                cost += c.getTotalCost();
+                games += c.getGames();
+            }
+        }
+        return games == 0 || cost <= 0 ? null : cost / games;
+    }
+
+    /**
+     * Publishes a finished game's scores once its transaction has committed:
+     * one pipeline of ZADD LT per board and period.
+     */
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onGameFinished(GameFinishedEvent event) {
+        List<LeaderboardScore> scores = scoreRepository.findByGameId(event.getGameId());
+        if (scores.isEmpty()) return;
+
+        try {
+            redis.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection conn = (StringRedisConnection) connection;
+                for (LeaderboardScore s : scores) {
+                    LocalDate day = s.getFinishedAt().toLocalDate();
+                    for (String period : List.of(ALL_TIME, weekOf(day), monthOf(day))) {
+                        add(conn, key(period, s.getRole().name()), s.getTotalCost(), s.getUserName(), period);
+                        if (s.getAdjustedCost() != null) {
+                            add(conn, key(period, ADJUSTED), s.getAdjustedCost(), s.getUserName(), period);
+                        }
+                    }
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            // Rows are committed; a rebuild() restores the sets.
+            log.warn("Leaderboard update for game {} failed: {}", event.getGameId(), e.getMessage());
+        }
+    }
+
+    private void add(StringRedisConnection conn, String key, double score, String userName, String period) {
+        conn.zAdd(key, score, userName, ZAddArgs.empty().lt());
+        if (!ALL_TIME.equals(period)) {
+            conn.expire(key, TimeUnit.DAYS.toSeconds(retentionDays));
+        }
+    }
+
+    // ── Read side ─────────────────────────────────────────────────────────────
+
+    /** The best {@code limit} players of one board. */
+    public LeaderboardDTO top(String board, String period, int limit) {
+        if (limit < 1 || limit > maxTop) {
+            throw new IllegalArgumentException("limit must be 1–" + maxTop + ", got: " + limit);
+        }
+        String b = board(board);
+        String p = period(period);
+        String key = key(p, b);
+
+        Set<TypedTuple<String>> top = redis.opsForZSet().rangeWithScores(key, 0, limit - 1);
+        Long size = redis.opsForZSet().zCard(key);
+
+        List<LeaderboardDTO.Entry> entries = new ArrayList<>();
+        long rank = 1;
+        if (top != null) {
+            for (TypedTuple<String> t : top) {
+                entries.add(new LeaderboardDTO.Entry(rank++, t.getValue(), t.getScore()));
+            }
+        }
+        return new LeaderboardDTO(b, p, size == null ? 0 : size, entries);
+    }
+
+    /** {@code userName}'s position on one board. */
+    public LeaderboardDTO.Entry rankOf(String board, String period, String userName) {
+        String key = key(period(period), board(board));
+        Long rank = redis.opsForZSet().rank(key, userName);
+        Double score = redis.opsForZSet().score(key, userName);
+        if (rank == null || score == null) {
+            throw new RuntimeException("Leaderboard entry not found: " + userName);
+        }
+        return new LeaderboardDTO.Entry(rank + 1, userName, score);
+    }
+
+    // ── Rebuild ───────────────────────────────────────────────────────────────
+
+    /**
+     * Rebuilds the all-time, current-week and current-month boards from
+     * LeaderboardScore. Each set is filled under a temporary key and renamed
+     * over the live one, so readers never see a half-built board. Returns
+     * the number of boards rebuilt.
+     */
+    public int rebuild() {
+        LocalDate today = LocalDate.now();
+        int rebuilt = 0;
+        for (String period : List.of(ALL_TIME, weekOf(today), monthOf(today))) {
+            LocalDateTime[] range = range(period);
+            rebuildBoard(period, ADJUSTED, () -> scoreRepository.streamBestAdjusted(range[0], range[1]));
+            rebuilt++;
+            for (Players.RoleType role : Players.RoleType.values()) {
+                rebuildBoard(period, role.name(), () -> scoreRepository.streamBestCost(role, range[0], range[1]));
+                rebuilt++;
+            }
+        }
+        log.info("Rebuilt {} leaderboard(s).", rebuilt);
+        return rebuilt;
+    }
+
+    private void rebuildBoard(String period, String board, Supplier<Stream<BestScoreView>> rows) {
+        String key = key(period, board);
+        String tmp = key + ":rebuild";
+        redis.delete(tmp);
+
+        Long written = readOnlyTx.execute(status -> {
+            long n = 0;
+            try (Stream<BestScoreView> stream = rows.get()) {
+                Iterator<BestScoreView> it = stream.iterator();
+                List<BestScoreView> batch = new ArrayList<>(REBUILD_BATCH);
+                while (it.hasNext()) {
+                    batch.add(it.next());
+                    if (batch.size() == REBUILD_BATCH || !it.hasNext()) {
+                        redis.executePipelined((RedisCallback<Object>) connection -> {
+                            StringRedisConnection conn = (StringRedisConnection) connection;
+                            batch.forEach(v -> conn.zAdd(tmp, v.getScore(), v.getUserName()));
+                            return null;
+                        });
+                        n += batch.size();
+                        batch.clear();
+                    }
+                }
+            }
+            return n;
+        });
+
+        if (written == null || written == 0) {
+            redis.delete(key);
+        } else {
+            redis.rename(tmp, key);
+            if (!ALL_TIME.equals(period)) {
+                redis.expire(key, retentionDays, TimeUnit.DAYS);
+            }
+        }
+    }
+
+    // ── Keys and periods ──────────────────────────────────────────────────────
+
+    static String key(String period, String board) {
+        return KEY_PREFIX + period + ":" + board;
+    }
+
+    /** "adjusted" or a role name, case-insensitive. */
+    private static String board(String board) {
+        if (board == null || ADJUSTED.equalsIgnoreCase(board)) {
+            return ADJUSTED;
+        }
+        try {
+            return Players.RoleType.valueOf(board.toUpperCase(Locale.ROOT)).name();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown leaderboard: " + board);
+        }
+    }
+
+    /** "all", "week" / "month" (current), or an explicit ISO week / month label. */
+    private static String period(String period) {
+        if (period == null || ALL_TIME.equalsIgnoreCase(period)) return ALL_TIME;
+        if ("week".equalsIgnoreCase(period))  return weekOf(LocalDate.now());
+        if ("month".equalsIgnoreCase(period)) return monthOf(LocalDate.now());
+        if (WEEK.matcher(period).matches() || MONTH.matcher(period).matches()) return period;
+        throw new IllegalArgumentException("Unknown leaderboard period: " + period);
+    }
+
+    static String weekOf(LocalDate day) {
+        return String.format("%d-W%02d",
+                day.get(IsoFields.WEEK_BASED_YEAR), day.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+    }
+
+    static String monthOf(LocalDate day) {
+        return YearMonth.from(day).toString();
+    }
+
+    /** [from, to) of a period label. */
+    private static LocalDateTime[] range(String period) {
+        if (ALL_TIME.equals(period)) {
+            return new LocalDateTime[] { EPOCH, END_OF_TIME };
+        }
+        Matcher week = WEEK.matcher(period);
+        if (week.matches()) {
+            LocalDate monday = LocalDate.of(Integer.parseInt(week.group(1)), 1, 4)
+                    .with(IsoFields.WEEK_OF_WEEK_BASED_YEAR, Long.parseLong(week.group(2)))
+                    .with(DayOfWeek.MONDAY);
+            return new LocalDateTime[] { monday.atStartOfDay(), monday.plusWeeks(1).atStartOfDay() };
+        }
+        YearMonth month = YearMonth.parse(period);
+        return new LocalDateTime[] { month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay() };
+    }
+}
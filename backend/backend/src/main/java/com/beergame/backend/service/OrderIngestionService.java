@@ -0,0 +1,162 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.dto.OrderAckDTO;
+import com.beergame.backend.dto.OrderPayloadDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Front door for STOMP orders: de-duplicates client retries before any lock
+ * or database access.
+ *
+ * WHY?
+ * During a network blip a client re-sends the same order several times. Each
+ * copy used to take the distributed lock and load the game / room before
+ * isReadyForOrder finally rejected it, so a retry storm cost as much as real
+ * traffic.
+ *
+ * An order that carries a clientSeq is keyed by
+ * (game|room, id, username, week, clientSeq):
+ *  1. local window (Caffeine, TTL) — a retry landing on the same node is
+ *     answered DUPLICATE from memory;
+ *  2. shared window (Redis SET NX EX) — a retry landing on another node is
+ *     answered DUPLICATE after one Redis call;
+ *  3. only a first sighting reaches GameService.
+ * If processing fails, the key is released so the client's next retry is
+ * processed rather than swallowed.
+ *
+ * Orders without a clientSeq (older clients, bots) skip the window and are
+ * not acknowledged — behaviour unchanged.
+ */
+@Service
+@Slf4j
+public class OrderIngestionService {
+
+    static final String KEY_PREFIX = "order-seq:";
+
+    private final GameService gameService;
+    private final OrderJournal orderJournal;
+    private final StringRedisTemplate redis;
+    private final Duration window;
+    private final Cache<String, Boolean> seen;
+
+    public OrderIngestionService(GameService gameService,
+                                 OrderJournal orderJournal,
+                                 StringRedisTemplate redis,
+                                 @Value("${app.orders.dedup.ttl-seconds:600}") long ttlSeconds,
+                                 @Value("${app.orders.dedup.max-size:200000}") long maxSize) {
+        this.gameService = gameService;
+        this.orderJournal = orderJournal;
+        this.redis = redis;
+        this.window = Duration.ofSeconds(ttlSeconds);
+        this.seen = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    /** Order sent to /app/game/{gameId}/placeOrder (routes to the room if the game has one). */
+    public OrderAckDTO submitGameOrder(String gameId, String username, OrderPayloadDTO payload) {
+        return ingest("game", gameId, username, payload,
+                () -> gameService.placeOrder(gameId, username, payload.orderAmount(), payload.week()));
+    }
+
+    /** Order sent to /app/room/{roomId}/placeOrder. */
+    public OrderAckDTO submitRoomOrder(String roomId, String username, OrderPayloadDTO payload) {
+        return ingest("room", roomId, username, payload,
+                () -> gameService.submitRoomOrder(roomId, username, payload.orderAmount(), payload.week()));
+    }
+
+    // ── Internals ─────────────────────────────────────────────────────────────
+
+    private OrderAckDTO ingest(String scope, String id, String username, OrderPayloadDTO payload, Runnable process) {
+        if (payload.clientSeq() == null) {
+            journaled(scope, id, username, payload, process);
+            return null;
+        }
+
+        String key = dedupKey(scope, id, username, payload);
+
+        if (!claim(key)) {
+            log.debug("Duplicate order {} dropped before lock / DB.", key);
+            return ack(id, payload, OrderAckDTO.Status.DUPLICATE, null);
+        }
+
+        try {
+            journaled(scope, id, username, payload, process);
+            return ack(id, payload, OrderAckDTO.Status.ACCEPTED, null);
+        } catch (RuntimeException e) {
+            release(key);
+            log.warn("Order {} failed: {}", key, e.getMessage());
+            return ack(id, payload, OrderAckDTO.Status.REJECTED, e.getMessage());
+        }
+    }
+
+    /** Runs {@code process} between an OrderJournal intent and its done record. */
+    private void journaled(String scope, String id, String username, OrderPayloadDTO payload, Runnable process) {
+        long seq = orderJournal.begin(journalScope(scope), id, username, payload).join();
+        try {
+            process.run();
+        } finally {
+            orderJournal.complete(seq);
+        }
+    }
+
+    static OrderJournal.Scope journalScope(String scope) {
+        return "room".equals(scope) ? OrderJournal.Scope.ROOM : OrderJournal.Scope.GAME;
+    }
+
+    static String dedupKey(String scope, String id, String username, OrderPayloadDTO payload) {
+        return KEY_PREFIX + scope + ":" + id + ":" + username + ":" + payload.week() + ":" + payload.clientSeq();
+    }
+
+    /** Local half of the window; shared with ReactiveOrderService. */
+    boolean claimLocal(String key) {
+        return seen.asMap().putIfAbsent(key, Boolean.TRUE) == null;
+    }
+
+    void releaseLocal(String key) {
+        seen.invalidate(key);
+    }
+
+    Duration window() {
+        return window;
+    }
+
+    /** True if this is the first sighting of {@code key} in the window. */
+    private boolean claim(String key) {
+        if (!claimLocal(key)) {
+            return false;
+        }
+        try {
+            Boolean first = redis.opsForValue().setIfAbsent(key, "1", window);
+            if (Boolean.FALSE.equals(first)) {
+                return false;
+            }
+        } catch (Exception e) {
+            // Redis unavailable: the local window still filters same-node
+            // retries, and isReadyForOrder remains the final guard.
+            log.warn("Order de-dup: Redis unavailable, using local window only: {}", e.getMessage());
+        }
+        return true;
+    }
+
+    private void release(String key) {
+        releaseLocal(key);
+        try {
+            redis.delete(key);
+        } catch (Exception e) {
+            log.warn("Order de-dup: could not release {}: {}", key, e.getMessage());
+        }
+    }
+
+    static OrderAckDTO ack(String id, OrderPayloadDTO payload, OrderAckDTO.Status status, String message) {
+        return new OrderAckDTO(id, payload.week(), payload.clientSeq(), status, message);
+    }
+}
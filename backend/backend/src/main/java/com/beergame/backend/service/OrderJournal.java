@@ -0,0 +1,512 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.dto.OrderPayloadDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Node-local write-ahead log of STOMP orders that are being processed.
+ *
+ * WHY?
+ * An order's de-dup key (OrderIngestionService) is claimed in Redis before
+ * the order reaches Postgres. If the node dies between the two — lock wait,
+ * JPA queue, transaction — the client's retry is answered DUPLICATE and the
+ * order is gone until the window expires, leaving the whole game waiting on
+ * that player. Now every first-seen order is journalled before processing
+ * and marked done afterwards (applied, rejected or cancelled); on startup,
+ * orders without a done record are re-run through GameService once the
+ * application is ready — after the STOMP broker and the Redis listener
+ * container have started, so the state broadcasts of recovered orders reach
+ * clients and peers.
+ *
+ * Format: segment files orders-{firstSeq}.wal in app.wal.dir, each a
+ * MappedByteBuffer of app.wal.segment-bytes. A record is
+ *   int length | int crc32c | byte type | long seq | payload
+ * and an all-zero length marks the end; a torn or corrupt tail record ends
+ * the scan of its segment. Full segments are forced and closed when sealed,
+ * their mapping left to the GC (the JDK has no safe explicit unmap), and
+ * deleted oldest first, once every order in them and in all older segments
+ * is done — a done record is always in the same or a later segment than its
+ * intent, so it is never deleted while the intent is still on disk.
+ *
+ * Durability: appends are plain writes into the mapping, so they survive a
+ * process crash as soon as they return — the default (app.wal.fsync=false).
+ * With app.wal.fsync=true the intent also waits for MappedByteBuffer.force()
+ * so it survives a kernel crash or power loss too; one flusher thread forces
+ * for every writer queued behind it (group commit), but the blocking STOMP
+ * path (OrderIngestionService) still parks its inbound thread for one msync
+ * per group — typically 0.1–10 ms depending on the disk, see the
+ * beergame.wal.sync timer. Done records never wait: losing one only re-runs
+ * an order whose week / ready checks then reject it.
+ *
+ * Adapted: game state itself stays in Postgres (the node holds no game
+ * state that a crash could lose), so only in-flight orders are journalled;
+ * turn advances commit with the order that completes the week. Orders
+ * without a week are journalled but not re-run — they could land in a later
+ * week. Recovery needs the same node (same app.wal.dir) to restart.
+ */
+@Service
+@Slf4j
+public class OrderJournal implements SmartLifecycle {
+
+    public enum Scope { GAME, ROOM }
+
+    /** A journalled order without a done record. */
+    record Intent(long seq, Scope scope, String aggregateId, String username,
+                  int amount, Integer week, Long clientSeq) {}
+
+    private static final byte INTENT = 1;
+    private static final byte DONE = 2;
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+    private static final int NULL_INT = Integer.MIN_VALUE;
+    private static final long NULL_LONG = Long.MIN_VALUE;
+    private static final String PREFIX = "orders-";
+    private static final String SUFFIX = ".wal";
+
+    /**
+     * Open for writes before the web server starts (WebServerStartStopLifecycle
+     * runs at DEFAULT_PHASE - 2048); recovery waits for ApplicationReadyEvent.
+     */
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final ObjectProvider<GameService> gameService;
+    private final boolean enabled;
+    private final Path dir;
+    private final int segmentBytes;
+    private final boolean fsync;
+    private final Timer syncTimer;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushNeeded = lock.newCondition();
+    /** Intents waiting for force(), in seq order. Guarded by lock. */
+    private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+    /** seq → segment holding the intent, until it is done. */
+    private final Map<Long, Segment> open = new ConcurrentHashMap<>();
+    /** Full segments, oldest first. Guarded by lock. */
+    private final ArrayDeque<Segment> full = new ArrayDeque<>();
+
+    private Segment current;      // guarded by lock
+    private long lastSeq;         // guarded by lock
+    private Thread flusher;
+    private volatile boolean running;
+    /** Left by the previous process; handed to recover() once the application is ready. */
+    private List<Path> previous = List.of();
+    private Map<Long, Intent> unfinished = Map.of();
+
+    private record Waiter(long seq, CompletableFuture<Long> future) {}
+
+    private static final class Segment {
+        final Path path;
+        final FileChannel channel;
+        /** Null once sealed, so a full segment waiting for deletion does not pin its mapping. Guarded by lock. */
+        MappedByteBuffer buffer;
+        /** Intents without a done record. Guarded by lock. */
+        int pending;
+
+        Segment(Path path, int size) throws IOException {
+            this.path = path;
+            // An existing file of this name never got its first record (the
+            // previous process died while rolling), so it is safe to reuse.
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    public OrderJournal(ObjectProvider<GameService> gameService,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.wal.enabled:true}") boolean enabled,
+                        @Value("${app.wal.dir:data/wal}") String dir,
+                        @Value("${app.wal.segment-bytes:16777216}") int segmentBytes,
+                        @Value("${app.wal.fsync:false}") boolean fsync) {
+        this.gameService = gameService;
+        this.enabled = enabled;
+        this.dir = Path.of(dir);
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+        this.syncTimer = Timer.builder("beergame.wal.sync")
+                .description("MappedByteBuffer.force() per group commit")
+                .register(meterRegistry);
+    }
+
+    // ── Write side ────────────────────────────────────────────────────────────
+
+    /**
+     * Journals an order about to be processed. The future completes with the
+     * intent's seq once it is durable (at once unless app.wal.fsync); pass
+     * that seq to {@link #complete} afterwards. 0 when the journal is off.
+     */
+    public CompletableFuture<Long> begin(Scope scope, String aggregateId, String username, OrderPayloadDTO payload) {
+        if (!enabled || !running) {
+            return CompletableFuture.completedFuture(0L);
+        }
+        byte[] id = utf8(aggregateId);
+        byte[] user = utf8(username);
+        ByteBuffer body = ByteBuffer.allocate(1 + 4 + 4 + 8 + 2 + id.length + 2 + user.length)
+                .put((byte) scope.ordinal())
+                .putInt(payload.orderAmount())
+                .putInt(payload.week() == null ? NULL_INT : payload.week())
+                .putLong(payload.clientSeq() == null ? NULL_LONG : payload.clientSeq())
+                .putShort((short) id.length).put(id)
+                .putShort((short) user.length).put(user);
+
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        lock.lock();
+        try {
+            if (!running) {
+                // stop() won the race since the check above; current is closed.
+                future.complete(0L);
+                return future;
+            }
+            long seq = append(INTENT, body.array());
+            current.pending++;
+            open.put(seq, current);
+            if (fsync) {
+                waiters.add(new Waiter(seq, future));
+                flushNeeded.signal();
+            } else {
+                future.complete(seq);
+            }
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        } finally {
+            lock.unlock();
+        }
+        return future;
+    }
+
+    /** Marks an order done — applied or rejected. No-op for seq 0. */
+    public void complete(long seq) {
+        if (seq <= 0 || !running) {
+            return;
+        }
+        Segment segment = open.remove(seq);
+        lock.lock();
+        try {
+            if (!running) {
+                return;
+            }
+            append(DONE, ByteBuffer.allocate(Long.BYTES).putLong(seq).array());
+            if (segment != null) {
+                segment.pending--;
+                pruneFull();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Writes one record; caller holds the lock. Returns its seq. */
+    private long append(byte type, byte[] body) {
+        long seq = ++lastSeq;
+        int length = 1 + Long.BYTES + body.length;
+        if (current.buffer.position() + HEADER_BYTES + length + Integer.BYTES > segmentBytes) {
+            roll(seq);
+        }
+
+        MappedByteBuffer buf = current.buffer;
+        int start = buf.position();
+        buf.position(start + HEADER_BYTES);
+        buf.put(type).putLong(seq).put(body);
+
+        CRC32C crc = new CRC32C();
+        crc.update(buf.duplicate().position(start + HEADER_BYTES).limit(start + HEADER_BYTES + length));
+        // Length last: a reader never sees a length whose bytes are not written yet.
+        buf.putInt(start + Integer.BYTES, (int) crc.getValue());
+        buf.putInt(start, length);
+        return seq;
+    }
+
+    /** Seals the current segment (forced, so it never needs another sync) and opens the next. */
+    private void roll(long firstSeq) {
+        Segment sealed = current;
+        sealed.buffer.force();
+        sealed.buffer = null;
+        closeQuietly(sealed);
+        full.add(sealed);
+        current = openSegment(firstSeq);
+        pruneFull();
+    }
+
+    /** Deletes full segments from the oldest while nothing in them is pending; caller holds the lock. */
+    private void pruneFull() {
+        while (!full.isEmpty() && full.peek().pending == 0) {
+            delete(full.poll().path);
+        }
+    }
+
+    // ── Group commit ──────────────────────────────────────────────────────────
+
+    private void flushLoop() {
+        while (true) {
+            long target;
+            MappedByteBuffer buffer;
+            lock.lock();
+            try {
+                while (running && waiters.isEmpty()) {
+                    flushNeeded.awaitUninterruptibly();
+                }
+                if (waiters.isEmpty()) {
+                    return;
+                }
+                target = lastSeq;
+                // Our own reference: forcing stays valid even if roll() seals it meanwhile.
+                buffer = current.buffer;
+                if (buffer == null) {
+                    // stop() gave up waiting for us and closed the journal.
+                    waiters.forEach(w -> w.future().completeExceptionally(
+                            new IllegalStateException("Order journal stopped")));
+                    waiters.clear();
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            long start = System.nanoTime();
+            buffer.force();
+            syncTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            lock.lock();
+            try {
+                while (!waiters.isEmpty() && waiters.peek().seq() <= target) {
+                    Waiter w = waiters.poll();
+                    if (!w.future().complete(w.seq())) {
+                        // The caller gave up (cancelled) before the intent was
+                        // durable and will never complete it.
+                        complete(w.seq());
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // ── Lifecycle / recovery ──────────────────────────────────────────────────
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            running = true;
+            return;
+        }
+        List<Path> previous;
+        Map<Long, Intent> pending = new TreeMap<>();
+        try {
+            Files.createDirectories(dir);
+            try (Stream<Path> files = Files.list(dir)) {
+                previous = files.filter(p -> p.getFileName().toString().startsWith(PREFIX)
+                                && p.getFileName().toString().endsWith(SUFFIX))
+                        .sorted()
+                        .toList();
+            }
+
+            for (Path segment : previous) {
+                lastSeq = Math.max(lastSeq, scan(segment, pending));
+            }
+            current = openSegment(lastSeq + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open order journal in " + dir.toAbsolutePath(), e);
+        }
+
+        this.previous = previous;
+        this.unfinished = pending;
+        running = true;
+        flusher = Thread.ofPlatform().name("order-journal-flusher").daemon().start(this::flushLoop);
+    }
+
+    /**
+     * Re-runs what the previous process left unfinished, then drops its
+     * segments. Runs once the whole context — STOMP broker, Redis listener
+     * container, outbox relay — is up, so recovered orders broadcast like
+     * live ones.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        if (!enabled || !running) {
+            return;
+        }
+        List<Path> previous = this.previous;
+        Map<Long, Intent> pending = this.unfinished;
+        this.previous = List.of();
+        this.unfinished = Map.of();
+        if (previous.isEmpty()) {
+            return;
+        }
+
+        int applied = 0, rejected = 0, skipped = 0;
+        for (Intent intent : pending.values()) {
+            if (intent.week() == null) {
+                skipped++;
+                continue;
+            }
+            try {
+                if (intent.scope() == Scope.ROOM) {
+                    gameService.getObject().submitRoomOrder(intent.aggregateId(), intent.username(),
+                            intent.amount(), intent.week());
+                } else {
+                    gameService.getObject().placeOrder(intent.aggregateId(), intent.username(),
+                            intent.amount(), intent.week());
+                }
+                applied++;
+            } catch (RuntimeException e) {
+                rejected++;
+                log.warn("Recovered order {} for {} {} rejected: {}",
+                        intent.seq(), intent.scope(), intent.aggregateId(), e.getMessage());
+            }
+        }
+        previous.stream().filter(p -> !p.equals(current.path)).forEach(OrderJournal::delete);
+        log.info("Order journal recovery: {} unfinished order(s) — {} re-run, {} rejected, {} skipped (no week).",
+                pending.size(), applied, rejected, skipped);
+    }
+
+    @Override
+    public void stop() {
+        if (!enabled || !running) {
+            running = false;
+            return;
+        }
+        lock.lock();
+        try {
+            running = false;
+            flushNeeded.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            current.buffer.force();
+            current.buffer = null;
+            closeQuietly(current);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    // ── Files ─────────────────────────────────────────────────────────────────
+
+    /**
+     * Reads one segment into {@code pending} (intents added, done records
+     * remove theirs). Returns the highest seq seen.
+     */
+    static long scan(Path path, Map<Long, Intent> pending) throws IOException {
+        long maxSeq = 0;
+        // Read, not mapped: startup only, and nothing is left mapped afterwards.
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(path));
+        while (buf.remaining() >= HEADER_BYTES) {
+            int length = buf.getInt();
+            int crcValue = buf.getInt();
+            if (length <= 0 || length > buf.remaining()) {
+                break;
+            }
+            ByteBuffer record = buf.slice(buf.position(), length);
+            CRC32C crc = new CRC32C();
+            crc.update(record.duplicate());
+            if ((int) crc.getValue() != crcValue) {
+                log.warn("Order journal {}: corrupt record at {}, ignoring the rest.", path, buf.position());
+                break;
+            }
+            buf.position(buf.position() + length);
+
+            byte type = record.get();
+            long seq = record.getLong();
+            maxSeq = Math.max(maxSeq, seq);
+            if (type == INTENT) {
+                Scope scope = Scope.values()[record.get()];
+                int amount = record.getInt();
+                int week = record.getInt();
+                long clientSeq = record.getLong();
+                String id = readUtf8(record);
+                String user = readUtf8(record);
+                pending.put(seq, new Intent(seq, scope, id, user, amount,
+                        week == NULL_INT ? null : week, clientSeq == NULL_LONG ? null : clientSeq));
+            } else if (type == DONE) {
+                // A done record carries the intent's seq after its own.
+                pending.remove(record.getLong());
+            }
+        }
+        return maxSeq;
+    }
+
+    private Segment openSegment(long firstSeq) {
+        try {
+            return new Segment(dir.resolve(PREFIX + String.format("%020d", firstSeq) + SUFFIX), segmentBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create order journal segment in " + dir.toAbsolutePath(), e);
+        }
+    }
+
+    private static void closeQuietly(Segment segment) {
+        try {
+            segment.channel.close();
+        } catch (IOException e) {
+            log.warn("Order journal: could not close {}: {}", segment.path, e.getMessage());
+        }
+    }
+
+    private static void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Order journal: could not delete {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Value too long for order journal: " + bytes.length + " bytes");
+        }
+        return bytes;
+    }
+
+    private static String readUtf8(ByteBuffer buf) {
+        byte[] bytes = new byte[buf.getShort()];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -10,6 +10,8 @@ import com.beergame.backend.model.Game;
 import com.beergame.backend.model.Players;
 import com.beergame.backend.repository.GameRepository;
 import com.beergame.backend.repository.PlayerRepository;
+import com.beergame.backend.utils.TimerUtils;
+import io.micrometer.core.instrument.MeterRegistry;
 
 import lombok.RequiredArgsConstructor;
 
@@ -26,66 +28,91 @@ public class OrderService {
     private final BroadcastService broadcastService;
     private final ApplicationEventPublisher eventPublisher;
     private final TurnService turnService;
+    private final DuplicateOrderFilter duplicateFilter;
     private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ActivityLog activityLog;
+    private final CommandLog commandLog;
 
     public void placeOrder(String gameId, String username, int orderAmount, Integer targetWeek) {
-        // 1. Wrap the entire order processing in the distributed lock
-        redisLockService.executeWithLock(gameId, 10, () -> {
-            
-            // 2. Open transaction INSIDE the lock
-            return transactionTemplate.execute(status -> {
-
-                if (orderAmount < 0 || orderAmount > MAX_ORDER_AMOUNT) {
-                    throw new IllegalArgumentException(
-                            "Order amount must be 0–" + MAX_ORDER_AMOUNT + ", got: " + orderAmount);
-                }
-
-                Game game = gameRepository.findByIdWithPlayers(gameId)
-                        .orElseThrow(() -> new RuntimeException("Game not found: " + gameId));
+        // 0. Duplicate submission? Rejected before any lock or DB access.
+        if (duplicateFilter.isAlreadyReady(DuplicateOrderFilter.Scope.GAME, gameId, username)) {
+            log.warn("Player {} already submitted an order for game {} — ignored.", username, gameId);
+            return;
+        }
 
-                // 3. Failsafe check to prevent stale bot orders corrupting the state
-                if (targetWeek != null && game.getCurrentWeek() != targetWeek) {
-                    log.warn("Stale order rejected! Tried to submit for week {} but game is on week {}", targetWeek, game.getCurrentWeek());
-                    return null;
-                }
+        // 1. Wrap the entire order processing in the distributed lock
+        TimerUtils.time(meterRegistry, "beergame.order.place", () ->
+                redisLockService.executeWithLock(gameId, 10,
+                        () -> applyOrder(gameId, username, orderAmount, targetWeek)), "scope", "game");
+    }
 
-                // 🚨 FIX: Extract player directly from the fetched collection!
-                // If we use playerRepository.findByGameAndUserName, Hibernate might return
-                // a different object reference, leaving the instance inside game.getPlayers() stale.
-                // This caused allReady to erroneously evaluate to false, stranding the game in Week 1.
-                Players player = game.getPlayers().stream()
-                        .filter(p -> p.getUserName().equals(username))
-                        .findFirst()
-                        .orElseThrow(() -> new RuntimeException("Player not in game: " + username));
-
-                if (player.isReadyForOrder()) {
-                    log.warn("Player {} already submitted an order for week {}", username, game.getCurrentWeek());
-                    return null;
-                }
+    /**
+     * The transactional part of placeOrder. Caller must hold the game lock
+     * (placeOrder, or ReactiveOrderService which locks without blocking).
+     */
+    Void applyOrder(String gameId, String username, int orderAmount, Integer targetWeek) {
+        // 2. Open transaction INSIDE the lock
+        return transactionTemplate.execute(status -> {
+
+            if (orderAmount < 0 || orderAmount > MAX_ORDER_AMOUNT) {
+                throw new IllegalArgumentException(
+                        "Order amount must be 0–" + MAX_ORDER_AMOUNT + ", got: " + orderAmount);
+            }
+
+            Game game = gameRepository.findByIdWithPlayers(gameId)
+                    .orElseThrow(() -> new RuntimeException("Game not found: " + gameId));
+
+            // 3. Failsafe check to prevent stale bot orders corrupting the state
+            if (targetWeek != null && game.getCurrentWeek() != targetWeek) {
+                log.warn("Stale order rejected! Tried to submit for week {} but game is on week {}", targetWeek, game.getCurrentWeek());
+                return null;
+            }
+
+            // 🚨 FIX: Extract player directly from the fetched collection!
+            // If we use playerRepository.findByGameAndUserName, Hibernate might return
+            // a different object reference, leaving the instance inside game.getPlayers() stale.
+            // This caused allReady to erroneously evaluate to false, stranding the game in Week 1.
+            Players player = game.getPlayers().stream()
+                    .filter(p -> p.getUserName().equals(username))
+                    .findFirst()
+                    .orElseThrow(() -> new RuntimeException("Player not in game: " + username));
+
+            if (player.isReadyForOrder()) {
+                log.warn("Player {} already submitted an order for week {}", username, game.getCurrentWeek());
+                return null;
+            }
 
-                player.setCurrentOrder(orderAmount);
-                player.setReadyForOrder(true);
-                playerRepository.save(player);
+            player.setCurrentOrder(orderAmount);
+            player.setReadyForOrder(true);
+            playerRepository.save(player);
+            commandLog.order(game, player, orderAmount);
 
-                log.info("Player {} placed order {} for week {}", username, orderAmount, game.getCurrentWeek());
+            activityLog.record(ActivityLog.Activity.ORDER_PLACED);
+            if (activityLog.sampled(log, gameId)) {
+                log.debug("Player {} placed order {} for week {}", username, orderAmount, game.getCurrentWeek());
+            }
 
-                if (game.getPlayers() == null || game.getPlayers().size() < 4) {
-                    broadcastService.broadcastGameAfterCommit(gameId);
-                    return null;
-                }
+            if (game.getPlayers() == null || game.getPlayers().size() < 4) {
+                broadcastService.broadcastGameAfterCommit(gameId);
+                return null;
+            }
 
-                boolean allReady = game.getPlayers().stream().allMatch(Players::isReadyForOrder);
+            duplicateFilter.markReady(DuplicateOrderFilter.Scope.GAME, gameId,
+                    game.getCurrentWeek(), game.getPlayers(), player);
+            boolean allReady = game.getPlayers().stream().allMatch(Players::isReadyForOrder);
 
-                if (allReady) {
-                    log.info("All players ready for game {}. Advancing turn.", gameId);
-                    eventPublisher.publishEvent(
-                            new AllPlayersReadyEvent(this, gameId, game.getCurrentWeek()));
-                    turnService.advanceTurn(game);
-                } else {
-                    broadcastService.broadcastGameAfterCommit(gameId);
+            if (allReady) {
+                if (activityLog.sampled(log, gameId)) {
+                    log.debug("All players ready for game {}. Advancing turn.", gameId);
                 }
-                return null;
-            });
+                eventPublisher.publishEvent(
+                        new AllPlayersReadyEvent(this, gameId, game.getCurrentWeek()));
+                turnService.advanceTurn(game);
+            } else {
+                broadcastService.broadcastGameAfterCommit(gameId);
+            }
+            return null;
         });
     }
 }
\ No newline at end of file
@@ -0,0 +1,205 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.dto.TraceContextDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.ObservationView;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Follows one STOMP order from GameSocketController to the /topic/game/{id}
+ * frame leaving every node.
+ *
+ * WHY?
+ * Lock wait, transaction time, outbox lag and fan-out each have a timer, but
+ * none of them says how long a given order took to reach the players, nor
+ * which node of the path was slow for it.
+ *
+ * How the trace travels:
+ *   GameSocketController   starts the "beergame.order" observation (a span,
+ *                          exported through the OpenTelemetry bridge) and
+ *                          stamps submittedAt
+ *   RedisLockService       lock acquired          ┐ same thread, or restored
+ *   OutboxService          row written / committed┘ by Reactor context propagation
+ *   OutboxEvent row        traceparent + submittedAt columns
+ *   OutboxRelay            "beergame.outbox.relay" span (commit → publish);
+ *                          the trace rides in GameStateDTO.trace over Redis
+ *   GameStateSubscriber    "beergame.broadcast.deliver" span on every node;
+ *                          strips the trace before sending to browsers
+ *
+ * Each stage records beergame.order.stage{stage=…}: time since submittedAt,
+ * so every percentile reads "how long until the order got this far".
+ *   lock_acquired, committed   on the submitting node
+ *   published                  on the relaying node
+ *   received, delivered        on every node (wall clocks: includes skew)
+ *
+ * Stage timers are recorded for every order; spans are exported for the
+ * sampled fraction (management.tracing.sampling.probability) to the OTLP
+ * collector when management.otlp.tracing.export.enabled is set, and the
+ * trace id is on every log line either way.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderTracing {
+
+    public static final String ORDER_OBSERVATION = "beergame.order";
+
+    private static final String STAGE_TIMER  = "beergame.order.stage";
+    private static final String SUBMITTED_AT = "beergame.submittedAt";
+    private static final String STAGES_SEEN  = "beergame.stagesSeen";
+    private static final String TRACEPARENT  = "traceparent";
+
+    private final ObservationRegistry observationRegistry;
+    private final Tracer              tracer;
+    private final Propagator          propagator;
+    private final MeterRegistry       meterRegistry;
+
+    // ───────────────────────────────────────────────────────────────────── //
+    //  Submitting node
+    // ───────────────────────────────────────────────────────────────────── //
+
+    /**
+     * Runs {@code submit} inside a new order observation, which stays open
+     * until the returned future completes (i.e. until the ACK).
+     */
+    public <T> CompletableFuture<T> traceOrder(String scope, String id, Supplier<CompletableFuture<T>> submit) {
+        Observation order = Observation.createNotStarted(ORDER_OBSERVATION, observationRegistry)
+                .contextualName(scope + " order")
+                .lowCardinalityKeyValue("scope", scope)
+                .highCardinalityKeyValue("aggregate.id", id);
+        order.getContext().put(SUBMITTED_AT, System.currentTimeMillis());
+        order.getContext().put(STAGES_SEEN, new HashSet<String>());
+        order.start();
+
+        CompletableFuture<T> result;
+        try (Observation.Scope ignored = order.openScope()) {
+            result = submit.get();
+        } catch (RuntimeException e) {
+            order.error(e);
+            order.stop();
+            throw e;
+        }
+        return result.whenComplete((ack, error) -> {
+            if (error != null) order.error(error);
+            order.stop();
+        });
+    }
+
+    /**
+     * Marks that the order on the current thread reached {@code stage}.
+     * No-op outside an order (turn advances, bots, cleanup…) and for a stage
+     * already recorded for this order.
+     */
+    public void stage(String stage) {
+        Observation order = currentOrder();
+        if (order == null) return;
+
+        @SuppressWarnings("unchecked")
+        Set<String> seen = (Set<String>) order.getContext().get(STAGES_SEEN);
+        if (seen != null && !seen.add(stage)) return;
+
+        Span span = tracer.currentSpan();
+        if (span != null) span.event(stage);
+        record(stage, order.getContext().getRequired(SUBMITTED_AT));
+    }
+
+    /** Trace to store with an outbox row written for the current order, if any. */
+    public Optional<TraceContextDTO> current() {
+        Observation order = currentOrder();
+        Span span = tracer.currentSpan();
+        if (order == null || span == null) return Optional.empty();
+
+        Map<String, String> carrier = new HashMap<>();
+        propagator.inject(span.context(), carrier, Map::put);
+        String traceparent = carrier.get(TRACEPARENT);
+        if (traceparent == null) return Optional.empty();
+        return Optional.of(new TraceContextDTO(traceparent, order.getContext().getRequired(SUBMITTED_AT), null));
+    }
+
+    // ───────────────────────────────────────────────────────────────────── //
+    //  Relaying node
+    // ───────────────────────────────────────────────────────────────────── //
+
+    /**
+     * Records the commit → publish leg of a traced row and returns the trace
+     * to send along with the state.
+     */
+    public TraceContextDTO relayed(TraceContextDTO trace, long committedAtMillis) {
+        long now = System.currentTimeMillis();
+        Span span = remoteChild(trace, "beergame.outbox.relay")
+                .startTimestamp(committedAtMillis, TimeUnit.MILLISECONDS)
+                .start();
+        span.end(now, TimeUnit.MILLISECONDS);
+        record("published", trace.submittedAt());
+        return trace.withPublishedAt(now);
+    }
+
+    // ───────────────────────────────────────────────────────────────────── //
+    //  Every node
+    // ───────────────────────────────────────────────────────────────────── //
+
+    /** Runs the local WebSocket fan-out of a traced state inside a child span. */
+    public void delivered(TraceContextDTO trace, Runnable send) {
+        if (trace == null) {
+            send.run();
+            return;
+        }
+        record("received", trace.submittedAt());
+        Span span = remoteChild(trace, "beergame.broadcast.deliver").start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            send.run();
+        } catch (RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+            record("delivered", trace.submittedAt());
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Order trace {} delivered {} ms after submit ({} ms after publish).",
+                    trace.traceparent(), System.currentTimeMillis() - trace.submittedAt(),
+                    trace.publishedAt() != null ? System.currentTimeMillis() - trace.publishedAt() : -1);
+        }
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    /** Innermost open order observation on this thread, walking up through child observations. */
+    private Observation currentOrder() {
+        ObservationView view = observationRegistry.getCurrentObservation();
+        while (view != null) {
+            if (view instanceof Observation o && o.getContext().containsKey(SUBMITTED_AT)) {
+                return o;
+            }
+            view = view.getContextView().getParentObservation();
+        }
+        return null;
+    }
+
+    private Span.Builder remoteChild(TraceContextDTO trace, String name) {
+        Map<String, String> carrier = Map.of(TRACEPARENT, trace.traceparent());
+        return propagator.extract(carrier, Map::get).name(name);
+    }
+
+    private void record(String stage, long submittedAtMillis) {
+        long elapsed = Math.max(0, System.currentTimeMillis() - submittedAtMillis);
+        meterRegistry.timer(STAGE_TIMER, "stage", stage).record(Duration.ofMillis(elapsed));
+    }
+}
@@ -0,0 +1,236 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.dto.TraceContextDTO;
+import com.beergame.backend.event.GameFinishedEvent;
+import com.beergame.backend.event.WeekStartedEvent;
+import com.beergame.backend.model.OutboxEvent;
+import com.beergame.backend.repository.GameRepository;
+import com.beergame.backend.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Drains the transactional outbox (see OutboxService).
+ *
+ * Runs on its own thread, never on a request thread. Each pass, inside one
+ * transaction:
+ *  1. claims up to app.outbox.batch-size unsent rows (FOR UPDATE SKIP LOCKED,
+ *     so several nodes can relay side by side);
+ *  2. coalesces them — ten GAME_STATE rows for one game become one broadcast
+ *     of the latest state, and a ROOM_TURN row expands to the room plus
+ *     each of its games;
+ *  3. publishes every broadcast to Redis in a single pipeline — a game state
+ *     caused by a traced order carries that order's trace (OrderTracing);
+ *  4. raises WeekStartedEvent / GameFinishedEvent locally (their
+ *     AFTER_COMMIT listeners fire when this relay transaction commits);
+ *  5. marks the rows sent.
+ *
+ * If Redis is unreachable the transaction rolls back and the rows are retried
+ * on the next pass — a committed state change can be delayed, never skipped.
+ * Delivery is at-least-once; every consumer is idempotent (state snapshots,
+ * AFK timers, bot orders guarded by week / ready flag).
+ *
+ * @Lazy(false): the app runs with spring.main.lazy-initialization=true and
+ * nothing injects this bean, so it would otherwise never start.
+ */
+@Service
+@Lazy(false)
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxService outboxService;
+    private final OutboxEventRepository outboxEventRepository;
+    private final GameRepository gameRepository;
+    private final BroadcastService broadcastService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final OrderTracing orderTracing;
+
+    private final int  batchSize;
+    private final long pollMs;
+    private final long retentionHours;
+
+    private static final long PURGE_INTERVAL_MS = 60_000;
+    private static final long ERROR_BACKOFF_MS  = 1_000;
+
+    private volatile boolean running;
+    private Thread worker;
+    private long lastPurge;
+
+    public OutboxRelay(OutboxService outboxService,
+                       OutboxEventRepository outboxEventRepository,
+                       GameRepository gameRepository,
+                       BroadcastService broadcastService,
+                       ApplicationEventPublisher eventPublisher,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry,
+                       OrderTracing orderTracing,
+                       @Value("${app.outbox.batch-size:200}") int batchSize,
+                       @Value("${app.outbox.poll-ms:500}") long pollMs,
+                       @Value("${app.outbox.retention-hours:24}") long retentionHours) {
+        this.outboxService = outboxService;
+        this.outboxEventRepository = outboxEventRepository;
+        this.gameRepository = gameRepository;
+        this.broadcastService = broadcastService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.orderTracing = orderTracing;
+        this.batchSize = batchSize;
+        this.pollMs = pollMs;
+        this.retentionHours = retentionHours;
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        worker = new Thread(this::runLoop, "outbox-relay");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (worker != null) worker.interrupt();
+    }
+
+    private void runLoop() {
+        while (running) {
+            try {
+                outboxService.awaitWork(pollMs);
+                // Keep draining while full batches come back.
+                while (running && drainOnce() == batchSize) {
+                    // next batch
+                }
+                purgeIfDue();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Outbox relay pass failed — will retry: {}", e.getMessage(), e);
+                try {
+                    Thread.sleep(ERROR_BACKOFF_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /** Relays one batch; returns the number of rows claimed. */
+    int drainOnce() {
+        Integer claimed = transactionTemplate.execute(status -> {
+            List<OutboxEvent> rows = outboxEventRepository.claimUnsent(batchSize);
+            if (rows.isEmpty()) return 0;
+
+            // ── Coalesce ──────────────────────────────────────────────────────
+            Set<String> games   = new LinkedHashSet<>();
+            Set<String> rooms   = new LinkedHashSet<>();
+            Set<String> results = new LinkedHashSet<>();
+            List<OutboxEvent> domainEvents = new ArrayList<>();
+            // gameId → latest traced row that caused its broadcast
+            Map<String, OutboxEvent> tracedBy = new HashMap<>();
+
+            for (OutboxEvent row : rows) {
+                switch (row.getType()) {
+                    case GAME_STATE  -> {
+                        games.add(row.getAggregateId());
+                        if (row.getTraceParent() != null) tracedBy.put(row.getAggregateId(), row);
+                    }
+                    case ROOM_STATE  -> rooms.add(row.getAggregateId());
+                    case ROOM_RESULT -> results.add(row.getAggregateId());
+                    case ROOM_TURN   -> {
+                        rooms.add(row.getAggregateId());
+                        for (String gameId : gameRepository.findIdsByGameRoomId(row.getAggregateId())) {
+                            games.add(gameId);
+                            if (row.getTraceParent() != null) tracedBy.put(gameId, row);
+                        }
+                    }
+                    case WEEK_STARTED, GAME_FINISHED -> domainEvents.add(row);
+                }
+            }
+
+            // ── Build (DB reads) then publish in one pipeline ─────────────────
+            List<BroadcastService.Publication> publications = new ArrayList<>();
+            games.forEach(id   -> addQuietly(publications, "game", id,
+                    () -> broadcastService.gameStatePublication(id, trace(tracedBy.get(id)))));
+            rooms.forEach(id   -> addQuietly(publications, "room", id, () -> broadcastService.roomStatePublication(id)));
+            results.forEach(id -> addQuietly(publications, "room result", id, () -> broadcastService.roomResultPublication(id)));
+
+            broadcastService.publishAll(publications);
+
+            // ── Domain events ─────────────────────────────────────────────────
+            for (OutboxEvent row : domainEvents) {
+                if (row.getType() == OutboxEvent.Type.WEEK_STARTED) {
+                    eventPublisher.publishEvent(new WeekStartedEvent(this, row.getAggregateId(), row.getWeek()));
+                } else {
+                    eventPublisher.publishEvent(new GameFinishedEvent(this, row.getAggregateId()));
+                }
+            }
+
+            LocalDateTime sentAt = LocalDateTime.now();
+            for (OutboxEvent row : rows) {
+                // Committed state change → published to Redis.
+                meterRegistry.timer("beergame.outbox.lag", "type", row.getType().name())
+                        .record(Duration.between(row.getCreatedAt(), sentAt));
+            }
+            outboxEventRepository.markSent(rows.stream().map(OutboxEvent::getId).toList(), sentAt);
+            log.debug("Outbox relayed {} row(s) as {} publication(s) and {} event(s).",
+                    rows.size(), publications.size(), domainEvents.size());
+            return rows.size();
+        });
+        return claimed != null ? claimed : 0;
+    }
+
+    /** Trace to publish with a state caused by {@code row}; null for untraced rows. */
+    private TraceContextDTO trace(OutboxEvent row) {
+        if (row == null) return null;
+        long committedAt = row.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return orderTracing.relayed(new TraceContextDTO(row.getTraceParent(), row.getSubmittedAt(), null), committedAt);
+    }
+
+    /**
+     * A row whose game / room no longer exists (e.g. removed by CleanUpService)
+     * must not block the rest of the batch forever — log and drop it.
+     */
+    private void addQuietly(List<BroadcastService.Publication> out, String kind, String id,
+                            Supplier<BroadcastService.Publication> builder) {
+        try {
+            out.add(builder.get());
+        } catch (RuntimeException e) {
+            log.warn("Dropping outbox {} broadcast for {}: {}", kind, id, e.getMessage());
+        }
+    }
+
+    private void purgeIfDue() {
+        long now = System.currentTimeMillis();
+        if (now - lastPurge < PURGE_INTERVAL_MS) return;
+        lastPurge = now;
+        Integer purged = transactionTemplate.execute(status ->
+                outboxEventRepository.deleteSentBefore(LocalDateTime.now().minusHours(retentionHours)));
+        if (purged != null && purged > 0) {
+            log.info("Outbox purge removed {} sent row(s).", purged);
+        }
+    }
+}
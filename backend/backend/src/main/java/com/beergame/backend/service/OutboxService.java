@@ -0,0 +1,79 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.model.OutboxEvent;
+import com.beergame.backend.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write side of the transactional outbox.
+ *
+ * WHY?
+ * Broadcasts and WeekStarted / GameFinished events used to fire from
+ * afterCommit callbacks on the committing thread: the request blocked on
+ * Redis I/O after its commit, and a crash between commit and publish lost the
+ * broadcast for good. Now the writer only inserts an OutboxEvent row inside
+ * its own transaction; OutboxRelay publishes it later from its own thread.
+ *
+ * The only post-commit work left on the request thread is releasing a permit
+ * so the relay wakes immediately instead of waiting for its next poll (and
+ * marking the committed stage of a traced order, see OrderTracing).
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OrderTracing orderTracing;
+
+    /** Released once per committing transaction that wrote outbox rows. */
+    private final Semaphore pending = new Semaphore(0);
+
+    /**
+     * Records that {@code type} must be published for {@code aggregateId}.
+     * Must run inside the transaction that makes the change.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(OutboxEvent.Type type, String aggregateId, Integer week) {
+        OutboxEvent event = new OutboxEvent();
+        event.setType(type);
+        event.setAggregateId(aggregateId);
+        event.setWeek(week);
+        event.setCreatedAt(LocalDateTime.now());
+        orderTracing.current().ifPresent(trace -> {
+            event.setTraceParent(trace.traceparent());
+            event.setSubmittedAt(trace.submittedAt());
+        });
+        outboxEventRepository.save(event);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pending.release();
+                if (event.getTraceParent() != null) orderTracing.stage("committed");
+            }
+        });
+    }
+
+    public void enqueue(OutboxEvent.Type type, String aggregateId) {
+        enqueue(type, aggregateId, null);
+    }
+
+    /**
+     * Blocks the relay thread until a writer commits or {@code timeoutMs}
+     * elapses (the fallback poll that picks up rows from other nodes / crashes).
+     */
+    boolean awaitWork(long timeoutMs) throws InterruptedException {
+        boolean signalled = pending.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS);
+        pending.drainPermits();
+        return signalled;
+    }
+}
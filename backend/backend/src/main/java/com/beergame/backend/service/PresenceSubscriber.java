@@ -0,0 +1,32 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.dto.PresenceDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Receives PresenceDTO from Redis (channel: presence-updates:{scope}:{id})
+ * and forwards it to /topic/game/{id}/presence or /topic/room/{id}/presence.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PresenceSubscriber {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final MeterRegistry meterRegistry;
+
+    public void receiveMessage(PresenceDTO presence) {
+        try {
+            String topic = "/topic/" + presence.scope().name().toLowerCase() + "/" + presence.id() + "/presence";
+            log.debug("Presence {} {} on {}", presence.username(), presence.online() ? "online" : "offline", topic);
+            meterRegistry.timer("beergame.broadcast.fanout", "kind", "presence")
+                    .record(() -> messagingTemplate.convertAndSend(topic, presence));
+        } catch (Exception e) {
+            log.error("Error broadcasting presence to WebSocket", e);
+        }
+    }
+}
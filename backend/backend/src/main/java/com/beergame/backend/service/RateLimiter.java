@@ -0,0 +1,250 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.exception.RateLimitExceededException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token-bucket rate limits per user and per client IP.
+ *
+ * WHY?
+ * Nothing stopped a client from spamming createGame (which also pings the
+ * bot service) or sending order frames that each take a Redis lock. One
+ * misbehaving tab could slow every room's turn.
+ *
+ * Each Policy has a bucket of `capacity` tokens refilled at
+ * `refill-per-second` (app.ratelimit.{policy}.*). A request takes one token
+ * from the user's bucket and one from the IP's bucket, or none at all: both
+ * are checked first, so a request rejected by the IP bucket does not burn
+ * the user's token (and vice versa). IP buckets are
+ * app.ratelimit.ip-multiplier times larger, because a classroom often
+ * shares one address.
+ *
+ * Buckets live in memory (Caffeine, idle ones expire). With
+ * app.ratelimit.redis.enabled the node also takes the tokens from
+ * Redis-held buckets (one Lua call for both keys), so the limit holds across
+ * nodes; a local rejection never reaches Redis, a Redis rejection hands the
+ * local tokens back, and a Redis failure falls back to the local decision.
+ */
+@Service
+@Slf4j
+public class RateLimiter {
+
+    public enum Policy {
+        ORDER(20, 5),
+        BATCH(5, 0.5),
+        CREATE(5, 5.0 / 60),
+        JOIN(20, 0.5),
+        ADD_BOT(12, 0.2);
+
+        final double defaultCapacity;
+        final double defaultRefillPerSecond;
+
+        Policy(double defaultCapacity, double defaultRefillPerSecond) {
+            this.defaultCapacity = defaultCapacity;
+            this.defaultRefillPerSecond = defaultRefillPerSecond;
+        }
+
+        String propertyName() {
+            return name().toLowerCase().replace('_', '-');
+        }
+    }
+
+    private record Limit(double capacity, double refillPerSecond) {
+        Limit times(double factor) {
+            return new Limit(capacity * factor, refillPerSecond * factor);
+        }
+    }
+
+    /**
+     * One bucket per key, ARGV = capacity, rate for each key in turn. Takes a
+     * token from every bucket only if every bucket has one; returns 0 then,
+     * otherwise the milliseconds until all of them would. Time comes from
+     * the Redis server so nodes agree on it.
+     */
+    private static final DefaultRedisScript<Long> TAKE_SCRIPT = new DefaultRedisScript<>("""
+            local t = redis.call('TIME')
+            local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)
+            local tokens, wait = {}, 0
+            for i, key in ipairs(KEYS) do
+                local capacity, rate = tonumber(ARGV[2 * i - 1]), tonumber(ARGV[2 * i])
+                local s = redis.call('HMGET', key, 'tokens', 'ts')
+                local ts = tonumber(s[2]) or now
+                tokens[i] = math.min(capacity, (tonumber(s[1]) or capacity) + (now - ts) / 1000 * rate)
+                if tokens[i] < 1 then wait = math.max(wait, math.ceil((1 - tokens[i]) / rate * 1000)) end
+            end
+            for i, key in ipairs(KEYS) do
+                local capacity, rate = tonumber(ARGV[2 * i - 1]), tonumber(ARGV[2 * i])
+                if wait == 0 then tokens[i] = tokens[i] - 1 end
+                redis.call('HSET', key, 'tokens', tostring(tokens[i]), 'ts', now)
+                redis.call('PEXPIRE', key, math.ceil(capacity / rate * 1000) + 1000)
+            end
+            return wait
+            """, Long.class);
+
+    private static final String KEY_PREFIX = "ratelimit:";
+
+    private final StringRedisTemplate redis;
+    private final boolean redisEnabled;
+    private final Map<Policy, Limit> userLimits = new EnumMap<>(Policy.class);
+    private final Map<Policy, Limit> ipLimits   = new EnumMap<>(Policy.class);
+    private final Cache<String, TokenBucket> buckets;
+
+    private final LongAdder rejected = new LongAdder();
+
+    public RateLimiter(StringRedisTemplate redis,
+                       Environment env,
+                       @Value("${app.ratelimit.redis.enabled:false}") boolean redisEnabled,
+                       @Value("${app.ratelimit.ip-multiplier:10}") double ipMultiplier,
+                       @Value("${app.ratelimit.max-buckets:100000}") long maxBuckets) {
+        this.redis = redis;
+        this.redisEnabled = redisEnabled;
+        for (Policy policy : Policy.values()) {
+            String prefix = "app.ratelimit." + policy.propertyName() + ".";
+            Limit limit = new Limit(
+                    env.getProperty(prefix + "capacity", Double.class, policy.defaultCapacity),
+                    env.getProperty(prefix + "refill-per-second", Double.class, policy.defaultRefillPerSecond));
+            userLimits.put(policy, limit);
+            ipLimits.put(policy, limit.times(ipMultiplier));
+        }
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+    }
+
+    /**
+     * Takes one token for {@code username} and one for {@code clientIp}
+     * (either may be null) — from both buckets, or from neither.
+     *
+     * @throws RateLimitExceededException when either bucket is empty
+     */
+    public void enforce(Policy policy, String username, String clientIp) {
+        List<String> keys = new ArrayList<>(2);
+        List<Limit> limits = new ArrayList<>(2);
+        if (username != null) {
+            keys.add(key(policy, "user:" + username));
+            limits.add(userLimits.get(policy));
+        }
+        if (clientIp != null) {
+            keys.add(key(policy, "ip:" + clientIp));
+            limits.add(ipLimits.get(policy));
+        }
+        if (keys.isEmpty()) return;
+
+        long waitMs = take(keys, limits);
+        if (waitMs > 0) {
+            rejected.increment();
+            log.debug("Rate limit {} hit by user={} ip={}", policy, username, clientIp);
+            throw new RateLimitExceededException(
+                    "Too many " + policy.propertyName() + " requests — retry in " + seconds(waitMs) + "s",
+                    seconds(waitMs));
+        }
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    // ── Internals ─────────────────────────────────────────────────────────────
+
+    private long take(List<String> keys, List<Limit> limits) {
+        List<TokenBucket> local = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            Limit limit = limits.get(i);
+            local.add(buckets.get(keys.get(i), k -> new TokenBucket(limit)));
+        }
+        long localWait = TokenBucket.tryTakeAll(local);
+        if (localWait > 0 || !redisEnabled) {
+            return localWait;
+        }
+        String[] args = new String[keys.size() * 2];
+        for (int i = 0; i < limits.size(); i++) {
+            args[2 * i]     = Double.toString(limits.get(i).capacity());
+            args[2 * i + 1] = Double.toString(limits.get(i).refillPerSecond());
+        }
+        try {
+            Long wait = redis.execute(TAKE_SCRIPT, keys, (Object[]) args);
+            if (wait != null && wait > 0) {
+                local.forEach(TokenBucket::giveBack);
+                return wait;
+            }
+            return 0;
+        } catch (Exception e) {
+            log.warn("Rate limit: Redis unavailable, using local buckets for {}: {}", keys, e.getMessage());
+            return 0;
+        }
+    }
+
+    private static String key(Policy policy, String subject) {
+        return KEY_PREFIX + policy.propertyName() + ":" + subject;
+    }
+
+    private static long seconds(long millis) {
+        return Math.max(1, (millis + 999) / 1000);
+    }
+
+    /** Classic token bucket; refilled lazily on each take. */
+    private static final class TokenBucket {
+        private final double capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long   lastRefill = System.nanoTime();
+
+        TokenBucket(Limit limit) {
+            this.capacity = limit.capacity();
+            this.tokensPerNano = limit.refillPerSecond() / TimeUnit.SECONDS.toNanos(1);
+            this.tokens = capacity;
+        }
+
+        /**
+         * Takes a token from every bucket if each has one; 0 then, else the
+         * milliseconds until all of them would. Buckets are locked in the
+         * caller's order (user before IP), which is the same everywhere.
+         */
+        static long tryTakeAll(List<TokenBucket> buckets) {
+            return tryTakeAll(buckets, 0, System.nanoTime());
+        }
+
+        private static long tryTakeAll(List<TokenBucket> buckets, int i, long now) {
+            if (i == buckets.size()) {
+                long wait = 0;
+                for (TokenBucket b : buckets) wait = Math.max(wait, b.waitMillis(now));
+                if (wait == 0) {
+                    for (TokenBucket b : buckets) b.tokens -= 1;
+                }
+                return wait;
+            }
+            synchronized (buckets.get(i)) {
+                return tryTakeAll(buckets, i + 1, now);
+            }
+        }
+
+        /** Refills up to {@code now}; 0 if a token is available, else milliseconds until one is. */
+        private long waitMillis(long now) {
+            tokens = Math.min(capacity, tokens + Math.max(0, now - lastRefill) * tokensPerNano);
+            lastRefill = Math.max(lastRefill, now);
+            if (tokens >= 1) return 0;
+            return (long) Math.ceil((1 - tokens) / tokensPerNano / 1_000_000);
+        }
+
+        /** Returns a token taken for a request that was rejected elsewhere. */
+        synchronized void giveBack() {
+            tokens = Math.min(capacity, tokens + 1);
+        }
+    }
+}
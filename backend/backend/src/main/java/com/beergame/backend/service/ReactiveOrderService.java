@@ -0,0 +1,192 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.dto.OrderAckDTO;
+import com.beergame.backend.dto.OrderPayloadDTO;
+import com.beergame.backend.repository.GameRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Non-blocking order intake for the STOMP handlers.
+ *
+ * WHY?
+ * The blocking path ran the whole order on a clientInboundChannel thread:
+ * de-dup SETNX, lock SETNX (plus Thread.sleep back-off while busy), the JPA
+ * transaction, lock DEL. With a fixed inbound pool of 2 × cores threads, a
+ * handful of contended rooms stalled every connection on the node.
+ *
+ * Here every Redis step — de-dup window, ready pre-check, lock acquire /
+ * retry / release — is a ReactiveStringRedisTemplate call, and only the JPA
+ * transaction (OrderService.applyOrder / GameService.applyRoomOrder, shared
+ * with the blocking path) runs on the bounded jpaScheduler. The handler
+ * returns a CompletableFuture, so the inbound thread is released
+ * immediately. Broadcasting is unchanged: the transaction writes outbox rows
+ * and OutboxRelay publishes them.
+ *
+ * Same semantics and Redis keys as OrderIngestionService / RedisLockService /
+ * DuplicateOrderFilter, so both paths can run side by side across nodes.
+ * Switch with app.orders.reactive.enabled.
+ */
+@Service
+@Slf4j
+public class ReactiveOrderService {
+
+    private static final int LOCK_RETRIES = 10;
+
+    private final OrderIngestionService   orderIngestionService;
+    private final OrderJournal            orderJournal;
+    private final OrderService            orderService;
+    private final GameService             gameService;
+    private final GameRepository          gameRepository;
+    private final RedisLockService        redisLockService;
+    private final DuplicateOrderFilter    duplicateFilter;
+    private final ReactiveStringRedisTemplate redis;
+    private final Scheduler               jpaScheduler;
+
+    /** gameId → roomId ("" for single games). A game never changes owner. */
+    private final Cache<String, String> ownerOfGame;
+
+    public ReactiveOrderService(OrderIngestionService orderIngestionService,
+                                OrderJournal orderJournal,
+                                OrderService orderService,
+                                GameService gameService,
+                                GameRepository gameRepository,
+                                RedisLockService redisLockService,
+                                DuplicateOrderFilter duplicateFilter,
+                                ReactiveStringRedisTemplate redis,
+                                @Qualifier("jpaScheduler") Scheduler jpaScheduler,
+                                @Value("${app.cache.state.max-size:10000}") long maxOwners) {
+        this.orderIngestionService = orderIngestionService;
+        this.orderJournal = orderJournal;
+        this.orderService = orderService;
+        this.gameService = gameService;
+        this.gameRepository = gameRepository;
+        this.redisLockService = redisLockService;
+        this.duplicateFilter = duplicateFilter;
+        this.redis = redis;
+        this.jpaScheduler = jpaScheduler;
+        this.ownerOfGame = Caffeine.newBuilder().maximumSize(maxOwners).build();
+    }
+
+    /** /app/game/{gameId}/placeOrder — routed to the room if the game belongs to one. */
+    public Mono<OrderAckDTO> submitGameOrder(String gameId, String username, OrderPayloadDTO payload) {
+        return ownerOf(gameId).flatMap(roomId -> roomId.isEmpty()
+                ? ingest("game", gameId, username, payload, gameOrder(gameId, username, payload))
+                : ingest("game", gameId, username, payload, roomOrder(roomId, username, payload)));
+    }
+
+    /** /app/room/{roomId}/placeOrder */
+    public Mono<OrderAckDTO> submitRoomOrder(String roomId, String username, OrderPayloadDTO payload) {
+        return ingest("room", roomId, username, payload, roomOrder(roomId, username, payload));
+    }
+
+    // ── Pipeline stages ───────────────────────────────────────────────────────
+
+    private Mono<Void> gameOrder(String gameId, String username, OrderPayloadDTO payload) {
+        return duplicateFilter.isAlreadyReadyReactive(DuplicateOrderFilter.Scope.GAME, gameId, username)
+                .flatMap(ready -> ready
+                        ? skipDuplicate(username, gameId)
+                        : redisLockService.executeWithLockReactive(gameId, LOCK_RETRIES, blocking(() ->
+                                orderService.applyOrder(gameId, username, payload.orderAmount(), payload.week()))));
+    }
+
+    private Mono<Void> roomOrder(String roomId, String username, OrderPayloadDTO payload) {
+        return duplicateFilter.isAlreadyReadyReactive(DuplicateOrderFilter.Scope.ROOM, roomId, username)
+                .flatMap(ready -> ready
+                        ? skipDuplicate(username, roomId)
+                        : redisLockService.executeWithLockReactive(roomId, LOCK_RETRIES, blocking(() ->
+                                gameService.applyRoomOrder(roomId, username, payload.orderAmount(), payload.week()))));
+    }
+
+    /**
+     * De-dup window (when the payload has a clientSeq), then {@code process},
+     * then the ACK. Without a clientSeq there is no ACK (empty Mono).
+     */
+    private Mono<OrderAckDTO> ingest(String scope, String id, String username,
+                                     OrderPayloadDTO payload, Mono<Void> order) {
+        Mono<Void> process = journaled(scope, id, username, payload, order);
+        if (payload.clientSeq() == null) {
+            return process.then(Mono.empty());
+        }
+        String key = OrderIngestionService.dedupKey(scope, id, username, payload);
+
+        if (!orderIngestionService.claimLocal(key)) {
+            return Mono.just(OrderIngestionService.ack(id, payload, OrderAckDTO.Status.DUPLICATE, null));
+        }
+
+        return redis.opsForValue().setIfAbsent(key, "1", orderIngestionService.window())
+                .onErrorResume(e -> {
+                    log.warn("Order de-dup: Redis unavailable, using local window only: {}", e.getMessage());
+                    return Mono.just(true);
+                })
+                .flatMap(first -> {
+                    if (Boolean.FALSE.equals(first)) {
+                        return Mono.just(OrderIngestionService.ack(id, payload, OrderAckDTO.Status.DUPLICATE, null));
+                    }
+                    return process
+                            .then(Mono.fromSupplier(() ->
+                                    OrderIngestionService.ack(id, payload, OrderAckDTO.Status.ACCEPTED, null)))
+                            .onErrorResume(e -> {
+                                log.warn("Order {} failed: {}", key, e.getMessage());
+                                orderIngestionService.releaseLocal(key);
+                                return redis.delete(key)
+                                        .onErrorResume(x -> Mono.just(0L))
+                                        .thenReturn(OrderIngestionService.ack(id, payload,
+                                                OrderAckDTO.Status.REJECTED, e.getMessage()));
+                            });
+                });
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    /**
+     * {@code order} between an OrderJournal intent and its done record. Also
+     * marked done on cancel, although the transaction may still be running:
+     * if the node dies before it commits, the intent is not replayed.
+     */
+    private Mono<Void> journaled(String scope, String id, String username, OrderPayloadDTO payload, Mono<Void> order) {
+        return Mono.fromFuture(() -> orderJournal.begin(
+                        OrderIngestionService.journalScope(scope), id, username, payload))
+                // doFinally: a cancelled order must be marked done too, or its
+                // segment (and every newer full one) could never be pruned.
+                .flatMap(seq -> order.doFinally(signal -> orderJournal.complete(seq)));
+    }
+
+    private Mono<String> ownerOf(String gameId) {
+        String cached = ownerOfGame.getIfPresent(gameId);
+        if (cached != null) return Mono.just(cached);
+
+        return Mono.fromCallable(() -> {
+                    List<GameRepository.GameOwnerView> owners = gameRepository.findOwnersByIdIn(List.of(gameId));
+                    if (owners.isEmpty()) throw new RuntimeException("Game not found: " + gameId);
+                    return Optional.ofNullable(owners.get(0).getRoomId()).orElse("");
+                })
+                .subscribeOn(jpaScheduler)
+                .doOnNext(roomId -> ownerOfGame.put(gameId, roomId));
+    }
+
+    /**
+     * Runs {@code transaction} on jpaScheduler. Cancelling the Mono does not
+     * stop it: executeWithLockReactive then releases the Redis lock while the
+     * JPA work may still be running, so a second order for the same aggregate
+     * can overlap it; only Game's @Version catches a conflicting write then.
+     */
+    private Mono<Void> blocking(Runnable transaction) {
+        return Mono.fromRunnable(transaction).subscribeOn(jpaScheduler).then();
+    }
+
+    private Mono<Void> skipDuplicate(String username, String aggregateId) {
+        log.warn("Player {} already submitted an order for {} — ignored.", username, aggregateId);
+        return Mono.empty();
+    }
+}
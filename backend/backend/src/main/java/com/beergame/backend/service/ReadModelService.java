@@ -0,0 +1,112 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.dto.GameStateDTO;
+import com.beergame.backend.dto.PlayerAssignmentDTO;
+import com.beergame.backend.dto.PlayerStateDTO;
+import com.beergame.backend.dto.RoomStateDTO;
+import com.beergame.backend.repository.GameRepository;
+import com.beergame.backend.repository.GameRoomRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Builds GameStateDTO / RoomStateDTO straight from column projections.
+ *
+ * WHY?
+ * The old read path loaded fully-hydrated entity graphs just to copy a few
+ * fields into a DTO: findByIdWithPlayers joined playerInfo for every player,
+ * and findByIdWithAllData joined teams × players × games. Every entity ended
+ * up in the persistence context and was dirty-checked at flush, even though
+ * nothing was ever written.
+ *
+ * Here each DTO is assembled from small flat queries (see the "Read model"
+ * sections of GameRepository and GameRoomRepository). No entity is ever
+ * loaded, so there is nothing to track or flush.
+ *
+ * Callers that already hold entities in memory (the entity overloads in
+ * BroadcastService) keep using GameStateDTO.fromGame / RoomStateDTO.fromGameRoom.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class ReadModelService {
+
+    private final GameRepository     gameRepository;
+    private final GameRoomRepository gameRoomRepository;
+
+    /**
+     * A game's state together with the Game @Version it was read at. The
+     * version only moves on Game-row writes (turn advance, status), not on
+     * orders or ready marks, so it must not be used to judge staleness.
+     */
+    public record GameSnapshot(Long version, GameStateDTO state) {}
+
+    /** Header + players + festive weeks: three single-table-ish queries, zero entities. */
+    public Optional<GameSnapshot> findGameSnapshot(String gameId) {
+        return gameRepository.findHeaderById(gameId).map(header -> {
+            List<PlayerStateDTO> players = gameRepository.findPlayerStatesByGameId(gameId);
+            List<Integer> festiveWeeks   = gameRepository.findFestiveWeeksSortedById(gameId);
+
+            if (festiveWeeks.isEmpty()) {
+                log.warn("Game {} has no festive weeks set — was generateFestiveWeeks() called at creation?",
+                        gameId);
+            }
+
+            return new GameSnapshot(header.getVersion(), new GameStateDTO(
+                    header.getId(),
+                    header.getCurrentWeek(),
+                    header.getGameStatus(),
+                    players,
+                    header.getFestiveWeek(),
+                    festiveWeeks));
+        });
+    }
+
+    public Optional<GameStateDTO> findGameState(String gameId) {
+        return findGameSnapshot(gameId).map(GameSnapshot::state);
+    }
+
+    public GameStateDTO getGameState(String gameId) {
+        return findGameState(gameId)
+                .orElseThrow(() -> new RuntimeException("Game not found: " + gameId));
+    }
+
+    /**
+     * Header + one row per member. No teams × players × games cartesian product:
+     * the member query returns exactly one row per player (or per empty team).
+     */
+    public Optional<RoomStateDTO> findRoomState(String roomId) {
+        return gameRoomRepository.findHeaderById(roomId).map(header -> {
+            Map<String, List<PlayerAssignmentDTO>> membersByTeam = new LinkedHashMap<>();
+
+            for (GameRoomRepository.RoomMemberView row : gameRoomRepository.findMembersByRoomId(roomId)) {
+                List<PlayerAssignmentDTO> members =
+                        membersByTeam.computeIfAbsent(row.getTeamName(), k -> new ArrayList<>());
+                // LEFT JOIN row for a team that has no players yet
+                if (row.getUserName() == null) continue;
+                members.add(PlayerAssignmentDTO.of(
+                        row.getUserName(),
+                        row.getTeamName(),
+                        row.getGameId(),
+                        row.getRole(),
+                        Boolean.TRUE.equals(row.getReady())));
+            }
+
+            return RoomStateDTO.of(header.getRoomId(), header.getStatus(), header.getCurrentWeek(), membersByTeam);
+        });
+    }
+
+    public RoomStateDTO getRoomState(String roomId) {
+        return findRoomState(roomId)
+                .orElseThrow(() -> new RuntimeException("Room not found: " + roomId));
+    }
+}
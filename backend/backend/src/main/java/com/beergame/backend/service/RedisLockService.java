@@ -1,10 +1,16 @@
 package com.beergame.backend.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
@@ -12,6 +18,15 @@ import java.util.function.Supplier;
  * Cluster-safe distributed locking via Redis SETNX.
  * Replaces the JVM-only synchronized(gameId.intern()) pattern,
  * which provides zero protection across multiple server instances.
+ *
+ * executeWithLockReactive() takes the same lock without blocking: acquire,
+ * retry back-off and release are ReactiveRedisTemplate calls on the Netty
+ * event loop, so waiting for a busy lock holds no thread at all.
+ *
+ * Both report how long acquiring took to AdmissionControl, which sheds new
+ * work when lock waits climb, and record it as beergame.lock.wait
+ * (outcome=acquired|timeout); the time the lock is held is beergame.lock.hold.
+ * An acquire inside a traced order also marks its lock_acquired stage.
  */
 @Service
 @RequiredArgsConstructor
@@ -19,6 +34,10 @@ import java.util.function.Supplier;
 public class RedisLockService {
 
     private final RedisTemplate<String, Object> redisTemplate;
+    private final ReactiveStringRedisTemplate  reactiveRedisTemplate;
+    private final AdmissionControl             admissionControl;
+    private final MeterRegistry                meterRegistry;
+    private final OrderTracing                 orderTracing;
 
     private static final long   LOCK_TIMEOUT_SECONDS = 30;
     private static final int    RETRY_DELAY_MS       = 100;
@@ -43,12 +62,16 @@ public class RedisLockService {
      * @throws RuntimeException (wrapping InterruptedException) if the thread is interrupted
      */
     public <T> T executeWithLock(String lockKey, int maxRetries, Supplier<T> action) {
+        long startedAt = System.nanoTime();
         for (int attempt = 1; attempt <= maxRetries; attempt++) {
             if (tryAcquire(lockKey)) {
+                long acquiredAt = System.nanoTime();
+                recordWait(lockKey, "blocking", "acquired", acquiredAt - startedAt);
                 try {
                     return action.get();
                 } finally {
                     release(lockKey);
+                    recordHold("blocking", System.nanoTime() - acquiredAt);
                 }
             }
             log.warn("Lock '{}' busy. Attempt {}/{}", lockKey, attempt, maxRetries);
@@ -59,8 +82,62 @@ public class RedisLockService {
                 throw new RuntimeException("Interrupted while waiting for lock: " + lockKey, e);
             }
         }
+        recordWait(lockKey, "blocking", "timeout", System.nanoTime() - startedAt);
         throw new RuntimeException(
                 "Failed to acquire distributed lock for '" + lockKey
                         + "' after " + maxRetries + " attempts");
     }
-}
\ No newline at end of file
+
+    /**
+     * Non-blocking twin of {@link #executeWithLock}: subscribes to
+     * {@code action} while holding the lock and releases it however the
+     * action ends (value, error or cancel). On cancel the lock is released
+     * at once, even if work {@code action} started elsewhere (e.g. a task on
+     * another scheduler) is still running.
+     */
+    public <T> Mono<T> executeWithLockReactive(String lockKey, int maxRetries, Mono<T> action) {
+        String key = LOCK_PREFIX + lockKey;
+
+        Mono<String> acquire = Mono.defer(() -> {
+            long startedAt = System.nanoTime();
+            return reactiveRedisTemplate.opsForValue()
+                    .setIfAbsent(key, "locked", Duration.ofSeconds(LOCK_TIMEOUT_SECONDS))
+                    .flatMap(acquired -> Boolean.TRUE.equals(acquired)
+                            ? Mono.just(key)
+                            : Mono.error(new LockBusyException(lockKey)))
+                    .retryWhen(Retry.fixedDelay(maxRetries - 1, Duration.ofMillis(RETRY_DELAY_MS))
+                            .filter(LockBusyException.class::isInstance)
+                            .doBeforeRetry(signal -> log.warn("Lock '{}' busy. Attempt {}/{}",
+                                    lockKey, signal.totalRetries() + 1, maxRetries))
+                            .onRetryExhaustedThrow((spec, signal) -> new RuntimeException(
+                                    "Failed to acquire distributed lock for '" + lockKey
+                                            + "' after " + maxRetries + " attempts")))
+                    .doOnSuccess(k -> recordWait(lockKey, "reactive", "acquired", System.nanoTime() - startedAt))
+                    .doOnError(e -> recordWait(lockKey, "reactive", "timeout", System.nanoTime() - startedAt));
+        });
+
+        return Mono.usingWhen(acquire,
+                k -> Mono.defer(() -> {
+                    long acquiredAt = System.nanoTime();
+                    return action.doFinally(signal -> recordHold("reactive", System.nanoTime() - acquiredAt));
+                }),
+                reactiveRedisTemplate::delete);
+    }
+
+    private void recordWait(String lockKey, String mode, String outcome, long nanos) {
+        admissionControl.recordLockWait(lockKey, nanos);
+        if ("acquired".equals(outcome)) orderTracing.stage("lock_acquired");
+        meterRegistry.timer("beergame.lock.wait", "mode", mode, "outcome", outcome)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void recordHold(String mode, long nanos) {
+        meterRegistry.timer("beergame.lock.hold", "mode", mode).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static final class LockBusyException extends RuntimeException {
+        LockBusyException(String lockKey) {
+            super("Lock busy: " + lockKey, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.config.GameConfig;
+import com.beergame.backend.dto.ReplayReportDTO;
+import com.beergame.backend.dto.ReplayReportDTO.GameResult;
+import com.beergame.backend.dto.ReplayReportDTO.Mismatch;
+import com.beergame.backend.dto.ReplayReportDTO.Outcome;
+import com.beergame.backend.model.Game;
+import com.beergame.backend.model.GameCommand;
+import com.beergame.backend.model.GameTurn;
+import com.beergame.backend.model.Players;
+import com.beergame.backend.repository.GameCommandRepository;
+import com.beergame.backend.repository.GameTurnRepository;
+import com.beergame.backend.repository.GameTurnRepository.TurnRowView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Re-runs recorded games through TurnEngine and diffs the result against the
+ * persisted GameTurn rows.
+ *
+ * WHY?
+ * Turn bugs used to be reproducible only by replaying a game by hand. With the
+ * command log (CommandLog / GameCommand) every finished game is a regression
+ * test: rebuild the game from its commands, play each recorded TURN with the
+ * current rules and compare every GameTurn value for every role and week.
+ * A divergence means either the engine changed behaviour or the live path did
+ * something the log did not capture — both worth knowing before a deploy.
+ *
+ * Games are processed in chunks of app.replay.chunk-size: one read-only
+ * transaction and two queries per chunk (all commands, all turn rows as flat
+ * projections), then pure in-memory replay on detached Game / Players objects.
+ * Nothing is written and no lock is taken, so it is safe against production.
+ *
+ * Only games whose log starts at GAME_CREATED are replayed; games created
+ * before the log existed are reported as SKIPPED.
+ */
+@Service
+@Slf4j
+public class ReplayService {
+
+    /** Per-game cap so one broken game cannot blow up the report. */
+    private static final int MAX_MISMATCHES_PER_GAME = 100;
+
+    private static final Comparator<GameCommand> REPLAY_ORDER = Comparator
+            .comparingInt(GameCommand::getWeek)
+            .thenComparing(GameCommand::getType)
+            .thenComparingLong(GameCommand::getRecordedAt)
+            .thenComparing(GameCommand::getId);
+
+    private final GameCommandRepository commandRepository;
+    private final GameTurnRepository    gameTurnRepository;
+    private final TransactionTemplate   readOnlyTx;
+    private final Set<String>           operators;
+    private final int                   chunkSize;
+    private final int                   maxGames;
+
+    public ReplayService(GameCommandRepository commandRepository,
+                         GameTurnRepository gameTurnRepository,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${app.replay.operators:}") Set<String> operators,
+                         @Value("${app.replay.chunk-size:500}") int chunkSize,
+                         @Value("${app.replay.max-games:100000}") int maxGames) {
+        this.commandRepository = commandRepository;
+        this.gameTurnRepository = gameTurnRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.operators = Set.copyOf(operators);
+        this.chunkSize = chunkSize;
+        this.maxGames = maxGames;
+    }
+
+    /** Replays are read-only but expensive; only listed users may start one. */
+    public boolean isOperator(String username) {
+        return operators.contains(username);
+    }
+
+    /** One game, with its result listed even when it matched. */
+    public ReplayReportDTO replayGame(String gameId) {
+        return replay(List.of(gameId), true);
+    }
+
+    /** The {@code limit} most recently created games whose log is complete. */
+    public ReplayReportDTO replayRecent(int limit) {
+        if (limit < 1 || limit > maxGames) {
+            throw new IllegalArgumentException("limit must be 1–" + maxGames + ", got: " + limit);
+        }
+        List<String> gameIds = readOnlyTx.execute(status ->
+                commandRepository.findCompleteGameIds(GameConfig.GAME_WEEKS, PageRequest.of(0, limit)));
+        return replay(gameIds, false);
+    }
+
+    // ── Internals ─────────────────────────────────────────────────────────────
+
+    private ReplayReportDTO replay(List<String> gameIds, boolean listAll) {
+        long start = System.nanoTime();
+        int matched = 0, diverged = 0, skipped = 0;
+        List<GameResult> listed = new ArrayList<>();
+
+        for (int from = 0; from < gameIds.size(); from += chunkSize) {
+            List<String> chunk = gameIds.subList(from, Math.min(from + chunkSize, gameIds.size()));
+            for (GameResult result : readOnlyTx.execute(status -> replayChunk(chunk))) {
+                switch (result.outcome()) {
+                    case MATCHED -> matched++;
+                    case DIVERGED -> diverged++;
+                    case SKIPPED -> skipped++;
+                }
+                if (listAll || result.outcome() != Outcome.MATCHED) {
+                    listed.add(result);
+                }
+            }
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        int replayed = matched + diverged;
+        double perSecond = elapsedNanos == 0 ? 0 : gameIds.size() / (elapsedNanos / 1e9);
+        log.info("Replayed {} game(s): {} matched, {} diverged, {} skipped in {} ms ({} games/s).",
+                replayed, matched, diverged, skipped, elapsedNanos / 1_000_000, Math.round(perSecond));
+        return new ReplayReportDTO(replayed, matched, diverged, skipped,
+                elapsedNanos / 1_000_000, perSecond, listed);
+    }
+
+    private List<GameResult> replayChunk(List<String> gameIds) {
+        Map<String, List<GameCommand>> logs = commandRepository.findByGameIdIn(gameIds).stream()
+                .collect(Collectors.groupingBy(GameCommand::getGameId));
+        Map<String, Map<Long, TurnRowView>> persisted = new HashMap<>();
+        for (TurnRowView row : gameTurnRepository.findTurnRowsByGameIdIn(gameIds)) {
+            persisted.computeIfAbsent(row.getGameId(), k -> new HashMap<>())
+                    .put(key(row.getWeekDay(), row.getRole()), row);
+        }
+
+        List<GameResult> results = new ArrayList<>(gameIds.size());
+        for (String gameId : gameIds) {
+            results.add(replayOne(gameId,
+                    logs.getOrDefault(gameId, List.of()),
+                    persisted.getOrDefault(gameId, Map.of())));
+        }
+        return results;
+    }
+
+    private GameResult replayOne(String gameId, List<GameCommand> commands, Map<Long, TurnRowView> persisted) {
+        List<GameCommand> ordered = new ArrayList<>(commands);
+        ordered.sort(REPLAY_ORDER);
+        if (ordered.isEmpty() || ordered.get(0).getType() != GameCommand.Type.GAME_CREATED) {
+            return new GameResult(gameId, Outcome.SKIPPED, 0, List.of(),
+                    ordered.isEmpty() ? "No command log" : "Log does not start at GAME_CREATED");
+        }
+
+        Game game = new Game();
+        game.setId(gameId);
+        game.setCurrentWeek(1);
+        game.setGameStatus(Game.GameStatus.LOBBY);
+        game.setFestiveWeeks(parseWeeks(ordered.get(0).getDetail()));
+        Map<String, Players> byName = new HashMap<>();
+
+        List<Mismatch> mismatches = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        int weeks = 0;
+
+        for (GameCommand c : ordered.subList(1, ordered.size())) {
+            switch (c.getType()) {
+                case GAME_CREATED -> {
+                    return diverged(gameId, weeks, mismatches, "Duplicate GAME_CREATED");
+                }
+                case PLAYER_JOINED, BOT_ADDED -> {
+                    Players p = new Players();
+                    p.setUserName(c.getUserName());
+                    p.setRole(c.getRole());
+                    p.setBot(c.getType() == GameCommand.Type.BOT_ADDED);
+                    TurnEngine.seat(p, game);
+                    p.setGame(game);
+                    game.getPlayers().add(p);
+                    byName.put(p.getUserName(), p);
+                }
+                case ORDER -> {
+                    Players p = byName.get(c.getUserName());
+                    if (p == null) {
+                        return diverged(gameId, weeks, mismatches, "Order from unseated player " + c.getUserName());
+                    }
+                    p.setCurrentOrder(c.getAmount());
+                    p.setReadyForOrder(true);
+                }
+                case TURN -> {
+                    if (c.getWeek() != game.getCurrentWeek() || game.getPlayers().size() != 4) {
+                        return diverged(gameId, weeks, mismatches,
+                                "TURN for week " + c.getWeek() + " with game on week " + game.getCurrentWeek()
+                                        + " and " + game.getPlayers().size() + " player(s)");
+                    }
+                    for (GameTurn turn : TurnEngine.applyWeek(game)) {
+                        long key = key(turn.getWeekDay(), turn.getPlayer().getRole());
+                        seen.add(key);
+                        diff(turn, persisted.get(key), mismatches);
+                    }
+                    weeks++;
+                }
+            }
+        }
+
+        // Persisted weeks the log never played
+        persisted.forEach((key, row) -> {
+            if (!seen.contains(key)) {
+                add(mismatches, new Mismatch(row.getWeekDay(), row.getRole().name(), "turn", "present", "missing"));
+            }
+        });
+
+        return mismatches.isEmpty()
+                ? new GameResult(gameId, Outcome.MATCHED, weeks, List.of(), null)
+                : new GameResult(gameId, Outcome.DIVERGED, weeks, mismatches, null);
+    }
+
+    private static void diff(GameTurn replayed, TurnRowView row, List<Mismatch> out) {
+        int week = replayed.getWeekDay();
+        String role = replayed.getPlayer().getRole().name();
+        if (row == null) {
+            add(out, new Mismatch(week, role, "turn", "missing", "present"));
+            return;
+        }
+        check(out, week, role, "orderPlaced",          row.getOrderPlaced(),          replayed.getOrderPlaced());
+        check(out, week, role, "demandRecieved",       row.getDemandRecieved(),       replayed.getDemandRecieved());
+        check(out, week, role, "shipmentSent",         row.getShipmentSent(),         replayed.getShipmentSent());
+        check(out, week, role, "shipmentRecieved",     row.getShipmentRecieved(),     replayed.getShipmentRecieved());
+        check(out, week, role, "inventoryAtEndOfWeek", row.getInventoryAtEndOfWeek(), replayed.getInventoryAtEndOfWeek());
+        check(out, week, role, "backOrderAtEndOfWeek", row.getBackOrderAtEndOfWeek(), replayed.getBackOrderAtEndOfWeek());
+        check(out, week, role, "weeklyCost",           row.getWeeklyCost(),           replayed.getWeeklyCost());
+        check(out, week, role, "totalCost",            row.getTotalCost(),            replayed.getTotalCost());
+    }
+
+    private static void check(List<Mismatch> out, int week, String role, String field, double expected, double actual) {
+        // Same operations in the same order — results must be bit-identical.
+        if (Double.compare(expected, actual) != 0) {
+            add(out, new Mismatch(week, role, field, format(expected), format(actual)));
+        }
+    }
+
+    private static void add(List<Mismatch> out, Mismatch m) {
+        if (out.size() < MAX_MISMATCHES_PER_GAME) {
+            out.add(m);
+        }
+    }
+
+    private static GameResult diverged(String gameId, int weeks, List<Mismatch> mismatches, String message) {
+        return new GameResult(gameId, Outcome.DIVERGED, weeks, mismatches, message);
+    }
+
+    private static long key(int week, Players.RoleType role) {
+        return (long) week * Players.RoleType.values().length + role.ordinal();
+    }
+
+    private static Set<Integer> parseWeeks(String csv) {
+        if (csv == null || csv.isBlank()) {
+            return new HashSet<>();
+        }
+        return Arrays.stream(csv.split(","))
+                .map(String::trim)
+                .map(Integer::valueOf)
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+    }
+}
@@ -1,19 +1,13 @@
 package com.beergame.backend.service;
 
 import com.beergame.backend.config.GameConfig;
-import com.beergame.backend.dto.RoomStateDTO;
-import com.beergame.backend.event.WeekStartedEvent;
 import com.beergame.backend.model.*;
 import com.beergame.backend.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.transaction.support.TransactionSynchronization;
-import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.security.SecureRandom;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -26,6 +20,10 @@ import java.util.stream.Stream;
  *     GameService. Clients no longer receive partially-written state.
  *  2. startGame() uses generateFestiveWeeks() per game (no JVM-global static).
  *  3. RedisTemplate removed — broadcast goes through BroadcastService.
+ *  4. All broadcasts and WeekStartedEvents are written to the transactional
+ *     outbox instead of being sent mid-transaction / from afterCommit hooks.
+ *  5. Room and game IDs come from IdAllocator — no existsById round-trips,
+ *     including the four that startGame() used to make under the room lock.
  */
 @Service
 @RequiredArgsConstructor
@@ -40,35 +38,9 @@ public class RoomManagerService {
     private final GameRepository       gameRepository;
     private final BroadcastService     broadcastService;
     private final RedisLockService     redisLockService;
-    private final ApplicationEventPublisher eventPublisher;
-
-    private static final String        ALPHANUMERIC = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
-    private static final SecureRandom  RANDOM       = new SecureRandom();
-    private static final int           MAX_ID_RETRIES = 10;
-
-    private String generateRandomId(int length) {
-        StringBuilder sb = new StringBuilder(length);
-        for (int i = 0; i < length; i++) {
-            sb.append(ALPHANUMERIC.charAt(RANDOM.nextInt(ALPHANUMERIC.length())));
-        }
-        return sb.toString();
-    }
-
-    private String generateUniqueRoomId() {
-        for (int attempt = 0; attempt < MAX_ID_RETRIES; attempt++) {
-            String id = generateRandomId(10);
-            if (!gameRoomRepository.existsById(id)) return id;
-        }
-        throw new RuntimeException("Failed to generate unique room ID after " + MAX_ID_RETRIES + " attempts");
-    }
-
-    private String generateUniqueGameId() {
-        for (int attempt = 0; attempt < MAX_ID_RETRIES; attempt++) {
-            String id = generateRandomId(10);
-            if (!gameRepository.existsById(id)) return id;
-        }
-        throw new RuntimeException("Failed to generate unique game ID after " + MAX_ID_RETRIES + " attempts");
-    }
+    private final OutboxService        outboxService;
+    private final CommandLog           commandLog;
+    private final IdAllocator          idAllocator;
 
     // ─────────────────────────────────────────────────────────────────────────
     // Helpers
@@ -96,7 +68,7 @@ public class RoomManagerService {
 
     public GameRoom createRoom() {
         GameRoom room = new GameRoom();
-        room.setId(generateUniqueRoomId());
+        room.setId(idAllocator.nextRoomId());
         room.setStatus(GameRoom.RoomStatus.WAITING);
         room.setCreatedAt(java.time.LocalDateTime.now());
         GameRoom saved = gameRoomRepository.save(room);
@@ -181,10 +153,10 @@ public class RoomManagerService {
                 log.info("Player {} joined room {} / team {} as {}", username, roomId, teamName, role);
             }
 
-            // Broadcast the in-memory manipulated room directly.
-            // This is safer since executeWithLock might not be wrapped in a Spring @Transactional
-            // boundary, causing AFTER_COMMIT hooks to fail or db queries to read stale data.
-            broadcastService.broadcastRoomState(roomId, room);
+            // Outbox-backed: published by OutboxRelay once this transaction
+            // (class-level @Transactional) commits, so clients never see a
+            // join that was rolled back and never miss one that committed.
+            broadcastService.broadcastRoomAfterCommit(roomId);
 
             if (isRoomFull(room)) {
                 startGame(room);
@@ -207,7 +179,7 @@ public class RoomManagerService {
         List<Game> newGames = new ArrayList<>();
         for (int i = 0; i < 4; i++) {
             Game game = new Game();
-            game.setId(generateUniqueGameId());
+            game.setId(idAllocator.nextGameId());
             game.setGameStatus(Game.GameStatus.IN_PROGRESS);
             game.setCurrentWeek(1);
             game.setCreatedAt(LocalDateTime.now());
@@ -222,6 +194,7 @@ public class RoomManagerService {
             newGames.add(game);
         }
         room.setGames(new java.util.HashSet<>(newGames));
+        newGames.forEach(commandLog::gameCreated);
 
         Players.RoleType[] roles = {
                 Players.RoleType.RETAILER,
@@ -252,46 +225,22 @@ public class RoomManagerService {
                         .orElseThrow(() -> new RuntimeException("Shuffle logic failed: team " + sourceTeam.getTeamName() + " missing role " + requiredRole));
 
                 p.setGame(currentGame);
-                p.setInventory(GameConfig.INITIAL_INVENTORY);
-                p.setBackOrder(0);
-                p.setTotalCost(0);
-                p.setWeeklyCost(0);
-
-                if (requiredRole == Players.RoleType.RETAILER) {
-                    p.setOrderArrivingNextWeek(
-                            GameConfig.getCustomerDemand(1, currentGame.getFestiveWeeks()));
-                } else {
-                    p.setOrderArrivingNextWeek(GameConfig.INITIAL_PIPELINE_LEVEL);
-                }
-
-                p.setIncomingShipment(GameConfig.INITIAL_PIPELINE_LEVEL);
-                p.setShipmentArrivingWeekAfterNext(GameConfig.INITIAL_PIPELINE_LEVEL);
+                TurnEngine.seat(p, currentGame);
 
                 playerRepository.save(p);
+                commandLog.seated(currentGame, p);
             }
         }
 
         gameRoomRepository.save(room);
         log.info("Room {} started successfully", room.getId());
 
-        // Immediately broadcast RUNNING state directly from memory to bypass transactional race conditions
-        broadcastService.broadcastRoomState(room.getId(), room);
-        
-        // Publish WeekStartedEvent and Broadcast Game states for each game AFTER commit
-        final List<Game> committedGames = new ArrayList<>(newGames);
-        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
-            @Override
-            public void afterCommit() {
-                for (Game g : committedGames) {
-                    // ✅ CRITICAL FIX: Call broadcastGameState() DIRECTLY here.
-                    // broadcastGameAfterCommit() registers a NEW TransactionSynchronization,
-                    // but we are ALREADY inside afterCommit — no active transaction exists!
-                    // Spring silently drops the nested registration, so game state was NEVER sent.
-                    // broadcastGameState(String) does a fresh DB read then sends to WebSocket — safe here.
-                    broadcastService.broadcastGameState(g.getId());
-                    eventPublisher.publishEvent(new WeekStartedEvent(RoomManagerService.this, g.getId(), 1));
-                }
-            }
-        });
+        // RUNNING room state, every game's initial state and each game's
+        // WeekStartedEvent go through the outbox in this same transaction.
+        broadcastService.broadcastRoomAfterCommit(room.getId());
+        for (Game g : newGames) {
+            broadcastService.broadcastGameAfterCommit(g.getId());
+            outboxService.enqueue(OutboxEvent.Type.WEEK_STARTED, g.getId(), 1);
+        }
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.beergame.backend.service;
 
 import com.beergame.backend.dto.RoomResultDTO;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
@@ -17,12 +18,14 @@ import org.springframework.stereotype.Service;
 public class RoomResultSubscriber {
 
     private final SimpMessagingTemplate messagingTemplate;
+    private final MeterRegistry meterRegistry;
 
     public void receiveMessage(RoomResultDTO result) {
         try {
             String topic = "/topic/room/" + result.getRoomId() + "/result";
             log.info("Received room result from Redis. Broadcasting to WebSocket topic: {}", topic);
-            messagingTemplate.convertAndSend(topic, result);
+            meterRegistry.timer("beergame.broadcast.fanout", "kind", "result")
+                    .record(() -> messagingTemplate.convertAndSend(topic, result));
         } catch (Exception e) {
             log.error("Error broadcasting room result to WebSocket", e);
         }
@@ -1,6 +1,7 @@
 package com.beergame.backend.service;
 
 import com.beergame.backend.dto.RoomStateDTO;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
@@ -12,6 +13,8 @@ import org.springframework.stereotype.Service;
 public class RoomStateSubscriber {
 
     private final SimpMessagingTemplate messagingTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ActivityLog activityLog;
 
     // This method is called by the 'roomListenerAdapter'
     public void receiveMessage(RoomStateDTO roomState) {
@@ -19,9 +22,13 @@ public class RoomStateSubscriber {
             String roomId = roomState.getRoomId(); // Assumes RoomStateDTO has getRoomId()
             String topic = "/topic/room/" + roomId; // 👈 Make sure your frontend listens here
 
-            log.info("Received room state from Redis. Broadcasting to WebSocket topic: {}", topic);
+            activityLog.record(ActivityLog.Activity.ROOM_FANOUT);
+            if (activityLog.sampled(log, roomId)) {
+                log.debug("Received room state from Redis. Broadcasting to WebSocket topic: {}", topic);
+            }
 
-            messagingTemplate.convertAndSend(topic, roomState);
+            meterRegistry.timer("beergame.broadcast.fanout", "kind", "room")
+                    .record(() -> messagingTemplate.convertAndSend(topic, roomState));
 
         } catch (Exception e) {
             log.error("Error broadcasting WebSocket message", e);
@@ -0,0 +1,340 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.config.Bulkhead;
+import com.beergame.backend.dto.PresenceDTO;
+import com.beergame.backend.event.PlayerDisconnectedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.AbstractSubProtocolEvent;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Tracks STOMP sessions per user and per game / room.
+ *
+ * WHY?
+ * A reconnecting client used to catch up with GET /api/game/{id}, and
+ * AfkDetectionService could only find an absent player by polling for an
+ * expired timer — it never knew whether the player was still connected.
+ *
+ * On this node every session is kept in memory (sessionId → user and the
+ * games / rooms it subscribed to). Cluster-wide state lives in Redis:
+ *   presence:user:{username}       number of open sessions of the user
+ *   presence:{scope}:{id}          hash username → number of subscriptions
+ *
+ * Events handled:
+ *  - CONNECTED     register the session, count it for the user.
+ *  - SUBSCRIBE     /topic/game/{id} or /topic/room/{id}:
+ *                    1. send the cached GameStateDTO / RoomStateDTO to that
+ *                       subscription only — a near-cache hit costs no DB read,
+ *                       a miss is loaded once off the inbound thread;
+ *                    2. count the user as present; their first subscription
+ *                       publishes a PresenceDTO (online).
+ *  - UNSUBSCRIBE   undo the subscription; the last one publishes offline.
+ *  - DISCONNECT    undo every subscription of the session. When it was the
+ *                  user's last session and they have not reconnected after
+ *                  app.presence.disconnect-grace-seconds, a
+ *                  PlayerDisconnectedEvent tells AfkDetectionService to order
+ *                  for them now instead of waiting for the AFK poll.
+ *
+ * Redis failures only degrade presence; they never fail a STOMP frame.
+ */
+@Service
+@Slf4j
+public class SessionRegistry {
+
+    public static final String CHANNEL_PREFIX = "presence-updates:";
+    private static final String KEY_PREFIX    = "presence:";
+    private static final String USER_PREFIX   = KEY_PREFIX + "user:";
+
+    private static final Pattern GAME_TOPIC = Pattern.compile("^/topic/game/([^/]+)$");
+    private static final Pattern ROOM_TOPIC = Pattern.compile("^/topic/room/([^/]+)$");
+
+    /** One subscription to a game or room topic. */
+    private record Aggregate(PresenceDTO.Scope scope, String id) {}
+
+    /** A live session on this node: subscriptionId → aggregate. */
+    private record Session(String username, Map<String, Aggregate> subscriptions) {}
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    private final StateCacheService            stateCacheService;
+    private final StringRedisTemplate          redis;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final MessageChannel               clientOutboundChannel;
+    private final MessageConverter             brokerMessageConverter;
+    private final ApplicationEventPublisher    eventPublisher;
+    private final Bulkhead                     asyncExecutor;
+    private final Duration                     ttl;
+    private final long                         graceSeconds;
+
+    public SessionRegistry(StateCacheService stateCacheService,
+                           StringRedisTemplate redis,
+                           RedisTemplate<String, Object> redisTemplate,
+                           @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel,
+                           @Qualifier("brokerMessageConverter") MessageConverter brokerMessageConverter,
+                           ApplicationEventPublisher eventPublisher,
+                           @Qualifier("asyncExecutor") Bulkhead asyncExecutor,
+                           @Value("${app.presence.ttl-seconds:86400}") long ttlSeconds,
+                           @Value("${app.presence.disconnect-grace-seconds:10}") long graceSeconds) {
+        this.stateCacheService = stateCacheService;
+        this.redis = redis;
+        this.redisTemplate = redisTemplate;
+        this.clientOutboundChannel = clientOutboundChannel;
+        this.brokerMessageConverter = brokerMessageConverter;
+        this.eventPublisher = eventPublisher;
+        this.asyncExecutor = asyncExecutor;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.graceSeconds = graceSeconds;
+    }
+
+    // ───────────────────────────────────────────────────────────────────── //
+    //  Queries
+    // ───────────────────────────────────────────────────────────────────── //
+
+    /** True if the user has an open session on any node (true when unknown). */
+    public boolean isConnected(String username) {
+        if (sessions.values().stream().anyMatch(s -> s.username().equals(username))) {
+            return true;
+        }
+        try {
+            String count = redis.opsForValue().get(USER_PREFIX + username);
+            return count != null && Long.parseLong(count) > 0;
+        } catch (Exception e) {
+            // Unknown: report connected so AFK handling falls back to its timer.
+            log.warn("Presence: could not read session count of {}: {}", username, e.getMessage());
+            return true;
+        }
+    }
+
+    /** Users currently subscribed to a game / room, across all nodes. */
+    public List<String> onlineUsers(PresenceDTO.Scope scope, String id) {
+        try {
+            return redis.<String, String>opsForHash().keys(key(scope, id)).stream().sorted().toList();
+        } catch (Exception e) {
+            log.warn("Presence: could not read {}: {}", key(scope, id), e.getMessage());
+            return List.of();
+        }
+    }
+
+    // ───────────────────────────────────────────────────────────────────── //
+    //  STOMP lifecycle
+    // ───────────────────────────────────────────────────────────────────── //
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        String sessionId = sessionId(event);
+        String username  = username(event);
+        if (sessionId == null || username == null) return;
+
+        sessions.put(sessionId, new Session(username, new ConcurrentHashMap<>()));
+        try {
+            redis.opsForValue().increment(USER_PREFIX + username);
+            redis.expire(USER_PREFIX + username, ttl);
+        } catch (Exception e) {
+            log.warn("Presence: could not count session of {}: {}", username, e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String destination = headers.getDestination();
+        Aggregate aggregate = destination != null ? parse(destination) : null;
+        if (aggregate == null) return;
+
+        sendSnapshot(headers.getSessionId(), headers.getSubscriptionId(), destination, aggregate);
+
+        Session session = headers.getSessionId() != null ? sessions.get(headers.getSessionId()) : null;
+        if (session == null || headers.getSubscriptionId() == null) return;
+
+        if (session.subscriptions().put(headers.getSubscriptionId(), aggregate) == null) {
+            join(aggregate, session.username());
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        Session session = headers.getSessionId() != null ? sessions.get(headers.getSessionId()) : null;
+        if (session == null || headers.getSubscriptionId() == null) return;
+
+        Aggregate aggregate = session.subscriptions().remove(headers.getSubscriptionId());
+        if (aggregate != null) {
+            leave(aggregate, session.username());
+        }
+    }
+
+    /** May be raised more than once per session; removing the entry first makes it idempotent. */
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Session session = sessions.remove(event.getSessionId());
+        if (session == null) return;
+
+        Map<String, PresenceDTO.Scope> subscribed = new HashMap<>();
+        session.subscriptions().values().forEach(a -> {
+            subscribed.put(a.id(), a.scope());
+            leave(a, session.username());
+        });
+
+        long remaining = 1;
+        try {
+            Long count = redis.opsForValue().decrement(USER_PREFIX + session.username());
+            remaining = count != null ? count : 0;
+            if (remaining <= 0) redis.delete(USER_PREFIX + session.username());
+        } catch (Exception e) {
+            log.warn("Presence: could not uncount session of {}: {}", session.username(), e.getMessage());
+        }
+
+        if (remaining <= 0 && !subscribed.isEmpty()) {
+            scheduleDisconnectCheck(session.username(), subscribed);
+        }
+    }
+
+    /** Leaves every local session so this node's counts do not outlive it. */
+    @PreDestroy
+    public void shutdown() {
+        sessions.forEach((id, session) -> {
+            session.subscriptions().values().forEach(a -> leave(a, session.username()));
+            try {
+                redis.opsForValue().decrement(USER_PREFIX + session.username());
+            } catch (Exception ignored) {
+                // TTL cleans up.
+            }
+        });
+        sessions.clear();
+    }
+
+    // ───────────────────────────────────────────────────────────────────── //
+    //  Internals
+    // ───────────────────────────────────────────────────────────────────── //
+
+    private void scheduleDisconnectCheck(String username, Map<String, PresenceDTO.Scope> subscribed) {
+        CompletableFuture.delayedExecutor(graceSeconds, TimeUnit.SECONDS, asyncExecutor).execute(() -> {
+            if (isConnected(username)) return;
+            log.info("Player {} disconnected from {} — handing over to AFK handling.", username, subscribed.keySet());
+            eventPublisher.publishEvent(new PlayerDisconnectedEvent(this, username, subscribed));
+        });
+    }
+
+    private void join(Aggregate aggregate, String username) {
+        try {
+            String key = key(aggregate.scope(), aggregate.id());
+            Long subscriptions = redis.opsForHash().increment(key, username, 1);
+            redis.expire(key, ttl);
+            if (subscriptions != null && subscriptions == 1) {
+                publish(aggregate, username, true);
+            }
+        } catch (Exception e) {
+            log.warn("Presence: could not record {} in {}: {}", username, aggregate, e.getMessage());
+        }
+    }
+
+    private void leave(Aggregate aggregate, String username) {
+        try {
+            String key = key(aggregate.scope(), aggregate.id());
+            Long subscriptions = redis.opsForHash().increment(key, username, -1);
+            if (subscriptions == null || subscriptions <= 0) {
+                redis.opsForHash().delete(key, username);
+                publish(aggregate, username, false);
+            }
+        } catch (Exception e) {
+            log.warn("Presence: could not remove {} from {}: {}", username, aggregate, e.getMessage());
+        }
+    }
+
+    private void publish(Aggregate aggregate, String username, boolean online) {
+        PresenceDTO presence = new PresenceDTO(aggregate.scope(), aggregate.id(), username, online,
+                onlineUsers(aggregate.scope(), aggregate.id()));
+        redisTemplate.convertAndSend(
+                CHANNEL_PREFIX + aggregate.scope().name().toLowerCase() + ":" + aggregate.id(), presence);
+    }
+
+    /**
+     * Sends the current state to one subscription only, as a MESSAGE frame on
+     * the subscribed destination — the client handles it like any broadcast.
+     */
+    private void sendSnapshot(String sessionId, String subscriptionId, String destination, Aggregate aggregate) {
+        if (sessionId == null || subscriptionId == null) return;
+
+        Optional<?> cached = aggregate.scope() == PresenceDTO.Scope.GAME
+                ? stateCacheService.peekGameState(aggregate.id())
+                : stateCacheService.peekRoomState(aggregate.id());
+        if (cached.isPresent()) {
+            send(sessionId, subscriptionId, destination, cached.get());
+            return;
+        }
+
+        // Miss: load through the near cache off the inbound thread.
+        asyncExecutor.execute(() -> {
+            try {
+                Object state = aggregate.scope() == PresenceDTO.Scope.GAME
+                        ? stateCacheService.getGameState(aggregate.id())
+                        : stateCacheService.getRoomState(aggregate.id());
+                send(sessionId, subscriptionId, destination, state);
+            } catch (RuntimeException e) {
+                log.debug("No snapshot for {}: {}", destination, e.getMessage());
+            }
+        });
+    }
+
+    private void send(String sessionId, String subscriptionId, String destination, Object payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        accessor.setLeaveMutable(true);
+
+        Message<?> message = brokerMessageConverter.toMessage(payload, accessor.getMessageHeaders());
+        if (message != null) {
+            clientOutboundChannel.send(message);
+        }
+    }
+
+    private static Aggregate parse(String destination) {
+        Matcher game = GAME_TOPIC.matcher(destination);
+        if (game.matches()) return new Aggregate(PresenceDTO.Scope.GAME, game.group(1));
+        Matcher room = ROOM_TOPIC.matcher(destination);
+        if (room.matches()) return new Aggregate(PresenceDTO.Scope.ROOM, room.group(1));
+        return null;
+    }
+
+    private static String key(PresenceDTO.Scope scope, String id) {
+        return KEY_PREFIX + scope.name().toLowerCase() + ":" + id;
+    }
+
+    private static String sessionId(AbstractSubProtocolEvent event) {
+        return SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+    }
+
+    private static String username(AbstractSubProtocolEvent event) {
+        Principal user = event.getUser();
+        return user != null ? user.getName() : null;
+    }
+}
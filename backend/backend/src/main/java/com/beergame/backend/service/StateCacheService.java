@@ -0,0 +1,192 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.dto.GameStateDTO;
+import com.beergame.backend.dto.RoomStateDTO;
+import com.beergame.backend.dto.StateInvalidationDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Per-node near cache of GameStateDTO / RoomStateDTO snapshots.
+ *
+ * WHY?
+ * Every state change is followed by a broadcast that re-reads the game or room,
+ * and every reconnecting client calls GET /api/game/{id} or GET /api/room/{id}.
+ * Between two writes the answer never changes, so those reads are served from
+ * memory and only a miss (or a write) reaches Postgres.
+ *
+ * Consistency:
+ *  - The node that performs a write evicts locally and publishes a
+ *    StateInvalidationDTO on Redis; every other node evicts its copy
+ *    unconditionally. Game @Version cannot order snapshots: orders, ready
+ *    marks and joins write PlayerState / GameTurn rows without touching the
+ *    Game row, so two different states routinely share one version.
+ *  - Entries are size- and TTL-bounded, so a lost invalidation can only serve
+ *    stale state for at most app.cache.state.ttl-seconds.
+ *
+ * Only read-model DTOs are cached. Write paths (orders, joins, turn advance)
+ * still load managed entities under the distributed lock.
+ */
+@Service
+@Slf4j
+public class StateCacheService {
+
+    public static final String INVALIDATION_CHANNEL_PREFIX = "state-invalidate:";
+
+    /** Identifies this JVM in invalidation notices. */
+    private static final String NODE_ID = UUID.randomUUID().toString();
+
+    private final ReadModelService readModelService;
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    private final Cache<String, ReadModelService.GameSnapshot> games;
+    private final Cache<String, RoomStateDTO> rooms;
+
+    public StateCacheService(ReadModelService readModelService,
+                             RedisTemplate<String, Object> redisTemplate,
+                             @Value("${app.cache.state.max-size:10000}") long maxSize,
+                             @Value("${app.cache.state.ttl-seconds:60}") long ttlSeconds) {
+        this.readModelService = readModelService;
+        this.redisTemplate    = redisTemplate;
+        this.games = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        this.rooms = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public static String nodeId() {
+        return NODE_ID;
+    }
+
+    // ───────────────────────────────────────────────────────────────────── //
+    //  Reads
+    // ───────────────────────────────────────────────────────────────────── //
+
+    /** Cached game state; loads through the read model on a miss. */
+    public GameStateDTO getGameState(String gameId) {
+        ReadModelService.GameSnapshot snapshot =
+                games.get(gameId, id -> readModelService.findGameSnapshot(id).orElse(null));
+        if (snapshot == null) {
+            throw new RuntimeException("Game not found: " + gameId);
+        }
+        return snapshot.state();
+    }
+
+    /** Cached room state; loads through the read model on a miss. */
+    public RoomStateDTO getRoomState(String roomId) {
+        RoomStateDTO state = rooms.get(roomId, id -> readModelService.findRoomState(id).orElse(null));
+        if (state == null) {
+            throw new RuntimeException("Room not found: " + roomId);
+        }
+        return state;
+    }
+
+    /** Cached game state, or empty on a miss — never touches the database. */
+    public Optional<GameStateDTO> peekGameState(String gameId) {
+        return Optional.ofNullable(games.getIfPresent(gameId)).map(ReadModelService.GameSnapshot::state);
+    }
+
+    /** Cached room state, or empty on a miss — never touches the database. */
+    public Optional<RoomStateDTO> peekRoomState(String roomId) {
+        return Optional.ofNullable(rooms.getIfPresent(roomId));
+    }
+
+    // ───────────────────────────────────────────────────────────────────── //
+    //  Writes (called by BroadcastService on every state change)
+    // ───────────────────────────────────────────────────────────────────── //
+
+    /**
+     * Drops the cached game, reloads it from the DB and tells peers to drop
+     * theirs. Must run after the writing transaction committed.
+     */
+    public GameStateDTO refreshGame(String gameId) {
+        games.invalidate(gameId);
+        ReadModelService.GameSnapshot snapshot =
+                games.get(gameId, id -> readModelService.findGameSnapshot(id).orElse(null));
+        if (snapshot == null) {
+            throw new RuntimeException("Game not found: " + gameId);
+        }
+        publish(StateInvalidationDTO.Kind.GAME, gameId, snapshot.version());
+        return snapshot.state();
+    }
+
+    /** Room counterpart of {@link #refreshGame}. */
+    public RoomStateDTO refreshRoom(String roomId) {
+        rooms.invalidate(roomId);
+        RoomStateDTO state = getRoomState(roomId);
+        publish(StateInvalidationDTO.Kind.ROOM, roomId, null);
+        return state;
+    }
+
+    /**
+     * For writers that broadcast from in-memory entities before their
+     * transaction commits (joinRoom, startGame). Evicts now, and again after
+     * commit so a concurrent reader cannot re-cache the pre-commit state.
+     */
+    public void invalidateGame(String gameId) {
+        evictAndPublish(StateInvalidationDTO.Kind.GAME, gameId);
+    }
+
+    public void invalidateRoom(String roomId) {
+        evictAndPublish(StateInvalidationDTO.Kind.ROOM, roomId);
+    }
+
+    private void evictAndPublish(StateInvalidationDTO.Kind kind, String id) {
+        evictLocal(kind, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictLocal(kind, id);
+                    publish(kind, id, null);
+                }
+            });
+        } else {
+            publish(kind, id, null);
+        }
+    }
+
+    // ───────────────────────────────────────────────────────────────────── //
+    //  Cross-node invalidation
+    // ───────────────────────────────────────────────────────────────────── //
+
+    /** Called by StateInvalidationSubscriber for notices from other nodes. */
+    public void onInvalidation(StateInvalidationDTO notice) {
+        if (NODE_ID.equals(notice.origin())) return;
+
+        // Always evict: the notice's version is informational only (see class doc).
+        evictLocal(notice.kind(), notice.id());
+    }
+
+    private void evictLocal(StateInvalidationDTO.Kind kind, String id) {
+        if (kind == StateInvalidationDTO.Kind.GAME) {
+            games.invalidate(id);
+        } else if (kind == StateInvalidationDTO.Kind.ROOM) {
+            rooms.invalidate(id);
+        }
+    }
+
+    private void publish(StateInvalidationDTO.Kind kind, String id, Long version) {
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL_PREFIX + kind.name().toLowerCase(),
+                    new StateInvalidationDTO(kind, id, version, NODE_ID));
+        } catch (Exception e) {
+            // TTL bounds the damage; never fail the caller over a cache notice.
+            log.warn("Failed to publish {} invalidation for {}: {}", kind, id, e.getMessage());
+        }
+    }
+}
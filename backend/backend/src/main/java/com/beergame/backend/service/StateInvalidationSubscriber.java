@@ -0,0 +1,34 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.dto.StateInvalidationDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Receives cache invalidation notices (channel: state-invalidate:*) from other
+ * nodes and hands them to the local cache that owns the entry: game / room
+ * snapshots live in StateCacheService, user details in CustomUserDetailsService.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StateInvalidationSubscriber {
+
+    private final StateCacheService stateCacheService;
+    private final CustomUserDetailsService userDetailsService;
+
+    public void receiveMessage(StateInvalidationDTO notice) {
+        try {
+            if (notice.kind() == StateInvalidationDTO.Kind.USER) {
+                if (!StateCacheService.nodeId().equals(notice.origin())) {
+                    userDetailsService.evictLocal(notice.id());
+                }
+                return;
+            }
+            stateCacheService.onInvalidation(notice);
+        } catch (Exception e) {
+            log.error("Error applying state invalidation {}", notice, e);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.config.GameConfig;
+import com.beergame.backend.model.Game;
+import com.beergame.backend.model.GameTurn;
+import com.beergame.backend.model.Players;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The game rules as pure functions: no clock, no I/O, no Spring.
+ *
+ * WHY?
+ * The week computation used to live inside TurnService.applyWeek, interleaved
+ * with the duplicate filter, the outbox and logging. ReplayService has to run the
+ * exact same arithmetic over recorded commands thousands of times a second,
+ * so the rules are here and both callers share them:
+ *  - TurnService: the live path; adds persistence and side effects around it;
+ *  - ReplayService: rebuilds games from the command log in memory.
+ * Anything that makes a week's outcome depend on something other than the
+ * Game / Players state passed in breaks replay — keep it out of this class.
+ */
+public final class TurnEngine {
+
+    private TurnEngine() {}
+
+    /**
+     * Gives a player taking {@code player.getRole()} in {@code game} the
+     * starting inventory and pipeline. Shared by joins, bots and room starts.
+     */
+    public static void seat(Players player, Game game) {
+        player.setInventory(GameConfig.INITIAL_INVENTORY);
+        player.setBackOrder(0);
+        player.setWeeklyCost(0);
+        player.setTotalCost(0);
+
+        if (player.getRole() == Players.RoleType.RETAILER) {
+            player.setOrderArrivingNextWeek(
+                    GameConfig.getCustomerDemand(game.getCurrentWeek(), game.getFestiveWeeks()));
+        } else {
+            player.setOrderArrivingNextWeek(GameConfig.INITIAL_PIPELINE_LEVEL);
+        }
+        player.setIncomingShipment(GameConfig.INITIAL_PIPELINE_LEVEL);
+        player.setShipmentArrivingWeekAfterNext(GameConfig.INITIAL_PIPELINE_LEVEL);
+    }
+
+    /**
+     * Moves one game forward one week in memory: updates the players, the
+     * week counter, the status and the festive flag, and returns one GameTurn
+     * per player for the week just played. All four roles must be present.
+     * finishedAt is left to the caller (it is wall-clock time).
+     */
+    public static List<GameTurn> applyWeek(Game game) {
+        int currentWeek = game.getCurrentWeek();
+
+        Map<Players.RoleType, Players> playerMap = game.getPlayers().stream()
+                .collect(Collectors.toMap(Players::getRole, Function.identity()));
+
+        Players retailer     = playerMap.get(Players.RoleType.RETAILER);
+        Players wholesaler   = playerMap.get(Players.RoleType.WHOLESALER);
+        Players distributor  = playerMap.get(Players.RoleType.DISTRIBUTOR);
+        Players manufacturer = playerMap.get(Players.RoleType.MANUFACTURER);
+
+        // ── Loop 1: receive shipments, fulfil orders, calculate costs ──────────
+        for (Players p : game.getPlayers()) {
+            // Receive shipment that was on its way
+            int shipmentReceived = p.getIncomingShipment();
+            p.setLastShipmentReceived(shipmentReceived);
+            p.setInventory(p.getInventory() + shipmentReceived);
+
+            // Advance pipeline: next week's incoming = what was "week after next"
+            p.setIncomingShipment(p.getShipmentArrivingWeekAfterNext());
+            p.setShipmentArrivingWeekAfterNext(0);
+
+            // Retailer demand comes from schedule; others receive upstream order
+            int orderReceived = (p.getRole() == Players.RoleType.RETAILER)
+                    ? GameConfig.getCustomerDemand(currentWeek, game.getFestiveWeeks())
+                    : p.getOrderArrivingNextWeek();
+
+            p.setLastOrderReceived(orderReceived);
+            if (p.getRole() != Players.RoleType.RETAILER) {
+                p.setOrderArrivingNextWeek(0);
+            }
+
+            // Fulfil demand + existing backlog
+            int totalDemand = orderReceived + p.getBackOrder();
+            int shipmentSent;
+            if (p.getInventory() >= totalDemand) {
+                shipmentSent = totalDemand;
+                p.setInventory(p.getInventory() - totalDemand);
+                p.setBackOrder(0);
+            } else {
+                shipmentSent = p.getInventory();
+                p.setBackOrder(totalDemand - p.getInventory());
+                p.setInventory(0);
+            }
+            p.setOutgoingDelivery(shipmentSent);
+
+            // Weekly cost
+            double holdingCost = p.getInventory() * GameConfig.INVENTORY_HOLDING_COST;
+            double backlogCost = p.getBackOrder()  * GameConfig.BACKORDER_COST;
+            p.setWeeklyCost(holdingCost + backlogCost);
+            p.setTotalCost(p.getTotalCost() + p.getWeeklyCost());
+        }
+
+        // ── Loop 2: propagate orders down the supply chain ────────────────────
+        wholesaler.setOrderArrivingNextWeek(retailer.getCurrentOrder());
+        distributor.setOrderArrivingNextWeek(wholesaler.getCurrentOrder());
+        manufacturer.setOrderArrivingNextWeek(distributor.getCurrentOrder());
+
+        manufacturer.setShipmentArrivingWeekAfterNext(manufacturer.getCurrentOrder());
+        distributor.setShipmentArrivingWeekAfterNext(manufacturer.getOutgoingDelivery());
+        wholesaler.setShipmentArrivingWeekAfterNext(distributor.getOutgoingDelivery());
+        retailer.setShipmentArrivingWeekAfterNext(wholesaler.getOutgoingDelivery());
+
+        // ── Loop 3: record history, reset ready flag ───────────────────────────
+        List<GameTurn> turns = game.getPlayers().stream().map(p -> {
+            GameTurn turn = new GameTurn();
+            turn.setWeekDay(currentWeek);
+            turn.setPlayer(p);
+            turn.setOrderPlaced(p.getCurrentOrder());
+            turn.setDemandRecieved(p.getLastOrderReceived());
+            turn.setShipmentSent(p.getOutgoingDelivery());
+            turn.setShipmentRecieved(p.getLastShipmentReceived());
+            turn.setInventoryAtEndOfWeek(p.getInventory());
+            turn.setBackOrderAtEndOfWeek(p.getBackOrder());
+            turn.setWeeklyCost(p.getWeeklyCost());
+            turn.setTotalCost(p.getTotalCost());
+
+            p.setReadyForOrder(false); // reset for next week
+            return turn;
+        }).collect(Collectors.toList());
+
+        // ── Advance week counter and check game-over ───────────────────────────
+        game.setCurrentWeek(currentWeek + 1);
+        if (game.getCurrentWeek() > GameConfig.GAME_WEEKS) {
+            game.setGameStatus(Game.GameStatus.FINISHED);
+            game.setFestiveWeek(false);
+        } else {
+            game.setFestiveWeek(GameConfig.isFestiveWeek(game.getCurrentWeek(), game.getFestiveWeeks()));
+        }
+        return turns;
+    }
+}
@@ -0,0 +1,365 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.model.Players;
+import com.beergame.backend.repository.GameTurnRepository;
+import com.beergame.backend.repository.GameTurnRepository.ExportRowView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Bulk export of turn data for research, streamed straight from the
+ * database to the HTTP response.
+ *
+ * WHY?
+ * The only way out was GET /api/game/{gameId}/history: one game per call,
+ * fully buffered into a Map of DTOs. Exporting a semester of games meant
+ * thousands of calls and holding each game's turns in memory twice.
+ *
+ * export() runs one read-only transaction around
+ * GameTurnRepository.streamExportRows — a flat projection read through a
+ * server-side cursor (JDBC fetch size 1000) — and writes each row to the
+ * output stream as it arrives. Memory stays constant whatever the filter
+ * matches: one fetch batch of rows plus, for the columnar format, one row
+ * group.
+ *
+ * Formats:
+ *  - CSV: RFC 4180, header row, UTF-8.
+ *  - COLUMNAR: a compact Parquet-like binary layout, see ColumnarWriter.
+ *    Typically several times smaller than the CSV, and a reader can skip
+ *    the columns it does not need.
+ */
+@Service
+@Slf4j
+public class TurnExportService {
+
+    public enum Format { CSV, COLUMNAR }
+
+    /** Games created in [from, to), optionally one room only, the given roles. */
+    public record Filter(LocalDateTime from, LocalDateTime to, String roomId, Set<Players.RoleType> roles) {
+
+        public Filter {
+            if (!from.isBefore(to)) {
+                throw new IllegalArgumentException("Export range is empty: " + from + " – " + to);
+            }
+            roles = roles == null || roles.isEmpty() ? EnumSet.allOf(Players.RoleType.class) : EnumSet.copyOf(roles);
+        }
+    }
+
+    private final GameTurnRepository  gameTurnRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final Set<String>         operators;
+    private final int                 rowGroupSize;
+
+    public TurnExportService(GameTurnRepository gameTurnRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.export.operators:}") Set<String> operators,
+                             @Value("${app.export.row-group-size:4096}") int rowGroupSize) {
+        this.gameTurnRepository = gameTurnRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.operators = Set.copyOf(operators);
+        this.rowGroupSize = rowGroupSize;
+    }
+
+    /** Exports scan whole tables; only listed users may run one. */
+    public boolean isOperator(String username) {
+        return operators.contains(username);
+    }
+
+    /**
+     * Writes every matching turn to {@code out} and returns the row count.
+     * Does not close {@code out}.
+     */
+    public long export(Filter filter, Format format, OutputStream out) {
+        long start = System.nanoTime();
+        Long rows = readOnlyTx.execute(status -> {
+            try (Stream<ExportRowView> stream = gameTurnRepository.streamExportRows(
+                    filter.from(), filter.to(), filter.roomId(), filter.roles())) {
+                RowWriter writer = format == Format.CSV ? new CsvWriter(out) : new ColumnarWriter(out, rowGroupSize);
+                long n = 0;
+                for (Iterator<ExportRowView> it = stream.iterator(); it.hasNext(); n++) {
+                    writer.write(it.next());
+                }
+                writer.finish();
+                return n;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.info("Exported {} turn row(s) as {} in {} ms.", rows, format, (System.nanoTime() - start) / 1_000_000);
+        return rows == null ? 0 : rows;
+    }
+
+    // ── Columns ───────────────────────────────────────────────────────────────
+
+    private enum Type { STRING, LONG, TIMESTAMP, DOUBLE }
+
+    private record Column(String name, Type type,
+                          Function<ExportRowView, String> string,
+                          ToLongFunction<ExportRowView> integral,
+                          ToDoubleFunction<ExportRowView> decimal) {
+
+        static Column string(String name, Function<ExportRowView, String> f) {
+            return new Column(name, Type.STRING, f, null, null);
+        }
+
+        static Column integral(String name, ToLongFunction<ExportRowView> f) {
+            return new Column(name, Type.LONG, null, f, null);
+        }
+
+        /** Epoch millis (UTC) in the columnar file, ISO-8601 in the CSV. */
+        static Column timestamp(String name, Function<ExportRowView, LocalDateTime> f) {
+            return new Column(name, Type.TIMESTAMP, null, r -> f.apply(r).toInstant(ZoneOffset.UTC).toEpochMilli(), null);
+        }
+
+        static Column decimal(String name, ToDoubleFunction<ExportRowView> f) {
+            return new Column(name, Type.DOUBLE, null, null, f);
+        }
+    }
+
+    /** Column order of both formats. */
+    private static final List<Column> COLUMNS = List.of(
+            Column.string("gameId", ExportRowView::getGameId),
+            Column.string("roomId", ExportRowView::getRoomId),
+            Column.timestamp("createdAt", ExportRowView::getCreatedAt),
+            Column.string("role", r -> r.getRole().name()),
+            Column.string("userName", ExportRowView::getUserName),
+            Column.integral("bot", r -> r.isBot() ? 1 : 0),
+            Column.integral("week", ExportRowView::getWeekDay),
+            Column.integral("orderPlaced", ExportRowView::getOrderPlaced),
+            Column.integral("demandReceived", ExportRowView::getDemandRecieved),
+            Column.integral("shipmentSent", ExportRowView::getShipmentSent),
+            Column.integral("shipmentReceived", ExportRowView::getShipmentRecieved),
+            Column.integral("inventoryAtEndOfWeek", ExportRowView::getInventoryAtEndOfWeek),
+            Column.integral("backOrderAtEndOfWeek", ExportRowView::getBackOrderAtEndOfWeek),
+            Column.decimal("weeklyCost", ExportRowView::getWeeklyCost),
+            Column.decimal("totalCost", ExportRowView::getTotalCost));
+
+    private interface RowWriter {
+        void write(ExportRowView row) throws IOException;
+        void finish() throws IOException;
+    }
+
+    // ── CSV ───────────────────────────────────────────────────────────────────
+
+    private static final class CsvWriter implements RowWriter {
+
+        private final Writer out;
+
+        CsvWriter(OutputStream out) throws IOException {
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            for (int i = 0; i < COLUMNS.size(); i++) {
+                if (i > 0) this.out.write(',');
+                this.out.write(COLUMNS.get(i).name());
+            }
+            this.out.write("\r\n");
+        }
+
+        @Override
+        public void write(ExportRowView row) throws IOException {
+            for (int i = 0; i < COLUMNS.size(); i++) {
+                if (i > 0) out.write(',');
+                Column c = COLUMNS.get(i);
+                switch (c.type()) {
+                    case STRING -> quote(c.string().apply(row));
+                    case LONG -> out.write(Long.toString(c.integral().applyAsLong(row)));
+                    case TIMESTAMP -> out.write(LocalDateTime.ofInstant(
+                            Instant.ofEpochMilli(c.integral().applyAsLong(row)), ZoneOffset.UTC).toString());
+                    case DOUBLE -> out.write(Double.toString(c.decimal().applyAsDouble(row)));
+                }
+            }
+            out.write("\r\n");
+        }
+
+        private void quote(String value) throws IOException {
+            if (value == null) return;
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            out.write(value.replace("\"", "\"\""));
+            out.write('"');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            out.flush();
+        }
+    }
+
+    // ── Columnar ──────────────────────────────────────────────────────────────
+
+    /**
+     * Row-group columnar layout ("BGC1"), all integers as unsigned LEB128
+     * varints unless noted:
+     *
+     *   file      = "BGC1" columnCount (name type)* rowGroup* 0
+     *   name      = byteLength UTF-8 bytes
+     *   type      = 1 byte: 'S' string, 'L' integer, 'T' timestamp, 'D' double
+     *   rowGroup  = rowCount (byteLength columnBlock)*    — one block per column
+     *   'S' block = dictSize (byteLength UTF-8)* index*   — index 0 = null, i = dict[i-1]
+     *   'L' block = zig-zag delta from the previous row in the group, first from 0
+     *   'T' block = as 'L', epoch milliseconds UTC
+     *   'D' block = 8-byte big-endian IEEE 754 per row
+     *
+     * Rows are sorted by game and week, so the delta columns (week, createdAt,
+     * cumulative values) and the per-group dictionaries (gameId, role, user)
+     * mostly encode to one or two bytes per value. Each block is length
+     * prefixed so a reader can skip columns it does not need.
+     */
+    private static final class ColumnarWriter implements RowWriter {
+
+        private final OutputStream out;
+        private final int groupSize;
+        private final Object[] buffers;
+        private final ByteArrayOutputStream block = new ByteArrayOutputStream();
+        private int rows;
+
+        ColumnarWriter(OutputStream out, int groupSize) throws IOException {
+            this.out = new BufferedOutputStream(out, 64 * 1024);
+            this.groupSize = groupSize;
+            this.buffers = new Object[COLUMNS.size()];
+            for (int i = 0; i < COLUMNS.size(); i++) {
+                buffers[i] = switch (COLUMNS.get(i).type()) {
+                    case STRING -> new String[groupSize];
+                    case LONG, TIMESTAMP -> new long[groupSize];
+                    case DOUBLE -> new double[groupSize];
+                };
+            }
+
+            this.out.write("BGC1".getBytes(StandardCharsets.US_ASCII));
+            writeVarint(this.out, COLUMNS.size());
+            for (Column c : COLUMNS) {
+                writeString(this.out, c.name());
+                this.out.write(switch (c.type()) {
+                    case STRING -> 'S';
+                    case LONG -> 'L';
+                    case TIMESTAMP -> 'T';
+                    case DOUBLE -> 'D';
+                });
+            }
+        }
+
+        @Override
+        public void write(ExportRowView row) throws IOException {
+            for (int i = 0; i < COLUMNS.size(); i++) {
+                Column c = COLUMNS.get(i);
+                switch (c.type()) {
+                    case STRING -> ((String[]) buffers[i])[rows] = c.string().apply(row);
+                    case LONG, TIMESTAMP -> ((long[]) buffers[i])[rows] = c.integral().applyAsLong(row);
+                    case DOUBLE -> ((double[]) buffers[i])[rows] = c.decimal().applyAsDouble(row);
+                }
+            }
+            if (++rows == groupSize) {
+                flushGroup();
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (rows > 0) {
+                flushGroup();
+            }
+            writeVarint(out, 0);
+            out.flush();
+        }
+
+        private void flushGroup() throws IOException {
+            writeVarint(out, rows);
+            for (int i = 0; i < COLUMNS.size(); i++) {
+                block.reset();
+                switch (COLUMNS.get(i).type()) {
+                    case STRING -> encodeStrings((String[]) buffers[i]);
+                    case LONG, TIMESTAMP -> encodeLongs((long[]) buffers[i]);
+                    case DOUBLE -> encodeDoubles((double[]) buffers[i]);
+                }
+                writeVarint(out, block.size());
+                block.writeTo(out);
+            }
+            for (Object buffer : buffers) {
+                if (buffer instanceof String[] strings) {
+                    Arrays.fill(strings, 0, rows, null);
+                }
+            }
+            rows = 0;
+        }
+
+        private void encodeStrings(String[] values) throws IOException {
+            Map<String, Integer> dictionary = new HashMap<>();
+            List<String> order = new ArrayList<>();
+            for (int r = 0; r < rows; r++) {
+                if (values[r] != null && dictionary.putIfAbsent(values[r], order.size() + 1) == null) {
+                    order.add(values[r]);
+                }
+            }
+            writeVarint(block, order.size());
+            for (String s : order) {
+                writeString(block, s);
+            }
+            for (int r = 0; r < rows; r++) {
+                writeVarint(block, values[r] == null ? 0 : dictionary.get(values[r]));
+            }
+        }
+
+        private void encodeLongs(long[] values) throws IOException {
+            long previous = 0;
+            for (int r = 0; r < rows; r++) {
+                long delta = values[r] - previous;
+                writeVarint(block, (delta << 1) ^ (delta >> 63));
+                previous = values[r];
+            }
+        }
+
+        private void encodeDoubles(double[] values) {
+            for (int r = 0; r < rows; r++) {
+                long bits = Double.doubleToRawLongBits(values[r]);
+                for (int shift = 56; shift >= 0; shift -= 8) {
+                    block.write((int) (bits >>> shift));
+                }
+            }
+        }
+
+        private static void writeString(OutputStream out, String s) throws IOException {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeVarint(out, bytes.length);
+            out.write(bytes);
+        }
+
+        private static void writeVarint(OutputStream out, long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+    }
+}
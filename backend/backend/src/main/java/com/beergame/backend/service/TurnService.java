@@ -1,22 +1,19 @@
 package com.beergame.backend.service;
 
-import com.beergame.backend.config.GameConfig;
-import com.beergame.backend.event.WeekStartedEvent;
-import com.beergame.backend.event.GameFinishedEvent;
 import com.beergame.backend.model.*;
 import com.beergame.backend.repository.*;
+import com.beergame.backend.utils.TimerUtils;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.function.Function;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -38,7 +35,14 @@ public class TurnService {
     private final GameTurnRepository gameTurnRepository;
     private final GameRoomRepository gameRoomRepository;
     private final BroadcastService   broadcastService;
-    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxService      outboxService;
+    private final DuplicateOrderFilter duplicateFilter;
+    private final MeterRegistry      meterRegistry;
+    private final ActivityLog        activityLog;
+    private final CommandLog         commandLog;
+    private final GameEventStore     gameEventStore;
+    private final AnalyticsService   analyticsService;
+    private final LeaderboardService leaderboardService;
 
     /**
      * Advances one game by one week.
@@ -46,8 +50,7 @@ public class TurnService {
      * Propagation = REQUIRED (default): when called from GameService.placeOrder
      * (which is also @Transactional), it joins the existing transaction so that
      * the player's readyForOrder=true save and the turn advance commit atomically.
-     * When called from RoomAdvancementService (no active tx, @Async thread), it
-     * opens a fresh transaction of its own.
+     * Without an ambient transaction it opens a fresh one of its own.
      */
     @Transactional
     public void advanceTurn(String gameId) {
@@ -67,177 +70,140 @@ public class TurnService {
      */
     @Transactional
     public void advanceTurn(Game game) {
-        String gameId = game.getId();
-
-        if (game.getPlayers() == null || game.getPlayers().isEmpty()) {
-            log.warn("Tried to advance game {} with no players.", gameId);
-            return;
-        }
-
-        int currentWeek = game.getCurrentWeek();
-
-        Map<Players.RoleType, Players> playerMap = game.getPlayers().stream()
-                .collect(Collectors.toMap(Players::getRole, Function.identity()));
-
-        Players retailer     = playerMap.get(Players.RoleType.RETAILER);
-        Players wholesaler   = playerMap.get(Players.RoleType.WHOLESALER);
-        Players distributor  = playerMap.get(Players.RoleType.DISTRIBUTOR);
-        Players manufacturer = playerMap.get(Players.RoleType.MANUFACTURER);
-
-        if (retailer == null || wholesaler == null || distributor == null || manufacturer == null) {
-            log.error("Game {} missing one or more roles — aborting advance.", gameId);
-            return;
-        }
-
-        // ── Loop 1: receive shipments, fulfil orders, calculate costs ──────────
-        for (Players p : game.getPlayers()) {
-            // Receive shipment that was on its way
-            int shipmentReceived = p.getIncomingShipment();
-            p.setLastShipmentReceived(shipmentReceived);
-            p.setInventory(p.getInventory() + shipmentReceived);
-
-            // Advance pipeline: next week's incoming = what was "week after next"
-            p.setIncomingShipment(p.getShipmentArrivingWeekAfterNext());
-            p.setShipmentArrivingWeekAfterNext(0);
-
-            // Retailer demand comes from schedule; others receive upstream order
-            int orderReceived = (p.getRole() == Players.RoleType.RETAILER)
-                    ? GameConfig.getCustomerDemand(currentWeek, game.getFestiveWeeks())
-                    : p.getOrderArrivingNextWeek();
-
-            p.setLastOrderReceived(orderReceived);
-            if (p.getRole() != Players.RoleType.RETAILER) {
-                p.setOrderArrivingNextWeek(0);
-            }
-
-            // Fulfil demand + existing backlog
-            int totalDemand = orderReceived + p.getBackOrder();
-            int shipmentSent;
-            if (p.getInventory() >= totalDemand) {
-                shipmentSent = totalDemand;
-                p.setInventory(p.getInventory() - totalDemand);
-                p.setBackOrder(0);
-            } else {
-                shipmentSent = p.getInventory();
-                p.setBackOrder(totalDemand - p.getInventory());
-                p.setInventory(0);
-            }
-            p.setOutgoingDelivery(shipmentSent);
+        TimerUtils.time(meterRegistry, "beergame.turn.advance", () -> applyTurn(game), "scope", "game");
+    }
 
-            // Weekly cost
-            double holdingCost = p.getInventory() * GameConfig.INVENTORY_HOLDING_COST;
-            double backlogCost = p.getBackOrder()  * GameConfig.BACKORDER_COST;
-            p.setWeeklyCost(holdingCost + backlogCost);
-            p.setTotalCost(p.getTotalCost() + p.getWeeklyCost());
-        }
+    private void applyTurn(Game game) {
+        if (!hasAllRoles(game)) return;
 
-        // ── Loop 2: propagate orders down the supply chain ────────────────────
-        wholesaler.setOrderArrivingNextWeek(retailer.getCurrentOrder());
-        distributor.setOrderArrivingNextWeek(wholesaler.getCurrentOrder());
-        manufacturer.setOrderArrivingNextWeek(distributor.getCurrentOrder());
-
-        manufacturer.setShipmentArrivingWeekAfterNext(manufacturer.getCurrentOrder());
-        distributor.setShipmentArrivingWeekAfterNext(manufacturer.getOutgoingDelivery());
-        wholesaler.setShipmentArrivingWeekAfterNext(distributor.getOutgoingDelivery());
-        retailer.setShipmentArrivingWeekAfterNext(wholesaler.getOutgoingDelivery());
-
-        // ── Loop 3: record history, reset ready flag ───────────────────────────
-        // Build all GameTurn records in memory, then batch-insert in one call.
-        List<GameTurn> turns = game.getPlayers().stream().map(p -> {
-            GameTurn turn = new GameTurn();
-            turn.setWeekDay(currentWeek);
-            turn.setPlayer(p);
-            turn.setOrderPlaced(p.getCurrentOrder());
-            turn.setDemandRecieved(p.getLastOrderReceived());
-            turn.setShipmentSent(p.getOutgoingDelivery());
-            turn.setShipmentRecieved(p.getLastShipmentReceived());
-            turn.setInventoryAtEndOfWeek(p.getInventory());
-            turn.setBackOrderAtEndOfWeek(p.getBackOrder());
-            turn.setWeeklyCost(p.getWeeklyCost());
-            turn.setTotalCost(p.getTotalCost());
-
-            p.setReadyForOrder(false); // reset for next week
-            return turn;
-        }).collect(Collectors.toList());
+        List<GameTurn> turns = applyWeek(game);
 
         // Batch saves — avoids N individual INSERT/UPDATE round-trips
         gameTurnRepository.saveAll(turns);
         playerRepository.saveAll(game.getPlayers());
-
-        // ── Advance week counter and check game-over ───────────────────────────
-        game.setCurrentWeek(currentWeek + 1);
-
-        if (game.getCurrentWeek() > GameConfig.GAME_WEEKS) {
-            game.setGameStatus(Game.GameStatus.FINISHED);
-            game.setFinishedAt(LocalDateTime.now());
-            game.setFestiveWeek(false);
-            log.info("Game {} FINISHED after week {}.", gameId, currentWeek);
-            eventPublisher.publishEvent(new GameFinishedEvent(this, gameId));
-        } else {
-            boolean festive = GameConfig.isFestiveWeek(game.getCurrentWeek(), game.getFestiveWeeks());
-            game.setFestiveWeek(festive);
-            log.info("Game {} advanced to week {} (festive={})",
-                    gameId, game.getCurrentWeek(), festive);
-        }
-
         gameRepository.save(game);
 
-        // Capture final values for the lambda before registerSynchronization
-        final boolean gameStillRunning = game.getGameStatus() == Game.GameStatus.IN_PROGRESS;
-        final int nextWeek = game.getCurrentWeek();
-        final String capturedGameId = gameId;
-
-        // Publish WeekStartedEvent AFTER commit so the AFK timer is only armed
-        // once the turn data is safely persisted. If published mid-transaction
-        // and the transaction rolls back, the event would have fired for a week
-        // that was never written — leaving orphaned AFK keys in Redis.
-        TransactionSynchronizationManager.registerSynchronization(
-                new org.springframework.transaction.support.TransactionSynchronization() {
-                    @Override
-                    public void afterCommit() {
-                        if (gameStillRunning) {
-                            eventPublisher.publishEvent(
-                                    new WeekStartedEvent(TurnService.this, capturedGameId, nextWeek));
-                        }
-                    }
-                });
-
         // Broadcast AFTER this transaction commits so clients always see
         // consistent, fully-written state.
-        broadcastService.broadcastGameAfterCommit(gameId);
+        broadcastService.broadcastGameAfterCommit(game.getId());
     }
 
     /**
-     * Post-advance cleanup for a room: marks the room FINISHED if all its games
-     * are done, then broadcasts the final room state.
+     * Advances every game of a room by one week in the caller's transaction.
      *
-     * Always runs in its own transaction (called from a CompletableFuture
-     * callback on a different thread, so there is no ambient transaction).
+     * WHY?
+     * The old room path committed the last order, then fanned out four async
+     * advanceTurn(gameId) calls (each re-fetching its game in its own
+     * transaction) and finally re-fetched the whole room again in
+     * postAdvanceRoomTurn — ~6 transactions per room-week, running outside
+     * the room lock.
      *
-     * NOTE: readyForOrder was already reset to false inside advanceTurn for
-     * every player — no need to do it again here.
+     * Now GameService.submitRoomOrder calls this with the room it already
+     * loaded, under the room lock:
+     *  - one query initialises players for all four games (same persistence
+     *    context, so they are the very instances the order was written to);
+     *  - the four weeks are computed in memory;
+     *  - every GameTurn / Players / Game change is flushed in one batched
+     *    commit together with the order itself;
+     *  - one ROOM_TURN outbox row makes the relay publish the room state and
+     *    all four game states in a single pipeline.
+     *
+     * If any game is missing a role nothing is advanced (the order still
+     * commits), matching the old behaviour where the room simply stalled.
      */
     @Transactional
-    public void postAdvanceRoomTurn(String roomId) {
-        GameRoom room = gameRoomRepository.findByIdWithAllData(roomId)
-                .orElseThrow(() -> new RuntimeException("Room not found: " + roomId));
+    public void advanceRoomTurn(GameRoom room) {
+        TimerUtils.time(meterRegistry, "beergame.turn.advance", () -> applyRoomTurn(room), "scope", "room");
+    }
 
-        boolean allGamesFinished = room.getGames().stream()
-                .allMatch(g -> g.getGameStatus() == Game.GameStatus.FINISHED);
+    private void applyRoomTurn(GameRoom room) {
+        String roomId = room.getId();
+        List<Game> games = gameRepository.findByGameRoomIdWithPlayers(roomId);
 
+        if (!games.stream().allMatch(this::hasAllRoles)) {
+            log.error("Room {} has a game with missing roles — aborting room advance.", roomId);
+            return;
+        }
+
+        List<GameTurn> turns = new ArrayList<>();
+        List<Players> players = new ArrayList<>();
+        for (Game game : games) {
+            turns.addAll(applyWeek(game));
+            players.addAll(game.getPlayers());
+        }
+
+        gameTurnRepository.saveAll(turns);
+        playerRepository.saveAll(players);
+        gameRepository.saveAll(games);
+
+        boolean allGamesFinished = games.stream()
+                .allMatch(g -> g.getGameStatus() == Game.GameStatus.FINISHED);
+        duplicateFilter.reset(DuplicateOrderFilter.Scope.ROOM, roomId, games.get(0).getCurrentWeek());
         if (allGamesFinished) {
             room.setStatus(GameRoom.RoomStatus.FINISHED);
             room.setFinishedAt(LocalDateTime.now());
+            gameRoomRepository.save(room);
             log.info("Room {} is now FINISHED.", roomId);
         }
 
-        gameRoomRepository.save(room);
-        broadcastService.broadcastRoomState(roomId, room);
+        broadcastService.broadcastRoomTurnAfterCommit(roomId);
 
         // Announce winner once all games are done
         if (allGamesFinished) {
             log.info("Room {} — all games finished. Broadcasting result.", roomId);
-            broadcastService.broadcastRoomResult(room);
+            broadcastService.broadcastRoomResultAfterCommit(roomId);
+        }
+    }
+
+    // ── In-memory turn computation ────────────────────────────────────────────
+
+    private boolean hasAllRoles(Game game) {
+        if (game.getPlayers() == null || game.getPlayers().isEmpty()) {
+            log.warn("Tried to advance game {} with no players.", game.getId());
+            return false;
+        }
+        Set<Players.RoleType> roles = game.getPlayers().stream()
+                .map(Players::getRole)
+                .collect(Collectors.toSet());
+        if (roles.size() < Players.RoleType.values().length) {
+            log.error("Game {} missing one or more roles — aborting advance.", game.getId());
+            return false;
         }
+        return true;
+    }
+
+    /**
+     * Moves one game forward one week, entirely in memory: TurnEngine updates
+     * the players and the game; this records the command, the week event, the
+     * analytics aggregates and the lifecycle event in the outbox, and returns
+     * the GameTurn rows to insert. Does not save the game, players or turns.
+     */
+    private List<GameTurn> applyWeek(Game game) {
+        String gameId = game.getId();
+        int currentWeek = game.getCurrentWeek();
+
+        commandLog.turn(game);
+        List<GameTurn> turns = TurnEngine.applyWeek(game);
+        gameEventStore.append(game, currentWeek);
+        analyticsService.record(game, turns);
+        duplicateFilter.reset(DuplicateOrderFilter.Scope.GAME, gameId, game.getCurrentWeek());
+
+        if (game.getGameStatus() == Game.GameStatus.FINISHED) {
+            game.setFinishedAt(LocalDateTime.now());
+            leaderboardService.recordFinished(game);
+            log.info("Game {} FINISHED after week {}.", gameId, currentWeek);
+            outboxService.enqueue(OutboxEvent.Type.GAME_FINISHED, gameId);
+        } else {
+            activityLog.record(ActivityLog.Activity.TURN_ADVANCED);
+            if (activityLog.sampled(log, gameId)) {
+                log.debug("Game {} advanced to week {} (festive={})", gameId, game.getCurrentWeek(), game.isFestiveWeek());
+            }
+            // Recorded in this transaction; OutboxRelay raises WeekStartedEvent
+            // once the turn is committed, so the AFK timer is never armed for a
+            // week that was rolled back.
+            outboxService.enqueue(OutboxEvent.Type.WEEK_STARTED, gameId, game.getCurrentWeek());
+        }
+
+        return turns;
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,11 @@
 package com.beergame.backend.utils;
 
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 import javax.crypto.SecretKey;
@@ -11,11 +15,28 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
-
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Issues and verifies JWTs.
+ *
+ * Hot-path changes:
+ *  1. The HMAC key and the JwtParser are built once at startup instead of on
+ *     every extractClaim() call.
+ *  2. verify() parses a token once and remembers the result in a bounded
+ *     cache keyed by the token's SHA-256 hash. Each entry expires exactly at
+ *     the token's own {@code exp}, so a cached token can never outlive its
+ *     validity. Repeat requests with the same token cost one hash + lookup.
+ */
 @Component
 public class JwtUtils {
 
@@ -25,9 +46,44 @@ public class JwtUtils {
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    @Value("${jwt.cache.max-size:50000}")
+    private long verifiedTokenCacheSize;
+
+    private SecretKey signInKey;
+    private JwtParser parser;
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    /** Subject and expiry of a token whose signature has already been checked. */
+    public record VerifiedToken(String username, long expiresAtMillis) {}
+
+    @PostConstruct
+    void init() {
+        signInKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signInKey)
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedTokenCacheSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        long remainingMs = value.expiresAtMillis() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMs));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     public String generatedEncodedToken(Authentication authentication){
@@ -38,14 +94,41 @@ public class JwtUtils {
                         .setSubject(user.getUsername())
                         .setIssuedAt(new Date())
                         .setExpiration(new Date(new Date().getTime()+jwtExpiration))
-                        .signWith(getSignInKey(), SignatureAlgorithm.HS512)
+                        .signWith(signInKey, SignatureAlgorithm.HS512)
                         .compact();
 
         return jwt;
     }
 
+    /**
+     * Returns the verified subject/expiry of {@code token}, or null if the
+     * token is malformed, badly signed or expired. Served from the
+     * verified-token cache after the first successful parse.
+     */
+    public VerifiedToken verify(String token) {
+        String key = sha256(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(key);
+        if (cached != null && cached.expiresAtMillis() > System.currentTimeMillis()) {
+            return cached;
+        }
+
+        try {
+            Claims claims = parseClaims(token);
+            if (claims.getSubject() == null || claims.getExpiration() == null) {
+                return null;
+            }
+            VerifiedToken verified = new VerifiedToken(claims.getSubject(), claims.getExpiration().getTime());
+            verifiedTokens.put(key, verified);
+            return verified;
+        } catch (Exception e) {
+            // Expired / tampered / malformed — callers treat null as unauthenticated.
+            return null;
+        }
+    }
+
     public boolean validateToken(String token, String username) {
-        return (extractUsername(token).equals(username)) && !isTokenExpired(token);
+        VerifiedToken verified = verify(token);
+        return verified != null && verified.username().equals(username);
     }
 
     public String extractUsername(String token) {
@@ -61,12 +144,22 @@ public class JwtUtils {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = Jwts.parserBuilder() 
-                .setSigningKey(getSignInKey()) 
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(parseClaims(token));
+    }
+
+    private Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is mandatory on every Java platform.
+            throw new IllegalStateException(e);
+        }
     }
 
-}
\ No newline at end of file
+}
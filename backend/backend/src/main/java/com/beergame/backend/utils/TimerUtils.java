@@ -0,0 +1,35 @@
+package com.beergame.backend.utils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.function.Supplier;
+
+/**
+ * Times a block and tags the result with outcome=success|error, so error
+ * latency never hides inside (or skews) the success distribution.
+ */
+public final class TimerUtils {
+
+    private TimerUtils() {}
+
+    public static <T> T time(MeterRegistry registry, String name, Supplier<T> body, String... tags) {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "error";
+        try {
+            T result = body.get();
+            outcome = "success";
+            return result;
+        } finally {
+            sample.stop(registry.timer(name, Tags.of(tags).and("outcome", outcome)));
+        }
+    }
+
+    public static void time(MeterRegistry registry, String name, Runnable body, String... tags) {
+        time(registry, name, () -> {
+            body.run();
+            return null;
+        }, tags);
+    }
+}
@@ -0,0 +1,49 @@
+package com.beergame.backend.config;
+
+import jakarta.websocket.Extension;
+import jakarta.websocket.server.ServerEndpointConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DeflateHandshakeHandlerTest {
+
+    private static Extension ext(String name) {
+        Extension e = mock(Extension.class);
+        when(e.getName()).thenReturn(name);
+        return e;
+    }
+
+    private static final Extension DEFLATE = ext("permessage-deflate");
+
+    @Test
+    void disabledConfiguratorDoesNotNegotiateDeflateEvenWhenInstalled() {
+        ServerEndpointConfig.Configurator configurator = new DeflateHandshakeHandler.FilteringConfigurator(
+                new ServerEndpointConfig.Configurator(), false);
+
+        List<Extension> negotiated = configurator.getNegotiatedExtensions(List.of(DEFLATE), List.of(DEFLATE));
+
+        assertThat(negotiated).isEmpty();
+    }
+
+    @Test
+    void enabledConfiguratorNegotiatesDeflate() {
+        ServerEndpointConfig.Configurator configurator = new DeflateHandshakeHandler.FilteringConfigurator(
+                new ServerEndpointConfig.Configurator(), true);
+
+        List<Extension> negotiated = configurator.getNegotiatedExtensions(List.of(DEFLATE), List.of(DEFLATE));
+
+        assertThat(negotiated).extracting(Extension::getName).containsExactly("permessage-deflate");
+    }
+
+    @Test
+    void otherExtensionsSurviveWhenDeflateIsDisabled() {
+        Extension other = ext("x-custom");
+
+        assertThat(DeflateHandshakeHandler.negotiable(false, List.of(DEFLATE, other))).containsExactly(other);
+    }
+}
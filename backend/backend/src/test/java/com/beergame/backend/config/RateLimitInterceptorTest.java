@@ -0,0 +1,49 @@
+package com.beergame.backend.config;
+
+import com.beergame.backend.exception.OverloadedException;
+import com.beergame.backend.service.AdmissionControl;
+import com.beergame.backend.service.RateLimiter;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class RateLimitInterceptorTest {
+
+    private final RateLimiter rateLimiter = mock(RateLimiter.class);
+    private final AdmissionControl admissionControl = mock(AdmissionControl.class);
+    private final RateLimitInterceptor interceptor = new RateLimitInterceptor(rateLimiter, admissionControl,
+            RateLimiter.Policy.ORDER, AdmissionControl.Priority.HIGH);
+
+    private static MockHttpServletRequest post() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/game/orders/batch");
+        request.setRemoteAddr("10.0.0.1");
+        request.setUserPrincipal(() -> "alice");
+        return request;
+    }
+
+    @Test
+    void shedRequestTakesNoTokens() {
+        doThrow(new OverloadedException("Server is busy", 2))
+                .when(admissionControl).admit(any(), anyString());
+
+        assertThatThrownBy(() -> interceptor.preHandle(post(), new MockHttpServletResponse(), new Object()))
+                .isInstanceOf(OverloadedException.class);
+        verifyNoInteractions(rateLimiter);
+    }
+
+    @Test
+    void admittedRequestIsRateLimited() {
+        assertThat(interceptor.preHandle(post(), new MockHttpServletResponse(), new Object())).isTrue();
+
+        verify(rateLimiter).enforce(RateLimiter.Policy.ORDER, "alice", "10.0.0.1");
+    }
+}
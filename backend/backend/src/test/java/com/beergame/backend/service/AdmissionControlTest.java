@@ -0,0 +1,52 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.exception.OverloadedException;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class AdmissionControlTest {
+
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(2);   // EWMA ≈ 600 ms after one sample
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AdmissionControl admission =
+            new AdmissionControl(mock(DataSource.class), true, 250, 0.9, 20, 0.5);
+
+    @Test
+    void oneHotRoomDoesNotShedLowPriorityForTheOthers() {
+        admission.recordLockWait("room:A", SLOW);
+        admission.recordLockWait("room:B", FAST);
+        admission.recordLockWait("room:C", FAST);
+
+        assertThatCode(() -> admission.admit(AdmissionControl.Priority.LOW, "join"))
+                .doesNotThrowAnyException();
+        assertThat(admission.stats().hottestLockWaitMs()).isGreaterThan(250);
+    }
+
+    @Test
+    void broadLockContentionShedsLowPriority() {
+        admission.recordLockWait("room:A", SLOW);
+        admission.recordLockWait("room:B", SLOW);
+        admission.recordLockWait("room:C", FAST);
+
+        assertThatThrownBy(() -> admission.admit(AdmissionControl.Priority.LOW, "join"))
+                .isInstanceOf(OverloadedException.class);
+        assertThat(admission.stats().shedding()).isTrue();
+    }
+
+    @Test
+    void highPriorityUsesTheHigherLimit() {
+        admission.recordLockWait("room:A", SLOW);
+        admission.recordLockWait("room:B", SLOW);
+
+        assertThatCode(() -> admission.admit(AdmissionControl.Priority.HIGH, "order"))
+                .doesNotThrowAnyException();
+    }
+}
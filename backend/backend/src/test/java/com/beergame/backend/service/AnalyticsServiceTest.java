@@ -0,0 +1,212 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.config.GameConfig;
+import com.beergame.backend.dto.CohortAnalyticsDTO;
+import com.beergame.backend.dto.GameAnalyticsDTO;
+import com.beergame.backend.dto.RoleAnalyticsDTO;
+import com.beergame.backend.dto.RoomAnalyticsDTO;
+import com.beergame.backend.model.CohortStats;
+import com.beergame.backend.model.Game;
+import com.beergame.backend.model.GameRoleStats;
+import com.beergame.backend.model.GameTurn;
+import com.beergame.backend.model.Players;
+import com.beergame.backend.repository.CohortStatsRepository;
+import com.beergame.backend.repository.GameRoleStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AnalyticsServiceTest {
+
+    private static final String GAME_ID = "GAME000001";
+
+    private final GameRoleStatsRepository statsRepository = mock(GameRoleStatsRepository.class);
+    private final CohortStatsRepository cohortRepository = mock(CohortStatsRepository.class);
+    private final AnalyticsService analytics = new AnalyticsService(statsRepository, cohortRepository);
+
+    /** What the stats table holds between record() calls. */
+    private final List<GameRoleStats> stored = new ArrayList<>();
+    private final Game game = new Game();
+
+    @BeforeEach
+    void setUp() {
+        game.setId(GAME_ID);
+        game.setGameStatus(Game.GameStatus.IN_PROGRESS);
+        for (Players.RoleType role : Players.RoleType.values()) {
+            Players p = new Players();
+            p.setUserName(role.name().toLowerCase());
+            p.setRole(role);
+            game.getPlayers().add(p);
+        }
+        when(statsRepository.findByGameId(GAME_ID)).thenAnswer(inv -> new ArrayList<>(stored));
+        when(statsRepository.saveAll(anyCollection())).thenAnswer(inv -> {
+            for (GameRoleStats s : inv.<Collection<GameRoleStats>>getArgument(0)) {
+                if (stored.stream().noneMatch(x -> x == s)) stored.add(s);
+            }
+            return List.copyOf(stored);
+        });
+    }
+
+    private GameTurn turn(Players.RoleType role, int demand, int order, int shipped, int backorder,
+                          int inventory, double totalCost) {
+        GameTurn t = new GameTurn();
+        t.setPlayer(game.getPlayers().stream().filter(p -> p.getRole() == role).findFirst().orElseThrow());
+        t.setDemandRecieved(demand);
+        t.setOrderPlaced(order);
+        t.setShipmentSent(shipped);
+        t.setBackOrderAtEndOfWeek(backorder);
+        t.setInventoryAtEndOfWeek(inventory);
+        t.setTotalCost(totalCost);
+        return t;
+    }
+
+    /** Retailer: demand 4,8,4,8 (var 4), orders 4,12,0,16 (var 40). Others flat at 8. */
+    private void playFourWeeks(boolean finishOnLast) {
+        int[] demand  = {4, 8, 4, 8};
+        int[] orders  = {4, 12, 0, 16};
+        int[] shipped = {4, 6, 4, 8};
+        int[] backlog = {0, 2, 0, 0};
+        for (int w = 0; w < 4; w++) {
+            if (finishOnLast && w == 3) game.setGameStatus(Game.GameStatus.FINISHED);
+            analytics.record(game, List.of(
+                    turn(Players.RoleType.RETAILER, demand[w], orders[w], shipped[w], backlog[w], 10, 25.0 * (w + 1)),
+                    turn(Players.RoleType.WHOLESALER, 8, 8, 8, 0, 0, 0),
+                    turn(Players.RoleType.DISTRIBUTOR, 8, 8, 8, 0, 0, 0),
+                    turn(Players.RoleType.MANUFACTURER, 8, 8, 8, 0, 0, 0)));
+        }
+    }
+
+    private static RoleAnalyticsDTO role(GameAnalyticsDTO dto, Players.RoleType role) {
+        return dto.roles().stream().filter(r -> r.role().equals(role.name())).findFirst().orElseThrow();
+    }
+
+    @Test
+    void runningSumsGiveVarianceBullwhipAndFillRate() {
+        playFourWeeks(false);
+
+        GameAnalyticsDTO dto = analytics.getGameAnalytics(GAME_ID);
+        RoleAnalyticsDTO retailer = role(dto, Players.RoleType.RETAILER);
+
+        assertThat(dto.weeksPlayed()).isEqualTo(4);
+        assertThat(dto.finished()).isFalse();
+        assertThat(retailer.meanDemand()).isEqualTo(6.0);
+        assertThat(retailer.demandVariance()).isEqualTo(4.0);
+        assertThat(retailer.meanOrder()).isEqualTo(8.0);
+        assertThat(retailer.orderVariance()).isEqualTo(40.0);
+        assertThat(retailer.bullwhip()).isEqualTo(10.0);
+        assertThat(retailer.fillRate()).isCloseTo(22.0 / 24, within(1e-12));
+        assertThat(retailer.serviceLevel()).isEqualTo(0.75);
+        assertThat(retailer.peakBackorder()).isEqualTo(2);
+        assertThat(retailer.holdingCost()).isEqualTo(4 * 10 * GameConfig.INVENTORY_HOLDING_COST);
+        assertThat(retailer.backorderCost()).isEqualTo(2 * GameConfig.BACKORDER_COST);
+        assertThat(retailer.totalCost()).isEqualTo(100.0);
+    }
+
+    @Test
+    void flatDemandHasNoBullwhipRatio() {
+        playFourWeeks(false);
+
+        GameAnalyticsDTO dto = analytics.getGameAnalytics(GAME_ID);
+
+        assertThat(role(dto, Players.RoleType.MANUFACTURER).bullwhip()).isNull();
+        // Manufacturer order variance 0 over retailer demand variance 4.
+        assertThat(dto.chainBullwhip()).isEqualTo(0.0);
+    }
+
+    @Test
+    void finishingWeekFoldsEveryRoleIntoItsCohort() {
+        playFourWeeks(true);
+
+        verify(statsRepository).foldIntoCohort(eq("HUMAN"), eq("RETAILER"), eq(1), eq(10.0),
+                eq(4), eq(3), eq(24L), eq(22L), eq(2), anyDouble(), anyDouble(), eq(100.0));
+        verify(statsRepository).foldIntoCohort(eq("HUMAN"), eq("MANUFACTURER"), eq(0), eq(0.0),
+                anyInt(), anyInt(), anyLong(), anyLong(), anyInt(), anyDouble(), anyDouble(), anyDouble());
+        verify(statsRepository, times(4)).foldIntoCohort(anyString(), anyString(), anyInt(), anyDouble(),
+                anyInt(), anyInt(), anyLong(), anyLong(), anyInt(), anyDouble(), anyDouble(), anyDouble());
+        assertThat(analytics.getGameAnalytics(GAME_ID).finished()).isTrue();
+    }
+
+    @Test
+    void unfinishedWeeksDoNotTouchCohorts() {
+        playFourWeeks(false);
+
+        verify(statsRepository, never()).foldIntoCohort(anyString(), anyString(), anyInt(), anyDouble(),
+                anyInt(), anyInt(), anyLong(), anyLong(), anyInt(), anyDouble(), anyDouble(), anyDouble());
+    }
+
+    @Test
+    void roomTeamsAreRankedByTotalCost() {
+        when(statsRepository.findByRoomId("ROOM01")).thenReturn(List.of(
+                stats("G1", "Team A", 300), stats("G1", "Team A", 100),
+                stats("G2", "Team B", 150), stats("G2", "Team B", 100)));
+
+        RoomAnalyticsDTO room = analytics.getRoomAnalytics("ROOM01");
+
+        assertThat(room.teams()).extracting(RoomAnalyticsDTO.TeamAnalytics::rank,
+                        RoomAnalyticsDTO.TeamAnalytics::teamName, RoomAnalyticsDTO.TeamAnalytics::totalCost)
+                .containsExactly(
+                        tuple(1, "Team B", 250.0),
+                        tuple(2, "Team A", 400.0));
+        assertThat(room.games()).extracting(GameAnalyticsDTO::gameId).containsExactly("G1", "G2");
+    }
+
+    @Test
+    void cohortMeansAreTakenOverGames() {
+        CohortStats c = new CohortStats();
+        c.setCohort("BOT_NAIVE");
+        c.setRole(Players.RoleType.RETAILER);
+        c.setGames(2);
+        c.setBullwhipGames(1);
+        c.setBullwhipSum(3.0);
+        c.setWeeks(50);
+        c.setWeeksInStock(40);
+        c.setDemandSum(1000);
+        c.setShippedSum(900);
+        c.setTotalCost(500);
+        when(cohortRepository.findAllByOrderByCohortAscRoleAsc()).thenReturn(List.of(c));
+
+        CohortAnalyticsDTO dto = analytics.getCohortAnalytics().get(0);
+
+        assertThat(dto.meanBullwhip()).isEqualTo(3.0);
+        assertThat(dto.fillRate()).isEqualTo(0.9);
+        assertThat(dto.serviceLevel()).isEqualTo(0.8);
+        assertThat(dto.meanTotalCost()).isEqualTo(250.0);
+    }
+
+    @Test
+    void unknownGameIsNotFound() {
+        assertThatThrownBy(() -> analytics.getGameAnalytics("NOPE"))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("not found");
+    }
+
+    private static GameRoleStats stats(String gameId, String team, double totalCost) {
+        GameRoleStats s = new GameRoleStats();
+        s.setGameId(gameId);
+        s.setRoomId("ROOM01");
+        s.setTeamName(team);
+        s.setRole(totalCost > 200 ? Players.RoleType.RETAILER : Players.RoleType.WHOLESALER);
+        s.setCohort("HUMAN");
+        s.setTotalCost(totalCost);
+        return s;
+    }
+}
@@ -0,0 +1,120 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.dto.BatchOrderRequestDTO;
+import com.beergame.backend.dto.BatchOrderResultDTO;
+import com.beergame.backend.model.Game;
+import com.beergame.backend.model.Players;
+import com.beergame.backend.repository.GameRepository;
+import com.beergame.backend.repository.GameRoomRepository;
+import com.beergame.backend.repository.PlayerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static com.beergame.backend.dto.BatchOrderResultDTO.Status;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BatchOrderServiceTest {
+
+    private static final String GAME = "GAME000001";
+    private static final String OTHER_GAME = "GAME000002";
+
+    private final GameRepository gameRepository = mock(GameRepository.class);
+    private final RedisLockService redisLockService = mock(RedisLockService.class);
+    private final BatchOrderService service = new BatchOrderService(
+            gameRepository,
+            mock(GameRoomRepository.class),
+            mock(PlayerRepository.class),
+            redisLockService,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            mock(TurnService.class),
+            mock(BroadcastService.class),
+            mock(DuplicateOrderFilter.class),
+            mock(ApplicationEventPublisher.class),
+            mock(CommandLog.class),
+            Set.of("teacher"));
+
+    record Owner(String getGameId, String getRoomId) implements GameRepository.GameOwnerView {}
+
+    @BeforeEach
+    void setUp() {
+        when(redisLockService.executeWithLock(anyString(), anyInt(), any()))
+                .thenAnswer(inv -> inv.<Supplier<?>>getArgument(2).get());
+        when(gameRepository.findOwnersByIdIn(any()))
+                .thenReturn(List.of(new Owner(GAME, null), new Owner(OTHER_GAME, null)));
+        when(gameRepository.findByIdWithPlayers(GAME))
+                .thenReturn(Optional.of(game(GAME, player("alice", false), player("bot-1", true))));
+        when(gameRepository.findByIdWithPlayers(OTHER_GAME))
+                .thenReturn(Optional.of(game(OTHER_GAME, player("mallory", false), player("bot-2", true))));
+    }
+
+    @Test
+    void seatedCallerMayOrderForBotsOfTheirGame() {
+        BatchOrderResultDTO result = service.submit("alice", List.of(
+                entry(GAME, "alice", 4), entry(GAME, "bot-1", 5)));
+
+        assertThat(result.results()).extracting(BatchOrderResultDTO.Result::status)
+                .containsExactly(Status.APPLIED, Status.APPLIED);
+    }
+
+    @Test
+    void callerMayNotOrderForBotsOfAnotherGame() {
+        BatchOrderResultDTO result = service.submit("alice", List.of(entry(OTHER_GAME, "bot-2", 5)));
+
+        assertThat(result.results()).extracting(BatchOrderResultDTO.Result::status)
+                .containsExactly(Status.REJECTED);
+    }
+
+    @Test
+    void callerMayNotOrderForOtherHumans() {
+        BatchOrderResultDTO result = service.submit("mallory", List.of(entry(GAME, "alice", 5)));
+
+        assertThat(result.results()).extracting(BatchOrderResultDTO.Result::status)
+                .containsExactly(Status.REJECTED);
+    }
+
+    @Test
+    void facilitatorMayOrderForAnyone() {
+        BatchOrderResultDTO result = service.submit("teacher", List.of(
+                entry(GAME, "alice", 4), entry(OTHER_GAME, "bot-2", 5)));
+
+        assertThat(result.results()).extracting(BatchOrderResultDTO.Result::status)
+                .containsExactly(Status.APPLIED, Status.APPLIED);
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private static BatchOrderRequestDTO.Entry entry(String gameId, String username, int amount) {
+        return new BatchOrderRequestDTO.Entry(gameId, username, amount, null);
+    }
+
+    private static Players player(String name, boolean bot) {
+        Players p = new Players();
+        p.setUserName(name);
+        p.setBot(bot);
+        return p;
+    }
+
+    private static Game game(String id, Players... players) {
+        Game game = new Game();
+        game.setId(id);
+        game.setCurrentWeek(1);
+        for (Players p : players) {
+            p.setGame(game);
+            game.getPlayers().add(p);
+        }
+        return game;
+    }
+}
@@ -0,0 +1,95 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.model.Players;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DuplicateOrderFilterTest {
+
+    private final StringRedisTemplate redis = mock(StringRedisTemplate.class);
+    private final DuplicateOrderFilter filter =
+            new DuplicateOrderFilter(redis, mock(ReactiveStringRedisTemplate.class), 60, 100);
+
+    private static Players player(long id, String name, boolean ready) {
+        Players p = new Players();
+        p.setId(id);
+        p.setUserName(name);
+        p.setReadyForOrder(ready);
+        return p;
+    }
+
+    private void redisMaskIs(long mask) {
+        when(redis.execute(any(), anyList(), any(Object[].class))).thenReturn(mask);
+    }
+
+    @Test
+    void seesMarkedPlayerOnlyWhenRedisAgrees() {
+        Players a = player(1, "a", true);
+        List<Players> roster = List.of(a, player(2, "b", false), player(3, "c", false), player(4, "d", false));
+        filter.markReady(DuplicateOrderFilter.Scope.GAME, "G1", 1, roster, a);
+
+        redisMaskIs(0x1L);
+        assertThat(filter.isAlreadyReady(DuplicateOrderFilter.Scope.GAME, "G1", "a")).isTrue();
+        assertThat(filter.isAlreadyReady(DuplicateOrderFilter.Scope.GAME, "G1", "b")).isFalse();
+
+        redisMaskIs(0L);
+        assertThat(filter.isAlreadyReady(DuplicateOrderFilter.Scope.GAME, "G1", "a")).isFalse();
+    }
+
+    @Test
+    void unknownRosterTakesTheNormalPath() {
+        redisMaskIs(0xFL);
+        assertThat(filter.isAlreadyReady(DuplicateOrderFilter.Scope.GAME, "G1", "a")).isFalse();
+    }
+
+    @Test
+    void bitsAreWrittenOnlyOnCommit() {
+        Players a = player(1, "a", true);
+        List<Players> roster = List.of(a, player(2, "b", false), player(3, "c", false), player(4, "d", false));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            filter.markReady(DuplicateOrderFilter.Scope.GAME, "G1", 1, roster, a);
+            verify(redis, never()).execute(any(), anyList(), any(Object[].class));
+
+            // Rolled back: nothing reaches the filter
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            redisMaskIs(0x1L);
+            assertThat(filter.isAlreadyReady(DuplicateOrderFilter.Scope.GAME, "G1", "a")).isFalse();
+
+            // Committed: week and mask are written together
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(redis).execute(any(), eq(List.of("ready:game:G1")), eq("1"), eq("1"), eq("60"));
+            assertThat(filter.isAlreadyReady(DuplicateOrderFilter.Scope.GAME, "G1", "a")).isTrue();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void resetClearsTheWeek() {
+        Players a = player(1, "a", true);
+        List<Players> roster = List.of(a, player(2, "b", false), player(3, "c", false), player(4, "d", false));
+        filter.markReady(DuplicateOrderFilter.Scope.GAME, "G1", 1, roster, a);
+        filter.reset(DuplicateOrderFilter.Scope.GAME, "G1", 2);
+
+        redisMaskIs(0x1L);
+        assertThat(filter.isAlreadyReady(DuplicateOrderFilter.Scope.GAME, "G1", "a")).isFalse();
+    }
+}
@@ -0,0 +1,169 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.dto.GameTurnHistoryDTO;
+import com.beergame.backend.model.Game;
+import com.beergame.backend.model.GameSnapshot;
+import com.beergame.backend.model.GameTurn;
+import com.beergame.backend.model.GameWeekEvent;
+import com.beergame.backend.model.Players;
+import com.beergame.backend.repository.GameRepository;
+import com.beergame.backend.repository.GameSnapshotRepository;
+import com.beergame.backend.repository.GameWeekEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GameEventStoreTest {
+
+    private static final String GAME_ID = "GAME000001";
+    private static final Set<Integer> FESTIVE_WEEKS = Set.of(3, 8);
+    private static final int SNAPSHOT_EVERY = 5;
+    private static final int WEEKS = 12;
+
+    /** Stand-ins for the tables, filled through the mocked repositories. */
+    private final List<GameWeekEvent> events = new ArrayList<>();
+    private final List<GameSnapshot> snapshots = new ArrayList<>();
+
+    private final GameWeekEventRepository eventRepository = mock(GameWeekEventRepository.class);
+    private final GameSnapshotRepository snapshotRepository = mock(GameSnapshotRepository.class);
+    private final GameRepository gameRepository = mock(GameRepository.class);
+    private final GameEventStore store =
+            new GameEventStore(eventRepository, snapshotRepository, gameRepository, SNAPSHOT_EVERY);
+
+    /** What the live path wrote: GameTurn rows per role, Players state after each week. */
+    private final Map<String, List<GameTurnHistoryDTO>> turnRows = new TreeMap<>();
+    private final List<Map<Players.RoleType, State>> stateAfterWeek = new ArrayList<>();
+
+    /** Every Players column the fold has to reproduce. */
+    record State(int inventory, int backOrder, int currentOrder, int outgoingDelivery,
+                 int lastOrderReceived, int lastShipmentReceived, int orderArrivingNextWeek,
+                 int incomingShipment, int shipmentArrivingWeekAfterNext,
+                 double weeklyCost, double totalCost) {
+
+        static State of(Players p) {
+            return new State(p.getInventory(), p.getBackOrder(), p.getCurrentOrder(), p.getOutgoingDelivery(),
+                    p.getLastOrderReceived(), p.getLastShipmentReceived(), p.getOrderArrivingNextWeek(),
+                    p.getIncomingShipment(), p.getShipmentArrivingWeekAfterNext(),
+                    p.getWeeklyCost(), p.getTotalCost());
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(gameRepository.findFestiveWeeksSortedById(GAME_ID)).thenReturn(List.copyOf(FESTIVE_WEEKS));
+        when(eventRepository.save(any(GameWeekEvent.class))).thenAnswer(inv -> {
+            events.add(inv.getArgument(0));
+            return inv.getArgument(0);
+        });
+        when(snapshotRepository.save(any(GameSnapshot.class))).thenAnswer(inv -> {
+            snapshots.add(inv.getArgument(0));
+            return inv.getArgument(0);
+        });
+        when(eventRepository.findByGameIdOrderByWeek(anyString())).thenAnswer(inv ->
+                events.stream().sorted(Comparator.comparingInt(GameWeekEvent::getWeek)).toList());
+        when(eventRepository.findByGameIdAndWeekBetweenOrderByWeek(anyString(), anyInt(), anyInt())).thenAnswer(inv -> {
+            int from = inv.getArgument(1);
+            int to = inv.getArgument(2);
+            return events.stream().filter(e -> e.getWeek() >= from && e.getWeek() <= to)
+                    .sorted(Comparator.comparingInt(GameWeekEvent::getWeek)).toList();
+        });
+        when(snapshotRepository.findFirstByGameIdAndWeekLessThanEqualOrderByWeekDesc(anyString(), anyInt()))
+                .thenAnswer(inv -> {
+                    int week = inv.getArgument(1);
+                    return snapshots.stream().filter(s -> s.getWeek() <= week)
+                            .max(Comparator.comparingInt(GameSnapshot::getWeek));
+                });
+    }
+
+    @Test
+    void historyMatchesTheGameTurnRows() {
+        play();
+
+        Optional<Map<String, List<GameTurnHistoryDTO>>> history = store.history(GAME_ID);
+
+        assertThat(history).contains(turnRows);
+    }
+
+    @Test
+    void stateAfterMatchesPlayersForEveryWeek() {
+        play();
+        assertThat(snapshots).extracting(GameSnapshot::getWeek).containsExactly(5, 10);
+
+        // Week 0 is the starting state; 5 and 10 land on a snapshot, the rest fold from one.
+        for (int week = 0; week <= WEEKS; week++) {
+            assertThat(states(store.stateAfter(GAME_ID, week).orElseThrow()))
+                    .as("state after week %d", week)
+                    .isEqualTo(stateAfterWeek.get(week));
+        }
+    }
+
+    @Test
+    void stateAfterWithAGapInTheLogIsEmpty() {
+        play();
+        events.removeIf(e -> e.getWeek() == 7);
+
+        assertThat(store.stateAfter(GAME_ID, 6)).isPresent();
+        assertThat(store.stateAfter(GAME_ID, 8)).isEmpty();
+        assertThat(store.history(GAME_ID)).isEmpty();
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    /** Plays WEEKS weeks through TurnEngine the way TurnService does, appending each one. */
+    private void play() {
+        Game game = new Game();
+        game.setId(GAME_ID);
+        game.setCurrentWeek(1);
+        game.setGameStatus(Game.GameStatus.IN_PROGRESS);
+        game.getFestiveWeeks().addAll(FESTIVE_WEEKS);
+        for (Players.RoleType role : Players.RoleType.values()) {
+            Players p = new Players();
+            p.setUserName(role.name().toLowerCase());
+            p.setRole(role);
+            TurnEngine.seat(p, game);
+            p.setGame(game);
+            game.getPlayers().add(p);
+        }
+        stateAfterWeek.add(states(game.getPlayers()));
+
+        for (int week = 1; week <= WEEKS; week++) {
+            for (Players p : game.getPlayers()) {
+                // Uneven orders so the pipeline and backorders actually move
+                p.setCurrentOrder(4 + (week * 7 + p.getRole().ordinal() * 5) % 19);
+            }
+            List<GameTurn> turns = TurnEngine.applyWeek(game);
+            store.append(game, week);
+
+            for (GameTurn turn : turns) {
+                turnRows.computeIfAbsent(turn.getPlayer().getRole().name(), k -> new ArrayList<>())
+                        .add(GameTurnHistoryDTO.fromEntity(turn));
+            }
+            stateAfterWeek.add(states(game.getPlayers()));
+        }
+    }
+
+    private static Map<Players.RoleType, State> states(List<Players> players) {
+        Map<Players.RoleType, State> states = new EnumMap<>(Players.RoleType.class);
+        players.forEach(p -> states.put(p.getRole(), State.of(p)));
+        return states;
+    }
+
+    private static Map<Players.RoleType, State> states(Map<Players.RoleType, Players> byRole) {
+        return states(List.copyOf(byRole.values()));
+    }
+}
@@ -0,0 +1,102 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.config.Bulkhead;
+import com.beergame.backend.model.IdBlock;
+import com.beergame.backend.repository.IdBlockRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdAllocatorTest {
+
+    private static final String KEY = "test-permutation-key-0123456789";
+    private static final int BLOCK_SIZE = 50;
+
+    private final IdBlockRepository blocks = mock(IdBlockRepository.class);
+    private final AtomicLong sequence = new AtomicLong();
+
+    private IdAllocator allocator(String key) {
+        when(blocks.save(any(IdBlock.class))).thenAnswer(inv -> {
+            IdBlock row = inv.getArgument(0);
+            row.setId(sequence.incrementAndGet());
+            return row;
+        });
+        return new IdAllocator(blocks, mock(PlatformTransactionManager.class),
+                new Bulkhead("test-ids", 2, 16), key, BLOCK_SIZE, 10);
+    }
+
+    @Test
+    void permuteIsInvertedByUnpermuteAcrossTheSpace() {
+        IdAllocator ids = allocator(KEY);
+        SplittableRandom random = new SplittableRandom(42);
+        List<Long> samples = new ArrayList<>(List.of(0L, 1L, IdAllocator.SPACE - 1, IdAllocator.SPACE / 2));
+        for (int i = 0; i < 2_000; i++) samples.add(random.nextLong(IdAllocator.SPACE));
+
+        for (IdBlock.Kind kind : IdBlock.Kind.values()) {
+            for (long value : samples) {
+                long code = ids.permute(kind, value);
+                assertThat(code).isBetween(0L, IdAllocator.SPACE - 1);
+                assertThat(ids.unpermute(kind, code)).isEqualTo(value);
+            }
+        }
+    }
+
+    @Test
+    void consecutiveCountersGiveDistinctCodes() {
+        IdAllocator ids = allocator(KEY);
+        Set<Long> codes = new HashSet<>();
+        for (long counter = 0; counter < 20_000; counter++) {
+            assertThat(codes.add(ids.permute(IdBlock.Kind.GAME, counter))).isTrue();
+        }
+    }
+
+    @Test
+    void encodingIsTenAlphanumericCharacters() {
+        assertThat(IdAllocator.encode(0)).isEqualTo("AAAAAAAAAA");
+        assertThat(IdAllocator.encode(IdAllocator.SPACE - 1)).isEqualTo("9999999999");
+        assertThat(IdAllocator.encode(36)).isEqualTo("AAAAAAAABA");
+    }
+
+    @Test
+    void issuedIdsAreDistinctAcrossKindsAndBlocks() {
+        IdAllocator ids = allocator(KEY);
+        Set<String> issued = new HashSet<>();
+        for (int i = 0; i < BLOCK_SIZE * 4; i++) {
+            String game = ids.nextGameId();
+            String room = ids.nextRoomId();
+            assertThat(game).hasSize(IdAllocator.LENGTH).matches("[A-Z0-9]{10}");
+            assertThat(room).hasSize(IdAllocator.LENGTH).matches("[A-Z0-9]{10}");
+            assertThat(issued.add(game)).as("duplicate %s", game).isTrue();
+            assertThat(issued.add(room)).as("duplicate %s", room).isTrue();
+        }
+        // Four blocks' worth per kind cannot come from fewer than eight leases.
+        verify(blocks, atLeast(8)).save(any(IdBlock.class));
+    }
+
+    @Test
+    void permutationDependsOnTheKey() {
+        long a = allocator(KEY).permute(IdBlock.Kind.ROOM, 12_345);
+        long b = allocator(KEY + "-other").permute(IdBlock.Kind.ROOM, 12_345);
+        assertThat(a).isNotEqualTo(b);
+    }
+
+    @Test
+    void shortKeyIsRefused() {
+        assertThatThrownBy(() -> allocator("too-short"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
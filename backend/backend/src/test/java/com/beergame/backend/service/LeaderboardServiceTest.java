@@ -0,0 +1,178 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.dto.LeaderboardDTO;
+import com.beergame.backend.event.GameFinishedEvent;
+import com.beergame.backend.model.CohortStats;
+import com.beergame.backend.model.Game;
+import com.beergame.backend.model.LeaderboardScore;
+import com.beergame.backend.model.Players;
+import com.beergame.backend.repository.CohortStatsRepository;
+import com.beergame.backend.repository.LeaderboardScoreRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LeaderboardServiceTest {
+
+    private final LeaderboardScoreRepository scores = mock(LeaderboardScoreRepository.class);
+    private final CohortStatsRepository cohorts = mock(CohortStatsRepository.class);
+    private final StringRedisTemplate redis = mock(StringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ZSetOperations<String, String> zset = mock(ZSetOperations.class);
+    private final LeaderboardService leaderboard = new LeaderboardService(scores, cohorts, redis,
+            mock(PlatformTransactionManager.class), Set.of("ops"), 100, 400);
+
+    @BeforeEach
+    void setUp() {
+        when(redis.opsForZSet()).thenReturn(zset);
+    }
+
+    // ── Keys and periods ──────────────────────────────────────────────────────
+
+    @Test
+    void periodLabelsFollowIsoWeeksAndMonths() {
+        assertThat(LeaderboardService.weekOf(LocalDate.of(2026, 10, 19))).isEqualTo("2026-W43");
+        // ISO week-based year differs from the calendar year around New Year.
+        assertThat(LeaderboardService.weekOf(LocalDate.of(2027, 1, 1))).isEqualTo("2026-W53");
+        assertThat(LeaderboardService.weekOf(LocalDate.of(2024, 12, 30))).isEqualTo("2025-W01");
+        assertThat(LeaderboardService.monthOf(LocalDate.of(2026, 1, 31))).isEqualTo("2026-01");
+        assertThat(LeaderboardService.key("2026-W43", "RETAILER")).isEqualTo("leaderboard:2026-W43:RETAILER");
+    }
+
+    // ── Write side ────────────────────────────────────────────────────────────
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordFinishedScoresHumansAgainstBotPar() {
+        CohortStats bots = new CohortStats();
+        bots.setCohort("BOT_NAIVE");
+        bots.setGames(2);
+        bots.setTotalCost(400);
+        CohortStats humans = new CohortStats();
+        humans.setCohort("HUMAN");
+        humans.setGames(10);
+        humans.setTotalCost(100_000);
+        when(cohorts.findByRole(Players.RoleType.RETAILER)).thenReturn(List.of(bots, humans));
+        when(cohorts.findByRole(Players.RoleType.WHOLESALER)).thenReturn(List.of(humans));
+
+        Game game = new Game();
+        game.setId("GAME000001");
+        game.setFinishedAt(LocalDateTime.of(2026, 10, 19, 12, 0));
+        game.getPlayers().add(player("alice", Players.RoleType.RETAILER, false, 150));
+        game.getPlayers().add(player("bob", Players.RoleType.WHOLESALER, false, 300));
+        game.getPlayers().add(player("bot-1", Players.RoleType.DISTRIBUTOR, true, 90));
+
+        leaderboard.recordFinished(game);
+
+        ArgumentCaptor<List<LeaderboardScore>> saved = ArgumentCaptor.forClass(List.class);
+        verify(scores).saveAll(saved.capture());
+        assertThat(saved.getValue())
+                .extracting(LeaderboardScore::getUserName, LeaderboardScore::getTotalCost, LeaderboardScore::getAdjustedCost)
+                .containsExactly(tuple("alice", 150.0, 75.0), tuple("bob", 300.0, null));
+    }
+
+    @Test
+    void finishedGameIsAddedToEveryPeriodBoard() {
+        LeaderboardScore s = new LeaderboardScore();
+        s.setUserName("alice");
+        s.setRole(Players.RoleType.RETAILER);
+        s.setTotalCost(150);
+        s.setAdjustedCost(75.0);
+        s.setFinishedAt(LocalDateTime.of(2026, 10, 19, 12, 0));
+        when(scores.findByGameId("GAME000001")).thenReturn(List.of(s));
+        StringRedisConnection conn = mock(StringRedisConnection.class);
+        when(redis.executePipelined(any(RedisCallback.class))).thenAnswer(inv -> {
+            inv.<RedisCallback<?>>getArgument(0).doInRedis(conn);
+            return List.of();
+        });
+
+        leaderboard.onGameFinished(new GameFinishedEvent(this, "GAME000001"));
+
+        for (String period : List.of("all", "2026-W43", "2026-10")) {
+            verify(conn).zAdd(eq("leaderboard:" + period + ":RETAILER"), eq(150.0), eq("alice"), any());
+            verify(conn).zAdd(eq("leaderboard:" + period + ":adjusted"), eq(75.0), eq("alice"), any());
+        }
+        verify(conn).expire(eq("leaderboard:2026-W43:RETAILER"), anyLong());
+        verify(conn, never()).expire(eq("leaderboard:all:RETAILER"), anyLong());
+    }
+
+    // ── Read side ─────────────────────────────────────────────────────────────
+
+    @Test
+    void topRanksFromOneInBoardOrder() {
+        Set<TypedTuple<String>> best = new LinkedHashSet<>();
+        best.add(new DefaultTypedTuple<>("carol", 90.0));
+        best.add(new DefaultTypedTuple<>("alice", 150.0));
+        when(zset.rangeWithScores("leaderboard:all:RETAILER", 0, 1)).thenReturn(best);
+        when(zset.zCard("leaderboard:all:RETAILER")).thenReturn(7L);
+
+        LeaderboardDTO dto = leaderboard.top("retailer", null, 2);
+
+        assertThat(dto.board()).isEqualTo("RETAILER");
+        assertThat(dto.period()).isEqualTo("all");
+        assertThat(dto.players()).isEqualTo(7);
+        assertThat(dto.entries()).extracting(LeaderboardDTO.Entry::rank, LeaderboardDTO.Entry::userName)
+                .containsExactly(tuple(1L, "carol"), tuple(2L, "alice"));
+    }
+
+    @Test
+    void rankOfIsOneBased() {
+        when(zset.rank("leaderboard:2026-10:adjusted", "alice")).thenReturn(4L);
+        when(zset.score("leaderboard:2026-10:adjusted", "alice")).thenReturn(75.0);
+
+        assertThat(leaderboard.rankOf("adjusted", "2026-10", "alice"))
+                .isEqualTo(new LeaderboardDTO.Entry(5, "alice", 75.0));
+    }
+
+    @Test
+    void unknownUserIsNotFound() {
+        when(zset.rank("leaderboard:all:adjusted", "nobody")).thenReturn(null);
+        when(zset.score("leaderboard:all:adjusted", "nobody")).thenReturn(null);
+
+        assertThatThrownBy(() -> leaderboard.rankOf("adjusted", "all", "nobody"))
+                .hasMessageContaining("not found");
+    }
+
+    @Test
+    void badArgumentsAreRejected() {
+        assertThatThrownBy(() -> leaderboard.top("adjusted", "all", 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> leaderboard.top("adjusted", "all", 101)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> leaderboard.top("brewer", "all", 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> leaderboard.top("adjusted", "yesterday", 10)).isInstanceOf(IllegalArgumentException.class);
+        verify(zset, never()).rangeWithScores(anyString(), anyLong(), anyLong());
+    }
+
+    private static Players player(String name, Players.RoleType role, boolean bot, double totalCost) {
+        Players p = new Players();
+        p.setUserName(name);
+        p.setRole(role);
+        p.setBot(bot);
+        p.setTotalCost(totalCost);
+        return p;
+    }
+}
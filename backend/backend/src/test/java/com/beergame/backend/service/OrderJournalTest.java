@@ -0,0 +1,239 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.dto.OrderPayloadDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderJournalTest {
+
+    private static final int SEGMENT_BYTES = 4096;
+
+    @TempDir
+    Path dir;
+
+    private GameService gameService;
+
+    @BeforeEach
+    void setUp() {
+        gameService = mock(GameService.class);
+    }
+
+    @Test
+    void scanReturnsIntentsWithoutDoneRecord() throws IOException {
+        OrderJournal journal = start(false);
+        long a = begin(journal, OrderJournal.Scope.GAME, "GAME000001", "alice", 4, 2);
+        long b = begin(journal, OrderJournal.Scope.ROOM, "ROOM000001", "bob", 8, 3);
+        journal.complete(a);
+        journal.stop();
+
+        Map<Long, OrderJournal.Intent> pending = scanAll();
+
+        assertThat(pending).containsOnlyKeys(b);
+        OrderJournal.Intent intent = pending.get(b);
+        assertThat(intent.scope()).isEqualTo(OrderJournal.Scope.ROOM);
+        assertThat(intent.aggregateId()).isEqualTo("ROOM000001");
+        assertThat(intent.username()).isEqualTo("bob");
+        assertThat(intent.amount()).isEqualTo(8);
+        assertThat(intent.week()).isEqualTo(3);
+    }
+
+    @Test
+    void scanStopsAtRecordWithBadChecksum() throws IOException {
+        OrderJournal journal = start(false);
+        long a = begin(journal, OrderJournal.Scope.GAME, "GAME000001", "alice", 4, 2);
+        begin(journal, OrderJournal.Scope.GAME, "GAME000001", "bob", 5, 2);
+        journal.stop();
+
+        Path segment = onlySegment();
+        int second = secondRecordOffset(segment);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            // Flip one payload byte of the second record
+            file.seek(second + 2 * Integer.BYTES + 12);
+            int b = file.read();
+            file.seek(second + 2 * Integer.BYTES + 12);
+            file.write(b ^ 0xFF);
+        }
+
+        assertThat(scanAll()).containsOnlyKeys(a);
+    }
+
+    @Test
+    void scanIgnoresTornTail() throws IOException {
+        OrderJournal journal = start(false);
+        long a = begin(journal, OrderJournal.Scope.GAME, "GAME000001", "alice", 4, 2);
+        begin(journal, OrderJournal.Scope.GAME, "GAME000001", "bob", 5, 2);
+        journal.stop();
+
+        // The process died half-way through writing the second record
+        Path segment = onlySegment();
+        int second = secondRecordOffset(segment);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.setLength(second + 2 * Integer.BYTES + 5);
+        }
+
+        assertThat(scanAll()).containsOnlyKeys(a);
+    }
+
+    @Test
+    void recoveryReplaysIncompleteIntentsOnly() throws IOException {
+        OrderJournal first = start(false);
+        long done = begin(first, OrderJournal.Scope.GAME, "GAME000001", "alice", 4, 2);
+        begin(first, OrderJournal.Scope.GAME, "GAME000001", "bob", 5, 2);
+        begin(first, OrderJournal.Scope.ROOM, "ROOM000001", "carol", 6, 7);
+        begin(first, OrderJournal.Scope.GAME, "GAME000001", "dave", 7, null);
+        first.complete(done);
+        first.stop();
+
+        OrderJournal second = start(false);
+        second.recover();
+
+        verify(gameService).placeOrder("GAME000001", "bob", 5, 2);
+        verify(gameService).submitRoomOrder("ROOM000001", "carol", 6, 7);
+        verify(gameService, never()).placeOrder("GAME000001", "alice", 4, 2);
+        // No week: could land in a later week, so it is not re-run
+        verify(gameService, never()).placeOrder(eq("GAME000001"), eq("dave"), anyInt(), isNull());
+        assertThat(segments()).hasSize(1);
+
+        // Recovered once: a third start finds nothing to re-run
+        second.stop();
+        OrderJournal third = start(false);
+        third.recover();
+        verify(gameService).placeOrder(anyString(), anyString(), anyInt(), any(Integer.class));
+        third.stop();
+    }
+
+    @Test
+    void rejectedRecoveryDoesNotStopTheRest() throws IOException {
+        OrderJournal first = start(false);
+        begin(first, OrderJournal.Scope.GAME, "GAME000001", "bob", 5, 2);
+        begin(first, OrderJournal.Scope.GAME, "GAME000002", "carol", 6, 2);
+        first.stop();
+
+        doThrow(new RuntimeException("Game not found: GAME000001"))
+                .when(gameService).placeOrder("GAME000001", "bob", 5, 2);
+
+        OrderJournal second = start(false);
+        second.recover();
+
+        verify(gameService).placeOrder("GAME000002", "carol", 6, 2);
+        second.stop();
+    }
+
+    @Test
+    void completedSegmentsArePruned() throws IOException {
+        OrderJournal journal = start(false);
+        for (int i = 0; i < 200; i++) {
+            long seq = begin(journal, OrderJournal.Scope.GAME, "GAME000001", "user" + i, i, 2);
+            journal.complete(seq);
+        }
+
+        // Only the segment being written is left
+        assertThat(segments()).hasSize(1);
+        journal.stop();
+    }
+
+    @Test
+    void pendingIntentKeepsItsSegmentUntilDone() throws IOException {
+        OrderJournal journal = start(false);
+        long stuck = begin(journal, OrderJournal.Scope.GAME, "GAME000001", "slow", 1, 2);
+        for (int i = 0; i < 200; i++) {
+            journal.complete(begin(journal, OrderJournal.Scope.GAME, "GAME000001", "user" + i, i, 2));
+        }
+        assertThat(segments().size()).isGreaterThan(1);
+
+        journal.complete(stuck);
+
+        assertThat(segments()).hasSize(1);
+        journal.stop();
+    }
+
+    @Test
+    void fsyncCompletesIntentAfterForce() throws IOException {
+        OrderJournal journal = start(true);
+        long seq = begin(journal, OrderJournal.Scope.GAME, "GAME000001", "alice", 4, 2);
+        journal.stop();
+
+        assertThat(seq).isPositive();
+        assertThat(scanAll()).containsOnlyKeys(seq);
+    }
+
+    @Test
+    void writesAfterStopAreIgnored() throws IOException {
+        OrderJournal journal = start(false);
+        long seq = begin(journal, OrderJournal.Scope.GAME, "GAME000001", "alice", 4, 2);
+        journal.stop();
+
+        assertThat(begin(journal, OrderJournal.Scope.GAME, "GAME000001", "bob", 4, 2)).isZero();
+        journal.complete(seq);
+
+        assertThat(scanAll()).containsOnlyKeys(seq);
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private OrderJournal start(boolean fsync) {
+        @SuppressWarnings("unchecked")
+        ObjectProvider<GameService> provider = mock(ObjectProvider.class);
+        when(provider.getObject()).thenReturn(gameService);
+        OrderJournal journal = new OrderJournal(provider, new SimpleMeterRegistry(),
+                true, dir.toString(), SEGMENT_BYTES, fsync);
+        journal.start();
+        return journal;
+    }
+
+    private static long begin(OrderJournal journal, OrderJournal.Scope scope, String id, String user,
+                              int amount, Integer week) {
+        return journal.begin(scope, id, user, new OrderPayloadDTO(amount, week, 1L)).join();
+    }
+
+    private Map<Long, OrderJournal.Intent> scanAll() throws IOException {
+        Map<Long, OrderJournal.Intent> pending = new TreeMap<>();
+        for (Path segment : segments()) {
+            OrderJournal.scan(segment, pending);
+        }
+        return pending;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".wal")).sorted().toList();
+        }
+    }
+
+    private Path onlySegment() throws IOException {
+        List<Path> segments = segments();
+        assertThat(segments).hasSize(1);
+        return segments.get(0);
+    }
+
+    /** Records start with their length; the second follows the first's header and body. */
+    private static int secondRecordOffset(Path segment) throws IOException {
+        int firstLength = ByteBuffer.wrap(Files.readAllBytes(segment)).getInt(0);
+        return 2 * Integer.BYTES + firstLength;
+    }
+}
@@ -0,0 +1,57 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.exception.RateLimitExceededException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class RateLimiterTest {
+
+    private final MockEnvironment env = new MockEnvironment()
+            .withProperty("app.ratelimit.order.capacity", "2")
+            .withProperty("app.ratelimit.order.refill-per-second", "0.001");
+    private final RateLimiter limiter = new RateLimiter(mock(StringRedisTemplate.class), env, false, 1, 1000);
+
+    @Test
+    void rejectsOnceTheUserBucketIsEmpty() {
+        limiter.enforce(RateLimiter.Policy.ORDER, "alice", null);
+        limiter.enforce(RateLimiter.Policy.ORDER, "alice", null);
+
+        assertThatThrownBy(() -> limiter.enforce(RateLimiter.Policy.ORDER, "alice", null))
+                .isInstanceOf(RateLimitExceededException.class);
+    }
+
+    @Test
+    void ipRejectionDoesNotBurnTheUserToken() {
+        limiter.enforce(RateLimiter.Policy.ORDER, "alice", "10.0.0.1");
+        limiter.enforce(RateLimiter.Policy.ORDER, "alice", "10.0.0.1");
+
+        // 10.0.0.1 is empty: bob is turned away there, twice ...
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> limiter.enforce(RateLimiter.Policy.ORDER, "bob", "10.0.0.1"))
+                    .isInstanceOf(RateLimitExceededException.class);
+        }
+        // ... but still has both of his own tokens from another address.
+        assertThatCode(() -> {
+            limiter.enforce(RateLimiter.Policy.ORDER, "bob", "10.0.0.2");
+            limiter.enforce(RateLimiter.Policy.ORDER, "bob", "10.0.0.2");
+        }).doesNotThrowAnyException();
+    }
+
+    @Test
+    void userRejectionDoesNotBurnTheIpToken() {
+        limiter.enforce(RateLimiter.Policy.ORDER, "alice", "10.0.0.2");
+        limiter.enforce(RateLimiter.Policy.ORDER, "alice", "10.0.0.2");
+
+        assertThatThrownBy(() -> limiter.enforce(RateLimiter.Policy.ORDER, "alice", "10.0.0.1"))
+                .isInstanceOf(RateLimitExceededException.class);
+        assertThatCode(() -> {
+            limiter.enforce(RateLimiter.Policy.ORDER, "bob", "10.0.0.1");
+            limiter.enforce(RateLimiter.Policy.ORDER, "carol", "10.0.0.1");
+        }).doesNotThrowAnyException();
+    }
+}
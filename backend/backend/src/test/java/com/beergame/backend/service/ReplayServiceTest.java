@@ -0,0 +1,173 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.dto.ReplayReportDTO;
+import com.beergame.backend.dto.ReplayReportDTO.Outcome;
+import com.beergame.backend.model.Game;
+import com.beergame.backend.model.GameCommand;
+import com.beergame.backend.model.GameTurn;
+import com.beergame.backend.model.Players;
+import com.beergame.backend.repository.GameCommandRepository;
+import com.beergame.backend.repository.GameTurnRepository;
+import com.beergame.backend.repository.GameTurnRepository.TurnRowView;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplayServiceTest {
+
+    private static final String GAME_ID = "GAME000001";
+
+    private final GameCommandRepository commands = mock(GameCommandRepository.class);
+    private final GameTurnRepository turns = mock(GameTurnRepository.class);
+    private final ReplayService replay = new ReplayService(commands, turns,
+            mock(PlatformTransactionManager.class), Set.of("ops"), 500, 1000);
+
+    private record Row(String getGameId, Players.RoleType getRole, int getWeekDay,
+                       int getOrderPlaced, int getDemandRecieved, int getShipmentSent,
+                       int getShipmentRecieved, int getInventoryAtEndOfWeek, int getBackOrderAtEndOfWeek,
+                       double getWeeklyCost, double getTotalCost) implements TurnRowView {
+
+        static Row of(GameTurn t) {
+            return new Row(GAME_ID, t.getPlayer().getRole(), t.getWeekDay(),
+                    t.getOrderPlaced(), t.getDemandRecieved(), t.getShipmentSent(),
+                    t.getShipmentRecieved(), t.getInventoryAtEndOfWeek(), t.getBackOrderAtEndOfWeek(),
+                    t.getWeeklyCost(), t.getTotalCost());
+        }
+
+        Row withTotalCost(double totalCost) {
+            return new Row(getGameId, getRole, getWeekDay, getOrderPlaced, getDemandRecieved, getShipmentSent,
+                    getShipmentRecieved, getInventoryAtEndOfWeek, getBackOrderAtEndOfWeek, getWeeklyCost, totalCost);
+        }
+    }
+
+    private final List<GameCommand> log = new ArrayList<>();
+
+    private void record(GameCommand.Type type, int week, String user, Players.RoleType role, Integer amount,
+                        String detail) {
+        GameCommand c = new GameCommand();
+        c.setId((long) log.size() + 1);
+        c.setGameId(GAME_ID);
+        c.setType(type);
+        c.setWeek(week);
+        c.setUserName(user);
+        c.setRole(role);
+        c.setAmount(amount);
+        c.setDetail(detail);
+        c.setRecordedAt(log.size());
+        log.add(c);
+    }
+
+    /** Records a game of {@code weeks} weeks and returns the rows the live path would have stored. */
+    private List<TurnRowView> playGame(int weeks) {
+        record(GameCommand.Type.GAME_CREATED, 1, null, null, null, "7,12");
+        Game live = new Game();
+        live.setId(GAME_ID);
+        live.setCurrentWeek(1);
+        live.getFestiveWeeks().addAll(Set.of(7, 12));
+        for (Players.RoleType role : Players.RoleType.values()) {
+            record(GameCommand.Type.PLAYER_JOINED, 1, role.name(), role, null, null);
+            Players p = new Players();
+            p.setUserName(role.name());
+            p.setRole(role);
+            TurnEngine.seat(p, live);
+            live.getPlayers().add(p);
+        }
+        List<TurnRowView> rows = new ArrayList<>();
+        for (int week = 1; week <= weeks; week++) {
+            for (Players p : live.getPlayers()) {
+                int amount = 10 + week * (p.getRole().ordinal() + 1);
+                record(GameCommand.Type.ORDER, week, p.getUserName(), p.getRole(), amount, null);
+                p.setCurrentOrder(amount);
+            }
+            record(GameCommand.Type.TURN, week, null, null, null, null);
+            TurnEngine.applyWeek(live).forEach(t -> rows.add(Row.of(t)));
+        }
+        return rows;
+    }
+
+    private ReplayReportDTO replayWith(List<TurnRowView> rows) {
+        when(commands.findByGameIdIn(anyCollection())).thenReturn(log);
+        when(turns.findTurnRowsByGameIdIn(anyCollection())).thenReturn(rows);
+        return replay.replayGame(GAME_ID);
+    }
+
+    @Test
+    void identicalGameMatches() {
+        List<TurnRowView> rows = playGame(5);
+
+        ReplayReportDTO report = replayWith(rows);
+
+        assertThat(report.gamesMatched()).isEqualTo(1);
+        assertThat(report.games()).singleElement().satisfies(g -> {
+            assertThat(g.outcome()).isEqualTo(Outcome.MATCHED);
+            assertThat(g.weeksReplayed()).isEqualTo(5);
+        });
+    }
+
+    @Test
+    void changedValueIsReportedAsMismatch() {
+        List<TurnRowView> rows = playGame(3);
+        Row tampered = (Row) rows.get(5);
+        rows.set(5, tampered.withTotalCost(tampered.getTotalCost() + 1));
+
+        ReplayReportDTO report = replayWith(rows);
+
+        assertThat(report.gamesDiverged()).isEqualTo(1);
+        assertThat(report.games().get(0).mismatches()).singleElement().satisfies(m -> {
+            assertThat(m.week()).isEqualTo(tampered.getWeekDay());
+            assertThat(m.role()).isEqualTo(tampered.getRole().name());
+            assertThat(m.field()).isEqualTo("totalCost");
+        });
+    }
+
+    @Test
+    void persistedWeekMissingFromTheLogDiverges() {
+        List<TurnRowView> rows = playGame(2);
+        log.removeIf(c -> c.getWeek() == 2 && c.getType() == GameCommand.Type.TURN);
+
+        ReplayReportDTO report = replayWith(rows);
+
+        assertThat(report.games().get(0).mismatches())
+                .extracting(ReplayReportDTO.Mismatch::field, ReplayReportDTO.Mismatch::actual)
+                .hasSize(4)
+                .containsOnly(tuple("turn", "missing"));
+    }
+
+    @Test
+    void orderFromUnseatedPlayerDiverges() {
+        playGame(1);
+        record(GameCommand.Type.ORDER, 2, "stranger", Players.RoleType.RETAILER, 5, null);
+
+        ReplayReportDTO report = replayWith(List.of());
+
+        assertThat(report.games().get(0).outcome()).isEqualTo(Outcome.DIVERGED);
+        assertThat(report.games().get(0).message()).contains("stranger");
+    }
+
+    @Test
+    void gameWithoutCreationRecordIsSkipped() {
+        playGame(1);
+        log.remove(0);
+
+        ReplayReportDTO report = replayWith(List.of());
+
+        assertThat(report.gamesSkipped()).isEqualTo(1);
+        assertThat(report.gamesReplayed()).isZero();
+    }
+
+    @Test
+    void recentLimitIsValidated() {
+        assertThatThrownBy(() -> replay.replayRecent(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> replay.replayRecent(1001)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,51 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.dto.GameStateDTO;
+import com.beergame.backend.dto.StateInvalidationDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StateCacheServiceTest {
+
+    @SuppressWarnings("unchecked")
+    private final RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+    private final ReadModelService readModelService = mock(ReadModelService.class);
+    private final StateCacheService cache = new StateCacheService(readModelService, redisTemplate, 100, 60);
+
+    private static ReadModelService.GameSnapshot snapshot(long version, int week) {
+        return new ReadModelService.GameSnapshot(version,
+                new GameStateDTO("G1", week, null, List.of(), false, List.of()));
+    }
+
+    @Test
+    void peerNoticeWithSameVersionStillEvicts() {
+        // An order changes PlayerState but leaves Game @Version at 3.
+        when(readModelService.findGameSnapshot("G1"))
+                .thenReturn(Optional.of(snapshot(3, 1)))
+                .thenReturn(Optional.of(snapshot(3, 2)));
+        cache.getGameState("G1");
+
+        cache.onInvalidation(new StateInvalidationDTO(StateInvalidationDTO.Kind.GAME, "G1", 3L, "other-node"));
+
+        assertThat(cache.peekGameState("G1")).isEmpty();
+        assertThat(cache.getGameState("G1").currentWeek()).isEqualTo(2);
+    }
+
+    @Test
+    void ownNoticesAreIgnored() {
+        when(readModelService.findGameSnapshot("G1")).thenReturn(Optional.of(snapshot(3, 1)));
+        cache.getGameState("G1");
+
+        cache.onInvalidation(new StateInvalidationDTO(
+                StateInvalidationDTO.Kind.GAME, "G1", null, StateCacheService.nodeId()));
+
+        assertThat(cache.peekGameState("G1")).isPresent();
+    }
+}
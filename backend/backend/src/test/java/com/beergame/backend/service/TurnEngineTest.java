@@ -0,0 +1,148 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.config.GameConfig;
+import com.beergame.backend.model.Game;
+import com.beergame.backend.model.GameTurn;
+import com.beergame.backend.model.Players;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TurnEngineTest {
+
+    private static Game game(Set<Integer> festiveWeeks) {
+        Game game = new Game();
+        game.setId("GAME000001");
+        game.setCurrentWeek(1);
+        game.setGameStatus(Game.GameStatus.IN_PROGRESS);
+        game.getFestiveWeeks().addAll(festiveWeeks);
+        for (Players.RoleType role : Players.RoleType.values()) {
+            Players p = new Players();
+            p.setUserName(role.name().toLowerCase());
+            p.setRole(role);
+            TurnEngine.seat(p, game);
+            p.setGame(game);
+            game.getPlayers().add(p);
+        }
+        return game;
+    }
+
+    private static Players player(Game game, Players.RoleType role) {
+        return game.getPlayers().stream().filter(p -> p.getRole() == role).findFirst().orElseThrow();
+    }
+
+    private static void orderAll(Game game, int amount) {
+        game.getPlayers().forEach(p -> {
+            p.setCurrentOrder(amount);
+            p.setReadyForOrder(true);
+        });
+    }
+
+    @Test
+    void seatGivesStartingInventoryAndPipeline() {
+        Game game = game(Set.of());
+        Players retailer = player(game, Players.RoleType.RETAILER);
+        Players factory  = player(game, Players.RoleType.MANUFACTURER);
+
+        assertThat(retailer.getInventory()).isEqualTo(GameConfig.INITIAL_INVENTORY);
+        assertThat(retailer.getOrderArrivingNextWeek()).isEqualTo(GameConfig.getCustomerDemand(1, Set.of()));
+        assertThat(factory.getOrderArrivingNextWeek()).isEqualTo(GameConfig.INITIAL_PIPELINE_LEVEL);
+        assertThat(factory.getIncomingShipment()).isEqualTo(GameConfig.INITIAL_PIPELINE_LEVEL);
+    }
+
+    @Test
+    void steadyWeekShipsDemandAndChargesHolding() {
+        Game game = game(Set.of());
+        orderAll(game, 20);
+
+        List<GameTurn> turns = TurnEngine.applyWeek(game);
+
+        assertThat(turns).hasSize(4).allSatisfy(t -> {
+            assertThat(t.getWeekDay()).isEqualTo(1);
+            assertThat(t.getDemandRecieved()).isEqualTo(20);
+            assertThat(t.getShipmentSent()).isEqualTo(20);
+            assertThat(t.getInventoryAtEndOfWeek()).isEqualTo(150);
+            assertThat(t.getBackOrderAtEndOfWeek()).isZero();
+            assertThat(t.getWeeklyCost()).isEqualTo(150 * GameConfig.INVENTORY_HOLDING_COST);
+        });
+        assertThat(game.getCurrentWeek()).isEqualTo(2);
+        assertThat(game.getPlayers()).noneMatch(Players::isReadyForOrder);
+    }
+
+    @Test
+    void ordersMoveOneTierUpstream() {
+        Game game = game(Set.of());
+        orderAll(game, 20);
+        player(game, Players.RoleType.RETAILER).setCurrentOrder(35);
+        player(game, Players.RoleType.MANUFACTURER).setCurrentOrder(50);
+
+        TurnEngine.applyWeek(game);
+
+        assertThat(player(game, Players.RoleType.WHOLESALER).getOrderArrivingNextWeek()).isEqualTo(35);
+        assertThat(player(game, Players.RoleType.MANUFACTURER).getShipmentArrivingWeekAfterNext()).isEqualTo(50);
+        assertThat(player(game, Players.RoleType.RETAILER).getShipmentArrivingWeekAfterNext())
+                .isEqualTo(player(game, Players.RoleType.WHOLESALER).getOutgoingDelivery());
+    }
+
+    @Test
+    void shortfallBecomesBackorderAndCostsMore() {
+        Game game = game(Set.of());
+        orderAll(game, 20);
+        Players retailer = player(game, Players.RoleType.RETAILER);
+        retailer.setInventory(0);
+        retailer.setIncomingShipment(5);
+
+        TurnEngine.applyWeek(game);
+
+        assertThat(retailer.getOutgoingDelivery()).isEqualTo(5);
+        assertThat(retailer.getBackOrder()).isEqualTo(15);
+        assertThat(retailer.getInventory()).isZero();
+        assertThat(retailer.getWeeklyCost()).isEqualTo(15 * GameConfig.BACKORDER_COST);
+    }
+
+    @Test
+    void festiveWeekDoublesRetailerDemand() {
+        Game game = game(Set.of(2));
+        orderAll(game, 20);
+
+        TurnEngine.applyWeek(game);
+        assertThat(game.isFestiveWeek()).isTrue();
+
+        orderAll(game, 20);
+        List<GameTurn> week2 = TurnEngine.applyWeek(game);
+
+        GameTurn retailer = week2.stream()
+                .filter(t -> t.getPlayer().getRole() == Players.RoleType.RETAILER).findFirst().orElseThrow();
+        assertThat(retailer.getDemandRecieved()).isEqualTo(2 * GameConfig.getCustomerDemand(1, Set.of()));
+    }
+
+    @Test
+    void lastWeekFinishesTheGame() {
+        Game game = game(Set.of());
+        game.setCurrentWeek(GameConfig.GAME_WEEKS);
+        orderAll(game, 0);
+
+        TurnEngine.applyWeek(game);
+
+        assertThat(game.getGameStatus()).isEqualTo(Game.GameStatus.FINISHED);
+        assertThat(game.isFestiveWeek()).isFalse();
+    }
+
+    @Test
+    void totalCostAccumulatesAcrossWeeks() {
+        Game game = game(Set.of());
+        double total = 0;
+        for (int week = 1; week <= 3; week++) {
+            orderAll(game, 20);
+            for (GameTurn t : TurnEngine.applyWeek(game)) {
+                if (t.getPlayer().getRole() == Players.RoleType.RETAILER) {
+                    total += t.getWeeklyCost();
+                    assertThat(t.getTotalCost()).isEqualTo(total);
+                }
+            }
+        }
+    }
+}
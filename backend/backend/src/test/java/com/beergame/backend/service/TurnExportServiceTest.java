@@ -0,0 +1,162 @@
+package com.beergame.backend.service;
+
+import com.beergame.backend.model.Players;
+import com.beergame.backend.repository.GameTurnRepository;
+import com.beergame.backend.repository.GameTurnRepository.ExportRowView;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TurnExportServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 9, 1, 0, 0);
+    private static final LocalDateTime TO   = LocalDateTime.of(2026, 10, 1, 0, 0);
+
+    private final GameTurnRepository repository = mock(GameTurnRepository.class);
+    private final TurnExportService export = new TurnExportService(repository,
+            mock(PlatformTransactionManager.class), Set.of("ops"), 3);
+
+    private record Row(String getGameId, String getRoomId, LocalDateTime getCreatedAt, Players.RoleType getRole,
+                       String getUserName, boolean isBot, int getWeekDay, int getOrderPlaced,
+                       int getDemandRecieved, int getShipmentSent, int getShipmentRecieved,
+                       int getInventoryAtEndOfWeek, int getBackOrderAtEndOfWeek,
+                       double getWeeklyCost, double getTotalCost) implements ExportRowView {}
+
+    /** Seven rows: two full row groups of three and one of one, with nulls and negative deltas. */
+    private static List<ExportRowView> rows() {
+        List<ExportRowView> rows = new ArrayList<>();
+        LocalDateTime created = LocalDateTime.of(2026, 9, 14, 10, 30, 15, 123_000_000);
+        for (int week = 1; week <= 7; week++) {
+            rows.add(new Row(week < 5 ? "GAME000001" : "GAME000002", week % 2 == 0 ? null : "ROOM01",
+                    created.plusDays(week / 5), Players.RoleType.values()[week % 4],
+                    week == 3 ? "bob, \"the builder\"" : "alice", week == 6,
+                    week, 40 - week * 7, 20 + week, 18, 20, 150 - week * 30, Math.max(0, week * 30 - 150),
+                    week * 0.75, week * 1.5 + 0.1));
+        }
+        return rows;
+    }
+
+    private byte[] run(TurnExportService.Format format) {
+        when(repository.streamExportRows(any(), any(), any(), any())).thenReturn(rows().stream());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long n = export.export(new TurnExportService.Filter(FROM, TO, null, null), format, out);
+        assertThat(n).isEqualTo(7);
+        return out.toByteArray();
+    }
+
+    @Test
+    void columnarFileDecodesToTheExportedRows() throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(run(TurnExportService.Format.COLUMNAR)));
+
+        assertThat(new String(in.readNBytes(4), StandardCharsets.US_ASCII)).isEqualTo("BGC1");
+        int columns = (int) varint(in);
+        List<String> names = new ArrayList<>();
+        List<Character> types = new ArrayList<>();
+        for (int c = 0; c < columns; c++) {
+            names.add(string(in));
+            types.add((char) in.readUnsignedByte());
+        }
+        assertThat(names).startsWith("gameId", "roomId", "createdAt").endsWith("weeklyCost", "totalCost");
+
+        List<Object[]> decoded = new ArrayList<>();
+        List<Integer> groupSizes = new ArrayList<>();
+        for (int count = (int) varint(in); count > 0; count = (int) varint(in)) {
+            groupSizes.add(count);
+            Object[][] group = new Object[count][columns];
+            for (int c = 0; c < columns; c++) {
+                long length = varint(in);
+                DataInputStream block = new DataInputStream(new ByteArrayInputStream(in.readNBytes((int) length)));
+                decodeColumn(block, types.get(c), group, c);
+                assertThat(block.available()).as("block %s fully consumed", names.get(c)).isZero();
+            }
+            decoded.addAll(List.of(group));
+        }
+        assertThat(in.available()).isZero();
+        assertThat(groupSizes).containsExactly(3, 3, 1);
+
+        List<ExportRowView> expected = rows();
+        assertThat(decoded).hasSize(expected.size());
+        for (int r = 0; r < expected.size(); r++) {
+            ExportRowView e = expected.get(r);
+            assertThat(decoded.get(r)).containsExactly(
+                    e.getGameId(), e.getRoomId(), e.getCreatedAt().toInstant(ZoneOffset.UTC).toEpochMilli(),
+                    e.getRole().name(), e.getUserName(), e.isBot() ? 1L : 0L, (long) e.getWeekDay(),
+                    (long) e.getOrderPlaced(), (long) e.getDemandRecieved(), (long) e.getShipmentSent(),
+                    (long) e.getShipmentRecieved(), (long) e.getInventoryAtEndOfWeek(),
+                    (long) e.getBackOrderAtEndOfWeek(), e.getWeeklyCost(), e.getTotalCost());
+        }
+    }
+
+    @Test
+    void csvHasHeaderQuotingAndMillisecondTimestamps() {
+        String[] lines = new String(run(TurnExportService.Format.CSV), StandardCharsets.UTF_8).split("\r\n");
+
+        assertThat(lines).hasSize(8);
+        assertThat(lines[0]).startsWith("gameId,roomId,createdAt,role,userName,bot,week,");
+        assertThat(lines[1]).startsWith("GAME000001,ROOM01,2026-09-14T10:30:15.123,WHOLESALER,alice,0,1,33,");
+        assertThat(lines[2]).startsWith("GAME000001,,");
+        assertThat(lines[3]).contains(",\"bob, \"\"the builder\"\"\",");
+    }
+
+    @Test
+    void emptyRangeIsRejected() {
+        assertThatThrownBy(() -> new TurnExportService.Filter(TO, FROM, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // ── A minimal BGC1 reader ─────────────────────────────────────────────────
+
+    private static void decodeColumn(DataInputStream in, char type, Object[][] group, int c) throws IOException {
+        switch (type) {
+            case 'S' -> {
+                List<String> dict = new ArrayList<>();
+                for (long n = varint(in); n > 0; n--) dict.add(string(in));
+                for (Object[] row : group) {
+                    int index = (int) varint(in);
+                    row[c] = index == 0 ? null : dict.get(index - 1);
+                }
+            }
+            case 'L', 'T' -> {
+                long previous = 0;
+                for (Object[] row : group) {
+                    long zigzag = varint(in);
+                    previous += (zigzag >>> 1) ^ -(zigzag & 1);
+                    row[c] = previous;
+                }
+            }
+            case 'D' -> {
+                for (Object[] row : group) row[c] = in.readDouble();
+            }
+            default -> throw new IllegalStateException("Unknown column type " + type);
+        }
+    }
+
+    private static String string(DataInputStream in) throws IOException {
+        return new String(in.readNBytes((int) varint(in)), StandardCharsets.UTF_8);
+    }
+
+    private static long varint(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+    }
+}
@@ -0,0 +1,3 @@
+-- The backend maps every table into this schema (hibernate.default_schema);
+-- ddl-auto=update creates the tables themselves on first start.
+CREATE SCHEMA IF NOT EXISTS beergame_schema;
@@ -0,0 +1,110 @@
+package com.beergame.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * REST calls a player makes before it starts playing: account, game / room.
+ *
+ * One shared HttpClient on virtual threads; every call is blocking, which is
+ * cheap on a virtual thread. Non-2xx answers throw {@link HttpFailure} and
+ * are counted as "http" errors by the caller.
+ */
+final class BackendClient {
+
+    private final URI baseUrl;
+    private final ObjectMapper mapper;
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    BackendClient(URI baseUrl, ObjectMapper mapper) {
+        this.baseUrl = baseUrl;
+        this.mapper = mapper;
+    }
+
+    static final class HttpFailure extends RuntimeException {
+        final int status;
+
+        HttpFailure(String path, int status, String body) {
+            super(path + " -> HTTP " + status + ": " + body);
+            this.status = status;
+        }
+    }
+
+    // ── Accounts ──────────────────────────────────────────────────────────────
+
+    /**
+     * Logs in, registering the account first if it does not exist yet.
+     * /auth/verify completes a registration directly, so no mailbox is needed.
+     *
+     * @return the JWT
+     */
+    String loginOrRegister(String username, String password) {
+        Map<String, String> body = Map.of(
+                "username", username,
+                "email", username + "@loadtest.invalid",
+                "password", password);
+        try {
+            return post("/auth/login", null, body).get("token").asText();
+        } catch (HttpFailure e) {
+            if (e.status != 401 && e.status != 403 && e.status != 404) throw e;
+        }
+        return post("/auth/verify", null, body).get("token").asText();
+    }
+
+    // ── Games ─────────────────────────────────────────────────────────────────
+
+    /** @return the new game's state (creator already joined as {@code role}) */
+    JsonNode createGame(String token, String role) {
+        return post("/api/game/create", token, Map.of("role", role));
+    }
+
+    JsonNode joinGame(String token, String gameId, String role) {
+        return post("/api/game/" + gameId + "/join", token, Map.of("role", role));
+    }
+
+    // ── Rooms ─────────────────────────────────────────────────────────────────
+
+    JsonNode createRoom(String token) {
+        return post("/api/room/create", token, Map.of());
+    }
+
+    JsonNode joinRoom(String token, String roomId, String teamName, String role) {
+        return post("/api/room/" + roomId + "/join", token, Map.of("teamName", teamName, "role", role));
+    }
+
+    // ── Internals ─────────────────────────────────────────────────────────────
+
+    private JsonNode post(String path, String token, Object body) {
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder(baseUrl.resolve(path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body)));
+            if (token != null) {
+                request.header("Authorization", "Bearer " + token);
+            }
+            HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 != 2) {
+                throw new HttpFailure(path, response.statusCode(), response.body());
+            }
+            return mapper.readTree(response.body());
+        } catch (IOException e) {
+            throw new HttpFailure(path, -1, e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HttpFailure(path, -1, "interrupted");
+        }
+    }
+}
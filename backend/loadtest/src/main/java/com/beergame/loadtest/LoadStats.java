@@ -0,0 +1,126 @@
+package com.beergame.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms shared by every virtual player.
+ *
+ * Latencies go into HdrHistogram Recorders (lock-free on the recording side),
+ * in microseconds:
+ *   broadcast  order sent → first /topic/game frame that reflects it
+ *   ack        order sent → OrderAckDTO on /user/queue/acks
+ * Each report takes the interval histogram and folds it into the totals.
+ */
+final class LoadStats {
+
+    private static final long MAX_LATENCY_US = TimeUnit.MINUTES.toMicros(5);
+
+    private final Recorder broadcastRecorder = new Recorder(MAX_LATENCY_US, 3);
+    private final Recorder ackRecorder       = new Recorder(MAX_LATENCY_US, 3);
+    private final Histogram broadcastTotal   = new Histogram(MAX_LATENCY_US, 3);
+    private final Histogram ackTotal         = new Histogram(MAX_LATENCY_US, 3);
+    private Histogram broadcastInterval;
+    private Histogram ackInterval;
+
+    final AtomicInteger connected  = new AtomicInteger();
+    final AtomicInteger playing    = new AtomicInteger();
+    final LongAdder ordersSent      = new LongAdder();
+    final LongAdder framesReceived  = new LongAdder();
+    final LongAdder playersFinished = new LongAdder();
+
+    /** error kind → count (http, connect, stomp, unconfirmed, idle, rejected…). */
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> acks   = new ConcurrentHashMap<>();
+
+    private final long startedAt = System.nanoTime();
+    private long lastReportAt = startedAt;
+    private long lastOrders;
+
+    void broadcastLatency(long nanos) {
+        broadcastRecorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), MAX_LATENCY_US));
+    }
+
+    void ackLatency(long nanos, String status) {
+        ackRecorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), MAX_LATENCY_US));
+        acks.computeIfAbsent(status, k -> new LongAdder()).increment();
+        if ("REJECTED".equals(status)) error("rejected");
+    }
+
+    void error(String kind) {
+        errors.computeIfAbsent(kind, k -> new LongAdder()).increment();
+    }
+
+    long errorCount() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    double errorRate() {
+        long orders = ordersSent.sum();
+        return orders == 0 ? (errorCount() > 0 ? 1.0 : 0.0) : (double) errorCount() / orders;
+    }
+
+    // ── Reporting ─────────────────────────────────────────────────────────────
+
+    synchronized void printProgress(PrintStream out) {
+        long now = System.nanoTime();
+        broadcastInterval = broadcastRecorder.getIntervalHistogram(broadcastInterval);
+        ackInterval = ackRecorder.getIntervalHistogram(ackInterval);
+        broadcastTotal.add(broadcastInterval);
+        ackTotal.add(ackInterval);
+
+        long orders = ordersSent.sum();
+        double seconds = Math.max(1e-9, (now - lastReportAt) / 1e9);
+        out.printf("[%5ds] connected=%d playing=%d orders=%d (%.1f/s) frames=%d done=%d errors=%d"
+                        + " | broadcast p50=%s p99=%s | ack p50=%s p99=%s%n",
+                TimeUnit.NANOSECONDS.toSeconds(now - startedAt), connected.get(), playing.get(),
+                orders, (orders - lastOrders) / seconds, framesReceived.sum(), playersFinished.sum(), errorCount(),
+                ms(broadcastInterval, 50), ms(broadcastInterval, 99), ms(ackInterval, 50), ms(ackInterval, 99));
+        lastReportAt = now;
+        lastOrders = orders;
+    }
+
+    synchronized void printSummary(PrintStream out) {
+        printProgress(out);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+        long orders = ordersSent.sum();
+
+        out.println();
+        out.println("=== Load test summary ===");
+        out.printf("elapsed            %ds%n", elapsed.toSeconds());
+        out.printf("orders sent        %d (%.1f/s)%n", orders, orders / Math.max(1.0, elapsed.toMillis() / 1000.0));
+        out.printf("state frames       %d%n", framesReceived.sum());
+        out.printf("players finished   %d%n", playersFinished.sum());
+        out.printf("acks               %s%n", counts(acks));
+        out.printf("errors             %d (%.3f%% of orders) %s%n", errorCount(), errorRate() * 100, counts(errors));
+        out.println();
+        out.println("latency (ms)        p50      p90      p99    p99.9      max    count");
+        row(out, "order->broadcast", broadcastTotal);
+        row(out, "order->ack", ackTotal);
+    }
+
+    private static void row(PrintStream out, String name, Histogram h) {
+        out.printf("%-16s %8s %8s %8s %8s %8s %8d%n", name,
+                ms(h, 50), ms(h, 90), ms(h, 99), ms(h, 99.9),
+                String.format("%.1f", h.getMaxValue() / 1000.0), h.getTotalCount());
+    }
+
+    private static String ms(Histogram h, double percentile) {
+        if (h == null || h.getTotalCount() == 0) return "-";
+        return String.format("%.1f", h.getValueAtPercentile(percentile) / 1000.0);
+    }
+
+    private static String counts(Map<String, LongAdder> map) {
+        StringBuilder sb = new StringBuilder("{");
+        map.forEach((k, v) -> sb.append(sb.length() > 1 ? ", " : "").append(k).append('=').append(v.sum()));
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,86 @@
+package com.beergame.loadtest;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command-line options, all in {@code --name=value} form.
+ *
+ * @param baseUrl         backend HTTP base, e.g. http://localhost:8080
+ * @param players         virtual players; rounded down to a multiple of the group size
+ * @param mode            GAME: 4-player games; ROOM: 16-player rooms (4 teams × 4 roles)
+ * @param thinkMin        shortest pause between a week starting and the player's order
+ * @param thinkMax        longest such pause (uniformly random in between)
+ * @param rampUp          groups start evenly spread over this period
+ * @param duration        hard stop; players still in a game are abandoned
+ * @param idleTimeout     a player that sees no state frame for this long gives up
+ * @param reportInterval  progress line period
+ * @param userPrefix      accounts are {prefix}{index}; reused across runs
+ * @param password        password of every generated account
+ * @param maxErrorRate    exit status 1 if errors / orders exceeds this
+ */
+public record LoadTestConfig(
+        URI baseUrl,
+        int players,
+        Mode mode,
+        Duration thinkMin,
+        Duration thinkMax,
+        Duration rampUp,
+        Duration duration,
+        Duration idleTimeout,
+        Duration reportInterval,
+        String userPrefix,
+        String password,
+        double maxErrorRate) {
+
+    public enum Mode {
+        GAME(4),
+        ROOM(16);
+
+        final int groupSize;
+
+        Mode(int groupSize) {
+            this.groupSize = groupSize;
+        }
+    }
+
+    public static LoadTestConfig parse(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            opts.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        Mode mode = Mode.valueOf(opts.getOrDefault("mode", "game").toUpperCase());
+        int requested = Integer.parseInt(opts.getOrDefault("players", "400"));
+        int players = requested / mode.groupSize * mode.groupSize;
+        if (players == 0) {
+            throw new IllegalArgumentException("Need at least " + mode.groupSize + " players for mode " + mode);
+        }
+
+        return new LoadTestConfig(
+                URI.create(opts.getOrDefault("base-url", "http://localhost:8080")),
+                players,
+                mode,
+                Duration.ofMillis(Long.parseLong(opts.getOrDefault("think-min-ms", "500"))),
+                Duration.ofMillis(Long.parseLong(opts.getOrDefault("think-max-ms", "2000"))),
+                Duration.ofSeconds(Long.parseLong(opts.getOrDefault("ramp-up-seconds", "30"))),
+                Duration.ofSeconds(Long.parseLong(opts.getOrDefault("duration-seconds", "900"))),
+                Duration.ofSeconds(Long.parseLong(opts.getOrDefault("idle-timeout-seconds", "120"))),
+                Duration.ofSeconds(Long.parseLong(opts.getOrDefault("report-interval-seconds", "10"))),
+                opts.getOrDefault("user-prefix", "lt"),
+                opts.getOrDefault("password", "loadtest-password"),
+                Double.parseDouble(opts.getOrDefault("max-error-rate", "0.01")));
+    }
+
+    /** ws://…/ws/websocket — the raw WebSocket transport of the SockJS endpoint. */
+    URI webSocketUrl() {
+        String scheme = "https".equals(baseUrl.getScheme()) ? "wss" : "ws";
+        return URI.create(scheme + "://" + baseUrl.getAuthority() + "/ws/websocket");
+    }
+}
@@ -0,0 +1,213 @@
+package com.beergame.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.websocket.ContainerProvider;
+import jakarta.websocket.WebSocketContainer;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load generator: N virtual players against a running backend.
+ *
+ * WHY?
+ * Lock contention, outbox lag, fan-out and STOMP back-pressure only show up
+ * with many concurrent games. This drives the real client path end to end —
+ * /auth login, /api/game or /api/room joins, STOMP orders, /topic broadcasts —
+ * so a change can be measured before it reaches players.
+ *
+ * Players are split into groups (4 per game, or 16 per room); groups start
+ * evenly over the ramp-up, and each player runs on its own virtual thread.
+ * A progress line is printed every report interval and a percentile summary
+ * at the end; the exit status is 1 if the error rate exceeds --max-error-rate.
+ *
+ * Usage (backend from compose.yaml, or any reachable instance):
+ *   java -jar target/loadtest-0.0.1-SNAPSHOT.jar --players=800 --mode=room \
+ *        --think-min-ms=300 --think-max-ms=1500 --ramp-up-seconds=60
+ *
+ * Options: see LoadTestConfig.
+ *
+ * STATUS: not validated. The harness has not completed a full run against
+ * the compose stack yet — only the build and the error path were checked.
+ * Until it has, a bad number may be the harness's fault rather than the
+ * backend's; the run prints a reminder at startup.
+ */
+public final class LoadTestMain {
+
+    private static final String[] ROLES = {"RETAILER", "WHOLESALER", "DISTRIBUTOR", "MANUFACTURER"};
+    private static final String[] TEAMS = {"Team A", "Team B", "Team C", "Team D"};
+    private static final int MAX_PRINTED_ERRORS = 20;
+
+    private final LoadTestConfig config;
+    private final BackendClient backend;
+    private final WebSocketStompClient stompClient;
+    private final LoadStats stats = new LoadStats();
+    private final AtomicInteger printedErrors = new AtomicInteger();
+
+    private LoadTestMain(LoadTestConfig config) {
+        this.config = config;
+        ObjectMapper mapper = new ObjectMapper();
+        this.backend = new BackendClient(config.baseUrl(), mapper);
+        this.stompClient = stompClient(mapper);
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        System.out.println("Load test: " + config);
+        System.out.println("Note: this harness has not been validated by a full run yet; check its own errors first.");
+        LoadTestMain run = new LoadTestMain(config);
+        int status = run.run();
+        System.exit(status);
+    }
+
+    private int run() throws InterruptedException {
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        long period = config.reportInterval().toMillis();
+        reporter.scheduleAtFixedRate(() -> stats.printProgress(System.out), period, period, TimeUnit.MILLISECONDS);
+
+        long deadline = System.nanoTime() + config.duration().toNanos();
+        int groups = config.players() / config.mode().groupSize;
+        long spacingNanos = config.rampUp().toNanos() / groups;
+
+        try (ExecutorService groupThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int g = 0; g < groups; g++) {
+                int group = g;
+                groupThreads.submit(() -> {
+                    sleepNanos(group * spacingNanos);
+                    if (config.mode() == LoadTestConfig.Mode.GAME) {
+                        runGame(group, deadline);
+                    } else {
+                        runRoom(group, deadline);
+                    }
+                    return null;
+                });
+            }
+        }
+
+        reporter.shutdownNow();
+        reporter.awaitTermination(5, TimeUnit.SECONDS);
+        stats.printSummary(System.out);
+        ((ThreadPoolTaskScheduler) stompClient.getTaskScheduler()).shutdown();
+
+        if (stats.errorRate() > config.maxErrorRate()) {
+            System.out.printf("FAILED: error rate %.3f%% exceeds %.3f%%%n",
+                    stats.errorRate() * 100, config.maxErrorRate() * 100);
+            return 1;
+        }
+        return 0;
+    }
+
+    // ───────────────────────────────────────────────────────────────────── //
+    //  Groups
+    // ───────────────────────────────────────────────────────────────────── //
+
+    /** Four players: the first creates the game, the others join, all play. */
+    private void runGame(int group, long deadline) {
+        String creator = username(group, 0);
+        String creatorToken;
+        String gameId;
+        try {
+            creatorToken = backend.loginOrRegister(creator, config.password());
+            gameId = backend.createGame(creatorToken, ROLES[0]).get("gameId").asText();
+        } catch (RuntimeException e) {
+            fail("group " + group, e);
+            return;
+        }
+
+        try (ExecutorService players = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < ROLES.length; i++) {
+                int seat = i;
+                players.submit(() -> guarded(username(group, seat), () -> {
+                    String name = username(group, seat);
+                    String token = seat == 0 ? creatorToken : backend.loginOrRegister(name, config.password());
+                    if (seat > 0) backend.joinGame(token, gameId, ROLES[seat]);
+                    new VirtualPlayer(name, token, config, stompClient, stats).play(gameId, null, deadline);
+                }));
+            }
+        }
+    }
+
+    /** Sixteen players: one room, four teams of four roles; the room starts when full. */
+    private void runRoom(int group, long deadline) {
+        String roomId;
+        try {
+            String token = backend.loginOrRegister(username(group, 0), config.password());
+            roomId = backend.createRoom(token).get("roomId").asText();
+        } catch (RuntimeException e) {
+            fail("group " + group, e);
+            return;
+        }
+
+        try (ExecutorService players = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < LoadTestConfig.Mode.ROOM.groupSize; i++) {
+                int seat = i;
+                players.submit(() -> guarded(username(group, seat), () -> {
+                    String name = username(group, seat);
+                    String token = backend.loginOrRegister(name, config.password());
+                    backend.joinRoom(token, roomId, TEAMS[seat / ROLES.length], ROLES[seat % ROLES.length]);
+                    new VirtualPlayer(name, token, config, stompClient, stats).play(null, roomId, deadline);
+                }));
+            }
+        }
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private interface PlayerTask {
+        void run() throws Exception;
+    }
+
+    private void guarded(String who, PlayerTask task) {
+        try {
+            task.run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            fail(who, e);
+        }
+    }
+
+    private void fail(String who, Exception e) {
+        if (e instanceof BackendClient.HttpFailure) stats.error("http");
+        if (printedErrors.incrementAndGet() <= MAX_PRINTED_ERRORS) {
+            System.err.println(who + ": " + e);
+        }
+    }
+
+    private String username(int group, int seat) {
+        return config.userPrefix() + (group * config.mode().groupSize + seat);
+    }
+
+    private static void sleepNanos(long nanos) throws InterruptedException {
+        if (nanos > 0) TimeUnit.NANOSECONDS.sleep(nanos);
+    }
+
+    private static WebSocketStompClient stompClient(ObjectMapper mapper) {
+        // Game / room states exceed Tomcat's 8 KiB default frame buffer.
+        WebSocketContainer container = ContainerProvider.getWebSocketContainer();
+        container.setDefaultMaxTextMessageBufferSize(256 * 1024);
+        container.setDefaultMaxBinaryMessageBufferSize(256 * 1024);
+
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient(container));
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(mapper);
+        client.setMessageConverter(converter);
+        client.setInboundMessageSizeLimit(256 * 1024);
+
+        // Heart-beats keep idle sessions alive through proxies during think time.
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(4);
+        scheduler.setThreadNamePrefix("stomp-heartbeat-");
+        scheduler.setDaemon(true);
+        scheduler.initialize();
+        client.setTaskScheduler(scheduler);
+        return client;
+    }
+}
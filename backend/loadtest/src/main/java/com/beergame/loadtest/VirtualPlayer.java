@@ -0,0 +1,251 @@
+package com.beergame.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * One simulated player, driven by its own virtual thread.
+ *
+ * Connects over STOMP with its JWT, subscribes to its game topic (in a room:
+ * to the room topic first, until the room assigns it a game) and to
+ * /user/queue/acks, then plays like the browser does: whenever a week starts
+ * and it has not ordered yet, it "thinks" for a random pause and sends one
+ * order carrying (week, clientSeq).
+ *
+ * Latency is measured on the STOMP callback thread, not the player thread,
+ * so think time never inflates it:
+ *   broadcast  until the first game frame that shows the order — this player
+ *              ready for that week, or a later week;
+ *   ack        until the OrderAckDTO with the same clientSeq.
+ */
+final class VirtualPlayer {
+
+    private final String username;
+    private final String token;
+    private final LoadTestConfig config;
+    private final WebSocketStompClient stompClient;
+    private final LoadStats stats;
+
+    /** Game states in arrival order; the player thread only acts on the newest. */
+    private final BlockingQueue<JsonNode> states = new LinkedBlockingQueue<>();
+    private final AtomicReference<Pending> pending = new AtomicReference<>();
+    private final Map<Long, Long> ackPending = new ConcurrentHashMap<>();
+    private final AtomicBoolean gameSubscribed = new AtomicBoolean();
+
+    private volatile String gameId;
+    private StompSession session;
+    private long clientSeq;
+
+    private record Pending(int week, long sentAt) {}
+
+    VirtualPlayer(String username, String token, LoadTestConfig config,
+                  WebSocketStompClient stompClient, LoadStats stats) {
+        this.username = username;
+        this.token = token;
+        this.config = config;
+        this.stompClient = stompClient;
+        this.stats = stats;
+    }
+
+    /**
+     * Plays until the game finishes, the deadline passes or the server goes
+     * quiet for longer than the idle timeout.
+     *
+     * @param gameId game to play (GAME mode), or null when {@code roomId} is set
+     * @param roomId room to play in (ROOM mode), or null
+     */
+    void play(String gameId, String roomId, long deadlineNanos) throws Exception {
+        this.gameId = gameId;
+        connect();
+        stats.playing.incrementAndGet();
+        try {
+            session.subscribe("/user/queue/acks", new JsonFrames(this::onAck));
+            if (roomId != null) {
+                session.subscribe("/topic/room/" + roomId, new JsonFrames(this::onRoomState));
+            } else {
+                subscribeGame(gameId);
+            }
+            loop(roomId, deadlineNanos);
+        } finally {
+            stats.playing.decrementAndGet();
+            if (pending.get() != null) stats.error("unconfirmed");
+            if (session.isConnected()) session.disconnect();
+            stats.connected.decrementAndGet();
+        }
+    }
+
+    // ── Player thread ─────────────────────────────────────────────────────────
+
+    private void loop(String roomId, long deadlineNanos) throws InterruptedException {
+        int lastOrderedWeek = 0;
+        long idleNanos = config.idleTimeout().toNanos();
+
+        while (true) {
+            long remaining = deadlineNanos - System.nanoTime();
+            if (remaining <= 0) return;
+
+            JsonNode state = states.poll(Math.min(remaining, idleNanos), TimeUnit.NANOSECONDS);
+            if (state == null) {
+                if (System.nanoTime() < deadlineNanos) stats.error("idle");
+                return;
+            }
+            for (JsonNode newer; (newer = states.poll()) != null; ) {
+                state = newer;
+            }
+
+            String status = state.path("gameStatus").asText();
+            if ("FINISHED".equals(status)) {
+                stats.playersFinished.increment();
+                return;
+            }
+
+            int week = state.path("currentWeek").asInt();
+            JsonNode me = self(state);
+            if ("IN_PROGRESS".equals(status) && week > lastOrderedWeek
+                    && me != null && !me.path("readyForNextTurn").asBoolean()) {
+                think();
+                order(roomId, week);
+                lastOrderedWeek = week;
+            }
+        }
+    }
+
+    private void order(String roomId, int week) {
+        long seq = ++clientSeq;
+        long now = System.nanoTime();
+        if (pending.getAndSet(new Pending(week, now)) != null) {
+            stats.error("unconfirmed");
+        }
+        ackPending.put(seq, now);
+
+        String destination = roomId != null
+                ? "/app/room/" + roomId + "/placeOrder"
+                : "/app/game/" + gameId + "/placeOrder";
+        int amount = ThreadLocalRandom.current().nextInt(2, 13);
+        session.send(destination, Map.of("orderAmount", amount, "week", week, "clientSeq", seq));
+        stats.ordersSent.increment();
+    }
+
+    private void think() throws InterruptedException {
+        long min = config.thinkMin().toMillis();
+        long max = Math.max(min, config.thinkMax().toMillis());
+        Thread.sleep(min == max ? min : ThreadLocalRandom.current().nextLong(min, max + 1));
+    }
+
+    // ── STOMP callbacks ───────────────────────────────────────────────────────
+
+    private void onGameState(JsonNode state) {
+        stats.framesReceived.increment();
+        Pending p = pending.get();
+        if (p != null && reflects(state, p.week()) && pending.compareAndSet(p, null)) {
+            stats.broadcastLatency(System.nanoTime() - p.sentAt());
+        }
+        states.offer(state);
+    }
+
+    /** Room frames only tell us which game the room assigned this player to. */
+    private void onRoomState(JsonNode room) {
+        for (JsonNode team : room.path("teams")) {
+            for (JsonNode member : team.path("members")) {
+                if (username.equals(member.path("username").asText())
+                        && member.hasNonNull("gameId") && !member.path("gameId").asText().isEmpty()) {
+                    subscribeGame(member.path("gameId").asText());
+                    return;
+                }
+            }
+        }
+    }
+
+    private void onAck(JsonNode ack) {
+        Long sentAt = ackPending.remove(ack.path("clientSeq").asLong());
+        if (sentAt != null) {
+            stats.ackLatency(System.nanoTime() - sentAt, ack.path("status").asText());
+        }
+    }
+
+    private void subscribeGame(String id) {
+        if (gameSubscribed.compareAndSet(false, true)) {
+            gameId = id;
+            session.subscribe("/topic/game/" + id, new JsonFrames(this::onGameState));
+        }
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private void connect() throws Exception {
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + token);
+        try {
+            session = stompClient.connectAsync(config.webSocketUrl(), new WebSocketHttpHeaders(),
+                            connectHeaders, new SessionErrors())
+                    .get(30, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            stats.error("connect");
+            throw e;
+        }
+        stats.connected.incrementAndGet();
+    }
+
+    private JsonNode self(JsonNode state) {
+        for (JsonNode p : state.path("players")) {
+            if (username.equals(p.path("userName").asText())) return p;
+        }
+        return null;
+    }
+
+    private boolean reflects(JsonNode state, int week) {
+        int current = state.path("currentWeek").asInt();
+        if (current > week || "FINISHED".equals(state.path("gameStatus").asText())) return true;
+        JsonNode me = self(state);
+        return current == week && me != null && me.path("readyForNextTurn").asBoolean();
+    }
+
+    private final class SessionErrors extends StompSessionHandlerAdapter {
+        @Override
+        public void handleException(@NonNull StompSession s, StompCommand command, @NonNull StompHeaders headers,
+                                    @NonNull byte[] payload, @NonNull Throwable exception) {
+            stats.error("stomp");
+        }
+
+        @Override
+        public void handleTransportError(@NonNull StompSession s, @NonNull Throwable exception) {
+            stats.error("transport");
+        }
+
+        @Override
+        public void handleFrame(@NonNull StompHeaders headers, Object payload) {
+            // ERROR frame from the broker
+            stats.error("stomp");
+        }
+    }
+
+    private record JsonFrames(Consumer<JsonNode> consumer) implements StompFrameHandler {
+        @Override
+        public @NonNull Type getPayloadType(@NonNull StompHeaders headers) {
+            return JsonNode.class;
+        }
+
+        @Override
+        public void handleFrame(@NonNull StompHeaders headers, Object payload) {
+            consumer.accept((JsonNode) payload);
+        }
+    }
+}